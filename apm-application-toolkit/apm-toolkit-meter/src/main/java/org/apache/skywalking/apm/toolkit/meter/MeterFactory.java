@@ -64,4 +64,18 @@ public class MeterFactory {
         return new Histogram.Builder(meterId);
     }
 
+    /**
+     * Create a sketch builder by name
+     */
+    public static Sketch.Builder sketch(String name) {
+        return new Sketch.Builder(name);
+    }
+
+    /**
+     * Create a sketch builder by meterId
+     */
+    public static Sketch.Builder sketch(MeterId meterId) {
+        return new Sketch.Builder(meterId);
+    }
+
 }
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.toolkit.meter;
+
+/**
+ * Sketch represents the distribution of data with the relative accuracy guaranteed for every percentile, rather than
+ * the fixed buckets of the {@link Histogram}. The values are collected into the logarithmic buckets, which are aligned
+ * across all instances with the same accuracy, so the backend could merge them and calculate the percentiles.
+ *
+ * The source code of this class doesn't include the implementation, all logic are injected from its activation.
+ */
+public class Sketch extends BaseMeter {
+
+    protected Sketch(MeterId meterId, double relativeAccuracy, double maxValue) {
+        super(meterId);
+    }
+
+    /**
+     * Add value into the sketch, the values less than 1 are counted as 0
+     */
+    public void addValue(double value) {
+    }
+
+    public static class Builder extends BaseBuilder<Builder, Sketch> {
+        private double relativeAccuracy = 0.01;
+        private double maxValue = Integer.MAX_VALUE;
+
+        public Builder(String name) {
+            super(name);
+        }
+
+        public Builder(MeterId meterId) {
+            super(meterId);
+        }
+
+        /**
+         * Set the relative accuracy of the percentiles, default is 0.01
+         */
+        public Builder relativeAccuracy(double relativeAccuracy) {
+            this.relativeAccuracy = relativeAccuracy;
+            return this;
+        }
+
+        /**
+         * Set the max value could be tracked with the relative accuracy, default is {@link Integer#MAX_VALUE}
+         */
+        public Builder maxValue(double maxValue) {
+            this.maxValue = maxValue;
+            return this;
+        }
+
+        @Override
+        protected MeterId.MeterType getType() {
+            return MeterId.MeterType.SKETCH;
+        }
+
+        @Override
+        protected Sketch create() {
+            if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+                throw new IllegalArgumentException("Relative accuracy must be in the range of (0, 1)");
+            }
+            if (maxValue <= 1) {
+                throw new IllegalArgumentException("Max value must be greater than 1");
+            }
+
+            return new Sketch(meterId, relativeAccuracy, maxValue);
+        }
+    }
+
+}
@@ -19,6 +19,7 @@
 package org.apache.skywalking.apm.agent.core.base64;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 /**
  * A wrapper of {@link java.util.Base64} with convenient conversion methods between {@code byte[]} and {@code String}
@@ -26,6 +27,16 @@ import java.nio.charset.StandardCharsets;
 public final class Base64 {
     private static final java.util.Base64.Decoder DECODER = java.util.Base64.getDecoder();
     private static final java.util.Base64.Encoder ENCODER = java.util.Base64.getEncoder();
+    private static final char[] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+    private static final int[] INDEX = new int[128];
+    private static final ThreadLocal<byte[]> DECODE_BUFFER = ThreadLocal.withInitial(() -> new byte[256]);
+
+    static {
+        Arrays.fill(INDEX, -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            INDEX[ALPHABET[i]] = i;
+        }
+    }
 
     private Base64() {
     }
@@ -38,4 +49,99 @@ public final class Base64 {
         return ENCODER.encodeToString(text.getBytes(StandardCharsets.UTF_8));
     }
 
+    /**
+     * Append the Base64 of the UTF-8 bytes of the text to the builder. The ASCII text is encoded without the
+     * intermediate byte array.
+     */
+    public static void encode(String text, StringBuilder out) {
+        final int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(i) >= 0x80) {
+                encode(text.getBytes(StandardCharsets.UTF_8), out);
+                return;
+            }
+        }
+        int i = 0;
+        for (; i + 2 < length; i += 3) {
+            appendQuantum(text.charAt(i) << 16 | text.charAt(i + 1) << 8 | text.charAt(i + 2), 4, out);
+        }
+        if (length - i == 1) {
+            appendQuantum(text.charAt(i) << 16, 2, out);
+        } else if (length - i == 2) {
+            appendQuantum(text.charAt(i) << 16 | text.charAt(i + 1) << 8, 3, out);
+        }
+    }
+
+    private static void encode(byte[] bytes, StringBuilder out) {
+        final int length = bytes.length;
+        int i = 0;
+        for (; i + 2 < length; i += 3) {
+            appendQuantum((bytes[i] & 0xFF) << 16 | (bytes[i + 1] & 0xFF) << 8 | (bytes[i + 2] & 0xFF), 4, out);
+        }
+        if (length - i == 1) {
+            appendQuantum((bytes[i] & 0xFF) << 16, 2, out);
+        } else if (length - i == 2) {
+            appendQuantum((bytes[i] & 0xFF) << 16 | (bytes[i + 1] & 0xFF) << 8, 3, out);
+        }
+    }
+
+    /**
+     * Append the first {@code chars} Base64 chars of the 24 bits, padded by '=' to 4 chars.
+     */
+    private static void appendQuantum(int bits, int chars, StringBuilder out) {
+        out.append(ALPHABET[bits >>> 18 & 0x3F]).append(ALPHABET[bits >>> 12 & 0x3F]);
+        out.append(chars > 2 ? ALPHABET[bits >>> 6 & 0x3F] : '=');
+        out.append(chars > 3 ? ALPHABET[bits & 0x3F] : '=');
+    }
+
+    /**
+     * Decode the Base64 chars between {@code start} (inclusive) and {@code end} (exclusive) of the given string,
+     * without the substring.
+     *
+     * @throws IllegalArgumentException if the chars are not valid Base64.
+     */
+    public static String decode2UTFString(String in, int start, int end) {
+        for (int padding = 0; padding < 2 && end > start && in.charAt(end - 1) == '='; padding++) {
+            end--;
+        }
+        final int length = end - start;
+        if (length % 4 == 1) {
+            throw new IllegalArgumentException("Illegal base64 length " + length);
+        }
+        final int size = length / 4 * 3 + Math.max(length % 4 - 1, 0);
+        byte[] bytes = DECODE_BUFFER.get();
+        if (bytes.length < size) {
+            bytes = new byte[size];
+            DECODE_BUFFER.set(bytes);
+        }
+        int position = 0;
+        int bits = 0;
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            bits = bits << 6 | index(in.charAt(i));
+            if (++count == 4) {
+                bytes[position++] = (byte) (bits >> 16);
+                bytes[position++] = (byte) (bits >> 8);
+                bytes[position++] = (byte) bits;
+                bits = 0;
+                count = 0;
+            }
+        }
+        if (count == 2) {
+            bytes[position++] = (byte) (bits >> 4);
+        } else if (count == 3) {
+            bytes[position++] = (byte) (bits >> 10);
+            bytes[position++] = (byte) (bits >> 2);
+        }
+        return new String(bytes, 0, position, StandardCharsets.UTF_8);
+    }
+
+    private static int index(char c) {
+        final int index = c < 128 ? INDEX[c] : -1;
+        if (index < 0) {
+            throw new IllegalArgumentException("Illegal base64 character " + Integer.toHexString(c));
+        }
+        return index;
+    }
+
 }
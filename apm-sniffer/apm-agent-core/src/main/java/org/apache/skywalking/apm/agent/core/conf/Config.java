@@ -60,6 +60,21 @@ public class Config {
          */
         public static int SAMPLE_N_PER_3_SECS = -1;
 
+        /**
+         * The guaranteed number of the sampled traces of every endpoint in 3 seconds, on top of {@link
+         * #SAMPLE_N_PER_3_SECS}, so the endpoints of low traffic are not starved by the busy ones. The minimum is
+         * doubled for the endpoints which finished error or slow segments in the last 3 seconds, and suspended in the 3
+         * seconds after the segments were abandoned because the report buffer is full. Negative or zero means off, by
+         * default. Only works when {@link #SAMPLE_N_PER_3_SECS} is on.
+         */
+        public static int SAMPLE_MIN_PER_ENDPOINT_PER_3_SECS = -1;
+
+        /**
+         * The segment, the first span of which costs more than this in milliseconds, is slow, and raises the guaranteed
+         * sampling of its endpoint. Negative or zero means off, by default.
+         */
+        public static int SAMPLE_SLOW_THRESHOLD_MILLIS = -1;
+
         /**
          * If the operation name of the first span is included in this set, this segment should be ignored.
          * Multiple values should be separated by `,`.
@@ -96,6 +111,19 @@ public class Config {
          */
         public static ClassCacheMode CLASS_CACHE_MODE = ClassCacheMode.MEMORY;
 
+        /**
+         * If true, SkyWalking agent will persist the classes it doesn't enhance across the JVM restarts, so the next
+         * start skips the type matching of them. The cache is invalidated when the agent, the activated plugins, the
+         * JVM or the application classpath changes.
+         */
+        public static boolean IS_PERSISTENT_CLASS_CACHE = false;
+
+        /**
+         * The directory of the persistent class cache, which could be pre-warmed in a container image, and shared by
+         * the JVMs. Empty means the `/class-cache/persistent` folder in the agent path.
+         */
+        public static String PERSISTENT_CLASS_CACHE_PATH = "";
+
         /**
          * The identifier of the instance
          */
@@ -165,6 +193,12 @@ public class Config {
          * How long grpc client will timeout in sending data to upstream.
          */
         public static int GRPC_UPSTREAM_TIMEOUT = 30;
+        /**
+         * The compression of the trace segments sent to upstream, `gzip` or empty for no compression. The segments of
+         * one batch are sent in one stream, every segment is compressed as a gRPC message, and decoded by the backend
+         * natively.
+         */
+        public static String GRPC_UPSTREAM_COMPRESSION = "";
         /**
          * Get profile task list interval
          */
@@ -205,6 +239,23 @@ public class Config {
          * Snapshot transport to backend buffer size
          */
         public static int SNAPSHOT_TRANSPORT_BUFFER_SIZE = 500;
+
+        /**
+         * Max count of the cached stack element code signatures per profile task
+         */
+        public static int MAX_CODE_SIGNATURE_CACHE_SIZE = 10000;
+
+        /**
+         * If true, dump all the profiling threads through one ThreadMXBean#getThreadInfo call in every dump period,
+         * otherwise dump them one by one.
+         */
+        public static boolean BATCH_DUMP = true;
+
+        /**
+         * The max percentage of the dump period that dumping threads could cost, the dump period is extended when out
+         * of the budget. 0 means never adjust the dump period.
+         */
+        public static int DUMP_COST_BUDGET_PERCENTAGE = 5;
     }
 
     public static class Meter {
@@ -263,6 +314,12 @@ public class Config {
          */
         public static int MAX_HISTORY_FILES = -1;
 
+        /**
+         * The max minutes of writing into the same log file. If the file is older than this, archive the current file
+         * even it is smaller than {@link #MAX_FILE_SIZE}. Negative or zero means off, by default.
+         */
+        public static int ROLLOVER_INTERVAL_MINUTES = -1;
+
         /**
          * The log level. Default is debug.
          */
@@ -24,7 +24,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import org.apache.skywalking.apm.agent.core.base64.Base64;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.tag.StringTag;
@@ -115,9 +114,16 @@ public class CorrelationContext {
             return "";
         }
 
-        return data.entrySet().stream()
-                   .map(entry -> Base64.encode(entry.getKey()) + ":" + Base64.encode(entry.getValue()))
-                   .collect(Collectors.joining(","));
+        final StringBuilder serialized = new StringBuilder();
+        for (Map.Entry<String, String> entry : data.entrySet()) {
+            if (serialized.length() > 0) {
+                serialized.append(',');
+            }
+            Base64.encode(entry.getKey(), serialized);
+            serialized.append(':');
+            Base64.encode(entry.getValue(), serialized);
+        }
+        return serialized.toString();
     }
 
     /**
@@ -128,16 +134,26 @@ public class CorrelationContext {
             return;
         }
 
-        for (String perData : value.split(",")) {
+        int start = 0;
+        while (start <= value.length()) {
+            int end = value.indexOf(',', start);
+            if (end < 0) {
+                end = value.length();
+            }
             // Only data with limited count of elements can be added
             if (data.size() >= Config.Correlation.ELEMENT_MAX_NUMBER) {
                 break;
             }
-            final String[] parts = perData.split(":");
-            if (parts.length != 2) {
-                continue;
+            // Only the key:value data with both parts is valid
+            final int colon = value.indexOf(':', start);
+            if (colon > start && colon < end - 1) {
+                final int nextColon = value.indexOf(':', colon + 1);
+                if (nextColon < 0 || nextColon >= end) {
+                    data.put(
+                        Base64.decode2UTFString(value, start, colon), Base64.decode2UTFString(value, colon + 1, end));
+                }
             }
-            data.put(Base64.decode2UTFString(parts[0]), Base64.decode2UTFString(parts[1]));
+            start = end + 1;
         }
     }
 
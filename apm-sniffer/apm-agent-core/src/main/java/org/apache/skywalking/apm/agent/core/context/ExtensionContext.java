@@ -37,7 +37,7 @@ public class ExtensionContext {
     /**
      * The separator of extendable fields.
      */
-    private static final String SEPARATOR = "-";
+    private static final char SEPARATOR = '-';
     /**
      * The default value of extendable fields.
      */
@@ -60,10 +60,10 @@ public class ExtensionContext {
      * @return the serialization string.
      */
     String serialize() {
-        String res = skipAnalysis ? "1" : "0";
-        res += SEPARATOR;
-        res += Objects.isNull(sendingTimestamp) ? PLACEHOLDER : sendingTimestamp;
-        return res;
+        if (Objects.isNull(sendingTimestamp)) {
+            return skipAnalysis ? "1" + SEPARATOR + PLACEHOLDER : "0" + SEPARATOR + PLACEHOLDER;
+        }
+        return (skipAnalysis ? "1" : "0") + SEPARATOR + sendingTimestamp;
     }
 
     /**
@@ -73,17 +73,14 @@ public class ExtensionContext {
         if (StringUtil.isEmpty(value)) {
             return;
         }
-        String[] extensionParts = value.split(SEPARATOR);
-        String extensionPart;
         // All parts of the extension header are optional.
         // only try to read it when it exist.
-        if (extensionParts.length > 0) {
-            extensionPart = extensionParts[0];
-            this.skipAnalysis = Objects.equals(extensionPart, "1");
-        }
+        int separator = value.indexOf(SEPARATOR);
+        this.skipAnalysis = value.startsWith("1") && (separator < 0 ? value.length() : separator) == 1;
 
-        if (extensionParts.length > 1) {
-            extensionPart = extensionParts[1];
+        if (separator >= 0) {
+            final int end = value.indexOf(SEPARATOR, separator + 1);
+            final String extensionPart = value.substring(separator + 1, end < 0 ? value.length() : end);
             if (StringUtil.isNotBlank(extensionPart)) {
                 try {
                     this.sendingTimestamp = Long.parseLong(extensionPart);
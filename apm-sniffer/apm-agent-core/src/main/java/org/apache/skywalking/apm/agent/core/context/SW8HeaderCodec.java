@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.skywalking.apm.agent.core.base64.Base64;
+
+/**
+ * The codec of the sw8 header value of {@link ContextCarrier}.
+ * <p>
+ * The parent service, instance, endpoint and address repeat in almost every header, so their Base64 forms are cached
+ * in both directions. The header is written into a reusable buffer per thread, and parsed in one pass by the
+ * separators, without split or substring.
+ */
+final class SW8HeaderCodec {
+    private static final char SEPARATOR = '-';
+    private static final int MAX_CACHED_VALUES = 1024;
+    private static final int MAX_BUFFER_CAPACITY = 4096;
+
+    private static final Map<String, String> ENCODED_VALUES = new ConcurrentHashMap<>();
+    private static final DecodedValues DECODED_VALUES = new DecodedValues(MAX_CACHED_VALUES);
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private SW8HeaderCodec() {
+    }
+
+    static String encode(ContextCarrier carrier) {
+        final StringBuilder header = buffer();
+        header.append('1').append(SEPARATOR);
+        Base64.encode(carrier.getTraceId(), header);
+        header.append(SEPARATOR);
+        Base64.encode(carrier.getTraceSegmentId(), header);
+        header.append(SEPARATOR).append(carrier.getSpanId())
+              .append(SEPARATOR).append(encodeRepeated(carrier.getParentService()))
+              .append(SEPARATOR).append(encodeRepeated(carrier.getParentServiceInstance()))
+              .append(SEPARATOR).append(encodeRepeated(carrier.getParentEndpoint()))
+              .append(SEPARATOR).append(encodeRepeated(carrier.getAddressUsedAtClient()));
+        return header.toString();
+    }
+
+    /**
+     * Set the fields of the carrier from the header. The carrier keeps unchanged if the header is malformed.
+     */
+    static void decode(String header, ContextCarrier carrier) {
+        // The first part is the sample flag, always trace if header exists.
+        final int traceIdStart = header.indexOf(SEPARATOR) + 1;
+        final int segmentIdStart = next(header, traceIdStart);
+        final int spanIdStart = next(header, segmentIdStart);
+        final int serviceStart = next(header, spanIdStart);
+        final int instanceStart = next(header, serviceStart);
+        final int endpointStart = next(header, instanceStart);
+        final int addressStart = next(header, endpointStart);
+        if (addressStart == 0) {
+            return;
+        }
+        try {
+            final String traceId = Base64.decode2UTFString(header, traceIdStart, segmentIdStart - 1);
+            final String segmentId = Base64.decode2UTFString(header, segmentIdStart, spanIdStart - 1);
+            final int spanId = parseSpanId(header, spanIdStart, serviceStart - 1);
+            final String service = DECODED_VALUES.decode(header, serviceStart, instanceStart - 1);
+            final String instance = DECODED_VALUES.decode(header, instanceStart, endpointStart - 1);
+            final String endpoint = DECODED_VALUES.decode(header, endpointStart, addressStart - 1);
+            final String address = DECODED_VALUES.decode(header, addressStart, header.length());
+            carrier.setTraceId(traceId);
+            carrier.setTraceSegmentId(segmentId);
+            carrier.setSpanId(spanId);
+            carrier.setParentService(service);
+            carrier.setParentServiceInstance(instance);
+            carrier.setParentEndpoint(endpoint);
+            carrier.setAddressUsedAtClient(address);
+        } catch (IllegalArgumentException ignored) {
+
+        }
+    }
+
+    /**
+     * @return the start of the part after the one starting at the given index, or 0 if there is none.
+     */
+    private static int next(String header, int start) {
+        return start == 0 ? 0 : header.indexOf(SEPARATOR, start) + 1;
+    }
+
+    private static int parseSpanId(String header, int start, int end) {
+        if (start == end) {
+            throw new NumberFormatException("Empty span id");
+        }
+        int spanId = 0;
+        for (int i = start; i < end; i++) {
+            final int digit = header.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || spanId > (Integer.MAX_VALUE - digit) / 10) {
+                throw new NumberFormatException("Illegal span id in " + header);
+            }
+            spanId = spanId * 10 + digit;
+        }
+        return spanId;
+    }
+
+    private static String encodeRepeated(String value) {
+        String encoded = ENCODED_VALUES.get(value);
+        if (encoded == null) {
+            encoded = Base64.encode(value);
+            if (ENCODED_VALUES.size() < MAX_CACHED_VALUES) {
+                ENCODED_VALUES.put(value, encoded);
+            }
+        }
+        return encoded;
+    }
+
+    private static StringBuilder buffer() {
+        StringBuilder buffer = BUFFER.get();
+        if (buffer.capacity() > MAX_BUFFER_CAPACITY) {
+            buffer = new StringBuilder(256);
+            BUFFER.set(buffer);
+        }
+        buffer.setLength(0);
+        return buffer;
+    }
+
+    /**
+     * A direct-mapped cache from the Base64 chars to the decoded values, looked up by the chars in the header
+     * directly. A collision simply replaces the slot.
+     */
+    private static final class DecodedValues {
+        private final Entry[] entries;
+        private final int mask;
+
+        DecodedValues(int size) {
+            this.entries = new Entry[Integer.highestOneBit(size)];
+            this.mask = entries.length - 1;
+        }
+
+        String decode(String header, int start, int end) {
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + header.charAt(i);
+            }
+            final int slot = (hash ^ (hash >>> 16)) & mask;
+            final int length = end - start;
+            final Entry entry = entries[slot];
+            if (entry != null && entry.encoded.length() == length
+                && header.regionMatches(start, entry.encoded, 0, length)) {
+                return entry.decoded;
+            }
+            final String decoded = Base64.decode2UTFString(header, start, end);
+            entries[slot] = new Entry(header.substring(start, end), decoded);
+            return decoded;
+        }
+    }
+
+    private static final class Entry {
+        private final String encoded;
+        private final String decoded;
+
+        private Entry(String encoded, String decoded) {
+            this.encoded = encoded;
+            this.decoded = decoded;
+        }
+    }
+}
@@ -118,7 +118,7 @@ public class TracingContext implements AbstractTracerContext {
      * Initialize all fields with default value.
      */
     TracingContext(String firstOPName, SpanLimitWatcher spanLimitWatcher) {
-        this.segment = new TraceSegment();
+        this.segment = new TraceSegment(firstOPName);
         this.spanIdGenerator = 0;
         isRunningInAsyncMode = false;
         createTime = System.currentTimeMillis();
@@ -128,8 +128,7 @@ public class TracingContext implements AbstractTracerContext {
         if (PROFILE_TASK_EXECUTION_SERVICE == null) {
             PROFILE_TASK_EXECUTION_SERVICE = ServiceManager.INSTANCE.findService(ProfileTaskExecutionService.class);
         }
-        this.profileStatus = PROFILE_TASK_EXECUTION_SERVICE.addProfiling(
-            this, segment.getTraceSegmentId(), firstOPName);
+        this.profileStatus = PROFILE_TASK_EXECUTION_SERVICE.addProfiling(this, firstOPName);
 
         this.correlationContext = new CorrelationContext();
         this.extensionContext = new ExtensionContext();
@@ -419,7 +418,7 @@ public class TracingContext implements AbstractTracerContext {
             return;
         }
 
-        PROFILE_TASK_EXECUTION_SERVICE.profilingRecheck(this, segment.getTraceSegmentId(), operationName);
+        PROFILE_TASK_EXECUTION_SERVICE.profilingRecheck(this, operationName);
     }
 
     /**
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.ids;
+
+/**
+ * A trace or segment id generated by {@link GlobalIdGenerator} in this process. It keeps the thread id and the
+ * timestamp-based sequence as primitives, and only renders the string form, {process id}.{thread id}.{sequence}, when
+ * the id is propagated or reported. Segments which are never sampled or propagated never build that string.
+ */
+public final class GlobalId {
+    private final long threadId;
+    private final long sequence;
+
+    /**
+     * The rendered id. The race between threads is benign, they all render the same immutable string.
+     */
+    private String id;
+
+    GlobalId(long threadId, long sequence) {
+        this.threadId = threadId;
+        this.sequence = sequence;
+    }
+
+    public long getThreadId() {
+        return threadId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public String toString() {
+        String rendered = id;
+        if (rendered == null) {
+            rendered = GlobalIdGenerator.render(threadId, sequence);
+            id = rendered;
+        }
+        return rendered;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof GlobalId)) {
+            return false;
+        }
+        GlobalId that = (GlobalId) o;
+        return threadId == that.threadId && sequence == that.sequence;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(threadId) + Long.hashCode(sequence);
+    }
+}
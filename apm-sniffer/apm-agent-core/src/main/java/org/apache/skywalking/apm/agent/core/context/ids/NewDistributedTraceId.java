@@ -19,10 +19,18 @@
 package org.apache.skywalking.apm.agent.core.context.ids;
 
 /**
- * The <code>NewDistributedTraceId</code> is a {@link DistributedTraceId} with a new generated id.
+ * The <code>NewDistributedTraceId</code> is a {@link DistributedTraceId} with a new generated id. The id is rendered
+ * lazily, as it is usually replaced by a propagated one or dropped along with an unsampled segment.
  */
 public class NewDistributedTraceId extends DistributedTraceId {
+    private final GlobalId globalId;
+
     public NewDistributedTraceId() {
-        super(GlobalIdGenerator.generate());
+        this.globalId = GlobalIdGenerator.generateId();
+    }
+
+    @Override
+    public String getId() {
+        return globalId.toString();
     }
 }
@@ -237,6 +237,18 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
         return componentId;
     }
 
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getEndTime() {
+        return endTime;
+    }
+
+    public boolean isErrorOccurred() {
+        return errorOccurred;
+    }
+
     @Override
     public AbstractTracingSpan setLayer(SpanLayer layer) {
         this.layer = layer;
@@ -20,8 +20,10 @@ package org.apache.skywalking.apm.agent.core.context.trace;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.ListIterator;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.ids.DistributedTraceId;
+import org.apache.skywalking.apm.agent.core.context.ids.GlobalId;
 import org.apache.skywalking.apm.agent.core.context.ids.GlobalIdGenerator;
 import org.apache.skywalking.apm.agent.core.context.ids.NewDistributedTraceId;
 import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
@@ -33,9 +35,9 @@ import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
  */
 public class TraceSegment {
     /**
-     * The id of this trace segment. Every segment has its unique-global-id.
+     * The id of this trace segment. Every segment has its unique-global-id, rendered as string only when required.
      */
-    private String traceSegmentId;
+    private final GlobalId traceSegmentId;
 
     /**
      * The refs of parent trace segments, except the primary one. For most RPC call, {@link #ref} contains only one
@@ -65,11 +67,19 @@ public class TraceSegment {
 
     private final long createTime;
 
+    /**
+     * The operation name when the segment was created and sampled, the first span could be renamed later.
+     */
+    private final String firstOperationName;
+
     /**
      * Create a default/empty trace segment, with current time as start time, and generate a new segment id.
+     *
+     * @param firstOperationName the operation name of the first span when the segment is created.
      */
-    public TraceSegment() {
-        this.traceSegmentId = GlobalIdGenerator.generate();
+    public TraceSegment(String firstOperationName) {
+        this.firstOperationName = firstOperationName;
+        this.traceSegmentId = GlobalIdGenerator.generateId();
         this.spans = new LinkedList<>();
         this.relatedGlobalTraceId = new NewDistributedTraceId();
         this.createTime = System.currentTimeMillis();
@@ -112,7 +122,7 @@ public class TraceSegment {
     }
 
     public String getTraceSegmentId() {
-        return traceSegmentId;
+        return traceSegmentId.toString();
     }
 
     /**
@@ -126,6 +136,43 @@ public class TraceSegment {
         return relatedGlobalTraceId;
     }
 
+    public String getFirstOperationName() {
+        return firstOperationName;
+    }
+
+    /**
+     * @return the first span of this segment, the span id of which is 0, or null if it is not archived.
+     */
+    public AbstractTracingSpan getFirstSpan() {
+        if (spans == null) {
+            return null;
+        }
+        // The first span is the last one to finish, search from the tail.
+        final ListIterator<AbstractTracingSpan> iterator = spans.listIterator(spans.size());
+        while (iterator.hasPrevious()) {
+            final AbstractTracingSpan span = iterator.previous();
+            if (span.getSpanId() == 0) {
+                return span;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return true if error occurred in any span of this segment.
+     */
+    public boolean isError() {
+        if (spans == null) {
+            return false;
+        }
+        for (AbstractTracingSpan span : spans) {
+            if (span.isErrorOccurred()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public boolean isSingleSpanSegment() {
         return this.spans != null && this.spans.size() == 1;
     }
@@ -149,7 +196,7 @@ public class TraceSegment {
         /*
          * Trace Segment
          */
-        traceSegmentBuilder.setTraceSegmentId(this.traceSegmentId);
+        traceSegmentBuilder.setTraceSegmentId(this.traceSegmentId.toString());
         // Don't serialize TraceSegmentReference
 
         // SpanObject
@@ -19,19 +19,25 @@
 package org.apache.skywalking.apm.agent.core.logging.core;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Date;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.Callable;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
 import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.conf.Config;
@@ -39,14 +45,28 @@ import org.apache.skywalking.apm.agent.core.conf.Constants;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 
 /**
- * The <code>FileWriter</code> support async file output, by using a queue as buffer.
+ * The <code>FileWriter</code> support async file output, by using a lock-free ring as buffer. The caller threads never
+ * block, the message is dropped and counted when the ring is full. A single writer thread drains the ring in batches,
+ * encodes them into a reused direct buffer, writes the buffer through the {@link FileChannel}, and rolls the file over
+ * by size or time between the batches.
  */
 public class FileWriter implements IWriter {
+    private static final int RING_CAPACITY = 1024;
+    private static final int BATCH_SIZE = 256;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final long DRAIN_PERIOD_MILLIS = 200;
+
     private static FileWriter INSTANCE;
     private static final Object CREATE_LOCK = new Object();
-    private FileOutputStream fileOutputStream;
-    private ArrayBlockingQueue logBuffer;
-    private volatile int fileSize;
+    private final LogRingBuffer logBuffer;
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                                                                 .onMalformedInput(CodingErrorAction.REPLACE)
+                                                                 .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private FileChannel fileChannel;
+    private long fileSize;
+    private long fileOpenTime;
     private Pattern filenamePattern = Pattern.compile(Config.Logging.FILE_NAME + "\\.\\d{4}_\\d{2}_\\d{2}_\\d{2}_\\d{2}_\\d{2}");
 
     public static FileWriter get() {
@@ -61,80 +81,98 @@ public class FileWriter implements IWriter {
     }
 
     private FileWriter() {
-        logBuffer = new ArrayBlockingQueue(1024);
-        final ArrayList<String> outputLogs = new ArrayList<String>(200);
+        logBuffer = new LogRingBuffer(RING_CAPACITY);
+        final ArrayList<String> outputLogs = new ArrayList<String>(BATCH_SIZE);
         Executors.newSingleThreadScheduledExecutor(new DefaultNamedThreadFactory("LogFileWriter"))
                  .scheduleAtFixedRate(new RunnableWithExceptionProtection(new Runnable() {
                      @Override
                      public void run() {
-                         try {
-                             logBuffer.drainTo(outputLogs);
-                             for (String log : outputLogs) {
-                                 writeToFile(log + Constants.LINE_SEPARATOR);
-                             }
-                             try {
-                                 fileOutputStream.flush();
-                             } catch (IOException e) {
-                                 e.printStackTrace();
-                             }
-                         } finally {
-                             outputLogs.clear();
-                         }
+                         drain(outputLogs);
                      }
                  }, new RunnableWithExceptionProtection.CallbackWhenException() {
                      @Override
                      public void handle(Throwable t) {
                      }
-                 }), 0, 1, TimeUnit.SECONDS);
+                 }), 0, DRAIN_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
     }
 
-    /**
-     * @param message to be written into the file.
-     */
-    private void writeToFile(String message) {
-        if (prepareWriteStream()) {
+    private void drain(ArrayList<String> outputLogs) {
+        final long dropped = droppedCount.getAndSet(0);
+        if (dropped > 0) {
+            outputLogs.add("WARN " + dropped + " agent log messages were dropped, the log buffer was full.");
+        }
+        while (true) {
             try {
-                fileOutputStream.write(message.getBytes());
-                fileSize += message.length();
-            } catch (IOException e) {
-                e.printStackTrace();
+                logBuffer.drainTo(outputLogs, BATCH_SIZE - outputLogs.size());
+                if (outputLogs.isEmpty()) {
+                    return;
+                }
+                writeToFile(outputLogs);
+                if (outputLogs.size() < BATCH_SIZE) {
+                    return;
+                }
             } finally {
-                switchFile();
+                outputLogs.clear();
             }
         }
     }
 
+    /**
+     * @param messages to be written into the file, one line each.
+     */
+    private void writeToFile(ArrayList<String> messages) {
+        if (!prepareWriteStream()) {
+            return;
+        }
+        try {
+            for (String message : messages) {
+                encode(message);
+                encode(Constants.LINE_SEPARATOR);
+            }
+            flushBuffer();
+        } catch (IOException e) {
+            writeBuffer.clear();
+            e.printStackTrace();
+        } finally {
+            encoder.reset();
+            switchFile();
+        }
+    }
+
+    private void encode(String message) throws IOException {
+        final CharBuffer chars = CharBuffer.wrap(message);
+        while (true) {
+            final CoderResult result = encoder.encode(chars, writeBuffer, true);
+            if (result.isOverflow()) {
+                flushBuffer();
+            } else {
+                break;
+            }
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            fileSize += fileChannel.write(writeBuffer);
+        }
+        writeBuffer.clear();
+    }
+
     private void switchFile() {
-        if (fileSize > Config.Logging.MAX_FILE_SIZE) {
-            forceExecute(new Callable() {
-                @Override
-                public Object call() throws Exception {
-                    fileOutputStream.flush();
-                    return null;
-                }
-            });
-            forceExecute(new Callable() {
-                @Override
-                public Object call() throws Exception {
-                    fileOutputStream.close();
-                    return null;
-                }
-            });
-            forceExecute(new Callable() {
-                @Override
-                public Object call() throws Exception {
-                    new File(Config.Logging.DIR, Config.Logging.FILE_NAME).renameTo(new File(Config.Logging.DIR, Config.Logging.FILE_NAME + new SimpleDateFormat(".yyyy_MM_dd_HH_mm_ss")
-                        .format(new Date())));
-                    return null;
-                }
-            });
-            forceExecute(new Callable() {
-                @Override
-                public Object call() throws Exception {
-                    fileOutputStream = null;
-                    return null;
-                }
-            });
+        if (fileSize > Config.Logging.MAX_FILE_SIZE || isRolloverTime()) {
+            try {
+                fileChannel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            fileChannel = null;
+            try {
+                Files.move(
+                    new File(Config.Logging.DIR, Config.Logging.FILE_NAME).toPath(), historyFile().toPath());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
 
             if (Config.Logging.MAX_HISTORY_FILES > 0) {
                 deleteExpiredFiles();
@@ -142,6 +180,25 @@ public class FileWriter implements IWriter {
         }
     }
 
+    private boolean isRolloverTime() {
+        return Config.Logging.ROLLOVER_INTERVAL_MINUTES > 0 && fileSize > 0
+            && System.currentTimeMillis() - fileOpenTime >= TimeUnit.MINUTES.toMillis(
+            Config.Logging.ROLLOVER_INTERVAL_MINUTES);
+    }
+
+    /**
+     * @return the archived file of the current time, the next second is used when the file of this second exists.
+     */
+    private File historyFile() {
+        final SimpleDateFormat format = new SimpleDateFormat(".yyyy_MM_dd_HH_mm_ss");
+        long time = System.currentTimeMillis();
+        File file;
+        while ((file = new File(Config.Logging.DIR, Config.Logging.FILE_NAME + format.format(new Date(time)))).exists()) {
+            time += 1000;
+        }
+        return file;
+    }
+
     /**
      * load history log file name array
      *
@@ -180,19 +237,11 @@ public class FileWriter implements IWriter {
         }
     }
 
-    private void forceExecute(Callable callable) {
-        try {
-            callable.call();
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-    }
-
     /**
      * @return true if stream is prepared ready.
      */
     private boolean prepareWriteStream() {
-        if (fileOutputStream != null) {
+        if (fileChannel != null) {
             return true;
         }
         File logFilePath = new File(Config.Logging.DIR);
@@ -202,22 +251,29 @@ public class FileWriter implements IWriter {
             System.err.println("Log dir(" + Config.Logging.DIR + ") is not a directory.");
         }
         try {
-            fileOutputStream = new FileOutputStream(new File(logFilePath, Config.Logging.FILE_NAME), true);
-            fileSize = Long.valueOf(new File(logFilePath, Config.Logging.FILE_NAME).length()).intValue();
-        } catch (FileNotFoundException e) {
+            fileChannel = FileChannel.open(
+                new File(logFilePath, Config.Logging.FILE_NAME).toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND
+            );
+            fileSize = fileChannel.size();
+            fileOpenTime = System.currentTimeMillis();
+        } catch (IOException e) {
             e.printStackTrace();
         }
 
-        return fileOutputStream != null;
+        return fileChannel != null;
     }
 
     /**
-     * Write log to the queue. W/ performance trade off.
+     * Write log to the ring. The message is dropped and counted when the ring is full, the count is written into the
+     * file by the next drain.
      *
      * @param message to log
      */
     @Override
     public void write(String message) {
-        logBuffer.offer(message);
+        if (!logBuffer.offer(message)) {
+            droppedCount.incrementAndGet();
+        }
     }
 }
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.logging.core;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A lock-free bounded ring of the log messages, for multiple producers and a single consumer. Every slot has a
+ * sequence, which tells whether the slot is free for the producer of the position, or filled for the consumer. The
+ * producers never block, {@link #offer(String)} returns false when the ring is full, and the consumer drains the
+ * messages in the order they were offered.
+ */
+class LogRingBuffer {
+    private final int mask;
+    private final AtomicReferenceArray<String> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    /**
+     * The next position to consume, only accessed by the consumer.
+     */
+    private long head;
+
+    /**
+     * @param capacity the max number of the messages in the ring, rounded up to the power of 2.
+     */
+    LogRingBuffer(int capacity) {
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return false if the ring is full, the message is dropped.
+     */
+    boolean offer(String message) {
+        long position = tail.get();
+        while (true) {
+            final int index = (int) (position & mask);
+            final long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.lazySet(index, message);
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+            position = tail.get();
+        }
+    }
+
+    /**
+     * Move the messages into the given list in the offered order. Only called by the single consumer.
+     *
+     * @return the number of the drained messages.
+     */
+    int drainTo(List<String> messages, int maxMessages) {
+        int drained = 0;
+        while (drained < maxMessages) {
+            final int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            messages.add(slots.get(index));
+            slots.lazySet(index, null);
+            sequences.lazySet(index, head + mask + 1);
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+}
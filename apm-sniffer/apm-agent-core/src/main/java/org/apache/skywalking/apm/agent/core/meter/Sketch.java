@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.meter;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterBucketValue;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterData;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterHistogram;
+
+/**
+ * Sketch represents the distribution of data with the relative accuracy guaranteed for every percentile, rather than
+ * the fixed buckets of the {@link Histogram}. The values are collected into the logarithmic buckets, bucket
+ * {@code i} covers the range (gamma^(i-1), gamma^i] where gamma = (1 + accuracy) / (1 - accuracy), so any value in
+ * the bucket is within the relative accuracy of the bucket representative value 2 * gamma^i / (gamma + 1). The
+ * buckets are aligned across all agents with the same accuracy, so the sketches are merged by adding up the counts of
+ * the same buckets.
+ * <p>
+ * The sketch is designed for the non-negative values, such as latencies and sizes. The values less than 1 are counted
+ * as 0, and the values greater than the max value are counted into the last bucket.
+ * <p>
+ * Different from the {@link Histogram}, the sketch only reports the non-empty buckets of the values collected since
+ * the last report, as the {@link MeterHistogram} keyed by the bucket representative values.
+ */
+public class Sketch extends BaseMeter {
+    /**
+     * The slot of the values less than 1, the other slots are shifted by one.
+     */
+    private static final int ZERO_SLOT = 0;
+
+    private final double logGamma;
+    private final double[] representatives;
+    private final AtomicLongArray counts;
+
+    /**
+     * @param meterId          as the unique id of this meter instance
+     * @param relativeAccuracy the relative accuracy of the percentiles, in the range of (0, 1)
+     * @param maxValue         the max value could be tracked with the relative accuracy, must be greater than 1
+     */
+    public Sketch(MeterId meterId, double relativeAccuracy, double maxValue) {
+        super(meterId);
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("Relative accuracy must be in the range of (0, 1)");
+        }
+        if (maxValue <= 1) {
+            throw new IllegalArgumentException("Max value must be greater than 1");
+        }
+        final double gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+
+        final int slots = (int) Math.ceil(Math.log(maxValue) / logGamma) + 2;
+        this.representatives = new double[slots];
+        for (int slot = ZERO_SLOT + 1; slot < slots; slot++) {
+            representatives[slot] = 2 * Math.pow(gamma, slot - 1) / (gamma + 1);
+        }
+        this.counts = new AtomicLongArray(slots);
+    }
+
+    /**
+     * Add value into the sketch, increase the count of the logarithmic bucket the value belongs to.
+     */
+    public void addValue(double value) {
+        counts.incrementAndGet(slotOf(value));
+    }
+
+    int slotOf(double value) {
+        if (!(value >= 1)) {
+            return ZERO_SLOT;
+        }
+        final int slot = (int) Math.ceil(Math.log(value) / logGamma) + 1;
+        return Math.min(slot, representatives.length - 1);
+    }
+
+    /**
+     * @return the non-empty buckets since the last report, or null if there is no value collected.
+     */
+    @Override
+    public MeterData.Builder transform() {
+        MeterHistogram.Builder histogram = null;
+        for (int slot = 0; slot < representatives.length; slot++) {
+            if (counts.get(slot) == 0) {
+                continue;
+            }
+            final long count = counts.getAndSet(slot, 0);
+            if (histogram == null) {
+                histogram = MeterHistogram.newBuilder().setName(getName()).addAllLabels(transformTags());
+            }
+            histogram.addValues(MeterBucketValue.newBuilder().setBucket(representatives[slot]).setCount(count));
+        }
+
+        return histogram == null ? null : MeterData.newBuilder().setHistogram(histogram);
+    }
+
+    public static class Builder extends AbstractBuilder<Builder, Sketch> {
+        private double relativeAccuracy = 0.01;
+        private double maxValue = Integer.MAX_VALUE;
+
+        /**
+         * Build a new meter build, meter name is required
+         */
+        public Builder(String name) {
+            super(name);
+        }
+
+        /**
+         * Set the relative accuracy of the percentiles, default is 0.01
+         */
+        public Builder relativeAccuracy(double relativeAccuracy) {
+            this.relativeAccuracy = relativeAccuracy;
+            return this;
+        }
+
+        /**
+         * Set the max value could be tracked with the relative accuracy, default is {@link Integer#MAX_VALUE}
+         */
+        public Builder maxValue(double maxValue) {
+            this.maxValue = maxValue;
+            return this;
+        }
+
+        @Override
+        protected MeterType getType() {
+            return MeterType.SKETCH;
+        }
+
+        @Override
+        protected Sketch create(MeterId meterId) {
+            return new Sketch(meterId, relativeAccuracy, maxValue);
+        }
+    }
+}
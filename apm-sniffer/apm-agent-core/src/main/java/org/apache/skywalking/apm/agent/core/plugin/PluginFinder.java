@@ -19,30 +19,50 @@
 package org.apache.skywalking.apm.agent.core.plugin;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import net.bytebuddy.description.NamedElement;
+import java.util.Set;
+import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.description.type.TypeDefinition;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.matcher.ElementMatcher;
 import org.apache.skywalking.apm.agent.core.plugin.bytebuddy.AbstractJunction;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch;
 import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch;
 import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MultiClassNameMatch;
 import org.apache.skywalking.apm.agent.core.plugin.match.NameMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.PrefixMatch;
 import org.apache.skywalking.apm.agent.core.plugin.match.ProtectiveShieldMatcher;
 
-import static net.bytebuddy.matcher.ElementMatchers.isInterface;
-import static net.bytebuddy.matcher.ElementMatchers.not;
-
 /**
  * The <code>PluginFinder</code> represents a finder , which assist to find the one from the given {@link
  * AbstractClassEnhancePluginDefine} list.
+ * <p>
+ * The common matches are indexed when the finder is created, rather than OR-ing the junctions of all plugins, which
+ * every loaded class has to walk through. {@link NameMatch} and {@link MultiClassNameMatch} are looked up by the class
+ * name, {@link PrefixMatch} by a prefix trie of the class name, {@link ClassAnnotationMatch} by the declared
+ * annotations, and {@link HierarchyMatch} by the super types, which are collected once per class. Only the other
+ * {@link IndirectMatch}es, e.g. regex and logical matches, are still checked one by one.
  */
 public class PluginFinder {
     private final Map<String, LinkedList<AbstractClassEnhancePluginDefine>> nameMatchDefine = new HashMap<String, LinkedList<AbstractClassEnhancePluginDefine>>();
+    private final Map<String, List<AbstractClassEnhancePluginDefine>> multiNameMatchDefine = new HashMap<String, List<AbstractClassEnhancePluginDefine>>();
+    private final PrefixTrie prefixMatchDefine = new PrefixTrie();
+    private final Map<String, List<AbstractClassEnhancePluginDefine>> annotationMatchDefine = new HashMap<String, List<AbstractClassEnhancePluginDefine>>();
+    private final Map<String, List<AbstractClassEnhancePluginDefine>> hierarchyMatchDefine = new HashMap<String, List<AbstractClassEnhancePluginDefine>>();
     private final List<AbstractClassEnhancePluginDefine> signatureMatchDefine = new ArrayList<AbstractClassEnhancePluginDefine>();
     private final List<AbstractClassEnhancePluginDefine> bootstrapClassMatchDefine = new ArrayList<AbstractClassEnhancePluginDefine>();
+    /**
+     * The declaration order of the indirect matched plugins, which is kept in the result of {@link #find}.
+     */
+    private final Map<AbstractClassEnhancePluginDefine, Integer> indirectMatchOrder = new HashMap<AbstractClassEnhancePluginDefine, Integer>();
 
     public PluginFinder(List<AbstractClassEnhancePluginDefine> plugins) {
         for (AbstractClassEnhancePluginDefine plugin : plugins) {
@@ -61,7 +81,23 @@ public class PluginFinder {
                 }
                 pluginDefines.add(plugin);
             } else {
-                signatureMatchDefine.add(plugin);
+                indirectMatchOrder.put(plugin, indirectMatchOrder.size());
+                if (match instanceof MultiClassNameMatch) {
+                    for (String className : ((MultiClassNameMatch) match).getMatchClassNames()) {
+                        index(multiNameMatchDefine, className, plugin);
+                    }
+                } else if (match instanceof PrefixMatch) {
+                    for (String prefix : ((PrefixMatch) match).getPrefixes()) {
+                        prefixMatchDefine.add(prefix, plugin);
+                    }
+                } else if (match instanceof ClassAnnotationMatch) {
+                    // All annotations are required, so indexing by the first one is enough to find the candidates.
+                    index(annotationMatchDefine, ((ClassAnnotationMatch) match).getAnnotations()[0], plugin);
+                } else if (match instanceof HierarchyMatch) {
+                    index(hierarchyMatchDefine, ((HierarchyMatch) match).getParentTypes()[0], plugin);
+                } else {
+                    signatureMatchDefine.add(plugin);
+                }
             }
 
             if (plugin.isBootstrapInstrumentation()) {
@@ -70,6 +106,17 @@ public class PluginFinder {
         }
     }
 
+    private static void index(Map<String, List<AbstractClassEnhancePluginDefine>> index,
+                              String key,
+                              AbstractClassEnhancePluginDefine plugin) {
+        List<AbstractClassEnhancePluginDefine> pluginDefines = index.get(key);
+        if (pluginDefines == null) {
+            pluginDefines = new ArrayList<AbstractClassEnhancePluginDefine>(1);
+            index.put(key, pluginDefines);
+        }
+        pluginDefines.add(plugin);
+    }
+
     public List<AbstractClassEnhancePluginDefine> find(TypeDescription typeDescription) {
         List<AbstractClassEnhancePluginDefine> matchedPlugins = new LinkedList<AbstractClassEnhancePluginDefine>();
         String typeName = typeDescription.getTypeName();
@@ -77,24 +124,60 @@ public class PluginFinder {
             matchedPlugins.addAll(nameMatchDefine.get(typeName));
         }
 
-        for (AbstractClassEnhancePluginDefine pluginDefine : signatureMatchDefine) {
+        List<AbstractClassEnhancePluginDefine> indirectMatched = new ArrayList<AbstractClassEnhancePluginDefine>();
+        List<AbstractClassEnhancePluginDefine> candidates = multiNameMatchDefine.get(typeName);
+        if (candidates != null) {
+            indirectMatched.addAll(candidates);
+        }
+        prefixMatchDefine.collect(typeDescription.getName(), indirectMatched);
+        if (!annotationMatchDefine.isEmpty()) {
+            for (AnnotationDescription annotation : typeDescription.getDeclaredAnnotations()) {
+                addMatched(
+                    annotationMatchDefine.get(annotation.getAnnotationType().getActualName()), typeDescription,
+                    indirectMatched
+                );
+            }
+        }
+        if (!hierarchyMatchDefine.isEmpty()) {
+            for (String superType : superTypes(typeDescription)) {
+                addMatched(hierarchyMatchDefine.get(superType), typeDescription, indirectMatched);
+            }
+        }
+        addMatched(signatureMatchDefine, typeDescription, indirectMatched);
+
+        if (indirectMatched.size() > 1) {
+            Collections.sort(indirectMatched, new Comparator<AbstractClassEnhancePluginDefine>() {
+                @Override
+                public int compare(AbstractClassEnhancePluginDefine o1, AbstractClassEnhancePluginDefine o2) {
+                    return indirectMatchOrder.get(o1).compareTo(indirectMatchOrder.get(o2));
+                }
+            });
+        }
+        matchedPlugins.addAll(indirectMatched);
+        return matchedPlugins;
+    }
+
+    private static void addMatched(List<AbstractClassEnhancePluginDefine> candidates,
+                                   TypeDescription typeDescription,
+                                   List<AbstractClassEnhancePluginDefine> matchedPlugins) {
+        if (candidates == null) {
+            return;
+        }
+        for (AbstractClassEnhancePluginDefine pluginDefine : candidates) {
             IndirectMatch match = (IndirectMatch) pluginDefine.enhanceClass();
             if (match.isMatch(typeDescription)) {
                 matchedPlugins.add(pluginDefine);
             }
         }
-
-        return matchedPlugins;
     }
 
     public ElementMatcher<? super TypeDescription> buildMatch() {
-        ElementMatcher.Junction judge = new AbstractJunction<NamedElement>() {
+        ElementMatcher.Junction judge = new AbstractJunction<TypeDescription>() {
             @Override
-            public boolean matches(NamedElement target) {
-                return nameMatchDefine.containsKey(target.getActualName());
+            public boolean matches(TypeDescription target) {
+                return isIndexedMatch(target);
             }
         };
-        judge = judge.and(not(isInterface()));
         for (AbstractClassEnhancePluginDefine define : signatureMatchDefine) {
             ClassMatch match = define.enhanceClass();
             if (match instanceof IndirectMatch) {
@@ -104,7 +187,132 @@ public class PluginFinder {
         return new ProtectiveShieldMatcher(judge);
     }
 
+    /**
+     * @return true if any indexed plugin matches the given type, following the same conditions as the junctions of
+     * the matches.
+     */
+    private boolean isIndexedMatch(TypeDescription target) {
+        final String typeName = target.getTypeName();
+        if (multiNameMatchDefine.containsKey(typeName) || prefixMatchDefine.matches(target.getName())) {
+            return true;
+        }
+        if (target.isInterface()) {
+            return false;
+        }
+        if (nameMatchDefine.containsKey(typeName)) {
+            return true;
+        }
+        if (!annotationMatchDefine.isEmpty()) {
+            for (AnnotationDescription annotation : target.getDeclaredAnnotations()) {
+                if (anyMatch(annotationMatchDefine.get(annotation.getAnnotationType().getActualName()), target)) {
+                    return true;
+                }
+            }
+        }
+        if (!hierarchyMatchDefine.isEmpty()) {
+            for (String superType : superTypes(target)) {
+                if (anyMatch(hierarchyMatchDefine.get(superType), target)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean anyMatch(List<AbstractClassEnhancePluginDefine> candidates,
+                                    TypeDescription typeDescription) {
+        if (candidates == null) {
+            return false;
+        }
+        for (AbstractClassEnhancePluginDefine pluginDefine : candidates) {
+            if (((IndirectMatch) pluginDefine.enhanceClass()).isMatch(typeDescription)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the names of all super classes and interfaces of the given type, walked once.
+     */
+    private static Set<String> superTypes(TypeDefinition typeDefinition) {
+        Set<String> superTypes = new HashSet<String>();
+        collectSuperTypes(typeDefinition, superTypes);
+        return superTypes;
+    }
+
+    private static void collectSuperTypes(TypeDefinition typeDefinition, Set<String> superTypes) {
+        for (TypeDescription.Generic implInterface : typeDefinition.getInterfaces()) {
+            if (superTypes.add(implInterface.asRawType().getTypeName())) {
+                collectSuperTypes(implInterface, superTypes);
+            }
+        }
+        TypeDescription.Generic superClass = typeDefinition.getSuperClass();
+        if (superClass != null && superTypes.add(superClass.asRawType().getTypeName())) {
+            collectSuperTypes(superClass, superTypes);
+        }
+    }
+
     public List<AbstractClassEnhancePluginDefine> getBootstrapClassMatchDefine() {
         return bootstrapClassMatchDefine;
     }
+
+    /**
+     * The prefixes of {@link PrefixMatch}es in a char trie, so a class name is checked against all of them in one
+     * walk.
+     */
+    private static class PrefixTrie {
+        private final Node root = new Node();
+
+        void add(String prefix, AbstractClassEnhancePluginDefine plugin) {
+            Node node = root;
+            for (int i = 0; i < prefix.length(); i++) {
+                Character c = prefix.charAt(i);
+                Node child = node.children.get(c);
+                if (child == null) {
+                    child = new Node();
+                    node.children.put(c, child);
+                }
+                node = child;
+            }
+            node.plugins.add(plugin);
+        }
+
+        boolean matches(String name) {
+            Node node = root;
+            for (int i = 0; i < name.length() && node != null; i++) {
+                if (!node.plugins.isEmpty()) {
+                    return true;
+                }
+                node = node.children.get(name.charAt(i));
+            }
+            return node != null && !node.plugins.isEmpty();
+        }
+
+        void collect(String name, List<AbstractClassEnhancePluginDefine> matchedPlugins) {
+            Node node = root;
+            for (int i = 0; i < name.length() && node != null; i++) {
+                addAbsent(node.plugins, matchedPlugins);
+                node = node.children.get(name.charAt(i));
+            }
+            if (node != null) {
+                addAbsent(node.plugins, matchedPlugins);
+            }
+        }
+
+        private static void addAbsent(List<AbstractClassEnhancePluginDefine> plugins,
+                                      List<AbstractClassEnhancePluginDefine> matchedPlugins) {
+            for (AbstractClassEnhancePluginDefine plugin : plugins) {
+                // A plugin could declare several prefixes of the same name.
+                if (!matchedPlugins.contains(plugin)) {
+                    matchedPlugins.add(plugin);
+                }
+            }
+        }
+
+        private static class Node {
+            private final Map<Character, Node> children = new HashMap<Character, Node>();
+            private final List<AbstractClassEnhancePluginDefine> plugins = new ArrayList<AbstractClassEnhancePluginDefine>(0);
+        }
+    }
 }
@@ -0,0 +1,416 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.bytebuddy;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.instrument.IllegalClassFormatException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.agent.builder.ResettableClassFileTransformer;
+import net.bytebuddy.utility.JavaModule;
+import net.bytebuddy.utility.RandomString;
+import org.apache.skywalking.apm.agent.core.boot.AgentPackageNotFoundException;
+import org.apache.skywalking.apm.agent.core.boot.AgentPackagePath;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.util.IOUtils;
+
+/**
+ * Wrapper classFileTransformer of ByteBuddy, which persists the classes SkyWalking agent doesn't enhance across the JVM
+ * restarts, so the next JVM skips the type resolution and matching of them. These classes are the most of the loaded
+ * classes, and cost the most of the transformation time at the startup.
+ * <p>
+ * The classes are content-addressed by the hash of the class loader type and the class bytes, in a directory per
+ * fingerprint of the agent, the plugins, the JVM and the application classpath. Any change of them starts a new cache.
+ * The directory could be pre-warmed in a container image, by running the application once with the same path.
+ * <p>
+ * Only the classes of the bootstrap and the system class loaders are persisted, as their class paths are in the
+ * fingerprint. Whether a class is enhanced also depends on the witness classes and the super types visible to its
+ * loader, which are unknown for the other class loaders, such as the ones of the web containers and the frameworks.
+ * <p>
+ * The enhanced classes are not persisted. Their interceptors are set by the type initializers ByteBuddy registers in
+ * the transformation, which don't exist in another JVM.
+ * <p>
+ * Every JVM writes the new classes into its own segment files, which are moved into the directory atomically and
+ * validated by a checksum on read, so concurrent JVMs can share one directory.
+ */
+public class PersistentClassCacheDecorator implements AgentBuilder.TransformerDecorator {
+    private static final ILog LOGGER = LogManager.getLogger(PersistentClassCacheDecorator.class);
+
+    private static final int MAGIC = 0x53574343;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int FLUSH_THRESHOLD = 4096;
+    /**
+     * The segments are compacted into one when a JVM starts with more segments than this.
+     */
+    private static final int MAX_SEGMENTS = 16;
+
+    private static final ThreadLocal<MessageDigest> DIGEST = new ThreadLocal<MessageDigest>() {
+        @Override
+        protected MessageDigest initialValue() {
+            try {
+                return MessageDigest.getInstance("SHA-1");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    };
+
+    private final File cacheDir;
+    private final ClassLoader systemClassLoader = ClassLoader.getSystemClassLoader();
+    private final Set<Key> unenhancedClasses = ConcurrentHashMap.newKeySet();
+    private final Object flushLock = new Object();
+    private List<Key> pending = new ArrayList<Key>();
+    /**
+     * Whether ByteBuddy has reported an error in the transformation of the current thread. A failed class is not
+     * persisted, as ByteBuddy returns null for it too.
+     */
+    private final ThreadLocal<boolean[]> failed = new ThreadLocal<boolean[]>() {
+        @Override
+        protected boolean[] initialValue() {
+            return new boolean[1];
+        }
+    };
+
+    public PersistentClassCacheDecorator(File baseDir, String fingerprint) throws IOException {
+        this.cacheDir = new File(baseDir, fingerprint);
+        if (!cacheDir.exists()) {
+            cacheDir.mkdirs();
+        }
+        if (!cacheDir.isDirectory()) {
+            throw new IOException("Create persistent class cache dir failure: " + cacheDir);
+        }
+        load();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "skywalking persistent class cache flusher"));
+    }
+
+    /**
+     * @return the default directory, `/class-cache/persistent` in the agent path, if no path is configured.
+     */
+    public static File getBaseDir() throws IOException {
+        if (Config.Agent.PERSISTENT_CLASS_CACHE_PATH != null && !Config.Agent.PERSISTENT_CLASS_CACHE_PATH.isEmpty()) {
+            return new File(Config.Agent.PERSISTENT_CLASS_CACHE_PATH);
+        }
+        try {
+            return new File(AgentPackagePath.getPath(), "class-cache/persistent");
+        } catch (AgentPackageNotFoundException e) {
+            throw new IOException("Can't find the root path for creating /class-cache/persistent folder.");
+        }
+    }
+
+    /**
+     * @param pluginDefineClasses the class names of the activated plugin defines.
+     * @return the fingerprint of the agent jars, the activated plugins, the JVM, the appended boot classpath and the
+     * application classpath.
+     */
+    public static String fingerprint(Collection<String> pluginDefineClasses) throws IOException {
+        final StringBuilder source = new StringBuilder();
+        source.append(System.getProperty("java.vm.version")).append('\n');
+        try {
+            final File agentPath = AgentPackagePath.getPath();
+            appendJars(source, agentPath);
+            for (String mount : Config.Plugin.MOUNT) {
+                appendJars(source, new File(agentPath, mount));
+            }
+        } catch (AgentPackageNotFoundException e) {
+            throw new IOException("Can't find the agent path for the persistent class cache fingerprint.");
+        }
+        final String[] plugins = pluginDefineClasses.toArray(new String[0]);
+        Arrays.sort(plugins);
+        for (String plugin : plugins) {
+            source.append(plugin).append('\n');
+        }
+        // The appended boot classpath is `sun.boot.class.path` in JDK 8, and `jdk.boot.class.path.append` since JDK 9.
+        for (String property : new String[] {"sun.boot.class.path", "jdk.boot.class.path.append", "java.class.path"}) {
+            final String classpath = System.getProperty(property, "");
+            for (String entry : classpath.split(File.pathSeparator)) {
+                appendFile(source, new File(entry));
+            }
+        }
+        final byte[] digest = DIGEST.get().digest(source.toString().getBytes(StandardCharsets.UTF_8));
+        final StringBuilder fingerprint = new StringBuilder();
+        for (int i = 0; i < 16; i++) {
+            fingerprint.append(Character.forDigit((digest[i] >> 4) & 0xF, 16))
+                       .append(Character.forDigit(digest[i] & 0xF, 16));
+        }
+        return fingerprint.toString();
+    }
+
+    private static void appendJars(StringBuilder source, File dir) {
+        final File[] jars = dir.listFiles((d, name) -> name.endsWith(".jar"));
+        if (jars == null) {
+            return;
+        }
+        Arrays.sort(jars);
+        for (File jar : jars) {
+            appendFile(source, jar);
+        }
+    }
+
+    private static void appendFile(StringBuilder source, File file) {
+        source.append(file.getAbsolutePath())
+              .append(':').append(file.length())
+              .append(':').append(file.lastModified())
+              .append('\n');
+    }
+
+    /**
+     * @return the listener to find out the classes failed in the transformation, which should be added to the agent
+     * builder with this decorator.
+     */
+    public AgentBuilder.Listener listener() {
+        return new AgentBuilder.Listener.Adapter() {
+            @Override
+            public void onError(String typeName, ClassLoader classLoader, JavaModule module, boolean loaded,
+                                Throwable throwable) {
+                failed.get()[0] = true;
+            }
+        };
+    }
+
+    @Override
+    public ResettableClassFileTransformer decorate(ResettableClassFileTransformer classFileTransformer) {
+        return new ResettableClassFileTransformer.WithDelegation(classFileTransformer) {
+
+            @Override
+            public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined, ProtectionDomain protectionDomain, byte[] classfileBuffer) throws IllegalClassFormatException {
+                return PersistentClassCacheDecorator.this.transform(
+                    classFileTransformer, loader, className, classBeingRedefined, protectionDomain, classfileBuffer);
+            }
+        };
+    }
+
+    byte[] transform(ClassFileTransformer classFileTransformer, ClassLoader loader, String className,
+                     Class<?> classBeingRedefined, ProtectionDomain protectionDomain,
+                     byte[] classfileBuffer) throws IllegalClassFormatException {
+        if (classBeingRedefined != null || classfileBuffer == null || !isCacheable(loader)) {
+            return classFileTransformer.transform(
+                loader, className, classBeingRedefined, protectionDomain, classfileBuffer);
+        }
+        final Key key = Key.of(loader, classfileBuffer);
+        if (unenhancedClasses.contains(key)) {
+            return null;
+        }
+
+        final boolean[] failure = failed.get();
+        failure[0] = false;
+        final byte[] transformed = classFileTransformer.transform(
+            loader, className, null, protectionDomain, classfileBuffer);
+        if (transformed == null && !failure[0] && unenhancedClasses.add(key)) {
+            boolean full;
+            synchronized (flushLock) {
+                pending.add(key);
+                full = pending.size() >= FLUSH_THRESHOLD;
+            }
+            if (full) {
+                flush();
+            }
+        }
+        return transformed;
+    }
+
+    /**
+     * @return true if the class path of the loader is in the fingerprint.
+     */
+    private boolean isCacheable(ClassLoader loader) {
+        return loader == null || loader == systemClassLoader;
+    }
+
+    /**
+     * Write the classes found since the last flush into a new segment.
+     */
+    void flush() {
+        final List<Key> keys;
+        synchronized (flushLock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            keys = pending;
+            pending = new ArrayList<Key>();
+        }
+        try {
+            writeSegment(keys);
+        } catch (IOException e) {
+            LOGGER.error(e, "Save the persistent class cache failure.");
+        }
+    }
+
+    private void load() {
+        final File[] segments = cacheDir.listFiles(segmentFilter());
+        if (segments == null) {
+            return;
+        }
+        final List<File> loaded = new ArrayList<File>(segments.length);
+        for (File segment : segments) {
+            try {
+                readSegment(segment);
+                loaded.add(segment);
+            } catch (IOException e) {
+                // Another JVM may have compacted the segment in the meantime.
+                if (segment.exists()) {
+                    LOGGER.warn(e, "Drop the invalid persistent class cache segment {}.", segment);
+                    segment.delete();
+                }
+            }
+        }
+        LOGGER.info("{} unenhanced classes are loaded from the persistent class cache {}.", unenhancedClasses.size(), cacheDir);
+
+        if (loaded.size() > MAX_SEGMENTS) {
+            try {
+                writeSegment(new ArrayList<Key>(unenhancedClasses));
+                for (File segment : loaded) {
+                    segment.delete();
+                }
+            } catch (IOException e) {
+                LOGGER.warn(e, "Compact the persistent class cache failure.");
+            }
+        }
+    }
+
+    private void readSegment(File segment) throws IOException {
+        DataInputStream input = null;
+        try {
+            input = new DataInputStream(new BufferedInputStream(new FileInputStream(segment)));
+            if (input.readInt() != MAGIC) {
+                throw new IOException("unknown format");
+            }
+            final int count = input.readInt();
+            final List<Key> keys = new ArrayList<Key>(count);
+            final CRC32 crc = new CRC32();
+            for (int i = 0; i < count; i++) {
+                final Key key = new Key(input.readLong(), input.readLong());
+                key.updateChecksum(crc);
+                keys.add(key);
+            }
+            if (input.readLong() != crc.getValue()) {
+                throw new IOException("checksum mismatch");
+            }
+            unenhancedClasses.addAll(keys);
+        } finally {
+            IOUtils.closeQuietly(input);
+        }
+    }
+
+    private void writeSegment(List<Key> keys) throws IOException {
+        final String name = RandomString.make(16);
+        final File temp = new File(cacheDir, name + ".tmp");
+        DataOutputStream output = null;
+        try {
+            output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+            output.writeInt(MAGIC);
+            output.writeInt(keys.size());
+            final CRC32 crc = new CRC32();
+            for (Key key : keys) {
+                output.writeLong(key.high);
+                output.writeLong(key.low);
+                key.updateChecksum(crc);
+            }
+            output.writeLong(crc.getValue());
+        } finally {
+            IOUtils.closeQuietly(output);
+        }
+        try {
+            Files.move(
+                temp.toPath(), new File(cacheDir, name + SEGMENT_SUFFIX).toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            temp.delete();
+        }
+    }
+
+    private static FilenameFilter segmentFilter() {
+        return (dir, name) -> name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    /**
+     * The first 128 bits of the SHA-1 of the class loader type and the class bytes.
+     */
+    static class Key {
+        private final long high;
+        private final long low;
+
+        Key(long high, long low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        static Key of(ClassLoader loader, byte[] classfileBuffer) {
+            final MessageDigest digest = DIGEST.get();
+            if (loader != null) {
+                digest.update(loader.getClass().getName().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) 0);
+            final byte[] hash = digest.digest(classfileBuffer);
+            long high = 0;
+            long low = 0;
+            for (int i = 0; i < 8; i++) {
+                high = (high << 8) | (hash[i] & 0xFF);
+                low = (low << 8) | (hash[i + 8] & 0xFF);
+            }
+            return new Key(high, low);
+        }
+
+        void updateChecksum(CRC32 crc) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                crc.update((int) (high >>> shift));
+            }
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                crc.update((int) (low >>> shift));
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return high == key.high && low == key.low;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (low ^ (low >>> 32));
+        }
+    }
+}
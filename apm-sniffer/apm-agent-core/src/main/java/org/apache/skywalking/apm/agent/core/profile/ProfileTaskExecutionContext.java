@@ -18,6 +18,8 @@
 
 package org.apache.skywalking.apm.agent.core.profile;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
@@ -46,6 +48,9 @@ public class ProfileTaskExecutionContext {
     // total started profiling tracing context count
     private final AtomicInteger totalStartedProfilingCount = new AtomicInteger(0);
 
+    // code signature of the dumped stack elements, only accessed by the profile thread of this task
+    private final Map<StackTraceElement, String> codeSignatureCache = new HashMap<>();
+
     public ProfileTaskExecutionContext(ProfileTask task) {
         this.task = task;
         profilingSegmentSlots = new AtomicReferenceArray<>(Config.Profile.MAX_PARALLEL);
@@ -72,9 +77,7 @@ public class ProfileTaskExecutionContext {
      *
      * @return is add profile success
      */
-    public ProfileStatusReference attemptProfiling(TracingContext tracingContext,
-                                                   String traceSegmentId,
-                                                   String firstSpanOPName) {
+    public ProfileStatusReference attemptProfiling(TracingContext tracingContext, String firstSpanOPName) {
         // check has available slot
         final int usingSlotCount = currentProfilingCount.get();
         if (usingSlotCount >= Config.Profile.MAX_PARALLEL) {
@@ -97,7 +100,7 @@ public class ProfileTaskExecutionContext {
         }
 
         final ThreadProfiler threadProfiler = new ThreadProfiler(
-            tracingContext, traceSegmentId, Thread.currentThread(), this);
+            tracingContext, tracingContext.getSegmentId(), Thread.currentThread(), this);
         int slotLength = profilingSegmentSlots.length();
         for (int slot = 0; slot < slotLength; slot++) {
             if (profilingSegmentSlots.compareAndSet(slot, null, threadProfiler)) {
@@ -110,7 +113,7 @@ public class ProfileTaskExecutionContext {
     /**
      * profiling recheck
      */
-    public void profilingRecheck(TracingContext tracingContext, String traceSegmentId, String firstSpanOPName) {
+    public void profilingRecheck(TracingContext tracingContext, String firstSpanOPName) {
         // if started, keep profiling
         if (tracingContext.profileStatus().isBeingWatched()) {
             return;
@@ -118,7 +121,7 @@ public class ProfileTaskExecutionContext {
 
         // update profiling status
         tracingContext.profileStatus()
-                      .updateStatus(attemptProfiling(tracingContext, traceSegmentId, firstSpanOPName).get());
+                      .updateStatus(attemptProfiling(tracingContext, firstSpanOPName).get());
     }
 
     /**
@@ -140,6 +143,24 @@ public class ProfileTaskExecutionContext {
         }
     }
 
+    /**
+     * Get the code signature of the stack element, the same frame shows up in almost every dump of this task, so the
+     * signature is built once and reused until the cache is full.
+     *
+     * @return code sign: className.methodName:lineNumber
+     */
+    String codeSignatureOf(StackTraceElement element) {
+        String signature = codeSignatureCache.get(element);
+        if (signature != null) {
+            return signature;
+        }
+        signature = element.getClassName() + "." + element.getMethodName() + ":" + element.getLineNumber();
+        if (codeSignatureCache.size() < Config.Profile.MAX_CODE_SIGNATURE_CACHE_SIZE) {
+            codeSignatureCache.put(element, signature);
+        }
+        return signature;
+    }
+
     public ProfileTask getTask() {
         return task;
     }
@@ -19,9 +19,15 @@
 package org.apache.skywalking.apm.agent.core.profile;
 
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
@@ -31,6 +37,11 @@ public class ProfileThread implements Runnable {
 
     private static final ILog LOGGER = LogManager.getLogger(ProfileThread.class);
 
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    // the dump period could be extended to 8 times of the task period at most when out of the dump cost budget
+    private static final int MAX_DUMP_PERIOD_MULTIPLE = 8;
+
     // profiling task context
     private final ProfileTaskExecutionContext taskExecutionContext;
 
@@ -65,16 +76,23 @@ public class ProfileThread implements Runnable {
      */
     private void profiling(ProfileTaskExecutionContext executionContext) throws InterruptedException {
 
-        int maxSleepPeriod = executionContext.getTask().getThreadDumpPeriod();
+        int taskDumpPeriod = executionContext.getTask().getThreadDumpPeriod();
+        int maxSleepPeriod = taskDumpPeriod;
+
+        // reuse the dumping buffers in every loop
+        AtomicReferenceArray<ThreadProfiler> profilers = executionContext.threadProfilerSlots();
+        int profilerCount = profilers.length();
+        ThreadProfiler[] dumpingProfilers = new ThreadProfiler[profilerCount];
+        long[][] dumpingThreadIds = new long[profilerCount][];
 
         // run loop when current thread still running
         long currentLoopStartTime = -1;
         while (!Thread.currentThread().isInterrupted()) {
             currentLoopStartTime = System.currentTimeMillis();
+            long dumpStartNanos = System.nanoTime();
 
             // each all slot
-            AtomicReferenceArray<ThreadProfiler> profilers = executionContext.threadProfilerSlots();
-            int profilerCount = profilers.length();
+            int dumpingCount = 0;
             for (int slot = 0; slot < profilerCount; slot++) {
                 ThreadProfiler currentProfiler = profilers.get(slot);
                 if (currentProfiler == null) {
@@ -89,19 +107,24 @@ public class ProfileThread implements Runnable {
                         break;
 
                     case PROFILING:
-                        // dump stack
-                        TracingThreadSnapshot snapshot = currentProfiler.buildSnapshot();
-                        if (snapshot != null) {
-                            profileTaskChannelService.addProfilingSnapshot(snapshot);
+                        if (Config.Profile.BATCH_DUMP) {
+                            // dump all profiling threads together after checking all slots
+                            dumpingProfilers[dumpingCount++] = currentProfiler;
                         } else {
-                            // tell execution context current tracing thread dump failed, stop it
-                            executionContext.stopTracingProfile(currentProfiler.tracingContext());
+                            // dump stack
+                            addSnapshot(executionContext, currentProfiler, currentProfiler.buildSnapshot());
                         }
                         break;
 
                 }
             }
 
+            if (dumpingCount > 0) {
+                dumpStacks(executionContext, dumpingProfilers, dumpingThreadIds, dumpingCount);
+                Arrays.fill(dumpingProfilers, null);
+            }
+            maxSleepPeriod = adjustDumpPeriod(maxSleepPeriod, taskDumpPeriod, System.nanoTime() - dumpStartNanos);
+
             // sleep to next period
             // if out of period, sleep one period
             long needToSleep = (currentLoopStartTime + maxSleepPeriod) - System.currentTimeMillis();
@@ -110,4 +133,69 @@ public class ProfileThread implements Runnable {
         }
     }
 
+    /**
+     * dump all the profiling threads by one {@link ThreadMXBean#getThreadInfo(long[], int)} call, only need to reach
+     * the safepoint once
+     */
+    private void dumpStacks(ProfileTaskExecutionContext executionContext, ThreadProfiler[] dumpingProfilers,
+                            long[][] dumpingThreadIds, int dumpingCount) {
+        long[] threadIds = dumpingThreadIds[dumpingCount - 1];
+        if (threadIds == null) {
+            threadIds = new long[dumpingCount];
+            dumpingThreadIds[dumpingCount - 1] = threadIds;
+        }
+        for (int i = 0; i < dumpingCount; i++) {
+            threadIds[i] = dumpingProfilers[i].profilingThreadId();
+        }
+
+        long currentTime = System.currentTimeMillis();
+        ThreadInfo[] threadInfos;
+        try {
+            threadInfos = THREAD_MX_BEAN.getThreadInfo(threadIds, Config.Profile.DUMP_MAX_STACK_DEPTH);
+        } catch (Exception e) {
+            LOGGER.warn(e, "Batch dump thread stacks fail, dump them one by one.");
+            for (int i = 0; i < dumpingCount; i++) {
+                addSnapshot(executionContext, dumpingProfilers[i], dumpingProfilers[i].buildSnapshot());
+            }
+            return;
+        }
+
+        for (int i = 0; i < dumpingCount; i++) {
+            // thread info is null when the thread is already finished
+            StackTraceElement[] stackTrace = threadInfos[i] == null ? null : threadInfos[i].getStackTrace();
+            addSnapshot(executionContext, dumpingProfilers[i], dumpingProfilers[i].buildSnapshot(stackTrace, currentTime));
+        }
+    }
+
+    private void addSnapshot(ProfileTaskExecutionContext executionContext, ThreadProfiler profiler,
+                             TracingThreadSnapshot snapshot) {
+        if (snapshot != null) {
+            profileTaskChannelService.addProfilingSnapshot(snapshot);
+        } else {
+            // tell execution context current tracing thread dump failed, stop it
+            executionContext.stopTracingProfile(profiler.tracingContext());
+        }
+    }
+
+    /**
+     * Extend the dump period when the dumping costs more than {@link Config.Profile#DUMP_COST_BUDGET_PERCENTAGE} of it,
+     * and shorten it back to the task period when the cost is lower than half of the budget.
+     *
+     * @return the dump period to use in the next loop
+     */
+    static int adjustDumpPeriod(int currentPeriod, int taskDumpPeriod, long dumpCostNanos) {
+        if (Config.Profile.DUMP_COST_BUDGET_PERCENTAGE <= 0) {
+            return taskDumpPeriod;
+        }
+
+        long budgetNanos = TimeUnit.MILLISECONDS.toNanos(currentPeriod) * Config.Profile.DUMP_COST_BUDGET_PERCENTAGE / 100;
+        if (dumpCostNanos > budgetNanos) {
+            return Math.min(currentPeriod * 2, taskDumpPeriod * MAX_DUMP_PERIOD_MULTIPLE);
+        }
+        if (dumpCostNanos < budgetNanos / 2 && currentPeriod > taskDumpPeriod) {
+            return Math.max(currentPeriod / 2, taskDumpPeriod);
+        }
+        return currentPeriod;
+    }
+
 }
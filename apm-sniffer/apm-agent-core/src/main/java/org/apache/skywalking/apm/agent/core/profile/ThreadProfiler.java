@@ -92,16 +92,31 @@ public class ThreadProfiler {
         StackTraceElement[] stackTrace;
         try {
             stackTrace = profilingThread.getStackTrace();
-
-            // stack depth is zero, means thread is already run finished
-            if (stackTrace.length == 0) {
-                return null;
-            }
         } catch (Exception e) {
             // dump error ignore and make this profiler stop
             return null;
         }
 
+        return buildSnapshot(stackTrace, currentTime);
+    }
+
+    /**
+     * build thread snapshot from the stack dumped by the caller, work for dumping all the profiling threads at once
+     *
+     * @param stackTrace the dumped stack, null means thread is already finished
+     * @param currentTime the time of dumping
+     * @return snapshot, if null means dump snapshot error, should stop it
+     */
+    public TracingThreadSnapshot buildSnapshot(StackTraceElement[] stackTrace, long currentTime) {
+        if (!isProfilingContinuable()) {
+            return null;
+        }
+
+        // stack depth is zero, means thread is already run finished
+        if (stackTrace == null || stackTrace.length == 0) {
+            return null;
+        }
+
         // if is first dump, check is can start profiling
         if (dumpSequence == 0 && (!executionContext.isStartProfileable())) {
             return null;
@@ -112,22 +127,13 @@ public class ThreadProfiler {
         // use inverted order, because thread dump is start with bottom
         final ArrayList<String> stackList = new ArrayList<>(dumpElementCount);
         for (int i = dumpElementCount - 1; i >= 0; i--) {
-            stackList.add(buildStackElementCodeSignature(stackTrace[i]));
+            stackList.add(executionContext.codeSignatureOf(stackTrace[i]));
         }
 
         String taskId = executionContext.getTask().getTaskId();
         return new TracingThreadSnapshot(taskId, traceSegmentId, dumpSequence++, currentTime, stackList);
     }
 
-    /**
-     * build thread stack element code signature
-     *
-     * @return code sign: className.methodName:lineNumber
-     */
-    private String buildStackElementCodeSignature(StackTraceElement element) {
-        return element.getClassName() + "." + element.getMethodName() + ":" + element.getLineNumber();
-    }
-
     /**
      * matches profiling tracing context
      */
@@ -145,6 +151,10 @@ public class ThreadProfiler {
         return System.currentTimeMillis() - profilingStartTime < profilingMaxTimeMills;
     }
 
+    public long profilingThreadId() {
+        return profilingThread.getId();
+    }
+
     public TracingContext tracingContext() {
         return tracingContext;
     }
@@ -19,6 +19,7 @@
 package org.apache.skywalking.apm.agent.core.remote;
 
 import io.grpc.Channel;
+import io.grpc.Metadata;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 
@@ -46,6 +47,12 @@ import static org.apache.skywalking.apm.agent.core.conf.Config.Collector.IS_RESO
 @DefaultImplementor
 public class GRPCChannelManager implements BootService, Runnable {
     private static final ILog LOGGER = LogManager.getLogger(GRPCChannelManager.class);
+    /**
+     * The trailer set by the admission control of the OAP server, when the call is rejected because the server is
+     * overloaded. The channel is healthy, so it is kept rather than reconnected.
+     */
+    private static final Metadata.Key<String> ADMISSION_REJECTED_TRAILER = Metadata.Key.of(
+        "sw-admission-rejected", Metadata.ASCII_STRING_MARSHALLER);
 
     private volatile GRPCChannel managedChannel = null;
     private volatile ScheduledFuture<?> connectCheckFuture;
@@ -170,9 +177,16 @@ public class GRPCChannelManager implements BootService, Runnable {
     }
 
     /**
-     * If the given exception is triggered by network problem, connect in background.
+     * If the given exception is triggered by network problem, connect in background. The calls rejected by the
+     * overloaded server are dropped without reconnecting, as reconnecting all agents makes the overload worse.
      */
     public void reportError(Throwable throwable) {
+        if (isAdmissionRejected(throwable)) {
+            if (LOGGER.isDebugEnable()) {
+                LOGGER.debug("The call is rejected by the overloaded backend, keep the channel.");
+            }
+            return;
+        }
         if (isNetworkError(throwable)) {
             reconnect = true;
             notify(GRPCChannelStatus.DISCONNECT);
@@ -189,6 +203,14 @@ public class GRPCChannelManager implements BootService, Runnable {
         }
     }
 
+    private boolean isAdmissionRejected(Throwable throwable) {
+        if (throwable instanceof StatusRuntimeException) {
+            final Metadata trailers = ((StatusRuntimeException) throwable).getTrailers();
+            return trailers != null && trailers.containsKey(ADMISSION_REJECTED_TRAILER);
+        }
+        return false;
+    }
+
     private boolean isNetworkError(Throwable throwable) {
         if (throwable instanceof StatusRuntimeException) {
             StatusRuntimeException statusRuntimeException = (StatusRuntimeException) throwable;
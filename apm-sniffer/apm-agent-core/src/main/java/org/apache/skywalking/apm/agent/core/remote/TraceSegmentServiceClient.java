@@ -19,6 +19,7 @@
 package org.apache.skywalking.apm.agent.core.remote;
 
 import io.grpc.Channel;
+import io.grpc.CompressorRegistry;
 import io.grpc.stub.StreamObserver;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
@@ -32,12 +33,14 @@ import org.apache.skywalking.apm.agent.core.context.TracingContextListener;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.sampling.SamplingService;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.apm.network.common.v3.Commands;
 import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 import org.apache.skywalking.apm.network.language.agent.v3.TraceSegmentReportServiceGrpc;
+import org.apache.skywalking.apm.util.StringUtil;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.BUFFER_SIZE;
 import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.CHANNEL_SIZE;
@@ -50,13 +53,19 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
     private long lastLogTime;
     private long segmentUplinkedCounter;
     private long segmentAbandonedCounter;
+    private SamplingService samplingService;
     private volatile DataCarrier<TraceSegment> carrier;
     private volatile TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub serviceStub;
     private volatile GRPCChannelStatus status = GRPCChannelStatus.DISCONNECT;
+    /**
+     * The compressor name of the upstream, null if no compression.
+     */
+    private String compression;
 
     @Override
     public void prepare() {
         ServiceManager.INSTANCE.findService(GRPCChannelManager.class).addChannelListener(this);
+        samplingService = ServiceManager.INSTANCE.findService(SamplingService.class);
     }
 
     @Override
@@ -64,6 +73,18 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
         lastLogTime = System.currentTimeMillis();
         segmentUplinkedCounter = 0;
         segmentAbandonedCounter = 0;
+        compression = null;
+        if (StringUtil.isNotEmpty(Config.Collector.GRPC_UPSTREAM_COMPRESSION)) {
+            if (CompressorRegistry.getDefaultInstance()
+                                  .lookupCompressor(Config.Collector.GRPC_UPSTREAM_COMPRESSION) != null) {
+                compression = Config.Collector.GRPC_UPSTREAM_COMPRESSION;
+            } else {
+                LOGGER.warn(
+                    "Unsupported compression {}, send trace segments without compression.",
+                    Config.Collector.GRPC_UPSTREAM_COMPRESSION
+                );
+            }
+        }
         carrier = new DataCarrier<>(CHANNEL_SIZE, BUFFER_SIZE, BufferStrategy.IF_POSSIBLE);
         carrier.consume(this, 1);
     }
@@ -88,9 +109,13 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
     public void consume(List<TraceSegment> data) {
         if (CONNECTED.equals(status)) {
             final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
-            StreamObserver<SegmentObject> upstreamSegmentStreamObserver = serviceStub.withDeadlineAfter(
+            TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub stub = serviceStub.withDeadlineAfter(
                 Config.Collector.GRPC_UPSTREAM_TIMEOUT, TimeUnit.SECONDS
-            ).collect(new StreamObserver<Commands>() {
+            );
+            if (compression != null) {
+                stub = stub.withCompression(compression);
+            }
+            StreamObserver<SegmentObject> upstreamSegmentStreamObserver = stub.collect(new StreamObserver<Commands>() {
                 @Override
                 public void onNext(Commands commands) {
                     ServiceManager.INSTANCE.findService(CommandService.class)
@@ -170,6 +195,7 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
             return;
         }
         if (!carrier.produce(traceSegment)) {
+            samplingService.onSegmentOverflow();
             if (LOGGER.isDebugEnable()) {
                 LOGGER.debug("One trace segment has been abandoned, cause by buffer is full.");
             }
@@ -18,11 +18,15 @@
 
 package org.apache.skywalking.apm.agent.core.sampling;
 
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
 import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
@@ -30,6 +34,9 @@ import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.conf.dynamic.ConfigurationDiscoveryService;
 import org.apache.skywalking.apm.agent.core.conf.dynamic.watcher.SamplingRateWatcher;
+import org.apache.skywalking.apm.agent.core.context.TracingContext;
+import org.apache.skywalking.apm.agent.core.context.TracingContextListener;
+import org.apache.skywalking.apm.agent.core.context.trace.AbstractTracingSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
@@ -41,14 +48,38 @@ import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
  * send all of them to collector, if SAMPLING is on.
  * <p>
  * By default, SAMPLING is on, and  {@link Config.Agent#SAMPLE_N_PER_3_SECS }
+ * <p>
+ * The budget of every 3 seconds adapts to the reporter, it is halved when the segments were abandoned because the
+ * report buffer is full, and recovers to {@link Config.Agent#SAMPLE_N_PER_3_SECS} step by step. When {@link
+ * Config.Agent#SAMPLE_MIN_PER_ENDPOINT_PER_3_SECS} is on, every endpoint has its own guaranteed quota beyond the
+ * budget, which is doubled if the endpoint finished error or slow segments in the last 3 seconds. The endpoint quotas are
+ * suspended in the 3 seconds after the segments were abandoned, so only the budget is sampled then.
  */
 @DefaultImplementor
-public class SamplingService implements BootService {
+public class SamplingService implements BootService, TracingContextListener {
     private static final ILog LOGGER = LogManager.getLogger(SamplingService.class);
 
+    /**
+     * The max number of the endpoints having the guaranteed quota, the others only share the budget.
+     */
+    private static final int MAX_ENDPOINT_QUOTAS = 1000;
+
     private volatile boolean on = false;
     private volatile AtomicInteger samplingFactorHolder;
     private volatile ScheduledFuture<?> scheduledFuture;
+    /**
+     * The adaptive number of the sampled traces in 3 seconds, no more than the sampling rate.
+     */
+    private volatile int budget;
+    /**
+     * Whether the segments were abandoned in the last period, which suspends the endpoint quotas.
+     */
+    private volatile boolean overflowed;
+    /**
+     * The number of the segments abandoned by the reporter because its buffer is full, in the current period.
+     */
+    private final LongAdder segmentOverflowCounter = new LongAdder();
+    private final ConcurrentHashMap<String, EndpointQuota> endpointQuotas = new ConcurrentHashMap<>();
 
     private SamplingRateWatcher samplingRateWatcher;
 
@@ -67,11 +98,14 @@ public class SamplingService implements BootService {
 
     @Override
     public void onComplete() {
-
+        if (Config.Agent.SAMPLE_MIN_PER_ENDPOINT_PER_3_SECS > 0) {
+            TracingContext.ListenerManager.add(this);
+        }
     }
 
     @Override
     public void shutdown() {
+        TracingContext.ListenerManager.remove(this);
         if (scheduledFuture != null) {
             scheduledFuture.cancel(true);
         }
@@ -83,8 +117,11 @@ public class SamplingService implements BootService {
      */
     public boolean trySampling(String operationName) {
         if (on) {
+            if (Config.Agent.SAMPLE_MIN_PER_ENDPOINT_PER_3_SECS > 0 && !overflowed && tryEndpointSampling(operationName)) {
+                return true;
+            }
             int factor = samplingFactorHolder.get();
-            if (factor < samplingRateWatcher.getSamplingRate()) {
+            if (factor < budget) {
                 return samplingFactorHolder.compareAndSet(factor, factor + 1);
             } else {
                 return false;
@@ -93,6 +130,22 @@ public class SamplingService implements BootService {
         return true;
     }
 
+    /**
+     * @return true if the endpoint has not used up its guaranteed quota in this period.
+     */
+    private boolean tryEndpointSampling(String operationName) {
+        final EndpointQuota quota = findEndpointQuota(operationName);
+        return quota != null && quota.tryAcquire(Config.Agent.SAMPLE_MIN_PER_ENDPOINT_PER_3_SECS);
+    }
+
+    private EndpointQuota findEndpointQuota(String operationName) {
+        EndpointQuota quota = endpointQuotas.get(operationName);
+        if (quota == null && endpointQuotas.size() < MAX_ENDPOINT_QUOTAS) {
+            quota = endpointQuotas.computeIfAbsent(operationName, key -> new EndpointQuota());
+        }
+        return quota;
+    }
+
     /**
      * Increase the sampling factor by force, to avoid sampling too many traces. If many distributed traces require
      * sampled, the trace beginning at local, has less chance to be sampled.
@@ -103,10 +156,63 @@ public class SamplingService implements BootService {
         }
     }
 
+    /**
+     * Raise the guaranteed quota of the endpoint in the next period, if the segment is error or slow. The endpoint is
+     * the first operation name the segment was sampled by, as the first span could be renamed later.
+     */
+    @Override
+    public void afterFinished(TraceSegment traceSegment) {
+        if (!on || Config.Agent.SAMPLE_MIN_PER_ENDPOINT_PER_3_SECS <= 0 || traceSegment.isIgnore()) {
+            return;
+        }
+        final AbstractTracingSpan firstSpan = traceSegment.getFirstSpan();
+        if (firstSpan == null || traceSegment.getFirstOperationName() == null) {
+            return;
+        }
+        final boolean slow = Config.Agent.SAMPLE_SLOW_THRESHOLD_MILLIS > 0
+            && firstSpan.getEndTime() - firstSpan.getStartTime() > Config.Agent.SAMPLE_SLOW_THRESHOLD_MILLIS;
+        if (slow || traceSegment.isError()) {
+            final EndpointQuota quota = findEndpointQuota(traceSegment.getFirstOperationName());
+            if (quota != null) {
+                quota.alerting = true;
+            }
+        }
+    }
+
+    /**
+     * Called by the trace segment reporter when a segment is abandoned because its buffer is full, which means the
+     * reporter can't catch up. The budget of the next period is halved.
+     */
+    public void onSegmentOverflow() {
+        segmentOverflowCounter.increment();
+    }
+
     private void resetSamplingFactor() {
         samplingFactorHolder = new AtomicInteger(0);
     }
 
+    /**
+     * Start a new period, adapt the budget to the reporter and reset the endpoint quotas.
+     */
+    private void resetSamplingPeriod() {
+        final int samplingRate = samplingRateWatcher.getSamplingRate();
+        overflowed = segmentOverflowCounter.sumThenReset() > 0;
+        if (overflowed) {
+            budget = Math.max(1, Math.min(budget, samplingRate) / 2);
+        } else {
+            budget = Math.min(samplingRate, budget + Math.max(1, samplingRate / 10));
+        }
+        resetSamplingFactor();
+
+        final Iterator<Map.Entry<String, EndpointQuota>> iterator = endpointQuotas.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final EndpointQuota quota = iterator.next().getValue();
+            if (!quota.reset()) {
+                iterator.remove();
+            }
+        }
+    }
+
     /**
      * Handle the samplingRate changed.
      */
@@ -114,11 +220,12 @@ public class SamplingService implements BootService {
         if (samplingRateWatcher.getSamplingRate() > 0) {
             if (!on) {
                 on = true;
+                budget = samplingRateWatcher.getSamplingRate();
                 this.resetSamplingFactor();
                 ScheduledExecutorService service = Executors.newSingleThreadScheduledExecutor(
                     new DefaultNamedThreadFactory("SamplingService"));
                 scheduledFuture = service.scheduleAtFixedRate(new RunnableWithExceptionProtection(
-                    this::resetSamplingFactor, t -> LOGGER.error("unexpected exception.", t)), 0, 3, TimeUnit.SECONDS);
+                    this::resetSamplingPeriod, t -> LOGGER.error("unexpected exception.", t)), 0, 3, TimeUnit.SECONDS);
                 LOGGER.debug(
                     "Agent sampling mechanism started. Sample {} traces in 3 seconds.",
                     samplingRateWatcher.getSamplingRate()
@@ -130,7 +237,46 @@ public class SamplingService implements BootService {
                     scheduledFuture.cancel(true);
                 }
                 on = false;
+                endpointQuotas.clear();
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * The guaranteed quota of one endpoint in the current period.
+     */
+    private static class EndpointQuota {
+        private final AtomicInteger sampled = new AtomicInteger(0);
+        /**
+         * Error or slow segments finished in the last period.
+         */
+        private volatile boolean alerted;
+        /**
+         * Error or slow segments finished in the current period.
+         */
+        private volatile boolean alerting;
+
+        private boolean tryAcquire(int minimum) {
+            final int limit = alerted ? minimum * 2 : minimum;
+            while (true) {
+                final int current = sampled.get();
+                if (current >= limit) {
+                    return false;
+                }
+                if (sampled.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * @return false if the endpoint was idle in the last period, and the quota could be released.
+         */
+        private boolean reset() {
+            final boolean active = sampled.getAndSet(0) > 0 || alerting;
+            alerted = alerting;
+            alerting = false;
+            return active;
+        }
+    }
+}
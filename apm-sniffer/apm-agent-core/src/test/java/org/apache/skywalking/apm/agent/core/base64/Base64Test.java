@@ -33,4 +33,28 @@ public class Base64Test {
     public void testEncode() {
         assertEquals(Base64.encode("SkyWalking"), "U2t5V2Fsa2luZw==");
     }
+
+    @Test
+    public void testEncodeToBuilder() {
+        for (String text : new String[] {"", "S", "Sk", "Sky", "SkyWalking", "/\u8BA2\u5355/\u8BE6\u60C5", "emoji \uD83D\uDE00"}) {
+            StringBuilder builder = new StringBuilder("-");
+            Base64.encode(text, builder);
+            assertEquals("-" + Base64.encode(text), builder.toString());
+        }
+    }
+
+    @Test
+    public void testDecodeRange() {
+        for (String text : new String[] {"", "S", "Sk", "Sky", "SkyWalking", "/\u8BA2\u5355/\u8BE6\u60C5"}) {
+            String encoded = "-" + Base64.encode(text) + "-";
+            assertEquals(text, Base64.decode2UTFString(encoded, 1, encoded.length() - 1));
+            String unpadded = Base64.encode(text).replace("=", "");
+            assertEquals(text, Base64.decode2UTFString(unpadded, 0, unpadded.length()));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodeIllegalRange() {
+        Base64.decode2UTFString("U2t5V2F$a2luZw==", 0, 16);
+    }
 }
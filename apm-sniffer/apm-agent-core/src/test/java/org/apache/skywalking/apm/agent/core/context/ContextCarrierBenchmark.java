@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.base64.Base64;
+import org.apache.skywalking.apm.util.StringUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare the sw8 header codec with the split and Base64 conversions used before, in the inject and extract of the
+ * context carrier.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ContextCarrierBenchmark {
+    private static final String HEADER = "1-ZjQ2ZjUzZGY1ZWQ5NGNlNjhkN2Q4YjdmYzU0ZjM2NzIuNTEuMTYxODM5NjIzNzA0NjAwMDE=-ZjQ2ZjUzZGY1ZWQ5NGNlNjhkN2Q4YjdmYzU0ZjM2NzIuNTEuMTYxODM5NjIzNzA0NjAwMDA=-2-b3JkZXItc2VydmljZQ==-NWY2ZTQzMGEyZmVkNDFmMDlhNDM5NWFhM2E5MjNhY2FAMTAuMC4wLjE=-e0dFVH0vYXBpL29yZGVycy97aWR9-MTAuMC4wLjI6ODA4MA==";
+
+    private final ContextCarrier carrier = new ContextCarrier().deserialize(HEADER, ContextCarrier.HeaderVersion.v3);
+
+    @Benchmark
+    public String injectLegacy() {
+        return StringUtil.join(
+            '-',
+            "1",
+            Base64.encode(carrier.getTraceId()),
+            Base64.encode(carrier.getTraceSegmentId()),
+            carrier.getSpanId() + "",
+            Base64.encode(carrier.getParentService()),
+            Base64.encode(carrier.getParentServiceInstance()),
+            Base64.encode(carrier.getParentEndpoint()),
+            Base64.encode(carrier.getAddressUsedAtClient())
+        );
+    }
+
+    @Benchmark
+    public String inject() {
+        return carrier.serialize(ContextCarrier.HeaderVersion.v3);
+    }
+
+    @Benchmark
+    public ContextCarrier extractLegacy() {
+        ContextCarrier extracted = new ContextCarrier();
+        String[] parts = HEADER.split("-", 8);
+        if (parts.length == 8) {
+            extracted.setTraceId(Base64.decode2UTFString(parts[1]));
+            extracted.setTraceSegmentId(Base64.decode2UTFString(parts[2]));
+            extracted.setSpanId(Integer.parseInt(parts[3]));
+            extracted.setParentService(Base64.decode2UTFString(parts[4]));
+            extracted.setParentServiceInstance(Base64.decode2UTFString(parts[5]));
+            extracted.setParentEndpoint(Base64.decode2UTFString(parts[6]));
+            extracted.setAddressUsedAtClient(Base64.decode2UTFString(parts[7]));
+        }
+        return extracted;
+    }
+
+    @Benchmark
+    public ContextCarrier extract() {
+        return new ContextCarrier().deserialize(HEADER, ContextCarrier.HeaderVersion.v3);
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+
+    /**
+     * # JMH version: 1.21
+     * # VM version: JDK 1.8.0_392, OpenJDK 64-Bit Server VM, 25.392-b08
+     * # Warmup: 3 iterations, 10 s each
+     * # Measurement: 5 iterations, 10 s each
+     * # Benchmark mode: Throughput, ops/time
+     *
+     * Benchmark                                                Mode  Cnt     Score     Error   Units
+     * ContextCarrierBenchmark.extract                         thrpt    5     1.081 ±   0.500  ops/us
+     * ContextCarrierBenchmark.extract:·gc.alloc.rate.norm     thrpt    5   520.000 ±   0.001    B/op
+     * ContextCarrierBenchmark.extractLegacy                   thrpt    5     0.651 ±   0.167  ops/us
+     * ContextCarrierBenchmark.extractLegacy:·gc.alloc.rate.norm thrpt  5  3200.000 ±   0.001    B/op
+     * ContextCarrierBenchmark.inject                          thrpt    5     1.312 ±   0.650  ops/us
+     * ContextCarrierBenchmark.inject:·gc.alloc.rate.norm      thrpt    5   600.000 ±   0.001    B/op
+     * ContextCarrierBenchmark.injectLegacy                    thrpt    5     0.670 ±   0.233  ops/us
+     * ContextCarrierBenchmark.injectLegacy:·gc.alloc.rate.norm thrpt   5  4048.000 ±   0.001    B/op
+     */
+}
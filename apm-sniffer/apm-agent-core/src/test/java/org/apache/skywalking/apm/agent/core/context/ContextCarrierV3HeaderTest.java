@@ -162,4 +162,39 @@ public class ContextCarrierV3HeaderTest {
         Assert.assertEquals(contextCarrier.getCorrelationContext(), contextCarrier2.getCorrelationContext());
         Assert.assertEquals(contextCarrier.getExtensionContext(), contextCarrier2.getExtensionContext());
     }
+
+    @Test
+    public void testDeserializeMalformedV3Header() {
+        for (String header : new String[] {
+            "1-My40LjU=-MS4yLjM=-4-c2VydmljZQ==-aW5zdGFuY2U=-L2FwcA==",
+            "1-My40LjU=-MS4yLjM=-x-c2VydmljZQ==-aW5zdGFuY2U=-L2FwcA==-MTI3LjAuMC4xOjgwODA=",
+            "1-My40LjU=-MS4yLjM=-4-c2VydmljZQ==-aW5zdGFuY2U=-L2Fw$A==-MTI3LjAuMC4xOjgwODA=",
+            ""
+        }) {
+            ContextCarrier contextCarrier = new ContextCarrier().deserialize(header, ContextCarrier.HeaderVersion.v3);
+            Assert.assertFalse(contextCarrier.isValid());
+        }
+    }
+
+    @Test
+    public void testRepeatedV3Header() {
+        ContextCarrier contextCarrier = new ContextCarrier();
+        contextCarrier.setTraceSegmentId("1.2.3");
+        contextCarrier.setTraceId("3.4.5");
+        contextCarrier.setSpanId(4);
+        contextCarrier.setParentService("service");
+        contextCarrier.setParentServiceInstance("instance");
+        contextCarrier.setAddressUsedAtClient("127.0.0.1:8080");
+        contextCarrier.setParentEndpoint("/\u8BA2\u5355");
+
+        for (int i = 0; i < 3; i++) {
+            contextCarrier.setTraceSegmentId("1.2." + i);
+            String header = contextCarrier.serialize(ContextCarrier.HeaderVersion.v3);
+            ContextCarrier extracted = new ContextCarrier().deserialize(header, ContextCarrier.HeaderVersion.v3);
+            Assert.assertTrue(extracted.isValid());
+            Assert.assertEquals("1.2." + i, extracted.getTraceSegmentId());
+            Assert.assertEquals("/\u8BA2\u5355", extracted.getParentEndpoint());
+            Assert.assertEquals("127.0.0.1:8080", extracted.getAddressUsedAtClient());
+        }
+    }
 }
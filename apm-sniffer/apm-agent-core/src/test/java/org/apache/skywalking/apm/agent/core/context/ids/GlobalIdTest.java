@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.ids;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GlobalIdTest {
+    @Test
+    public void testRenderedOnceInTheLegacyFormat() {
+        GlobalId globalId = GlobalIdGenerator.generateId();
+
+        String id = globalId.toString();
+        String[] parts = id.split("\\.");
+        Assert.assertEquals(3, parts.length);
+        Assert.assertEquals(32, parts[0].length());
+        Assert.assertEquals(Thread.currentThread().getId(), Long.parseLong(parts[1]));
+        Assert.assertEquals(globalId.getSequence(), Long.parseLong(parts[2]));
+        Assert.assertSame(id, globalId.toString());
+    }
+
+    @Test
+    public void testUnique() {
+        GlobalId first = GlobalIdGenerator.generateId();
+        GlobalId second = GlobalIdGenerator.generateId();
+
+        Assert.assertNotEquals(first, second);
+        Assert.assertNotEquals(first.toString(), second.toString());
+        Assert.assertEquals(first, new GlobalId(first.getThreadId(), first.getSequence()));
+    }
+
+    @Test
+    public void testTraceIdEqualsByRenderedId() {
+        NewDistributedTraceId traceId = new NewDistributedTraceId();
+        PropagatedTraceId propagatedTraceId = new PropagatedTraceId(traceId.getId());
+
+        Assert.assertEquals(traceId, propagatedTraceId);
+        Assert.assertEquals(traceId.hashCode(), propagatedTraceId.hashCode());
+    }
+}
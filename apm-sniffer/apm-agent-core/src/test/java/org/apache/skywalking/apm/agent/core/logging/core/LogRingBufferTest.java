@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.logging.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LogRingBufferTest {
+
+    @Test
+    public void testDrainInOrder() {
+        LogRingBuffer ring = new LogRingBuffer(4);
+        List<String> messages = new ArrayList<>();
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 3; i++) {
+                assertTrue(ring.offer(round + "-" + i));
+            }
+            messages.clear();
+            assertEquals(3, ring.drainTo(messages, 10));
+            assertEquals("[" + round + "-0, " + round + "-1, " + round + "-2]", messages.toString());
+        }
+    }
+
+    @Test
+    public void testDropWhenFull() {
+        LogRingBuffer ring = new LogRingBuffer(3);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(String.valueOf(i)));
+        }
+        assertFalse(ring.offer("4"));
+
+        List<String> messages = new ArrayList<>();
+        assertEquals(2, ring.drainTo(messages, 2));
+        assertTrue(ring.offer("5"));
+        assertEquals(3, ring.drainTo(messages, 10));
+        assertEquals("[0, 1, 2, 3, 5]", messages.toString());
+    }
+
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        final LogRingBuffer ring = new LogRingBuffer(1 << 16);
+        final int threads = 4;
+        final int perThread = 10000;
+        final CountDownLatch latch = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < perThread; i++) {
+                        ring.offer(thread + ":" + i);
+                    }
+                    latch.countDown();
+                }
+            }).start();
+        }
+        latch.await();
+
+        List<String> messages = new ArrayList<>();
+        assertEquals(threads * perThread, ring.drainTo(messages, Integer.MAX_VALUE));
+        int[] next = new int[threads];
+        for (String message : messages) {
+            String[] parts = message.split(":");
+            int thread = Integer.parseInt(parts[0]);
+            assertEquals(next[thread]++, Integer.parseInt(parts[1]));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.meter;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
+import org.apache.skywalking.apm.network.language.agent.v3.Label;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterBucketValue;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterData;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterHistogram;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.powermock.reflect.Whitebox;
+
+public class SketchTest {
+    @Rule
+    public AgentServiceRule agentServiceRule = new AgentServiceRule();
+
+    @AfterClass
+    public static void afterClass() {
+        ServiceManager.INSTANCE.shutdown();
+    }
+
+    @After
+    public void after() {
+        final MeterService meterService = ServiceManager.INSTANCE.findService(MeterService.class);
+        ((ConcurrentHashMap<MeterId, BaseMeter>) Whitebox.getInternalState(meterService, "meterMap")).clear();
+    }
+
+    @Test
+    public void testRelativeAccuracy() {
+        final Sketch sketch = MeterFactory.sketch("test").relativeAccuracy(0.02).build();
+        final double[] representatives = (double[]) Whitebox.getInternalState(sketch, "representatives");
+
+        for (double value = 1; value < 1_000_000; value *= 1.37) {
+            final double representative = representatives[sketch.slotOf(value)];
+            Assert.assertEquals(value, representative, value * 0.02 + 1e-9);
+        }
+        Assert.assertEquals(0, sketch.slotOf(0.5));
+        Assert.assertEquals(0, sketch.slotOf(-1));
+        Assert.assertEquals(representatives.length - 1, sketch.slotOf(Double.MAX_VALUE));
+    }
+
+    @Test
+    public void testTransform() {
+        final Sketch sketch = MeterFactory.sketch("test").tag("k1", "v1").build();
+        Assert.assertNull(sketch.transform());
+
+        sketch.addValue(0);
+        sketch.addValue(100);
+        sketch.addValue(100);
+        sketch.addValue(5000);
+
+        final MeterData.Builder data = sketch.transform();
+        Assert.assertNotNull(data);
+        Assert.assertEquals(MeterData.HISTOGRAM_FIELD_NUMBER, data.getMetricCase().getNumber());
+        final MeterHistogram histogram = data.getHistogram();
+        Assert.assertEquals("test", histogram.getName());
+        Assert.assertEquals(
+            Arrays.asList(Label.newBuilder().setName("k1").setValue("v1").build()), histogram.getLabelsList());
+        Assert.assertEquals(3, histogram.getValuesCount());
+
+        final MeterBucketValue zero = histogram.getValues(0);
+        Assert.assertEquals(0, zero.getBucket(), 0.0);
+        Assert.assertEquals(1, zero.getCount());
+        final MeterBucketValue hundred = histogram.getValues(1);
+        Assert.assertEquals(100, hundred.getBucket(), 1);
+        Assert.assertEquals(2, hundred.getCount());
+        final MeterBucketValue fiveThousand = histogram.getValues(2);
+        Assert.assertEquals(5000, fiveThousand.getBucket(), 50);
+        Assert.assertEquals(1, fiveThousand.getCount());
+
+        // only the values since the last report
+        Assert.assertNull(sketch.transform());
+        sketch.addValue(100);
+        Assert.assertEquals(1, sketch.transform().getHistogram().getValuesCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalAccuracy() {
+        MeterFactory.sketch("test").relativeAccuracy(1).build();
+    }
+}
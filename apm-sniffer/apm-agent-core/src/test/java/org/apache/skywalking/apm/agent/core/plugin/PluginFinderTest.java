@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ClassInstanceMethodsEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch.byClassAnnotationMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch.byHierarchyMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.MultiClassNameMatch.byMultiClassMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.NameMatch.byName;
+import static org.apache.skywalking.apm.agent.core.plugin.match.PrefixMatch.nameStartsWith;
+import static org.apache.skywalking.apm.agent.core.plugin.match.RegexMatch.byRegexMatch;
+
+public class PluginFinderTest {
+    private final AbstractClassEnhancePluginDefine byName = plugin(byName(Unrelated.class.getName()));
+    private final AbstractClassEnhancePluginDefine byTwoParents = plugin(
+        byHierarchyMatch(Repository.class.getName(), Serializable.class.getName()));
+    private final AbstractClassEnhancePluginDefine byParent = plugin(byHierarchyMatch(Repository.class.getName()));
+    private final AbstractClassEnhancePluginDefine byAnnotation = plugin(
+        byClassAnnotationMatch(Deprecated.class.getName()));
+    private final AbstractClassEnhancePluginDefine byPrefix = plugin(
+        nameStartsWith(PluginFinderTest.class.getName() + "$Order", PluginFinderTest.class.getName() + "$Ord"));
+    private final AbstractClassEnhancePluginDefine byNames = plugin(byMultiClassMatch(BaseService.class.getName()));
+    private final AbstractClassEnhancePluginDefine byRegex = plugin(byRegexMatch(".*Service"));
+
+    private final PluginFinder finder = new PluginFinder(Arrays.asList(
+        byName, byTwoParents, byParent, byAnnotation, byPrefix, byNames, byRegex));
+
+    @Test
+    public void testFind() {
+        Assert.assertEquals(
+            Arrays.asList(byTwoParents, byParent, byAnnotation, byPrefix, byRegex),
+            finder.find(TypeDescription.ForLoadedType.of(OrderService.class))
+        );
+        Assert.assertEquals(
+            Arrays.asList(byParent, byNames, byRegex), finder.find(TypeDescription.ForLoadedType.of(BaseService.class)));
+        Assert.assertEquals(Arrays.asList(byName), finder.find(TypeDescription.ForLoadedType.of(Unrelated.class)));
+        Assert.assertTrue(finder.find(TypeDescription.ForLoadedType.of(String.class)).isEmpty());
+    }
+
+    @Test
+    public void testBuildMatch() {
+        ElementMatcher<? super TypeDescription> matcher = finder.buildMatch();
+
+        Assert.assertTrue(matcher.matches(TypeDescription.ForLoadedType.of(OrderService.class)));
+        Assert.assertTrue(matcher.matches(TypeDescription.ForLoadedType.of(BaseService.class)));
+        Assert.assertTrue(matcher.matches(TypeDescription.ForLoadedType.of(Unrelated.class)));
+        Assert.assertFalse(matcher.matches(TypeDescription.ForLoadedType.of(Repository.class)));
+        Assert.assertFalse(matcher.matches(TypeDescription.ForLoadedType.of(String.class)));
+    }
+
+    private static AbstractClassEnhancePluginDefine plugin(final ClassMatch match) {
+        return new ClassInstanceMethodsEnhancePluginDefine() {
+            @Override
+            protected ClassMatch enhanceClass() {
+                return match;
+            }
+
+            @Override
+            public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+                return null;
+            }
+
+            @Override
+            public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+                return null;
+            }
+        };
+    }
+
+    public interface Repository {
+    }
+
+    public static class BaseService implements Repository {
+    }
+
+    @Deprecated
+    public static class OrderService extends BaseService implements Serializable {
+    }
+
+    public static class Unrelated {
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.bytebuddy.description.NamedElement;
+import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.description.type.TypeList;
+import net.bytebuddy.dynamic.scaffold.InstrumentedType;
+import net.bytebuddy.jar.asm.Opcodes;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.apache.skywalking.apm.agent.core.plugin.bytebuddy.AbstractJunction;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ClassInstanceMethodsEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.NameMatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static net.bytebuddy.matcher.ElementMatchers.isInterface;
+import static net.bytebuddy.matcher.ElementMatchers.not;
+import static org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch.byClassAnnotationMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch.byHierarchyMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.MultiClassNameMatch.byMultiClassMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.PrefixMatch.nameStartsWith;
+import static org.apache.skywalking.apm.agent.core.plugin.match.RegexMatch.byRegexMatch;
+
+/**
+ * Match a synthetic classpath of 50k classes against 200 plugins, in the proportion of the match types of the bundled
+ * plugins, to compare the plugin index with the OR-ed junctions of all plugins. Each operation is the matching of the
+ * whole classpath, as what happens at the startup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class PluginMatchBenchmark {
+    private static final int CLASSES = 50000;
+    private static final int BASE_CLASSES = 500;
+    private static final int INTERFACES = 300;
+    private static final int ANNOTATIONS = 50;
+
+    private final List<TypeDescription> classpath = new ArrayList<TypeDescription>(CLASSES);
+    private ElementMatcher<? super TypeDescription> legacyMatcher;
+    private LegacyPluginFinder legacyFinder;
+    private ElementMatcher<? super TypeDescription> indexedMatcher;
+    private PluginFinder indexedFinder;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(7);
+        final List<TypeDescription> interfaces = new ArrayList<TypeDescription>();
+        for (int i = 0; i < INTERFACES; i++) {
+            interfaces.add(InstrumentedType.Default.of(
+                "org.framework.api" + i % 20 + ".Api" + i, null, Opcodes.ACC_PUBLIC | Opcodes.ACC_INTERFACE));
+        }
+        final List<AnnotationDescription> annotations = new ArrayList<AnnotationDescription>();
+        for (int i = 0; i < ANNOTATIONS; i++) {
+            TypeDescription annotationType = InstrumentedType.Default.of(
+                "org.framework.annotation.Component" + i, null,
+                Opcodes.ACC_PUBLIC | Opcodes.ACC_INTERFACE | Opcodes.ACC_ANNOTATION
+            ).withInterfaces(new TypeList.Generic.ForLoadedTypes(Annotation.class));
+            annotations.add(AnnotationDescription.Builder.ofType(annotationType).build());
+        }
+        final List<TypeDescription> baseClasses = new ArrayList<TypeDescription>();
+        for (int i = 0; i < BASE_CLASSES; i++) {
+            baseClasses.add(InstrumentedType.Default.of(
+                "org.framework.base" + i % 20 + ".Base" + i, TypeDescription.Generic.OBJECT, Opcodes.ACC_PUBLIC)
+                                                    .withInterfaces(randomInterfaces(random, interfaces)));
+        }
+        for (int i = 0; i < CLASSES; i++) {
+            InstrumentedType type = InstrumentedType.Default.of(
+                "com.company.module" + i % 100 + ".service" + i % 7 + ".Type" + i,
+                baseClasses.get(random.nextInt(BASE_CLASSES)).asGenericType(), Opcodes.ACC_PUBLIC
+            ).withInterfaces(randomInterfaces(random, interfaces));
+            if (random.nextInt(10) == 0) {
+                type = type.withAnnotations(
+                    Collections.singletonList(annotations.get(random.nextInt(ANNOTATIONS))));
+            }
+            classpath.add(type);
+        }
+
+        final List<AbstractClassEnhancePluginDefine> plugins = new ArrayList<AbstractClassEnhancePluginDefine>();
+        for (int i = 0; i < 100; i++) {
+            plugins.add(plugin(NameMatch.byName(
+                i % 2 == 0 ? classpath.get(random.nextInt(CLASSES)).getName() : "org.library" + i + ".Client")));
+        }
+        for (int i = 0; i < 60; i++) {
+            plugins.add(plugin(byHierarchyMatch(
+                i % 3 == 0 ? "org.library" + i + ".Callback" : interfaces.get(random.nextInt(INTERFACES)).getName())));
+        }
+        for (int i = 0; i < 20; i++) {
+            plugins.add(plugin(byClassAnnotationMatch(
+                annotations.get(random.nextInt(ANNOTATIONS)).getAnnotationType().getName())));
+        }
+        for (int i = 0; i < 10; i++) {
+            plugins.add(plugin(nameStartsWith("org.library" + i + ".")));
+        }
+        for (int i = 0; i < 6; i++) {
+            plugins.add(plugin(byMultiClassMatch("org.library" + i + ".Driver", "org.library" + i + ".Connection")));
+        }
+        for (int i = 0; i < 4; i++) {
+            plugins.add(plugin(byRegexMatch("org\\.library" + i + "\\..*Handler")));
+        }
+
+        legacyFinder = new LegacyPluginFinder(plugins);
+        legacyMatcher = legacyFinder.buildMatch();
+        indexedFinder = new PluginFinder(plugins);
+        indexedMatcher = indexedFinder.buildMatch();
+    }
+
+    private static TypeList.Generic randomInterfaces(Random random, List<TypeDescription> interfaces) {
+        final int count = random.nextInt(3);
+        final List<TypeDescription> picked = new ArrayList<TypeDescription>(count);
+        for (int i = 0; i < count; i++) {
+            picked.add(interfaces.get(random.nextInt(interfaces.size())));
+        }
+        return new TypeList.Generic.Explicit(picked);
+    }
+
+    @Benchmark
+    public int legacy() {
+        int enhanced = 0;
+        for (TypeDescription type : classpath) {
+            if (legacyMatcher.matches(type)) {
+                enhanced += legacyFinder.find(type).size();
+            }
+        }
+        return enhanced;
+    }
+
+    @Benchmark
+    public int indexed() {
+        int enhanced = 0;
+        for (TypeDescription type : classpath) {
+            if (indexedMatcher.matches(type)) {
+                enhanced += indexedFinder.find(type).size();
+            }
+        }
+        return enhanced;
+    }
+
+    private static AbstractClassEnhancePluginDefine plugin(final ClassMatch match) {
+        return new ClassInstanceMethodsEnhancePluginDefine() {
+            @Override
+            protected ClassMatch enhanceClass() {
+                return match;
+            }
+
+            @Override
+            public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+                return null;
+            }
+
+            @Override
+            public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+                return null;
+            }
+        };
+    }
+
+    /**
+     * The finder before the plugin index, which ORs the junctions of all plugins.
+     */
+    private static class LegacyPluginFinder {
+        private final Map<String, List<AbstractClassEnhancePluginDefine>> nameMatchDefine = new HashMap<String, List<AbstractClassEnhancePluginDefine>>();
+        private final List<AbstractClassEnhancePluginDefine> signatureMatchDefine = new ArrayList<AbstractClassEnhancePluginDefine>();
+
+        LegacyPluginFinder(List<AbstractClassEnhancePluginDefine> plugins) {
+            for (AbstractClassEnhancePluginDefine plugin : plugins) {
+                ClassMatch match = plugin.enhanceClass();
+                if (match instanceof NameMatch) {
+                    String className = ((NameMatch) match).getClassName();
+                    if (!nameMatchDefine.containsKey(className)) {
+                        nameMatchDefine.put(className, new LinkedList<AbstractClassEnhancePluginDefine>());
+                    }
+                    nameMatchDefine.get(className).add(plugin);
+                } else {
+                    signatureMatchDefine.add(plugin);
+                }
+            }
+        }
+
+        List<AbstractClassEnhancePluginDefine> find(TypeDescription typeDescription) {
+            List<AbstractClassEnhancePluginDefine> matchedPlugins = new LinkedList<AbstractClassEnhancePluginDefine>();
+            if (nameMatchDefine.containsKey(typeDescription.getTypeName())) {
+                matchedPlugins.addAll(nameMatchDefine.get(typeDescription.getTypeName()));
+            }
+            for (AbstractClassEnhancePluginDefine pluginDefine : signatureMatchDefine) {
+                if (((IndirectMatch) pluginDefine.enhanceClass()).isMatch(typeDescription)) {
+                    matchedPlugins.add(pluginDefine);
+                }
+            }
+            return matchedPlugins;
+        }
+
+        ElementMatcher<? super TypeDescription> buildMatch() {
+            ElementMatcher.Junction judge = new AbstractJunction<NamedElement>() {
+                @Override
+                public boolean matches(NamedElement target) {
+                    return nameMatchDefine.containsKey(target.getActualName());
+                }
+            };
+            judge = judge.and(not(isInterface()));
+            for (AbstractClassEnhancePluginDefine define : signatureMatchDefine) {
+                judge = judge.or(((IndirectMatch) define.enhanceClass()).buildJunction());
+            }
+            return judge;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+
+    /**
+     * # JMH version: 1.21
+     * # VM version: JDK 1.8.0_392, OpenJDK 64-Bit Server VM, 25.392-b08
+     * # Warmup: 3 iterations, 10 s each
+     * # Measurement: 5 iterations, 10 s each
+     * # Threads: 1 thread, will synchronize iterations
+     * # Benchmark mode: Average time, time/op
+     *
+     * Benchmark                     Mode  Cnt     Score      Error  Units
+     * PluginMatchBenchmark.indexed  avgt    5   296.275 ±   52.945  ms/op
+     * PluginMatchBenchmark.legacy   avgt    5  5868.502 ± 1314.399  ms/op
+     */
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.bytebuddy;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.lang.instrument.ClassFileTransformer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PersistentClassCacheDecoratorTest {
+    private static final byte[] UNENHANCED = new byte[] {1, 2, 3};
+    private static final byte[] ENHANCED = new byte[] {4, 5, 6};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicInteger transformed = new AtomicInteger();
+    private final ClassFileTransformer transformer = (loader, className, classBeingRedefined, protectionDomain, classfileBuffer) -> {
+        transformed.incrementAndGet();
+        return classfileBuffer == ENHANCED ? new byte[] {7} : null;
+    };
+
+    @Test
+    public void testSkipUnenhancedClassAfterRestart() throws Exception {
+        PersistentClassCacheDecorator cache = new PersistentClassCacheDecorator(folder.getRoot(), "v1");
+        Assert.assertNull(cache.transform(transformer, null, "A", null, null, UNENHANCED));
+        Assert.assertNotNull(cache.transform(transformer, null, "B", null, null, ENHANCED));
+        Assert.assertNull(cache.transform(transformer, null, "A", null, null, UNENHANCED));
+        Assert.assertEquals(2, transformed.get());
+        cache.flush();
+
+        cache = new PersistentClassCacheDecorator(folder.getRoot(), "v1");
+        Assert.assertNull(cache.transform(transformer, null, "A", null, null, UNENHANCED));
+        Assert.assertNotNull(cache.transform(transformer, null, "B", null, null, ENHANCED));
+        Assert.assertEquals(3, transformed.get());
+
+        // Retransformation always goes through the transformer.
+        cache.transform(transformer, null, "A", String.class, null, UNENHANCED);
+        Assert.assertEquals(4, transformed.get());
+
+        cache = new PersistentClassCacheDecorator(folder.getRoot(), "v2");
+        Assert.assertNull(cache.transform(transformer, null, "A", null, null, UNENHANCED));
+        Assert.assertEquals(5, transformed.get());
+    }
+
+    @Test
+    public void testSkipCustomClassLoader() throws Exception {
+        final PersistentClassCacheDecorator cache = new PersistentClassCacheDecorator(folder.getRoot(), "v1");
+        final ClassLoader systemClassLoader = ClassLoader.getSystemClassLoader();
+        cache.transform(transformer, systemClassLoader, "A", null, null, UNENHANCED);
+        cache.transform(transformer, systemClassLoader, "A", null, null, UNENHANCED);
+        Assert.assertEquals(1, transformed.get());
+
+        try (URLClassLoader customClassLoader = new URLClassLoader(new URL[0], systemClassLoader)) {
+            cache.transform(transformer, customClassLoader, "A", null, null, UNENHANCED);
+            cache.transform(transformer, customClassLoader, "A", null, null, UNENHANCED);
+        }
+        Assert.assertEquals(3, transformed.get());
+    }
+
+    @Test
+    public void testFailedClassNotPersisted() throws Exception {
+        final PersistentClassCacheDecorator cache = new PersistentClassCacheDecorator(folder.getRoot(), "v1");
+        final ClassFileTransformer failing = (loader, className, classBeingRedefined, protectionDomain, classfileBuffer) -> {
+            transformed.incrementAndGet();
+            cache.listener().onError(className, loader, null, false, new IllegalStateException());
+            return null;
+        };
+        cache.transform(failing, null, "A", null, null, UNENHANCED);
+        cache.transform(failing, null, "A", null, null, UNENHANCED);
+        Assert.assertEquals(2, transformed.get());
+    }
+
+    @Test
+    public void testDropInvalidSegment() throws Exception {
+        PersistentClassCacheDecorator cache = new PersistentClassCacheDecorator(folder.getRoot(), "v1");
+        cache.transform(transformer, null, "A", null, null, UNENHANCED);
+        cache.flush();
+
+        final File[] segments = new File(folder.getRoot(), "v1").listFiles();
+        Assert.assertEquals(1, segments.length);
+        try (FileOutputStream output = new FileOutputStream(new File(segments[0].getParentFile(), "broken.seg"))) {
+            output.write(new byte[] {0x53, 0x57});
+        }
+
+        cache = new PersistentClassCacheDecorator(folder.getRoot(), "v1");
+        Assert.assertNull(cache.transform(transformer, null, "A", null, null, UNENHANCED));
+        Assert.assertEquals(1, transformed.get());
+        Assert.assertEquals(1, new File(folder.getRoot(), "v1").listFiles().length);
+    }
+}
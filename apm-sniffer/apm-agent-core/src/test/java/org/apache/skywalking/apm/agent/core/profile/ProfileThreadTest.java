@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.profile;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ProfileThreadTest {
+
+    @Test
+    public void testAdjustDumpPeriod() {
+        final long cheap = TimeUnit.MICROSECONDS.toNanos(100);
+        final long expensive = TimeUnit.MILLISECONDS.toNanos(2);
+
+        // 5% of 10ms is 0.5ms
+        Assert.assertEquals(10, ProfileThread.adjustDumpPeriod(10, 10, cheap));
+        Assert.assertEquals(20, ProfileThread.adjustDumpPeriod(10, 10, expensive));
+        Assert.assertEquals(40, ProfileThread.adjustDumpPeriod(20, 10, expensive));
+        // never extend more than 8 times of the task period
+        Assert.assertEquals(80, ProfileThread.adjustDumpPeriod(80, 10, TimeUnit.MILLISECONDS.toNanos(100)));
+
+        // shorten back to the task period
+        Assert.assertEquals(40, ProfileThread.adjustDumpPeriod(80, 10, cheap));
+        Assert.assertEquals(10, ProfileThread.adjustDumpPeriod(10, 10, 0));
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import io.grpc.Metadata;
+import io.grpc.Status;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.powermock.reflect.Whitebox;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GRPCChannelManagerTest {
+    private final List<GRPCChannelStatus> statuses = new ArrayList<>();
+    private GRPCChannelManager channelManager;
+
+    @Before
+    public void setUp() {
+        statuses.clear();
+        channelManager = new GRPCChannelManager();
+        Whitebox.setInternalState(channelManager, "reconnect", false);
+        channelManager.addChannelListener(statuses::add);
+    }
+
+    @Test
+    public void testKeepChannelWhenAdmissionRejected() {
+        final Metadata trailers = new Metadata();
+        trailers.put(Metadata.Key.of("sw-admission-rejected", Metadata.ASCII_STRING_MARSHALLER), "OVER_LIMIT");
+        channelManager.reportError(Status.UNAVAILABLE.asRuntimeException(trailers));
+
+        assertTrue(statuses.isEmpty());
+        assertFalse(Whitebox.getInternalState(channelManager, "reconnect"));
+    }
+
+    @Test
+    public void testReconnectWhenUnavailable() {
+        channelManager.reportError(Status.UNAVAILABLE.asRuntimeException());
+
+        assertEquals(1, statuses.size());
+        assertEquals(GRPCChannelStatus.DISCONNECT, statuses.get(0));
+        assertTrue(Whitebox.getInternalState(channelManager, "reconnect"));
+    }
+}
@@ -19,10 +19,16 @@
 package org.apache.skywalking.apm.agent.core.remote;
 
 import com.google.protobuf.InvalidProtocolBufferException;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
 import io.grpc.stub.StreamObserver;
 import io.grpc.testing.GrpcServerRule;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.ContextManager;
@@ -48,6 +54,7 @@ import org.junit.runner.RunWith;
 import org.powermock.reflect.Whitebox;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.spy;
 
@@ -63,6 +70,9 @@ public class TraceSegmentServiceClientTest {
     @SegmentStoragePoint
     private SegmentStorage storage;
 
+    private static final Metadata.Key<String> GRPC_ENCODING = Metadata.Key.of(
+        "grpc-encoding", Metadata.ASCII_STRING_MARSHALLER);
+
     private TraceSegmentServiceClient serviceClient = new TraceSegmentServiceClient();
     private List<SegmentObject> upstreamSegments;
 
@@ -135,6 +145,51 @@ public class TraceSegmentServiceClientTest {
         assertThat(spanObject.getParentSpanId(), is(-1));
     }
 
+    @Test
+    public void testSendTraceSegmentWithCompression() {
+        assertThat(sendWithCompression("gzip"), is("gzip"));
+        assertThat(upstreamSegments.size(), is(1));
+        assertThat(upstreamSegments.get(0).getSpans(0).getOperationName(), is("/testFirstEntry"));
+    }
+
+    @Test
+    public void testSendTraceSegmentWithUnsupportedCompression() {
+        assertThat(sendWithCompression("unknown"), nullValue());
+        assertThat(upstreamSegments.size(), is(1));
+        assertThat(upstreamSegments.get(0).getSpans(0).getOperationName(), is("/testFirstEntry"));
+    }
+
+    /**
+     * Boot the client with the given compression, send a segment, and return the grpc-encoding the server received.
+     */
+    private String sendWithCompression(String compression) {
+        final AtomicReference<String> encoding = new AtomicReference<>();
+        final ServerInterceptor encodingInterceptor = new ServerInterceptor() {
+            @Override
+            public <REQ, RESP> ServerCall.Listener<REQ> interceptCall(final ServerCall<REQ, RESP> call,
+                                                                      final Metadata headers,
+                                                                      final ServerCallHandler<REQ, RESP> next) {
+                encoding.set(headers.get(GRPC_ENCODING));
+                return next.startCall(call, headers);
+            }
+        };
+        grpcServerRule.getServiceRegistry().addService(ServerInterceptors.intercept(serviceImplBase, encodingInterceptor));
+
+        Config.Collector.GRPC_UPSTREAM_COMPRESSION = compression;
+        serviceClient.boot();
+        try {
+            AbstractSpan firstEntrySpan = ContextManager.createEntrySpan("/testFirstEntry", null);
+            firstEntrySpan.setComponent(ComponentsDefine.TOMCAT);
+            ContextManager.stopSpan();
+
+            serviceClient.consume(storage.getTraceSegments());
+        } finally {
+            serviceClient.shutdown();
+            Config.Collector.GRPC_UPSTREAM_COMPRESSION = "";
+        }
+        return encoding.get();
+    }
+
     @Test
     public void testSendTraceSegmentWithException() throws InvalidProtocolBufferException {
         grpcServerRule.getServiceRegistry().addService(serviceImplBase);
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import org.apache.skywalking.apm.agent.core.boot.BootService;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.ContextManager;
+import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
+import org.apache.skywalking.apm.agent.core.remote.TraceSegmentServiceClient;
+import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.powermock.reflect.Whitebox;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SamplingServiceTest {
+
+    @Rule
+    public AgentServiceRule agentServiceRule = new AgentServiceRule();
+
+    private SamplingService samplingService;
+
+    @BeforeClass
+    public static void beforeClass() {
+        Config.Agent.KEEP_TRACING = true;
+        Config.Agent.SAMPLE_N_PER_3_SECS = 2;
+        Config.Agent.SAMPLE_MIN_PER_ENDPOINT_PER_3_SECS = 1;
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        Config.Agent.KEEP_TRACING = false;
+        Config.Agent.SAMPLE_N_PER_3_SECS = -1;
+        Config.Agent.SAMPLE_MIN_PER_ENDPOINT_PER_3_SECS = -1;
+        ServiceManager.INSTANCE.shutdown();
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        samplingService = ServiceManager.INSTANCE.findService(SamplingService.class);
+        ScheduledFuture<?> scheduledFuture = Whitebox.getInternalState(samplingService, "scheduledFuture");
+        scheduledFuture.cancel(true);
+        Whitebox.invokeMethod(samplingService, "resetSamplingPeriod");
+    }
+
+    @Test
+    public void testGuaranteedQuotaPerEndpoint() {
+        assertTrue(samplingService.trySampling("/busy"));
+        assertTrue(samplingService.trySampling("/busy"));
+        assertTrue(samplingService.trySampling("/busy"));
+        assertFalse(samplingService.trySampling("/busy"));
+
+        assertTrue(samplingService.trySampling("/rare"));
+        assertFalse(samplingService.trySampling("/rare"));
+    }
+
+    @Test
+    public void testErrorEndpointQuotaDoubled() throws Exception {
+        ContextManager.createLocalSpan("/error").errorOccurred();
+        ContextManager.stopSpan();
+        Whitebox.invokeMethod(samplingService, "resetSamplingPeriod");
+        Whitebox.setInternalState(samplingService, "budget", 0);
+
+        assertTrue(samplingService.trySampling("/error"));
+        assertTrue(samplingService.trySampling("/error"));
+        assertFalse(samplingService.trySampling("/error"));
+        assertTrue(samplingService.trySampling("/other"));
+        assertFalse(samplingService.trySampling("/other"));
+    }
+
+    @Test
+    public void testRenamedEndpointQuotaDoubled() throws Exception {
+        AbstractSpan span = ContextManager.createLocalSpan("/users/1");
+        span.setOperationName("/users/{id}");
+        span.errorOccurred();
+        ContextManager.stopSpan();
+        Whitebox.invokeMethod(samplingService, "resetSamplingPeriod");
+        Whitebox.setInternalState(samplingService, "budget", 0);
+
+        assertTrue(samplingService.trySampling("/users/1"));
+        assertTrue(samplingService.trySampling("/users/1"));
+        assertFalse(samplingService.trySampling("/users/1"));
+        assertTrue(samplingService.trySampling("/users/{id}"));
+        assertFalse(samplingService.trySampling("/users/{id}"));
+    }
+
+    @Test
+    public void testBudgetAdaptToReporter() throws Exception {
+        samplingService.onSegmentOverflow();
+        Whitebox.invokeMethod(samplingService, "resetSamplingPeriod");
+        assertEquals(1, (int) Whitebox.getInternalState(samplingService, "budget"));
+        // The endpoint quotas are suspended after the overflow.
+        assertTrue(samplingService.trySampling("/busy"));
+        assertFalse(samplingService.trySampling("/busy"));
+
+        Whitebox.invokeMethod(samplingService, "resetSamplingPeriod");
+        assertEquals(2, (int) Whitebox.getInternalState(samplingService, "budget"));
+        assertTrue(samplingService.trySampling("/busy"));
+        assertTrue(samplingService.trySampling("/busy"));
+        assertTrue(samplingService.trySampling("/busy"));
+        assertFalse(samplingService.trySampling("/busy"));
+    }
+
+    @Test
+    public void testBudgetAdaptToOverrideReporter() throws Exception {
+        Map<Class, BootService> bootedServices = Whitebox.getInternalState(ServiceManager.INSTANCE, "bootedServices");
+        BootService client = bootedServices.get(TraceSegmentServiceClient.class);
+        // The override reporter, such as the Kafka one, doesn't extend TraceSegmentServiceClient.
+        bootedServices.put(TraceSegmentServiceClient.class, new OverrideReporter());
+        try {
+            ((OverrideReporter) bootedServices.get(TraceSegmentServiceClient.class)).abandon();
+            Whitebox.invokeMethod(samplingService, "resetSamplingPeriod");
+            assertEquals(1, (int) Whitebox.getInternalState(samplingService, "budget"));
+            assertTrue(samplingService.trySampling("/busy"));
+            assertFalse(samplingService.trySampling("/busy"));
+        } finally {
+            bootedServices.put(TraceSegmentServiceClient.class, client);
+        }
+    }
+
+    private static class OverrideReporter implements BootService {
+        private void abandon() {
+            ServiceManager.INSTANCE.findService(SamplingService.class).onSegmentOverflow();
+        }
+
+        @Override
+        public void prepare() {
+        }
+
+        @Override
+        public void boot() {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    }
+}
@@ -19,6 +19,7 @@
 package org.apache.skywalking.apm.agent;
 
 import java.lang.instrument.Instrumentation;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -46,6 +47,7 @@ import org.apache.skywalking.apm.agent.core.plugin.PluginException;
 import org.apache.skywalking.apm.agent.core.plugin.PluginFinder;
 import org.apache.skywalking.apm.agent.core.plugin.bootstrap.BootstrapInstrumentBoost;
 import org.apache.skywalking.apm.agent.core.plugin.bytebuddy.CacheableTransformerDecorator;
+import org.apache.skywalking.apm.agent.core.plugin.bytebuddy.PersistentClassCacheDecorator;
 import org.apache.skywalking.apm.agent.core.plugin.jdk9module.JDK9ModuleExporter;
 
 import static net.bytebuddy.matcher.ElementMatchers.nameContains;
@@ -62,6 +64,7 @@ public class SkyWalkingAgent {
      * Main entrance. Use byte-buddy transform to enhance all classes, which define in plugins.
      */
     public static void premain(String agentArgs, Instrumentation instrumentation) throws PluginException {
+        final List<AbstractClassEnhancePluginDefine> plugins;
         final PluginFinder pluginFinder;
         try {
             SnifferConfigInitializer.initializeCoreConfig(agentArgs);
@@ -76,7 +79,8 @@ public class SkyWalkingAgent {
         }
 
         try {
-            pluginFinder = new PluginFinder(new PluginBootstrap().loadPlugins());
+            plugins = new PluginBootstrap().loadPlugins();
+            pluginFinder = new PluginFinder(plugins);
         } catch (AgentPackageNotFoundException ape) {
             LOGGER.error(ape, "Locate agent.jar failure. Shutting down.");
             return;
@@ -122,6 +126,23 @@ public class SkyWalkingAgent {
             }
         }
 
+        if (Config.Agent.IS_PERSISTENT_CLASS_CACHE) {
+            try {
+                List<String> pluginDefineClasses = new ArrayList<>(plugins.size());
+                for (AbstractClassEnhancePluginDefine plugin : plugins) {
+                    pluginDefineClasses.add(plugin.getClass().getName());
+                }
+                PersistentClassCacheDecorator persistentClassCache = new PersistentClassCacheDecorator(
+                    PersistentClassCacheDecorator.getBaseDir(),
+                    PersistentClassCacheDecorator.fingerprint(pluginDefineClasses)
+                );
+                agentBuilder = agentBuilder.with(persistentClassCache).with(persistentClassCache.listener());
+                LOGGER.info("SkyWalking agent persistent class cache activated.");
+            } catch (Exception e) {
+                LOGGER.error(e, "SkyWalking agent can't active persistent class cache.");
+            }
+        }
+
         agentBuilder.type(pluginFinder.buildMatch())
                     .transform(new Transformer(pluginFinder))
                     .with(AgentBuilder.RedefinitionStrategy.RETRANSFORMATION)
@@ -50,6 +50,8 @@ public class MeterIdConverter {
                 return MeterType.COUNTER;
             case HISTOGRAM:
                 return MeterType.HISTOGRAM;
+            case SKETCH:
+                return MeterType.SKETCH;
             default:
                 throw new IllegalStateException("Could not found the meter type: " + id.getType());
         }
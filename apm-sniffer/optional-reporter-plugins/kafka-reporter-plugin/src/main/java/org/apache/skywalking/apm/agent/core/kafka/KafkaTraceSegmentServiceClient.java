@@ -32,6 +32,7 @@ import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.remote.TraceSegmentServiceClient;
+import org.apache.skywalking.apm.agent.core.sampling.SamplingService;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
@@ -51,12 +52,14 @@ public class KafkaTraceSegmentServiceClient implements BootService, IConsumer<Tr
     private KafkaProducer<String, Bytes> producer;
 
     private volatile DataCarrier<TraceSegment> carrier;
+    private SamplingService samplingService;
 
     @Override
     public void prepare() {
         KafkaProducerManager producerManager = ServiceManager.INSTANCE.findService(KafkaProducerManager.class);
         producerManager.addListener(this);
         topic = producerManager.formatTopicNameThenRegister(KafkaReporterPluginConfig.Plugin.Kafka.TOPIC_SEGMENT);
+        samplingService = ServiceManager.INSTANCE.findService(SamplingService.class);
     }
 
     @Override
@@ -121,7 +124,9 @@ public class KafkaTraceSegmentServiceClient implements BootService, IConsumer<Tr
             LOGGER.debug("Trace[TraceId={}] is ignored.", traceSegment.getTraceSegmentId());
             return;
         }
-        carrier.produce(traceSegment);
+        if (!carrier.produce(traceSegment)) {
+            samplingService.onSegmentOverflow();
+        }
     }
 
     @Override
@@ -27,6 +27,7 @@ import org.apache.skywalking.oap.server.analyzer.provider.trace.DBLatencyThresho
 import org.apache.skywalking.oap.server.analyzer.provider.trace.TraceLatencyThresholdsAndWatcher;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.TraceSampleRateWatcher;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.UninstrumentedGatewaysConfig;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.sampling.TraceTailSampler;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.strategy.SegmentStatusStrategy;
 import org.apache.skywalking.oap.server.core.Const;
 import org.apache.skywalking.oap.server.library.module.ModuleConfig;
@@ -121,6 +122,48 @@ public class AnalyzerModuleConfig extends ModuleConfig {
     @Getter
     private String segmentStatusAnalysisStrategy = FROM_SPAN_STATUS.name();
 
+    /**
+     * Make the sampling decision for the whole trace, rather than every segment. The segments, not sampled by the
+     * sample rate, are routed by the trace id across the OAP nodes and buffered, the trace is kept if any of its
+     * segments is error, slow or tagged by {@link #tailSamplingTags}.
+     */
+    @Setter
+    @Getter
+    private boolean tailSampling = false;
+
+    /**
+     * The seconds to wait for the segments of one trace, the trace is dropped if no segment is kept in the window.
+     */
+    @Setter
+    @Getter
+    private int tailSamplingWindow = 10;
+
+    /**
+     * The max number of the traces waiting for the decision, the segments of the new traces are dropped beyond this.
+     */
+    @Setter
+    @Getter
+    private int tailSamplingMaxTraces = 100000;
+
+    /**
+     * The max number of the segments waiting for the decision in one trace, the following segments of the trace are
+     * dropped beyond this until the trace is decided to keep.
+     */
+    @Setter
+    @Getter
+    private int tailSamplingMaxSegmentsPerTrace = 200;
+
+    /**
+     * The tags keep the trace in the tail sampling, in the format of `key=value`, split by ",".
+     */
+    @Setter
+    @Getter
+    private String tailSamplingTags = Const.EMPTY_STRING;
+
+    @Setter
+    @Getter
+    private TraceTailSampler traceTailSampler;
+
     private List<Integer> virtualPeers;
 
     /**
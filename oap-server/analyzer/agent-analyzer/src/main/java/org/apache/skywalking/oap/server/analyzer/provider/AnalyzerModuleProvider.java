@@ -35,11 +35,14 @@ import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.SegmentPa
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.MultiScopesAnalysisListener;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.NetworkAddressAliasMappingListener;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.SegmentAnalysisListener;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.sampling.TraceTailSampler;
 import org.apache.skywalking.oap.server.configuration.api.ConfigurationModule;
 import org.apache.skywalking.oap.server.configuration.api.DynamicConfigurationService;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.oal.rt.CoreOALDefine;
 import org.apache.skywalking.oap.server.core.oal.rt.OALEngineLoaderService;
+import org.apache.skywalking.oap.server.core.remote.RemoteSenderService;
+import org.apache.skywalking.oap.server.core.source.SourceReceiver;
 import org.apache.skywalking.oap.server.library.module.ModuleConfig;
 import org.apache.skywalking.oap.server.library.module.ModuleDefine;
 import org.apache.skywalking.oap.server.library.module.ModuleProvider;
@@ -123,6 +126,17 @@ public class AnalyzerModuleProvider extends ModuleProvider {
         dynamicConfigurationService.registerConfigChangeWatcher(uninstrumentedGatewaysConfig);
         dynamicConfigurationService.registerConfigChangeWatcher(traceSampleRateWatcher);
 
+        if (moduleConfig.isTailSampling()) {
+            final TraceTailSampler traceTailSampler = new TraceTailSampler(
+                getManager().find(CoreModule.NAME).provider().getService(SourceReceiver.class),
+                getManager().find(CoreModule.NAME).provider().getService(RemoteSenderService.class),
+                moduleConfig.getTailSamplingWindow(),
+                moduleConfig.getTailSamplingMaxTraces(),
+                moduleConfig.getTailSamplingMaxSegmentsPerTrace()
+            );
+            traceTailSampler.start(getManager());
+            moduleConfig.setTraceTailSampler(traceTailSampler);
+        }
         segmentParserService.setListenerManager(listenerManager());
 
         processService.start(meterConfigs);
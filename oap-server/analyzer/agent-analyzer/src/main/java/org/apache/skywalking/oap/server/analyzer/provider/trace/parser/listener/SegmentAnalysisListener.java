@@ -21,13 +21,17 @@ package org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.apm.network.common.v3.KeyStringValuePair;
 import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
 import org.apache.skywalking.apm.util.StringUtil;
 import org.apache.skywalking.oap.server.analyzer.provider.AnalyzerModuleConfig;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.TraceLatencyThresholdsAndWatcher;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.sampling.TraceTailSampler;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.strategy.SegmentStatusAnalyzer;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.strategy.SegmentStatusStrategy;
 import org.apache.skywalking.oap.server.core.Const;
@@ -56,6 +60,11 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
     private final List<String> searchableTagKeys;
     private final SegmentStatusAnalyzer segmentStatusAnalyzer;
     private final TraceLatencyThresholdsAndWatcher traceLatencyThresholdsAndWatcher;
+    /**
+     * Null if the tail sampling is off.
+     */
+    private final TraceTailSampler tailSampler;
+    private final Set<Tag> tailSamplingTags;
 
     private final Segment segment = new Segment();
     private SAMPLE_STATUS sampleStatus = SAMPLE_STATUS.UNKNOWN;
@@ -67,6 +76,7 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
     private long endTimestamp;
     private int duration;
     private boolean isError;
+    private boolean isTagMatched;
 
     @Override
     public boolean containsPoint(Point point) {
@@ -137,6 +147,9 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
             }
             isError = isError || segmentStatusAnalyzer.isError(span);
             appendSearchableTags(span);
+            if (tailSampler != null && !isTagMatched && !tailSamplingTags.isEmpty()) {
+                isTagMatched = matchTailSamplingTags(span);
+            }
         });
         final long accurateDuration = endTimestamp - startTimestamp;
         duration = accurateDuration > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) accurateDuration;
@@ -145,11 +158,13 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
             if (sampler.shouldSample(segmentObject.getTraceId())) {
                 sampleStatus = SAMPLE_STATUS.SAMPLED;
             } else if (isError && forceSampleErrorSegment) {
-                sampleStatus = SAMPLE_STATUS.SAMPLED;
+                sampleStatus = tailSampler == null ? SAMPLE_STATUS.SAMPLED : SAMPLE_STATUS.TAIL_SAMPLED;
             } else if (traceLatencyThresholdsAndWatcher.shouldSample(duration)) {
-                sampleStatus = SAMPLE_STATUS.SAMPLED;
+                sampleStatus = tailSampler == null ? SAMPLE_STATUS.SAMPLED : SAMPLE_STATUS.TAIL_SAMPLED;
+            } else if (isTagMatched) {
+                sampleStatus = SAMPLE_STATUS.TAIL_SAMPLED;
             } else {
-                sampleStatus = SAMPLE_STATUS.IGNORE;
+                sampleStatus = tailSampler == null ? SAMPLE_STATUS.IGNORE : SAMPLE_STATUS.TAIL_PENDING;
             }
         }
     }
@@ -168,6 +183,15 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
         segment.getTags().addAll(segmentTags);
     }
 
+    private boolean matchTailSamplingTags(SpanObject span) {
+        for (final KeyStringValuePair tag : span.getTagsList()) {
+            if (tailSamplingTags.contains(new Tag(tag.getKey(), tag.getValue()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public void build() {
         if (log.isDebugEnabled()) {
@@ -181,11 +205,19 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
         segment.setEndpointId(endpointId);
         segment.setEndpointName(endpointName);
 
+        if (sampleStatus.equals(SAMPLE_STATUS.TAIL_SAMPLED) || sampleStatus.equals(SAMPLE_STATUS.TAIL_PENDING)) {
+            tailSampler.offer(segment, sampleStatus.equals(SAMPLE_STATUS.TAIL_SAMPLED));
+            return;
+        }
         sourceReceiver.receive(segment);
     }
 
+    /**
+     * TAIL_SAMPLED and TAIL_PENDING are only used when the tail sampling is on, the segment is kept or waits for the
+     * decision of its trace.
+     */
     private enum SAMPLE_STATUS {
-        UNKNOWN, SAMPLED, IGNORE
+        UNKNOWN, SAMPLED, IGNORE, TAIL_SAMPLED, TAIL_PENDING
     }
 
     public static class Factory implements AnalysisListenerFactory {
@@ -196,6 +228,8 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
         private final List<String> searchTagKeys;
         private final SegmentStatusAnalyzer segmentStatusAnalyzer;
         private final TraceLatencyThresholdsAndWatcher traceLatencyThresholdsAndWatcher;
+        private final TraceTailSampler tailSampler;
+        private final Set<Tag> tailSamplingTags;
 
         public Factory(ModuleManager moduleManager, AnalyzerModuleConfig config) {
             this.sourceReceiver = moduleManager.find(CoreModule.NAME).provider().getService(SourceReceiver.class);
@@ -211,6 +245,13 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
             this.segmentStatusAnalyzer = SegmentStatusStrategy.findByName(config.getSegmentStatusAnalysisStrategy())
                                                               .getExceptionAnalyzer();
             this.traceLatencyThresholdsAndWatcher = config.getTraceLatencyThresholdsAndWatcher();
+            this.tailSampler = config.getTraceTailSampler();
+            this.tailSamplingTags = Arrays.stream(config.getTailSamplingTags().split(Const.COMMA))
+                                          .map(String::trim)
+                                          .filter(tag -> tag.indexOf('=') > 0)
+                                          .map(tag -> new Tag(
+                                              tag.substring(0, tag.indexOf('=')), tag.substring(tag.indexOf('=') + 1)))
+                                          .collect(Collectors.toSet());
         }
 
         @Override
@@ -222,7 +263,9 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
                 namingControl,
                 searchTagKeys,
                 segmentStatusAnalyzer,
-                traceLatencyThresholdsAndWatcher
+                traceLatencyThresholdsAndWatcher,
+                tailSampler,
+                tailSamplingTags
             );
         }
     }
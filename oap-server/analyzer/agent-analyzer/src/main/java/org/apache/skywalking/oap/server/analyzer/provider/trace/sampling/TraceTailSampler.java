@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.analyzer.provider.trace.sampling;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
+import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.remote.RemoteSenderService;
+import org.apache.skywalking.oap.server.core.remote.selector.Selector;
+import org.apache.skywalking.oap.server.core.source.Segment;
+import org.apache.skywalking.oap.server.core.source.SourceReceiver;
+import org.apache.skywalking.oap.server.core.worker.IWorkerInstanceSetter;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+
+/**
+ * The tail sampler makes one keep or drop decision for the whole trace, rather than every segment. The segments, which
+ * are not sampled by the sample rate, are routed by the trace id, so all segments of one trace meet at the same OAP
+ * node. They are held in a bounded buffer until any segment of the trace matches the error, latency or tag policies,
+ * then the buffered and the following segments of the trace are kept. The trace is dropped if no segment matches in
+ * the window.
+ * <p>
+ * The buffer of one trace is only changed in {@link ConcurrentHashMap#compute}, which is atomic per trace id, so a
+ * segment is either buffered before the trace is decided to keep and flushed with the trace, or kept directly.
+ */
+@Slf4j
+public class TraceTailSampler {
+    public static final String WORKER_NAME = "TraceTailSamplingWorker";
+
+    private final SourceReceiver sourceReceiver;
+    private final RemoteSenderService remoteSender;
+    private final long windowMillis;
+    private final int maxTraces;
+    private final int maxSegmentsPerTrace;
+    private final ConcurrentHashMap<String, PendingTrace> pendingTraces = new ConcurrentHashMap<>();
+    /**
+     * The traces decided to keep, so their late segments are kept without buffering.
+     */
+    private final Cache<String, Boolean> keptTraces;
+
+    public TraceTailSampler(SourceReceiver sourceReceiver, RemoteSenderService remoteSender, int windowSeconds,
+                            int maxTraces, int maxSegmentsPerTrace) {
+        this.sourceReceiver = sourceReceiver;
+        this.remoteSender = remoteSender;
+        this.windowMillis = TimeUnit.SECONDS.toMillis(windowSeconds);
+        this.maxTraces = maxTraces;
+        this.maxSegmentsPerTrace = maxSegmentsPerTrace;
+        this.keptTraces = CacheBuilder.newBuilder()
+                                      .maximumSize(maxTraces)
+                                      .expireAfterWrite(windowSeconds * 2L, TimeUnit.SECONDS)
+                                      .build();
+    }
+
+    /**
+     * Register the remote receiver worker, and start to drop the traces out of the window.
+     */
+    public void start(ModuleManager moduleManager) {
+        moduleManager.find(CoreModule.NAME)
+                     .provider()
+                     .getService(IWorkerInstanceSetter.class)
+                     .put(WORKER_NAME, new TraceTailSamplingWorker(moduleManager, this), TraceTailSamplingData.class);
+
+        Executors.newSingleThreadScheduledExecutor()
+                 .scheduleAtFixedRate(
+                     new RunnableWithExceptionProtection(
+                         () -> expire(System.currentTimeMillis()),
+                         t -> log.error("Trace tail sampling expiration failure.", t)
+                     ), 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Route the segment to the OAP node in charge of its trace.
+     *
+     * @param keep true if the segment matches the policies, which keeps the whole trace.
+     */
+    public void offer(Segment segment, boolean keep) {
+        remoteSender.send(WORKER_NAME, new TraceTailSamplingData(segment, keep), Selector.HashCode);
+    }
+
+    /**
+     * Keep the segment if its trace has been decided to keep, otherwise buffer it until the decision.
+     */
+    void receive(Segment segment, boolean keep) {
+        final String traceId = segment.getTraceId();
+        if (keep) {
+            keptTraces.put(traceId, Boolean.TRUE);
+            sourceReceiver.receive(segment);
+            // Any segment buffered concurrently has been added before the removal, as the buffering checks the kept
+            // traces in the same atomic computation.
+            final PendingTrace pending = pendingTraces.remove(traceId);
+            if (pending != null) {
+                pending.segments.forEach(sourceReceiver::receive);
+            }
+            return;
+        }
+
+        final boolean[] kept = new boolean[1];
+        pendingTraces.compute(traceId, (id, pending) -> {
+            if (keptTraces.getIfPresent(id) != null) {
+                kept[0] = true;
+                return pending;
+            }
+            if (pending == null) {
+                if (pendingTraces.size() >= maxTraces) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Trace tail sampling buffer is full, drop the segment {}.", segment.getSegmentId());
+                    }
+                    return null;
+                }
+                pending = new PendingTrace(System.currentTimeMillis());
+            }
+            if (pending.segments.size() >= maxSegmentsPerTrace) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Trace tail sampling buffer of trace {} is full, drop the segment {}.",
+                              id, segment.getSegmentId()
+                    );
+                }
+                return pending;
+            }
+            pending.segments.add(segment);
+            return pending;
+        });
+        if (kept[0]) {
+            sourceReceiver.receive(segment);
+        }
+    }
+
+    /**
+     * Drop the traces which have no segment matching the policies in the window.
+     */
+    void expire(long now) {
+        final Iterator<PendingTrace> iterator = pendingTraces.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().createTime >= windowMillis) {
+                iterator.remove();
+            }
+        }
+    }
+
+    int pendingTraceSize() {
+        return pendingTraces.size();
+    }
+
+    /**
+     * The buffered segments of one trace, only accessed in the atomic computation of the trace id, or after removed.
+     */
+    private static class PendingTrace {
+        private final long createTime;
+        private final List<Segment> segments = new ArrayList<>(4);
+
+        private PendingTrace(long createTime) {
+            this.createTime = createTime;
+        }
+    }
+}
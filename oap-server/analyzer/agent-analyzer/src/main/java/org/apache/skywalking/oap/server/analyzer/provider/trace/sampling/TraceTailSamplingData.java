@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.analyzer.provider.trace.sampling;
+
+import com.google.protobuf.ByteString;
+import lombok.Getter;
+import org.apache.skywalking.oap.server.core.analysis.manual.searchtag.Tag;
+import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.source.Segment;
+
+/**
+ * The segment waiting for the trace level sampling decision, routed by the trace id to the OAP node which buffers the
+ * segments of the trace.
+ */
+public class TraceTailSamplingData extends StreamData {
+    @Getter
+    private Segment segment;
+    /**
+     * True if the segment matches the error, latency or tag policies, which keeps the whole trace.
+     */
+    @Getter
+    private boolean keep;
+
+    public TraceTailSamplingData() {
+    }
+
+    public TraceTailSamplingData(Segment segment, boolean keep) {
+        this.segment = segment;
+        this.keep = keep;
+    }
+
+    @Override
+    public int remoteHashCode() {
+        return segment.getTraceId().hashCode();
+    }
+
+    @Override
+    public RemoteData.Builder serialize() {
+        final RemoteData.Builder remoteBuilder = RemoteData.newBuilder();
+        remoteBuilder.addDataStrings(segment.getTraceId());
+        remoteBuilder.addDataStrings(segment.getSegmentId());
+        remoteBuilder.addDataStrings(segment.getServiceId());
+        remoteBuilder.addDataStrings(segment.getServiceInstanceId());
+        remoteBuilder.addDataStrings(segment.getEndpointName());
+        remoteBuilder.addDataStrings(segment.getEndpointId());
+        for (final Tag tag : segment.getTags()) {
+            remoteBuilder.addDataStrings(tag.getKey());
+            remoteBuilder.addDataStrings(tag.getValue());
+        }
+
+        remoteBuilder.addDataLongs(segment.getStartTime());
+        remoteBuilder.addDataLongs(segment.getEndTime());
+        remoteBuilder.addDataLongs(segment.getTimeBucket());
+
+        remoteBuilder.addDataIntegers(segment.getLatency());
+        remoteBuilder.addDataIntegers(segment.getIsError());
+        remoteBuilder.addDataIntegers(segment.getVersion());
+        remoteBuilder.addDataIntegers(keep ? 1 : 0);
+
+        remoteBuilder.addDataObjectBytes(ByteString.copyFrom(segment.getDataBinary()));
+        return remoteBuilder;
+    }
+
+    @Override
+    public void deserialize(final RemoteData remoteData) {
+        segment = new Segment();
+        segment.setTraceId(remoteData.getDataStrings(0));
+        segment.setSegmentId(remoteData.getDataStrings(1));
+        segment.setServiceId(remoteData.getDataStrings(2));
+        segment.setServiceInstanceId(remoteData.getDataStrings(3));
+        segment.setEndpointName(remoteData.getDataStrings(4));
+        segment.setEndpointId(remoteData.getDataStrings(5));
+        for (int i = 6; i + 1 < remoteData.getDataStringsCount(); i += 2) {
+            segment.getTags().add(new Tag(remoteData.getDataStrings(i), remoteData.getDataStrings(i + 1)));
+        }
+
+        segment.setStartTime(remoteData.getDataLongs(0));
+        segment.setEndTime(remoteData.getDataLongs(1));
+        segment.setTimeBucket(remoteData.getDataLongs(2));
+
+        segment.setLatency(remoteData.getDataIntegers(0));
+        segment.setIsError(remoteData.getDataIntegers(1));
+        segment.setVersion(remoteData.getDataIntegers(2));
+        keep = remoteData.getDataIntegers(3) == 1;
+
+        segment.setDataBinary(remoteData.getDataObjectBytes(0).toByteArray());
+    }
+}
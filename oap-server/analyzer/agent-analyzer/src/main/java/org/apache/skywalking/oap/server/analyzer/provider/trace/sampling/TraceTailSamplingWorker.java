@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.analyzer.provider.trace.sampling;
+
+import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
+
+/**
+ * The remote receiver of the {@link TraceTailSamplingData}, which hands the segments to the local {@link
+ * TraceTailSampler}.
+ */
+public class TraceTailSamplingWorker extends AbstractWorker<TraceTailSamplingData> {
+    private final TraceTailSampler sampler;
+
+    public TraceTailSamplingWorker(ModuleDefineHolder moduleDefineHolder, TraceTailSampler sampler) {
+        super(moduleDefineHolder);
+        this.sampler = sampler;
+    }
+
+    @Override
+    public void in(final TraceTailSamplingData data) {
+        sampler.receive(data.getSegment(), data.isKeep());
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.analyzer.provider.trace.sampling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import org.apache.skywalking.oap.server.core.analysis.DispatcherDetectorListener;
+import org.apache.skywalking.oap.server.core.analysis.manual.searchtag.Tag;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.source.Segment;
+import org.apache.skywalking.oap.server.core.source.Source;
+import org.apache.skywalking.oap.server.core.source.SourceReceiver;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TraceTailSamplerTest {
+    private final List<String> received = Collections.synchronizedList(new ArrayList<>());
+    private TraceTailSampler sampler;
+
+    @Before
+    public void setUp() {
+        received.clear();
+        sampler = new TraceTailSampler(new SourceReceiver() {
+            @Override
+            public void receive(final Source source) {
+                received.add(((Segment) source).getSegmentId());
+            }
+
+            @Override
+            public DispatcherDetectorListener getDispatcherDetectorListener() {
+                return null;
+            }
+        }, null, 10, 2, 2);
+    }
+
+    @Test
+    public void testKeepWholeTrace() {
+        sampler.receive(segment("trace-1", "segment-1"), false);
+        sampler.receive(segment("trace-1", "segment-2"), false);
+        Assert.assertTrue(received.isEmpty());
+
+        sampler.receive(segment("trace-1", "segment-3"), true);
+        Assert.assertEquals(3, received.size());
+        Assert.assertEquals(0, sampler.pendingTraceSize());
+
+        sampler.receive(segment("trace-1", "segment-4"), false);
+        Assert.assertEquals(4, received.size());
+    }
+
+    @Test
+    public void testDropExpiredTrace() {
+        sampler.receive(segment("trace-1", "segment-1"), false);
+        sampler.expire(System.currentTimeMillis() + 10_000);
+        Assert.assertEquals(0, sampler.pendingTraceSize());
+
+        sampler.receive(segment("trace-1", "segment-2"), true);
+        Assert.assertEquals(1, received.size());
+        Assert.assertEquals("segment-2", received.get(0));
+    }
+
+    @Test
+    public void testBoundedPendingTraces() {
+        sampler.receive(segment("trace-1", "segment-1"), false);
+        sampler.receive(segment("trace-2", "segment-2"), false);
+        sampler.receive(segment("trace-3", "segment-3"), false);
+        Assert.assertEquals(2, sampler.pendingTraceSize());
+
+        sampler.receive(segment("trace-3", "segment-4"), true);
+        Assert.assertEquals(1, received.size());
+    }
+
+    @Test
+    public void testBoundedPendingSegments() {
+        sampler.receive(segment("trace-1", "segment-1"), false);
+        sampler.receive(segment("trace-1", "segment-2"), false);
+        sampler.receive(segment("trace-1", "segment-3"), false);
+
+        sampler.receive(segment("trace-1", "segment-4"), true);
+        Assert.assertEquals(3, received.size());
+        Assert.assertFalse(received.contains("segment-3"));
+    }
+
+    @Test
+    public void testConcurrentKeepAndPending() throws Exception {
+        final CyclicBarrier barrier = new CyclicBarrier(2);
+        for (int i = 0; i < 2000; i++) {
+            final String traceId = "trace-" + i;
+            final Thread pending = new Thread(() -> {
+                await(barrier);
+                sampler.receive(segment(traceId, traceId + "-pending"), false);
+            });
+            pending.start();
+            await(barrier);
+            sampler.receive(segment(traceId, traceId + "-keep"), true);
+            pending.join();
+
+            Assert.assertTrue(received.contains(traceId + "-keep"));
+            Assert.assertTrue(received.contains(traceId + "-pending"));
+            Assert.assertEquals(0, sampler.pendingTraceSize());
+        }
+    }
+
+    @Test
+    public void testRemoteDataSerialization() {
+        Segment segment = segment("trace-1", "segment-1");
+        segment.getTags().add(new Tag("http.method", "GET"));
+        RemoteData remoteData = new TraceTailSamplingData(segment, true).serialize().build();
+
+        TraceTailSamplingData data = new TraceTailSamplingData();
+        data.deserialize(remoteData);
+        Assert.assertTrue(data.isKeep());
+        Assert.assertEquals("trace-1", data.getSegment().getTraceId());
+        Assert.assertEquals("segment-1", data.getSegment().getSegmentId());
+        Assert.assertEquals("endpoint", data.getSegment().getEndpointName());
+        Assert.assertEquals(100, data.getSegment().getLatency());
+        Assert.assertEquals(202106011200L, data.getSegment().getTimeBucket());
+        Assert.assertEquals(segment.getTags(), data.getSegment().getTags());
+        Assert.assertArrayEquals(new byte[] {1, 2, 3}, data.getSegment().getDataBinary());
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Segment segment(String traceId, String segmentId) {
+        Segment segment = new Segment();
+        segment.setTraceId(traceId);
+        segment.setSegmentId(segmentId);
+        segment.setServiceId("service");
+        segment.setServiceInstanceId("instance");
+        segment.setEndpointName("endpoint");
+        segment.setEndpointId("endpoint-id");
+        segment.setLatency(100);
+        segment.setTimeBucket(202106011200L);
+        segment.setDataBinary(new byte[] {1, 2, 3});
+        return segment;
+    }
+}
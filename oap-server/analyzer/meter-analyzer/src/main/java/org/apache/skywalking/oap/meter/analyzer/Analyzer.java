@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.oap.meter.analyzer;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
 import io.vavr.Tuple;
 import io.vavr.Tuple2;
@@ -137,6 +138,7 @@ public class Analyzer {
                     break;
                 case histogram:
                 case histogramPercentile:
+                case sketchPercentile:
                     Stream.of(ss).map(s -> Tuple.of(composeGroup(s.getLabels(), k -> !Objects.equals("le", k)), s))
                           .collect(groupingBy(Tuple2::_1, mapping(Tuple2::_2, toList())))
                           .forEach((group, subSs) -> {
@@ -195,6 +197,8 @@ public class Analyzer {
         histogram("histogram"),
         // metrics is aggregated by histogram based percentile function.
         histogramPercentile("histogramPercentile"),
+        // metrics is aggregated by sketch based percentile function.
+        sketchPercentile("sketchPercentile"),
         // metrics is aggregated by labeled function.
         labeled("labeled"),
         // metrics is aggregated by single value function.
@@ -205,7 +209,14 @@ public class Analyzer {
 
     private void init(final ExpressionParsingContext ctx) {
         this.samples = ctx.getSamples();
-        if (ctx.isHistogram()) {
+        if (ctx.isSketch()) {
+            Preconditions.checkState(
+                ctx.getPercentiles() != null && ctx.getPercentiles().length > 0,
+                "sketch_percentile() should be invoked after sketch()"
+            );
+            metricType = MetricType.sketchPercentile;
+            this.percentiles = ctx.getPercentiles();
+        } else if (ctx.isHistogram()) {
             if (ctx.getPercentiles() != null && ctx.getPercentiles().length > 0) {
                 metricType = MetricType.histogramPercentile;
                 this.percentiles = ctx.getPercentiles();
@@ -61,6 +61,7 @@ public class ExpressionParsingContext implements Closeable {
     List<String> samples;
 
     boolean isHistogram;
+    boolean isSketch;
     int[] percentiles;
 
     Set<String> aggregationLabels;
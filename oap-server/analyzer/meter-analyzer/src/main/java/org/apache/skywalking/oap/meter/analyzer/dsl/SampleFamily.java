@@ -42,6 +42,7 @@ import org.apache.skywalking.oap.meter.analyzer.dsl.tagOpt.K8sRetagType;
 import org.apache.skywalking.oap.server.core.UnexpectedException;
 import org.apache.skywalking.oap.server.core.analysis.meter.MeterEntity;
 import org.apache.skywalking.oap.server.core.analysis.meter.ScopeType;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.sum.SumSketchPercentileFunction;
 
 import java.util.Arrays;
 import java.util.Comparator;
@@ -371,6 +372,54 @@ public class SampleFamily {
         return this;
     }
 
+    public SampleFamily sketch() {
+        return sketch("le", this.context.defaultHistogramBucketUnit);
+    }
+
+    public SampleFamily sketch(String le) {
+        return sketch(le, this.context.defaultHistogramBucketUnit);
+    }
+
+    /**
+     * Sketch takes the samples of the agent sketch meter, which are the counts of the non-empty buckets since the last
+     * report, keyed by the bucket representative values. The sketches are merged by adding up the counts of the same
+     * buckets, so the downsampling is always {@link DownsamplingType#SUM}. The bucket keys are converted to
+     * {@link SumSketchPercentileFunction#KEY_UNIT}, as the buckets of the small values are narrower than 1 millisecond.
+     */
+    public SampleFamily sketch(String le, TimeUnit unit) {
+        long scale = SumSketchPercentileFunction.KEY_UNIT.convert(1, unit);
+        Preconditions.checkArgument(scale > 0);
+        ExpressionParsingContext.get().ifPresent(ctx -> {
+            ctx.isSketch = true;
+            ctx.downsampling = DownsamplingType.SUM;
+        });
+        if (this == EMPTY) {
+            return EMPTY;
+        }
+        return SampleFamily.build(
+            this.context,
+            Arrays.stream(samples).map(s -> {
+                if (!s.labels.containsKey(le)) {
+                    return s;
+                }
+                ImmutableMap<String, String> ll = ImmutableMap.<String, String>builder()
+                    .putAll(Maps.filterKeys(s.labels, key -> !Objects.equals(key, le)))
+                    .put("le", String.valueOf(Math.round(Double.parseDouble(s.labels.get(le)) * scale))).build();
+                return InternalOps.newSample(ll, s.timestamp, s.value);
+            }).toArray(Sample[]::new)
+        );
+    }
+
+    public SampleFamily sketch_percentile(List<Integer> percentiles) {
+        Preconditions.checkArgument(percentiles.size() > 0);
+        int[] p = percentiles.stream().mapToInt(i -> i).toArray();
+        ExpressionParsingContext.get().ifPresent(ctx -> {
+            Preconditions.checkState(ctx.isSketch, "sketch() should be invoked before invoking sketch_percentile()");
+            ctx.percentiles = p;
+        });
+        return this;
+    }
+
     public SampleFamily service(List<String> labelKeys) {
         Preconditions.checkArgument(labelKeys.size() > 0);
         ExpressionParsingContext.get().ifPresent(ctx -> {
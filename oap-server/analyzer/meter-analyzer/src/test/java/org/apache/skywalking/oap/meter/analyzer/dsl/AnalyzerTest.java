@@ -21,6 +21,7 @@ package org.apache.skywalking.oap.meter.analyzer.dsl;
 import com.google.common.collect.ImmutableMap;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import org.apache.skywalking.oap.meter.analyzer.Analyzer;
 import org.apache.skywalking.oap.server.core.analysis.IDManager;
 import org.apache.skywalking.oap.server.core.analysis.StreamDefinition;
@@ -29,6 +30,7 @@ import org.apache.skywalking.oap.server.core.analysis.meter.function.AcceptableV
 import org.apache.skywalking.oap.server.core.analysis.meter.function.avg.AvgFunction;
 import org.apache.skywalking.oap.server.core.analysis.meter.function.avg.AvgHistogramPercentileFunction;
 import org.apache.skywalking.oap.server.core.analysis.meter.function.avg.AvgLabeledFunction;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.sum.SumSketchPercentileFunction;
 import org.apache.skywalking.oap.server.core.analysis.metrics.IntList;
 import org.apache.skywalking.oap.server.core.analysis.worker.MetricsStreamProcessor;
 import org.apache.skywalking.oap.server.core.storage.StorageException;
@@ -227,4 +229,80 @@ public class AnalyzerTest {
         Assert.assertEquals(1L, instance2.getCount().get("instance2:25"), 0.0);
         Assert.assertEquals(1L, instance2.getCount().get("instance2:1250"), 0.0);
     }
+
+    @Test
+    public void testSketchPercentile() {
+        analyzer = Analyzer.build(
+            "instance_latency",
+            "instance_latency.sum(['le', 'service']).sketch().sketch_percentile([50,99]).service(['service'])",
+            meterSystem
+        );
+        ImmutableMap<String, SampleFamily> input = ImmutableMap.of(
+            "instance_latency", SampleFamilyBuilder.newBuilder(
+                Sample.builder().labels(of("le", "0.09801", "service", "service1", "instance", "instance1")).value(60).build(),
+                Sample.builder().labels(of("le", "0.09801", "service", "service1", "instance", "instance2")).value(10).build(),
+                Sample.builder().labels(of("le", "1.01049", "service", "service1", "instance", "instance2")).value(30).build()
+            ).build()
+        );
+
+        Map<String, SumSketchPercentileFunction> actValues = new HashMap<>();
+        doAnswer(invocationOnMock -> {
+            SumSketchPercentileFunction actValue = (SumSketchPercentileFunction) invocationOnMock.getArgument(
+                0, AcceptableValue.class);
+            actValues.put(actValue.getEntityId(), actValue);
+            return null;
+        }).when(meterSystem).doStreamingCalculation(any());
+
+        analyzer.analyse(input);
+        Assert.assertEquals(1, actValues.size());
+        SumSketchPercentileFunction actValue = actValues.get(IDManager.ServiceID.buildId("service1", true));
+        Assert.assertEquals(70L, actValue.getDataset().get("98010").longValue());
+        Assert.assertEquals(30L, actValue.getDataset().get("1010490").longValue());
+
+        actValue.calculate();
+        Assert.assertArrayEquals(new int[] {
+            98,
+            1010
+        }, actValue.getValues());
+    }
+
+    @Test
+    public void testSketchPercentileOfSmallValues() {
+        analyzer = Analyzer.build(
+            "instance_rpc_latency",
+            "instance_rpc_latency.sum(['le', 'service']).sketch().sketch_percentile([50,99]).service(['service'])",
+            meterSystem
+        );
+        // The agent sketch buckets in milliseconds, narrower than 1 millisecond under 50 milliseconds.
+        ImmutableMap<String, SampleFamily> input = ImmutableMap.of(
+            "instance_rpc_latency", SampleFamilyBuilder.newBuilder(
+                Sample.builder().labels(of("le", "0.31", "service", "service1")).value(10).build(),
+                Sample.builder().labels(of("le", "10.0", "service", "service1")).value(40).build(),
+                Sample.builder().labels(of("le", "10.2", "service", "service1")).value(30).build(),
+                Sample.builder().labels(of("le", "40.6", "service", "service1")).value(20).build()
+            ).defaultHistogramBucketUnit(TimeUnit.MILLISECONDS).build()
+        );
+
+        Map<String, SumSketchPercentileFunction> actValues = new HashMap<>();
+        doAnswer(invocationOnMock -> {
+            SumSketchPercentileFunction actValue = (SumSketchPercentileFunction) invocationOnMock.getArgument(
+                0, AcceptableValue.class);
+            actValues.put(actValue.getEntityId(), actValue);
+            return null;
+        }).when(meterSystem).doStreamingCalculation(any());
+
+        analyzer.analyse(input);
+        SumSketchPercentileFunction actValue = actValues.get(IDManager.ServiceID.buildId("service1", true));
+        Assert.assertEquals(4, actValue.getDataset().size());
+        Assert.assertEquals(10L, actValue.getDataset().get("310").longValue());
+        Assert.assertEquals(40L, actValue.getDataset().get("10000").longValue());
+        Assert.assertEquals(30L, actValue.getDataset().get("10200").longValue());
+        Assert.assertEquals(20L, actValue.getDataset().get("40600").longValue());
+
+        actValue.calculate();
+        Assert.assertArrayEquals(new int[] {
+            10,
+            41
+        }, actValue.getValues());
+    }
 }
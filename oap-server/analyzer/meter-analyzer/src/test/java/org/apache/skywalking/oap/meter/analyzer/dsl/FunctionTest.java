@@ -123,6 +123,21 @@ public class FunctionTest {
                 ),
                 false,
             },
+            {
+                "sketch",
+                of("instance_cpu_percentage", SampleFamilyBuilder.newBuilder(
+                    Sample.builder().labels(of("le", "0.0")).value(100).build(),
+                    Sample.builder().labels(of("le", "0.09801")).value(300).build(),
+                    Sample.builder().labels(of("le", "1.01049")).value(122).build()).build()
+                ),
+                "instance_cpu_percentage.sketch().sketch_percentile([75,99])",
+                Result.success(SampleFamilyBuilder.newBuilder(
+                    Sample.builder().labels(of("le", "0")).value(100).build(),
+                    Sample.builder().labels(of("le", "98010")).value(300).build(),
+                    Sample.builder().labels(of("le", "1010490")).value(122).build()).build()
+                ),
+                false,
+            },
         });
     }
 
@@ -16,7 +16,7 @@ public void deserialize(org.apache.skywalking.oap.server.core.remote.grpc.proto.
 </#list>
 
 <#list serializeFields.objectFields as field>
-    ${field.setter}(new ${field.fieldType}(remoteData.getDataObjectStrings(${field?index})));
+    ${field.setter}((${field.fieldType}) org.apache.skywalking.oap.server.core.remote.data.ComplexObjectEncoding.read(remoteData, ${field?index}, new ${field.fieldType}()));
 </#list>
 
 }
\ No newline at end of file
@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.List;
 import lombok.Getter;
 import lombok.Setter;
+import org.apache.skywalking.oap.server.core.remote.data.ComplexObjectEncoding;
 import org.apache.skywalking.oap.server.core.source.ScopeDefaultColumn;
 import org.apache.skywalking.oap.server.library.module.ModuleConfig;
 
@@ -58,6 +59,19 @@ public class CoreModuleConfig extends ModuleConfig {
     private boolean enableDataKeeperExecutor = true;
 
     private int dataKeeperExecutePeriod = 5;
+    /**
+     * The number of threads used to remove the expired data of the models in parallel.
+     *
+     * @since 8.6.0
+     */
+    private int dataKeeperExecuteThreads = 2;
+    /**
+     * The max number of expired rows removed per second by one OAP node. Only works for the storage deleting the data
+     * in chunks, such as the JDBC storage. 0 means no limit.
+     *
+     * @since 8.6.0
+     */
+    private int dataKeeperMaxDeleteRowsPerSecond = 0;
     /**
      * The time to live of all metrics data. Unit is day.
      */
@@ -72,11 +86,56 @@ public class CoreModuleConfig extends ModuleConfig {
     private int gRPCThreadPoolSize;
 
     private int gRPCThreadPoolQueueSize;
+    /**
+     * The worker threads of the event loops shared by the gRPC server and the clients to the other OAP nodes. The
+     * native epoll transport is used on Linux. 0 means CPU core * 2.
+     *
+     * @since 8.6.0
+     */
+    private int gRPCEventLoopThreads = 0;
+    /**
+     * Limit the concurrent calls of the gRPC server adaptively, and reject the calls beyond the limit with the retryable
+     * UNAVAILABLE status when the executor queue or the persistence falls behind.
+     *
+     * @since 8.6.0
+     */
+    private boolean gRPCAdmissionControlEnabled = false;
+    /**
+     * The concurrency limit of the admission control never goes below it.
+     *
+     * @since 8.6.0
+     */
+    private int gRPCAdmissionControlMinLimit = 16;
+    /**
+     * The initial and maximal concurrency limit of the admission control.
+     *
+     * @since 8.6.0
+     */
+    private int gRPCAdmissionControlMaxLimit = 1000;
+    /**
+     * The ratio of the concurrency limit could be taken by one gRPC service, such as trace segment reporting.
+     *
+     * @since 8.6.0
+     */
+    private double gRPCAdmissionControlServiceQuota = 0.8;
     /**
      * Timeout for cluster internal communication, in seconds.
      */
 
     private int remoteTimeout = 20;
+    /**
+     * Answer the service and endpoint metadata queries from the in-memory catalog fed by the traffic, rather than the
+     * storage, after the OAP has run for one {@link #metadataCatalogTTL}.
+     *
+     * @since 8.6.0
+     */
+    private boolean metadataCatalogEnabled = false;
+    /**
+     * The services and endpoints not active in the TTL are evicted from the metadata catalog. Unit is minute.
+     *
+     * @since 8.6.0
+     */
+    private int metadataCatalogTTL = 60;
     /**
      * The size of network address alias.
      */
@@ -93,6 +152,32 @@ public class CoreModuleConfig extends ModuleConfig {
      * Analyze profile snapshots max size.
      */
     private int maxSizeOfAnalyzeProfileSnapshot = 12000;
+    /**
+     * The max number of segments whose analyzed stack tree fragments are cached, 0 means disable the cache.
+     *
+     * @since 8.6.0
+     */
+    private long maxSizeOfProfileAnalyzeCache = 100L;
+    /**
+     * The max number of the time bucket values cached by the metrics query, 0 means disable the cache.
+     *
+     * @since 8.6.0
+     */
+    private long maxSizeOfMetricsQueryCache = 100_000L;
+    /**
+     * The metrics value of a time bucket could be cached by the metrics query after the bucket has ended for this
+     * delay. Unit is second.
+     *
+     * @since 8.6.0
+     */
+    private long metricsQueryCacheBucketCloseDelay = 180;
+    /**
+     * The metrics values of the recent minutes are read from the memory of the OAP nodes aggregating them, which
+     * include the data not persisted yet. Only work for the minute step. 0 means disabled, read the storage only.
+     *
+     * @since 8.6.0
+     */
+    private int inMemoryMetricsQueryMinutes = 0;
     /**
      * Extra model column are the column defined by {@link ScopeDefaultColumn.DefinedByField#requireDynamicActive()} ==
      * true. These columns of model are not required logically in aggregation or further query, and it will cause more
@@ -117,6 +202,26 @@ public class CoreModuleConfig extends ModuleConfig {
      * In the current practice, we don't recommend the length over 190.
      */
     private int endpointNameMaxLength = 150;
+    /**
+     * Learn the URI templates from the observed endpoint names, and cap the number of endpoints per service. The
+     * names out of the cap are folded into one overflow endpoint. The static endpoint grouping rules take precedence.
+     *
+     * @since 8.6.0
+     */
+    private boolean endpointCardinalityGuardEnabled = false;
+    /**
+     * The max number of endpoints of every service, when the endpoint cardinality guard is enabled.
+     *
+     * @since 8.6.0
+     */
+    private int maxEndpointsPerService = 10000;
+    /**
+     * The number of distinct tokens at the same position of the endpoint names, which makes the position a variable
+     * in the learnt template.
+     *
+     * @since 8.6.0
+     */
+    private int endpointTemplateThreshold = 100;
     /**
      * Define the set of span tag keys, which should be searchable through the GraphQL.
      *
@@ -158,6 +263,17 @@ public class CoreModuleConfig extends ModuleConfig {
     @Setter
     private int maxSyncOperationNum = 50000;
 
+    /**
+     * The encoding version of the complex objects, such as the buckets of the histogram and percentile, sent to other
+     * OAP nodes. 0 means the delimited string, 1 means the compact binary. Every OAP node could receive both, but the
+     * binary should only be activated after all OAP nodes in the cluster upgraded.
+     *
+     * @since 8.6.0
+     */
+    @Getter
+    @Setter
+    private int remoteObjectEncodingVersion = ComplexObjectEncoding.STRING;
+
     public CoreModuleConfig() {
         this.downsampling = new ArrayList<>();
     }
@@ -22,6 +22,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.Collections;
 import org.apache.skywalking.oap.server.configuration.api.ConfigurationModule;
 import org.apache.skywalking.oap.server.configuration.api.DynamicConfigurationService;
 import org.apache.skywalking.oap.server.core.analysis.ApdexThresholdConfig;
@@ -34,6 +35,7 @@ import org.apache.skywalking.oap.server.core.analysis.worker.MetricsStreamProces
 import org.apache.skywalking.oap.server.core.analysis.worker.TopNStreamProcessor;
 import org.apache.skywalking.oap.server.core.annotation.AnnotationScan;
 import org.apache.skywalking.oap.server.core.cache.CacheUpdateTimer;
+import org.apache.skywalking.oap.server.core.cache.MetadataCatalog;
 import org.apache.skywalking.oap.server.core.cache.NetworkAddressAliasCache;
 import org.apache.skywalking.oap.server.core.cache.ProfileTaskCache;
 import org.apache.skywalking.oap.server.core.cluster.ClusterModule;
@@ -46,6 +48,7 @@ import org.apache.skywalking.oap.server.core.config.ConfigService;
 import org.apache.skywalking.oap.server.core.config.DownSamplingConfigService;
 import org.apache.skywalking.oap.server.core.config.IComponentLibraryCatalogService;
 import org.apache.skywalking.oap.server.core.config.NamingControl;
+import org.apache.skywalking.oap.server.core.config.group.EndpointCardinalityGuard;
 import org.apache.skywalking.oap.server.core.config.group.EndpointNameGrouping;
 import org.apache.skywalking.oap.server.core.config.group.EndpointNameGroupingRuleWatcher;
 import org.apache.skywalking.oap.server.core.management.ui.template.UITemplateInitializer;
@@ -69,7 +72,10 @@ import org.apache.skywalking.oap.server.core.remote.RemoteSenderService;
 import org.apache.skywalking.oap.server.core.remote.RemoteServiceHandler;
 import org.apache.skywalking.oap.server.core.remote.client.Address;
 import org.apache.skywalking.oap.server.core.remote.client.RemoteClientManager;
+import org.apache.skywalking.oap.server.core.remote.data.ComplexObjectEncoding;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteServiceGrpc;
 import org.apache.skywalking.oap.server.core.remote.health.HealthCheckServiceHandler;
+import org.apache.skywalking.oap.server.core.server.AdmissionRejectionCounter;
 import org.apache.skywalking.oap.server.core.server.GRPCHandlerRegister;
 import org.apache.skywalking.oap.server.core.server.GRPCHandlerRegisterImpl;
 import org.apache.skywalking.oap.server.core.server.JettyHandlerRegister;
@@ -94,6 +100,7 @@ import org.apache.skywalking.oap.server.library.module.ModuleStartException;
 import org.apache.skywalking.oap.server.library.module.ServiceNotProvidedException;
 import org.apache.skywalking.oap.server.library.server.ServerException;
 import org.apache.skywalking.oap.server.library.server.grpc.GRPCServer;
+import org.apache.skywalking.oap.server.library.server.grpc.NettyEventLoops;
 import org.apache.skywalking.oap.server.library.server.jetty.JettyServer;
 import org.apache.skywalking.oap.server.library.server.jetty.JettyServerConfig;
 import org.apache.skywalking.oap.server.library.util.ResourceUtils;
@@ -112,6 +119,8 @@ public class CoreModuleProvider extends ModuleProvider {
 
     private final CoreModuleConfig moduleConfig;
     private GRPCServer grpcServer;
+    private NettyEventLoops eventLoops;
+    private MetadataCatalog metadataCatalog;
     private JettyServer jettyServer;
     private RemoteClientManager remoteClientManager;
     private final AnnotationScan annotationScan;
@@ -150,6 +159,10 @@ public class CoreModuleProvider extends ModuleProvider {
             DefaultScopeDefine.activeExtraModelColumns();
         }
         EndpointNameGrouping endpointNameGrouping = new EndpointNameGrouping();
+        if (moduleConfig.isEndpointCardinalityGuardEnabled()) {
+            endpointNameGrouping.setCardinalityGuard(new EndpointCardinalityGuard(
+                moduleConfig.getMaxEndpointsPerService(), moduleConfig.getEndpointTemplateThreshold()));
+        }
         this.registerServiceImplementation(NamingControl.class, new NamingControl(
             moduleConfig.getServiceNameMaxLength(),
             moduleConfig.getInstanceNameMaxLength(),
@@ -182,6 +195,7 @@ public class CoreModuleProvider extends ModuleProvider {
             throw new ModuleStartException(e.getMessage(), e);
         }
 
+        eventLoops = new NettyEventLoops("grpc", moduleConfig.getGRPCEventLoopThreads());
         if (moduleConfig.isGRPCSslEnabled()) {
             grpcServer = new GRPCServer(moduleConfig.getGRPCHost(), moduleConfig.getGRPCPort(),
                                         moduleConfig.getGRPCSslCertChainPath(),
@@ -202,6 +216,14 @@ public class CoreModuleProvider extends ModuleProvider {
         if (moduleConfig.getGRPCThreadPoolSize() > 0) {
             grpcServer.setThreadPoolSize(moduleConfig.getGRPCThreadPoolSize());
         }
+        grpcServer.setEventLoops(eventLoops);
+        if (moduleConfig.isGRPCAdmissionControlEnabled()) {
+            grpcServer.setAdmissionControl(
+                moduleConfig.getGRPCAdmissionControlMinLimit(), moduleConfig.getGRPCAdmissionControlMaxLimit(),
+                moduleConfig.getGRPCAdmissionControlServiceQuota(), PersistenceTimer.INSTANCE::isFallingBehind,
+                new AdmissionRejectionCounter(getManager()), Collections.singleton(RemoteServiceGrpc.SERVICE_NAME)
+            );
+        }
         grpcServer.initialize();
 
         JettyServerConfig jettyServerConfig = JettyServerConfig.builder()
@@ -244,11 +266,15 @@ public class CoreModuleProvider extends ModuleProvider {
 
         this.registerServiceImplementation(TopologyQueryService.class, new TopologyQueryService(getManager()));
         this.registerServiceImplementation(MetricsMetadataQueryService.class, new MetricsMetadataQueryService());
-        this.registerServiceImplementation(MetricsQueryService.class, new MetricsQueryService(getManager()));
+        this.registerServiceImplementation(MetricsQueryService.class, new MetricsQueryService(getManager(), moduleConfig));
         this.registerServiceImplementation(TraceQueryService.class, new TraceQueryService(getManager()));
         this.registerServiceImplementation(BrowserLogQueryService.class, new BrowserLogQueryService(getManager()));
         this.registerServiceImplementation(LogQueryService.class, new LogQueryService(getManager()));
-        this.registerServiceImplementation(MetadataQueryService.class, new MetadataQueryService(getManager()));
+        if (moduleConfig.isMetadataCatalogEnabled()) {
+            metadataCatalog = new MetadataCatalog(moduleConfig.getMetadataCatalogTTL());
+        }
+        this.registerServiceImplementation(
+            MetadataQueryService.class, new MetadataQueryService(getManager(), metadataCatalog));
         this.registerServiceImplementation(AggregationQueryService.class, new AggregationQueryService(getManager()));
         this.registerServiceImplementation(AlarmQueryService.class, new AlarmQueryService(getManager()));
         this.registerServiceImplementation(TopNRecordsQueryService.class, new TopNRecordsQueryService(getManager()));
@@ -276,6 +302,7 @@ public class CoreModuleProvider extends ModuleProvider {
         } else {
             this.remoteClientManager = new RemoteClientManager(getManager(), moduleConfig.getRemoteTimeout());
         }
+        remoteClientManager.setEventLoops(eventLoops);
         this.registerServiceImplementation(RemoteClientManager.class, remoteClientManager);
 
         // Management
@@ -283,7 +310,14 @@ public class CoreModuleProvider extends ModuleProvider {
             UITemplateManagementService.class, new UITemplateManagementService(getManager()));
 
         MetricsStreamProcessor.getInstance().setEnableDatabaseSession(moduleConfig.isEnableDatabaseSession());
+        MetricsStreamProcessor.getInstance().setEnableInMemoryQuery(moduleConfig.getInMemoryMetricsQueryMinutes() > 0);
+        MetricsStreamProcessor.getInstance().setMetadataCatalog(metadataCatalog);
         TopNStreamProcessor.getInstance().setTopNWorkerReportCycle(moduleConfig.getTopNReportPeriod());
+        try {
+            ComplexObjectEncoding.setVersion(moduleConfig.getRemoteObjectEncodingVersion());
+        } catch (IllegalArgumentException e) {
+            throw new ModuleStartException(e.getMessage(), e);
+        }
         apdexThresholdConfig = new ApdexThresholdConfig(this);
         ApdexMetrics.setDICT(apdexThresholdConfig);
     }
@@ -346,6 +380,9 @@ public class CoreModuleProvider extends ModuleProvider {
         }
 
         CacheUpdateTimer.INSTANCE.start(getManager(), moduleConfig.getMetricsDataTTL());
+        if (metadataCatalog != null) {
+            metadataCatalog.start();
+        }
 
         try {
             final File[] templateFiles = ResourceUtils.getPathFiles("ui-initialized-templates");
@@ -58,6 +58,15 @@ public class MergableBufferedData<METRICS extends Metrics> implements BufferedDa
         }
     }
 
+    /**
+     * Get the buffered metrics of the given id, or null if absent.
+     *
+     * This method is not thread safe, should avoid concurrency calling with {@link #accept(Metrics)}.
+     */
+    public METRICS get(final String id) {
+        return buffer.get(id);
+    }
+
     @Override
     public List<METRICS> read() {
         try {
@@ -20,6 +20,7 @@ package org.apache.skywalking.oap.server.core.analysis.data;
 
 import java.util.List;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 
 /**
  * ReadWriteSafeCache provides a read/write isolated cache.
@@ -78,6 +79,22 @@ public class ReadWriteSafeCache<T> {
         }
     }
 
+    /**
+     * Peek the {@link #writeBufferPointer} buffer, which holds the data not read for persistence yet. The peeker runs
+     * in the write lock, it should be quick and never keep the references of the buffered data.
+     *
+     * @param peeker to read the buffer.
+     * @return the result of the peeker.
+     */
+    public <R> R peek(Function<BufferedData<T>, R> peeker) {
+        lock.lock();
+        try {
+            return peeker.apply(writeBufferPointer);
+        } finally {
+            lock.unlock();
+        }
+    }
+
     public List<T> read() {
         lock.lock();
         try {
@@ -31,6 +31,7 @@ import org.apache.skywalking.oap.server.core.analysis.meter.MeterEntity;
 import org.apache.skywalking.oap.server.core.analysis.metrics.DataTable;
 import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
 import org.apache.skywalking.oap.server.core.query.type.Bucket;
+import org.apache.skywalking.oap.server.core.remote.data.ComplexObjectEncoding;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
 import org.apache.skywalking.oap.server.core.storage.StorageHashMapBuilder;
 import org.apache.skywalking.oap.server.core.storage.annotation.Column;
@@ -122,7 +123,7 @@ public abstract class HistogramFunction extends Metrics implements AcceptableVal
 
         this.setEntityId(remoteData.getDataStrings(0));
 
-        this.setDataset(new DataTable(remoteData.getDataObjectStrings(0)));
+        this.setDataset(ComplexObjectEncoding.read(remoteData, 0, new DataTable()));
     }
 
     @Override
@@ -132,7 +133,7 @@ public abstract class HistogramFunction extends Metrics implements AcceptableVal
 
         remoteBuilder.addDataStrings(entityId);
 
-        remoteBuilder.addDataObjectStrings(dataset.toStorageData());
+        ComplexObjectEncoding.write(remoteBuilder, dataset);
 
         return remoteBuilder;
     }
@@ -37,6 +37,7 @@ import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
 import org.apache.skywalking.oap.server.core.analysis.metrics.MultiIntValuesHolder;
 import org.apache.skywalking.oap.server.core.analysis.metrics.PercentileMetrics;
 import org.apache.skywalking.oap.server.core.query.type.Bucket;
+import org.apache.skywalking.oap.server.core.remote.data.ComplexObjectEncoding;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
 import org.apache.skywalking.oap.server.core.storage.StorageHashMapBuilder;
 import org.apache.skywalking.oap.server.core.storage.annotation.Column;
@@ -226,9 +227,9 @@ public abstract class PercentileFunction extends Metrics implements AcceptableVa
 
         this.setEntityId(remoteData.getDataStrings(0));
 
-        this.setDataset(new DataTable(remoteData.getDataObjectStrings(0)));
-        this.setRanks(new IntList(remoteData.getDataObjectStrings(1)));
-        this.setPercentileValues(new DataTable(remoteData.getDataObjectStrings(2)));
+        this.setDataset(ComplexObjectEncoding.read(remoteData, 0, new DataTable()));
+        this.setRanks(ComplexObjectEncoding.read(remoteData, 1, new IntList()));
+        this.setPercentileValues(ComplexObjectEncoding.read(remoteData, 2, new DataTable()));
     }
 
     @Override
@@ -238,9 +239,9 @@ public abstract class PercentileFunction extends Metrics implements AcceptableVa
 
         remoteBuilder.addDataStrings(entityId);
 
-        remoteBuilder.addDataObjectStrings(dataset.toStorageData());
-        remoteBuilder.addDataObjectStrings(ranks.toStorageData());
-        remoteBuilder.addDataObjectStrings(percentileValues.toStorageData());
+        ComplexObjectEncoding.write(remoteBuilder, dataset);
+        ComplexObjectEncoding.write(remoteBuilder, ranks);
+        ComplexObjectEncoding.write(remoteBuilder, percentileValues);
 
         return remoteBuilder;
     }
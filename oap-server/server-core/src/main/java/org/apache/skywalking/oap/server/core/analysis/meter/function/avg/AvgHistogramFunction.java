@@ -34,6 +34,7 @@ import org.apache.skywalking.oap.server.core.analysis.meter.function.MeterFuncti
 import org.apache.skywalking.oap.server.core.analysis.metrics.DataTable;
 import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
 import org.apache.skywalking.oap.server.core.query.type.Bucket;
+import org.apache.skywalking.oap.server.core.remote.data.ComplexObjectEncoding;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
 import org.apache.skywalking.oap.server.core.storage.StorageHashMapBuilder;
 import org.apache.skywalking.oap.server.core.storage.annotation.Column;
@@ -147,9 +148,9 @@ public abstract class AvgHistogramFunction extends Metrics implements Acceptable
 
         this.setEntityId(remoteData.getDataStrings(0));
 
-        this.setCount(new DataTable(remoteData.getDataObjectStrings(0)));
-        this.setSummation(new DataTable(remoteData.getDataObjectStrings(1)));
-        this.setDataset(new DataTable(remoteData.getDataObjectStrings(2)));
+        this.setCount(ComplexObjectEncoding.read(remoteData, 0, new DataTable()));
+        this.setSummation(ComplexObjectEncoding.read(remoteData, 1, new DataTable()));
+        this.setDataset(ComplexObjectEncoding.read(remoteData, 2, new DataTable()));
     }
 
     @Override
@@ -159,9 +160,9 @@ public abstract class AvgHistogramFunction extends Metrics implements Acceptable
 
         remoteBuilder.addDataStrings(entityId);
 
-        remoteBuilder.addDataObjectStrings(count.toStorageData());
-        remoteBuilder.addDataObjectStrings(summation.toStorageData());
-        remoteBuilder.addDataObjectStrings(dataset.toStorageData());
+        ComplexObjectEncoding.write(remoteBuilder, count);
+        ComplexObjectEncoding.write(remoteBuilder, summation);
+        ComplexObjectEncoding.write(remoteBuilder, dataset);
 
         return remoteBuilder;
     }
@@ -43,6 +43,7 @@ import org.apache.skywalking.oap.server.core.analysis.metrics.IntList;
 import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
 import org.apache.skywalking.oap.server.core.analysis.metrics.MultiIntValuesHolder;
 import org.apache.skywalking.oap.server.core.query.type.Bucket;
+import org.apache.skywalking.oap.server.core.remote.data.ComplexObjectEncoding;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
 import org.apache.skywalking.oap.server.core.storage.StorageHashMapBuilder;
 import org.apache.skywalking.oap.server.core.storage.annotation.Column;
@@ -296,10 +297,10 @@ public abstract class AvgHistogramPercentileFunction extends Metrics implements
 
         this.setEntityId(remoteData.getDataStrings(0));
 
-        this.setSummation(new DataTable(remoteData.getDataObjectStrings(0)));
-        this.setCount(new DataTable(remoteData.getDataObjectStrings(1)));
-        this.setRanks(new IntList(remoteData.getDataObjectStrings(2)));
-        this.setPercentileValues(new DataTable(remoteData.getDataObjectStrings(3)));
+        this.setSummation(ComplexObjectEncoding.read(remoteData, 0, new DataTable()));
+        this.setCount(ComplexObjectEncoding.read(remoteData, 1, new DataTable()));
+        this.setRanks(ComplexObjectEncoding.read(remoteData, 2, new IntList()));
+        this.setPercentileValues(ComplexObjectEncoding.read(remoteData, 3, new DataTable()));
     }
 
     @Override
@@ -309,10 +310,10 @@ public abstract class AvgHistogramPercentileFunction extends Metrics implements
 
         remoteBuilder.addDataStrings(entityId);
 
-        remoteBuilder.addDataObjectStrings(summation.toStorageData());
-        remoteBuilder.addDataObjectStrings(count.toStorageData());
-        remoteBuilder.addDataObjectStrings(ranks.toStorageData());
-        remoteBuilder.addDataObjectStrings(percentileValues.toStorageData());
+        ComplexObjectEncoding.write(remoteBuilder, summation);
+        ComplexObjectEncoding.write(remoteBuilder, count);
+        ComplexObjectEncoding.write(remoteBuilder, ranks);
+        ComplexObjectEncoding.write(remoteBuilder, percentileValues);
 
         return remoteBuilder;
     }
@@ -34,6 +34,7 @@ import org.apache.skywalking.oap.server.core.analysis.meter.function.MeterFuncti
 import org.apache.skywalking.oap.server.core.analysis.metrics.DataTable;
 import org.apache.skywalking.oap.server.core.analysis.metrics.LabeledValueHolder;
 import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.remote.data.ComplexObjectEncoding;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
 import org.apache.skywalking.oap.server.core.storage.StorageHashMapBuilder;
 import org.apache.skywalking.oap.server.core.storage.annotation.Column;
@@ -128,8 +129,8 @@ public abstract class AvgLabeledFunction extends Metrics implements AcceptableVa
 
     @Override
     public void deserialize(final RemoteData remoteData) {
-        this.setCount(new DataTable(remoteData.getDataObjectStrings(0)));
-        this.setSummation(new DataTable(remoteData.getDataObjectStrings(1)));
+        this.setCount(ComplexObjectEncoding.read(remoteData, 0, new DataTable()));
+        this.setSummation(ComplexObjectEncoding.read(remoteData, 1, new DataTable()));
         setTimeBucket(remoteData.getDataLongs(0));
 
         this.entityId = remoteData.getDataStrings(0);
@@ -139,8 +140,8 @@ public abstract class AvgLabeledFunction extends Metrics implements AcceptableVa
     @Override
     public RemoteData.Builder serialize() {
         RemoteData.Builder remoteBuilder = RemoteData.newBuilder();
-        remoteBuilder.addDataObjectStrings(count.toStorageData());
-        remoteBuilder.addDataObjectStrings(summation.toStorageData());
+        ComplexObjectEncoding.write(remoteBuilder, count);
+        ComplexObjectEncoding.write(remoteBuilder, summation);
         remoteBuilder.addDataLongs(getTimeBucket());
 
         remoteBuilder.addDataStrings(entityId);
@@ -0,0 +1,341 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.meter.function.sum;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.UnexpectedException;
+import org.apache.skywalking.oap.server.core.analysis.meter.MeterEntity;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.AcceptableValue;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.BucketedValues;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.MeterFunction;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.PercentileArgument;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.PercentileFunction;
+import org.apache.skywalking.oap.server.core.analysis.metrics.DataTable;
+import org.apache.skywalking.oap.server.core.analysis.metrics.IntList;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.MultiIntValuesHolder;
+import org.apache.skywalking.oap.server.core.remote.data.ComplexObjectEncoding;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.storage.StorageHashMapBuilder;
+import org.apache.skywalking.oap.server.core.storage.annotation.Column;
+
+/**
+ * SumSketchPercentile calculates the percentiles of the sketches reported by the agent sketch meters.
+ *
+ * Different from the {@link PercentileFunction}, the buckets of the sketches aren't fixed. Every input only includes
+ * the non-empty buckets, keyed by the bucket representative values, which are aligned across all agents with the same
+ * accuracy. So the sketches are merged by adding up the counts of the same keys through the L1, L2 aggregation and the
+ * downsampling, and the percentile is the key at the rank, which keeps the relative accuracy of the sketch. The keys
+ * are in {@link #KEY_UNIT}, and the percentiles are reported in milliseconds.
+ *
+ * The number of keys is bounded by {@link #MAX_BUCKETS}, the lowest buckets are collapsed into the higher one when it
+ * is out of the bound, as the high percentiles are the concerned ones.
+ */
+@MeterFunction(functionName = "sumSketchPercentile")
+@Slf4j
+public abstract class SumSketchPercentileFunction extends Metrics implements AcceptableValue<PercentileArgument>, MultiIntValuesHolder {
+    public static final String DATASET = "dataset";
+    public static final String RANKS = "ranks";
+    public static final String VALUE = "value";
+    /**
+     * The unit of the bucket keys, finer than the reported milliseconds, as the buckets of the values under tens of
+     * milliseconds are narrower than 1 millisecond, and would be merged by the rounding.
+     */
+    public static final TimeUnit KEY_UNIT = TimeUnit.MICROSECONDS;
+
+    static final int MAX_BUCKETS = 1024;
+
+    @Setter
+    @Getter
+    @Column(columnName = ENTITY_ID, length = 512)
+    private String entityId;
+    @Getter
+    @Setter
+    @Column(columnName = VALUE, dataType = Column.ValueDataType.LABELED_VALUE, storageOnly = true)
+    private DataTable percentileValues = new DataTable(10);
+    @Getter
+    @Setter
+    @Column(columnName = DATASET, storageOnly = true)
+    private DataTable dataset = new DataTable(30);
+    /**
+     * Rank
+     */
+    @Getter
+    @Setter
+    @Column(columnName = RANKS, storageOnly = true)
+    private IntList ranks = new IntList(10);
+
+    private boolean isCalculated = false;
+
+    @Override
+    public void accept(final MeterEntity entity, final PercentileArgument value) {
+        for (final int rank : value.getRanks()) {
+            if (rank <= 0) {
+                throw new IllegalArgumentException("Illegal rank value " + rank + ", must be positive");
+            }
+        }
+
+        if (ranks.size() > 0) {
+            if (ranks.size() != value.getRanks().length) {
+                throw new IllegalArgumentException(
+                    "Incompatible ranks size = [" + value.getRanks().length + "] for current SumSketchPercentileFunction[" + ranks
+                        .size() + "]");
+            } else {
+                for (final int rank : value.getRanks()) {
+                    if (!ranks.include(rank)) {
+                        throw new IllegalArgumentException(
+                            "Rank " + rank + " doesn't exist in the previous ranks " + ranks);
+                    }
+                }
+            }
+        } else {
+            for (final int rank : value.getRanks()) {
+                ranks.add(rank);
+            }
+        }
+
+        this.entityId = entity.id();
+
+        final BucketedValues bucketedValues = value.getBucketedValues();
+        final long[] values = bucketedValues.getValues();
+        for (int i = 0; i < values.length; i++) {
+            final long bucket = bucketedValues.getBuckets()[i];
+            if (bucket < 0 || values[i] <= 0) {
+                continue;
+            }
+            dataset.valueAccumulation(String.valueOf(bucket), values[i]);
+        }
+        collapse();
+
+        this.isCalculated = false;
+    }
+
+    @Override
+    public boolean combine(final Metrics metrics) {
+        SumSketchPercentileFunction percentile = (SumSketchPercentileFunction) metrics;
+
+        if (this.ranks.size() > 0) {
+            IntList ranksOfThat = percentile.getRanks();
+            if (this.ranks.size() != ranksOfThat.size()) {
+                log.warn("Incompatible ranks size = [{}}] for current SumSketchPercentileFunction[{}]",
+                         ranksOfThat.size(), this.ranks.size()
+                );
+                return true;
+            } else {
+                if (!this.ranks.equals(ranksOfThat)) {
+                    log.warn("Rank {} doesn't exist in the previous ranks {}", ranksOfThat, this.ranks);
+                    return true;
+                }
+            }
+        }
+
+        this.dataset.append(percentile.dataset);
+        collapse();
+
+        this.isCalculated = false;
+        return true;
+    }
+
+    /**
+     * Collapse the lowest buckets into the lowest kept one, when the number of buckets is out of {@link #MAX_BUCKETS}.
+     */
+    private void collapse() {
+        if (dataset.size() <= MAX_BUCKETS) {
+            return;
+        }
+        final List<String> sortedKeys = dataset.sortedKeys(Comparator.comparingLong(Long::parseLong));
+        final int collapsed = sortedKeys.size() - MAX_BUCKETS;
+        long collapsedCount = 0;
+        for (int i = 0; i <= collapsed; i++) {
+            collapsedCount += dataset.get(sortedKeys.get(i));
+        }
+
+        final DataTable kept = new DataTable(MAX_BUCKETS);
+        kept.put(sortedKeys.get(collapsed), collapsedCount);
+        for (int i = collapsed + 1; i < sortedKeys.size(); i++) {
+            kept.put(sortedKeys.get(i), dataset.get(sortedKeys.get(i)));
+        }
+        this.dataset = kept;
+    }
+
+    @Override
+    public void calculate() {
+        if (!isCalculated) {
+            long total = dataset.sumOfValues();
+
+            long[] roofs = new long[ranks.size()];
+            for (int i = 0; i < ranks.size(); i++) {
+                roofs[i] = Math.round(total * ranks.get(i) * 1.0 / 100);
+            }
+
+            long count = 0;
+            final List<String> sortedKeys = dataset.sortedKeys(Comparator.comparingLong(Long::parseLong));
+
+            int loopIndex = 0;
+
+            for (String key : sortedKeys) {
+                final Long value = dataset.get(key);
+
+                count += value;
+                for (int rankIdx = loopIndex; rankIdx < roofs.length; rankIdx++) {
+                    long roof = roofs[rankIdx];
+
+                    if (count >= roof) {
+                        percentileValues.put(
+                            String.valueOf(ranks.get(rankIdx)),
+                            Math.round((double) Long.parseLong(key) / KEY_UNIT.convert(1, TimeUnit.MILLISECONDS))
+                        );
+                        loopIndex++;
+                    } else {
+                        break;
+                    }
+                }
+            }
+            isCalculated = true;
+        }
+    }
+
+    @Override
+    public Metrics toHour() {
+        SumSketchPercentileFunction metrics = (SumSketchPercentileFunction) createNew();
+        metrics.setEntityId(getEntityId());
+        metrics.setTimeBucket(toTimeBucketInHour());
+        metrics.setDataset(getDataset());
+        metrics.setRanks(getRanks());
+        metrics.setPercentileValues(getPercentileValues());
+        return metrics;
+    }
+
+    @Override
+    public Metrics toDay() {
+        SumSketchPercentileFunction metrics = (SumSketchPercentileFunction) createNew();
+        metrics.setEntityId(getEntityId());
+        metrics.setTimeBucket(toTimeBucketInDay());
+        metrics.setDataset(getDataset());
+        metrics.setRanks(getRanks());
+        metrics.setPercentileValues(getPercentileValues());
+        return metrics;
+    }
+
+    @Override
+    public int[] getValues() {
+        return percentileValues.sortedValues(Comparator.comparingInt(Integer::parseInt))
+                               .stream()
+                               .flatMapToInt(l -> IntStream.of(l.intValue()))
+                               .toArray();
+    }
+
+    @Override
+    public int remoteHashCode() {
+        return entityId.hashCode();
+    }
+
+    @Override
+    public void deserialize(final RemoteData remoteData) {
+        this.setTimeBucket(remoteData.getDataLongs(0));
+
+        this.setEntityId(remoteData.getDataStrings(0));
+
+        this.setDataset(ComplexObjectEncoding.read(remoteData, 0, new DataTable()));
+        this.setRanks(ComplexObjectEncoding.read(remoteData, 1, new IntList()));
+        this.setPercentileValues(ComplexObjectEncoding.read(remoteData, 2, new DataTable()));
+    }
+
+    @Override
+    public RemoteData.Builder serialize() {
+        RemoteData.Builder remoteBuilder = RemoteData.newBuilder();
+        remoteBuilder.addDataLongs(getTimeBucket());
+
+        remoteBuilder.addDataStrings(entityId);
+
+        ComplexObjectEncoding.write(remoteBuilder, dataset);
+        ComplexObjectEncoding.write(remoteBuilder, ranks);
+        ComplexObjectEncoding.write(remoteBuilder, percentileValues);
+
+        return remoteBuilder;
+    }
+
+    @Override
+    public String id() {
+        return getTimeBucket() + Const.ID_CONNECTOR + entityId;
+    }
+
+    @Override
+    public Class<? extends StorageHashMapBuilder> builder() {
+        return SumSketchPercentileFunctionBuilder.class;
+    }
+
+    public static class SumSketchPercentileFunctionBuilder implements StorageHashMapBuilder<SumSketchPercentileFunction> {
+
+        @Override
+        public SumSketchPercentileFunction storage2Entity(final Map<String, Object> dbMap) {
+            SumSketchPercentileFunction metrics = new SumSketchPercentileFunction() {
+                @Override
+                public AcceptableValue<PercentileArgument> createNew() {
+                    throw new UnexpectedException("createNew should not be called");
+                }
+            };
+            metrics.setDataset(new DataTable((String) dbMap.get(DATASET)));
+            metrics.setRanks(new IntList((String) dbMap.get(RANKS)));
+            metrics.setPercentileValues(new DataTable((String) dbMap.get(VALUE)));
+            metrics.setTimeBucket(((Number) dbMap.get(TIME_BUCKET)).longValue());
+            metrics.setEntityId((String) dbMap.get(ENTITY_ID));
+            return metrics;
+        }
+
+        @Override
+        public Map<String, Object> entity2Storage(final SumSketchPercentileFunction storageData) {
+            Map<String, Object> map = new HashMap<>();
+            map.put(DATASET, storageData.getDataset());
+            map.put(RANKS, storageData.getRanks());
+            map.put(VALUE, storageData.getPercentileValues());
+            map.put(TIME_BUCKET, storageData.getTimeBucket());
+            map.put(ENTITY_ID, storageData.getEntityId());
+            return map;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SumSketchPercentileFunction)) {
+            return false;
+        }
+        SumSketchPercentileFunction function = (SumSketchPercentileFunction) o;
+        return Objects.equals(entityId, function.entityId) &&
+            getTimeBucket() == function.getTimeBucket();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(entityId, getTimeBucket());
+    }
+}
@@ -17,23 +17,33 @@
 
 package org.apache.skywalking.oap.server.core.analysis.metrics;
 
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.apache.skywalking.oap.server.core.Const;
-import org.apache.skywalking.oap.server.core.storage.type.StorageDataComplexObject;
+import org.apache.skywalking.oap.server.core.remote.data.RemoteDataComplexObject;
 
 /**
  * DataTable includes a hashmap to store string key and long value. It enhanced the serialization capability.
  */
 @ToString
 @EqualsAndHashCode
-public class DataTable implements StorageDataComplexObject<DataTable> {
+public class DataTable implements RemoteDataComplexObject<DataTable> {
+    /**
+     * The max length of the key could be encoded as a varint, 18 digits always fit in 62 bits.
+     */
+    private static final int MAX_NUMERIC_KEY_LENGTH = 18;
+
     private HashMap<String, Long> data;
 
     public DataTable() {
@@ -136,6 +146,67 @@ public class DataTable implements StorageDataComplexObject<DataTable> {
         }
     }
 
+    /**
+     * The keys are bucket indices in most cases, which are written as varint(key << 1). Other keys are written as
+     * varint(1) followed by the UTF-8 string. Values are written as zigzag varints.
+     */
+    @Override
+    public ByteString toRemoteBytes() {
+        try {
+            ByteString.Output output = ByteString.newOutput();
+            CodedOutputStream out = CodedOutputStream.newInstance(output);
+            out.writeUInt32NoTag(data.size());
+            for (Map.Entry<String, Long> entry : data.entrySet()) {
+                final long numericKey = parseNumericKey(entry.getKey());
+                if (numericKey >= 0) {
+                    out.writeUInt64NoTag(numericKey << 1);
+                } else {
+                    out.writeUInt64NoTag(1);
+                    out.writeStringNoTag(entry.getKey());
+                }
+                out.writeSInt64NoTag(entry.getValue());
+            }
+            out.flush();
+            return output.toByteString();
+        } catch (IOException e) {
+            throw new IllegalStateException("Fail to encode the data table.", e);
+        }
+    }
+
+    @Override
+    public void toObject(ByteString data) {
+        try {
+            CodedInputStream in = data.newCodedInput();
+            final int size = in.readUInt32();
+            for (int i = 0; i < size; i++) {
+                final long keyTag = in.readUInt64();
+                final String key = (keyTag & 1) == 0 ? String.valueOf(keyTag >>> 1) : in.readString();
+                this.data.put(key, in.readSInt64());
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Fail to decode the data table.", e);
+        }
+    }
+
+    /**
+     * @return the non-negative value of the key, or -1 if the key isn't a canonical decimal number.
+     */
+    private static long parseNumericKey(String key) {
+        final int length = key.length();
+        if (length == 0 || length > MAX_NUMERIC_KEY_LENGTH || (length > 1 && key.charAt(0) == '0')) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = key.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
     @Override
     public void copyFrom(final DataTable source) {
         this.append(source);
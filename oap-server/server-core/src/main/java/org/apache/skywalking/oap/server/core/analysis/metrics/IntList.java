@@ -18,21 +18,29 @@
 
 package org.apache.skywalking.oap.server.core.analysis.metrics;
 
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.apache.skywalking.oap.server.core.Const;
-import org.apache.skywalking.oap.server.core.storage.type.StorageDataComplexObject;
+import org.apache.skywalking.oap.server.core.remote.data.RemoteDataComplexObject;
 
 /**
  * IntList is a serializable array list carrying int values.
  */
 @ToString
 @EqualsAndHashCode
-public class IntList implements StorageDataComplexObject<IntList> {
+public class IntList implements RemoteDataComplexObject<IntList> {
     private List<Integer> data;
 
+    public IntList() {
+        this.data = new ArrayList<>();
+    }
+
     public IntList(int initialSize) {
         this.data = new ArrayList(initialSize);
     }
@@ -72,6 +80,36 @@ public class IntList implements StorageDataComplexObject<IntList> {
         }
     }
 
+    @Override
+    public ByteString toRemoteBytes() {
+        try {
+            ByteString.Output output = ByteString.newOutput();
+            CodedOutputStream out = CodedOutputStream.newInstance(output);
+            out.writeUInt32NoTag(data.size());
+            for (Integer element : data) {
+                out.writeSInt32NoTag(element);
+            }
+            out.flush();
+            return output.toByteString();
+        } catch (IOException e) {
+            throw new IllegalStateException("Fail to encode the int list.", e);
+        }
+    }
+
+    @Override
+    public void toObject(final ByteString data) {
+        try {
+            CodedInputStream in = data.newCodedInput();
+            final int size = in.readUInt32();
+            this.data = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                this.data.add(in.readSInt32());
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Fail to decode the int list.", e);
+        }
+    }
+
     @Override
     public void copyFrom(final IntList source) {
         this.data.addAll(source.data);
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.cache.MetadataCatalog;
+import org.apache.skywalking.oap.server.core.remote.client.RemoteClient;
+import org.apache.skywalking.oap.server.core.remote.client.RemoteClientManager;
+import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
+
+/**
+ * MetadataCatalogWorker records the traffic received by this OAP node into the {@link MetadataCatalog}, before
+ * forwarding it to the persistent worker. As the traffic is routed by the hash code, the new and the still active
+ * entities are shared with the catalogs of the other OAP nodes through the {@link Receiver}.
+ */
+public class MetadataCatalogWorker extends AbstractWorker<Metrics> {
+    private final MetadataCatalog catalog;
+    private final AbstractWorker<Metrics> nextWorker;
+    private final String receiverWorkerName;
+    private RemoteClientManager remoteClientManager;
+
+    public MetadataCatalogWorker(ModuleDefineHolder moduleDefineHolder,
+                                 MetadataCatalog catalog,
+                                 AbstractWorker<Metrics> nextWorker,
+                                 String receiverWorkerName) {
+        super(moduleDefineHolder);
+        this.catalog = catalog;
+        this.nextWorker = nextWorker;
+        this.receiverWorkerName = receiverWorkerName;
+    }
+
+    @Override
+    public void in(Metrics metrics) {
+        nextWorker.in(metrics);
+        if (catalog.record(metrics)) {
+            for (final RemoteClient client : getRemoteClientManager().getRemoteClient()) {
+                if (!client.getAddress().isSelf()) {
+                    client.push(receiverWorkerName, metrics);
+                }
+            }
+        }
+    }
+
+    private RemoteClientManager getRemoteClientManager() {
+        if (remoteClientManager == null) {
+            remoteClientManager = getModuleDefineHolder().find(CoreModule.NAME)
+                                                         .provider()
+                                                         .getService(RemoteClientManager.class);
+        }
+        return remoteClientManager;
+    }
+
+    /**
+     * @return the name of the worker receiving the traffic shared by the other OAP nodes.
+     */
+    public static String receiverWorkerName(String metricsName) {
+        return metricsName + "_catalog";
+    }
+
+    /**
+     * Receiver records the traffic shared by the other OAP nodes into the catalog only.
+     */
+    public static class Receiver extends AbstractWorker<Metrics> {
+        private final MetadataCatalog catalog;
+
+        public Receiver(ModuleDefineHolder moduleDefineHolder, MetadataCatalog catalog) {
+            super(moduleDefineHolder);
+            this.catalog = catalog;
+        }
+
+        @Override
+        public void in(Metrics metrics) {
+            catalog.record(metrics);
+        }
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.skywalking.oap.server.core.analysis.worker;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -38,7 +39,9 @@ import org.apache.skywalking.oap.server.core.analysis.data.ReadWriteSafeCache;
 import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
 import org.apache.skywalking.oap.server.core.exporter.ExportEvent;
 import org.apache.skywalking.oap.server.core.storage.IMetricsDAO;
+import org.apache.skywalking.oap.server.core.storage.StorageHashMapBuilder;
 import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.core.storage.type.StorageBuilder;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
 import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
 import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
@@ -55,26 +58,36 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
     private final Model model;
     private final Map<Metrics, Metrics> context;
     private final IMetricsDAO metricsDAO;
+    private final StorageBuilder storageBuilder;
     private final Optional<AbstractWorker<Metrics>> nextAlarmWorker;
     private final Optional<AbstractWorker<ExportEvent>> nextExportWorker;
     private final DataCarrier<Metrics> dataCarrier;
     private final Optional<MetricsTransWorker> transWorker;
     private final boolean enableDatabaseSession;
     private final boolean supportUpdate;
+    /**
+     * Whether the buffered data and the {@link #context} are read by {@link #readInMemoryValues(List, String)}, the
+     * context is only locked when it is true.
+     */
+    private final boolean enableInMemoryQuery;
     private CounterMetrics aggregationCounter;
 
     MetricsPersistentWorker(ModuleDefineHolder moduleDefineHolder, Model model, IMetricsDAO metricsDAO,
+                            StorageBuilder storageBuilder,
                             AbstractWorker<Metrics> nextAlarmWorker, AbstractWorker<ExportEvent> nextExportWorker,
-                            MetricsTransWorker transWorker, boolean enableDatabaseSession, boolean supportUpdate) {
+                            MetricsTransWorker transWorker, boolean enableDatabaseSession, boolean supportUpdate,
+                            boolean enableInMemoryQuery) {
         super(moduleDefineHolder, new ReadWriteSafeCache<>(new MergableBufferedData(), new MergableBufferedData()));
         this.model = model;
         this.context = new HashMap<>(100);
         this.enableDatabaseSession = enableDatabaseSession;
         this.metricsDAO = metricsDAO;
+        this.storageBuilder = storageBuilder;
         this.nextAlarmWorker = Optional.ofNullable(nextAlarmWorker);
         this.nextExportWorker = Optional.ofNullable(nextExportWorker);
         this.transWorker = Optional.ofNullable(transWorker);
         this.supportUpdate = supportUpdate;
+        this.enableInMemoryQuery = enableInMemoryQuery;
 
         String name = "METRICS_L2_AGGREGATION";
         int size = BulkConsumePool.Creator.recommendMaxSize() / 8;
@@ -105,10 +118,10 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
      * Create the leaf MetricsPersistentWorker, no next step.
      */
     MetricsPersistentWorker(ModuleDefineHolder moduleDefineHolder, Model model, IMetricsDAO metricsDAO,
-                            boolean enableDatabaseSession, boolean supportUpdate) {
-        this(moduleDefineHolder, model, metricsDAO,
+                            StorageBuilder storageBuilder, boolean enableDatabaseSession, boolean supportUpdate) {
+        this(moduleDefineHolder, model, metricsDAO, storageBuilder,
              null, null, null,
-             enableDatabaseSession, supportUpdate
+             enableDatabaseSession, supportUpdate, false
         );
     }
 
@@ -173,12 +186,19 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
                     }
                     /*
                      * Merge metrics into cachedMetrics, change only happens inside cachedMetrics.
+                     * The context is locked if it could be read by #readInMemoryValues concurrently.
                      */
-                    final boolean isAbandoned = !cachedMetrics.combine(metrics);
+                    final boolean isAbandoned;
+                    if (enableInMemoryQuery) {
+                        synchronized (context) {
+                            isAbandoned = !combine(cachedMetrics, metrics);
+                        }
+                    } else {
+                        isAbandoned = !combine(cachedMetrics, metrics);
+                    }
                     if (isAbandoned) {
                         continue;
                     }
-                    cachedMetrics.calculate();
                     prepareRequests.add(metricsDAO.prepareBatchUpdate(model, cachedMetrics));
                     nextWorker(cachedMetrics);
                 } else {
@@ -200,6 +220,31 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
         }
     }
 
+    /**
+     * @return false if the metrics is abandoned in the combination, and the cached one is not calculated.
+     */
+    private static boolean combine(Metrics cachedMetrics, Metrics metrics) {
+        if (!cachedMetrics.combine(metrics)) {
+            return false;
+        }
+        cachedMetrics.calculate();
+        return true;
+    }
+
+    /**
+     * Change the {@link #context}, which is locked if it could be read by {@link #readInMemoryValues(List, String)}
+     * concurrently.
+     */
+    private void changeContext(Runnable change) {
+        if (enableInMemoryQuery) {
+            synchronized (context) {
+                change.run();
+            }
+        } else {
+            change.run();
+        }
+    }
+
     private void nextWorker(Metrics metrics) {
         nextAlarmWorker.ifPresent(nextAlarmWorker -> nextAlarmWorker.in(metrics));
         nextExportWorker.ifPresent(
@@ -211,30 +256,113 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
      */
     private void loadFromStorage(List<Metrics> metrics) throws IOException {
         if (!enableDatabaseSession) {
-            context.clear();
+            changeContext(context::clear);
         }
 
         List<Metrics> noInCacheMetrics = metrics.stream()
                                                 .filter(m -> !context.containsKey(m))
                                                 .collect(Collectors.toList());
         if (!noInCacheMetrics.isEmpty()) {
-            metricsDAO.multiGet(model, noInCacheMetrics).forEach(m -> context.put(m, m));
+            final List<Metrics> loaded = metricsDAO.multiGet(model, noInCacheMetrics);
+            changeContext(() -> loaded.forEach(m -> context.put(m, m)));
         }
     }
 
     @Override
     public void endOfRound(long tookTime) {
         if (enableDatabaseSession) {
-            Iterator<Metrics> iterator = context.values().iterator();
-            while (iterator.hasNext()) {
-                Metrics metrics = iterator.next();
-                metrics.extendSurvivalTime(tookTime);
-                // 70,000ms means more than one minute.
-                if (metrics.getSurvivalTime() > 70000) {
-                    iterator.remove();
+            changeContext(() -> {
+                Iterator<Metrics> iterator = context.values().iterator();
+                while (iterator.hasNext()) {
+                    Metrics metrics = iterator.next();
+                    metrics.extendSurvivalTime(tookTime);
+                    // 70,000ms means more than one minute.
+                    if (metrics.getSurvivalTime() > 70000) {
+                        iterator.remove();
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Read the latest values of the given metrics from the memory, including the data received but not persisted yet.
+     * The buffered data is combined with the persisted one, the same as the next persistence would do. The persisted
+     * one is taken from the session {@link #context} if existing, or loaded from the storage. The values flushed but not
+     * visible in the storage yet, such as before the refresh of ElasticSearch, are missed.
+     *
+     * @param ids             of the metrics to read.
+     * @param valueColumnName of the value to read, see {@link org.apache.skywalking.oap.server.core.storage.annotation.ValueColumnMetadata}.
+     * @return the values of the metrics having buffered data, keyed by the metrics id. Empty if the in-memory query is
+     * disabled.
+     * @since 8.6.0
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Long> readInMemoryValues(List<String> ids, String valueColumnName) throws IOException {
+        if (!enableInMemoryQuery || !(storageBuilder instanceof StorageHashMapBuilder)) {
+            return Collections.emptyMap();
+        }
+        final List<Metrics> buffered = getCache().peek(buffer -> {
+            final List<Metrics> copies = new ArrayList<>(ids.size());
+            for (final String id : ids) {
+                final Metrics metrics = ((MergableBufferedData<Metrics>) buffer).get(id);
+                if (metrics != null) {
+                    copies.add(copy(metrics));
+                }
+            }
+            return copies;
+        });
+        if (buffered.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        final Map<String, Metrics> persisted = new HashMap<>(buffered.size());
+        final List<Metrics> notInContext = new ArrayList<>(buffered.size());
+        synchronized (context) {
+            for (final Metrics metrics : buffered) {
+                final Metrics cachedMetrics = context.get(metrics);
+                if (cachedMetrics != null) {
+                    persisted.put(metrics.id(), copy(cachedMetrics));
+                } else {
+                    notInContext.add(metrics);
                 }
             }
         }
+        if (!notInContext.isEmpty()) {
+            metricsDAO.multiGet(model, notInContext).forEach(m -> persisted.put(m.id(), m));
+        }
+
+        final Map<String, Long> values = new HashMap<>(buffered.size());
+        for (final Metrics metrics : buffered) {
+            Metrics latest = persisted.get(metrics.id());
+            if (latest == null) {
+                latest = metrics;
+            } else if (supportUpdate) {
+                // the persisted one keeps unaltered if the buffered one is abandoned.
+                latest.combine(metrics);
+            }
+            latest.calculate();
+            final Object value = ((StorageHashMapBuilder<Metrics>) storageBuilder).entity2Storage(latest)
+                                                                                  .get(valueColumnName);
+            if (value instanceof Number) {
+                values.put(metrics.id(), ((Number) value).longValue());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Copy the metrics through the serialization of the remote transport, which includes all the fields required by
+     * {@link Metrics#combine(Metrics)}.
+     */
+    private static Metrics copy(Metrics metrics) {
+        try {
+            final Metrics copy = metrics.getClass().newInstance();
+            copy.deserialize(metrics.serialize().build());
+            return copy;
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new UnexpectedException("Copy metrics " + metrics.getClass().getSimpleName() + " failure.", e);
+        }
     }
 
     /**
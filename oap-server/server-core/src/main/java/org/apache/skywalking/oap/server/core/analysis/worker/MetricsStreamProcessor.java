@@ -32,7 +32,10 @@ import org.apache.skywalking.oap.server.core.analysis.MetricsExtension;
 import org.apache.skywalking.oap.server.core.analysis.Stream;
 import org.apache.skywalking.oap.server.core.analysis.StreamDefinition;
 import org.apache.skywalking.oap.server.core.analysis.StreamProcessor;
+import org.apache.skywalking.oap.server.core.analysis.manual.endpoint.EndpointTraffic;
+import org.apache.skywalking.oap.server.core.analysis.manual.service.ServiceTraffic;
 import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.cache.MetadataCatalog;
 import org.apache.skywalking.oap.server.core.config.DownSamplingConfigService;
 import org.apache.skywalking.oap.server.core.storage.IMetricsDAO;
 import org.apache.skywalking.oap.server.core.storage.StorageBuilderFactory;
@@ -77,6 +80,19 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
     @Getter
     private boolean enableDatabaseSession;
 
+    /**
+     * Hold and forward whether CoreModuleConfig#inMemoryMetricsQueryMinutes is on to the minute persistent worker.
+     */
+    @Setter
+    @Getter
+    private boolean enableInMemoryQuery;
+
+    /**
+     * The catalog fed by the traffic of the services and endpoints, null if it is disabled.
+     */
+    @Setter
+    private MetadataCatalog metadataCatalog;
+
     public static MetricsStreamProcessor getInstance() {
         return PROCESSOR;
     }
@@ -111,9 +127,11 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
         final Class<? extends StorageBuilder> builder = storageBuilderFactory.builderOf(metricsClass, stream.getBuilder());
 
         StorageDAO storageDAO = moduleDefineHolder.find(StorageModule.NAME).provider().getService(StorageDAO.class);
+        StorageBuilder storageBuilder;
         IMetricsDAO metricsDAO;
         try {
-            metricsDAO = storageDAO.newMetricsDao(builder.getDeclaredConstructor().newInstance());
+            storageBuilder = builder.getDeclaredConstructor().newInstance();
+            metricsDAO = storageDAO.newMetricsDao(storageBuilder);
         } catch (InstantiationException | IllegalAccessException | NoSuchMethodException | InvocationTargetException e) {
             throw new UnexpectedException("Create " + stream.getBuilder().getSimpleName() + " metrics DAO failure.", e);
         }
@@ -142,12 +160,14 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
             if (configService.shouldToHour()) {
                 Model model = modelSetter.add(
                     metricsClass, stream.getScopeId(), new Storage(stream.getName(), DownSampling.Hour), false);
-                hourPersistentWorker = downSamplingWorker(moduleDefineHolder, metricsDAO, model, supportUpdate);
+                hourPersistentWorker = downSamplingWorker(
+                    moduleDefineHolder, metricsDAO, storageBuilder, model, supportUpdate);
             }
             if (configService.shouldToDay()) {
                 Model model = modelSetter.add(
                     metricsClass, stream.getScopeId(), new Storage(stream.getName(), DownSampling.Day), false);
-                dayPersistentWorker = downSamplingWorker(moduleDefineHolder, metricsDAO, model, supportUpdate);
+                dayPersistentWorker = downSamplingWorker(
+                    moduleDefineHolder, metricsDAO, storageBuilder, model, supportUpdate);
             }
 
             transWorker = new MetricsTransWorker(
@@ -157,13 +177,24 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
         Model model = modelSetter.add(
             metricsClass, stream.getScopeId(), new Storage(stream.getName(), DownSampling.Minute), false);
         MetricsPersistentWorker minutePersistentWorker = minutePersistentWorker(
-            moduleDefineHolder, metricsDAO, model, transWorker, supportUpdate);
+            moduleDefineHolder, metricsDAO, storageBuilder, model, transWorker, supportUpdate);
 
-        String remoteReceiverWorkerName = stream.getName() + "_rec";
+        String remoteReceiverWorkerName = remoteReceiverWorkerName(stream.getName());
         IWorkerInstanceSetter workerInstanceSetter = moduleDefineHolder.find(CoreModule.NAME)
                                                                        .provider()
                                                                        .getService(IWorkerInstanceSetter.class);
-        workerInstanceSetter.put(remoteReceiverWorkerName, minutePersistentWorker, metricsClass);
+        if (metadataCatalog != null && (ServiceTraffic.class.equals(metricsClass) || EndpointTraffic.class.equals(
+            metricsClass))) {
+            String catalogReceiverWorkerName = MetadataCatalogWorker.receiverWorkerName(stream.getName());
+            workerInstanceSetter.put(
+                catalogReceiverWorkerName, new MetadataCatalogWorker.Receiver(moduleDefineHolder, metadataCatalog),
+                metricsClass
+            );
+            workerInstanceSetter.put(remoteReceiverWorkerName, new MetadataCatalogWorker(
+                moduleDefineHolder, metadataCatalog, minutePersistentWorker, catalogReceiverWorkerName), metricsClass);
+        } else {
+            workerInstanceSetter.put(remoteReceiverWorkerName, minutePersistentWorker, metricsClass);
+        }
 
         MetricsRemoteWorker remoteWorker = new MetricsRemoteWorker(moduleDefineHolder, remoteReceiverWorkerName);
         MetricsAggregateWorker aggregateWorker = new MetricsAggregateWorker(
@@ -172,8 +203,17 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
         entryWorkers.put(metricsClass, aggregateWorker);
     }
 
+    /**
+     * @return the name of the worker receiving the metrics from the other OAP nodes, which is the minute persistent
+     * worker of the metrics.
+     */
+    public static String remoteReceiverWorkerName(String metricsName) {
+        return metricsName + "_rec";
+    }
+
     private MetricsPersistentWorker minutePersistentWorker(ModuleDefineHolder moduleDefineHolder,
                                                            IMetricsDAO metricsDAO,
+                                                           StorageBuilder storageBuilder,
                                                            Model model,
                                                            MetricsTransWorker transWorker,
                                                            boolean supportUpdate) {
@@ -181,8 +221,8 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
         ExportWorker exportWorker = new ExportWorker(moduleDefineHolder);
 
         MetricsPersistentWorker minutePersistentWorker = new MetricsPersistentWorker(
-            moduleDefineHolder, model, metricsDAO, alarmNotifyWorker, exportWorker, transWorker, enableDatabaseSession,
-            supportUpdate
+            moduleDefineHolder, model, metricsDAO, storageBuilder, alarmNotifyWorker, exportWorker, transWorker,
+            enableDatabaseSession, supportUpdate, enableInMemoryQuery
         );
         persistentWorkers.add(minutePersistentWorker);
 
@@ -191,10 +231,11 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
 
     private MetricsPersistentWorker downSamplingWorker(ModuleDefineHolder moduleDefineHolder,
                                                        IMetricsDAO metricsDAO,
+                                                       StorageBuilder storageBuilder,
                                                        Model model,
                                                        boolean supportUpdate) {
         MetricsPersistentWorker persistentWorker = new MetricsPersistentWorker(
-            moduleDefineHolder, model, metricsDAO, enableDatabaseSession, supportUpdate);
+            moduleDefineHolder, model, metricsDAO, storageBuilder, enableDatabaseSession, supportUpdate);
         persistentWorkers.add(persistentWorker);
 
         return persistentWorker;
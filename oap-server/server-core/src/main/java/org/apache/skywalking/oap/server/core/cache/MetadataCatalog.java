@@ -0,0 +1,323 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.analysis.IDManager;
+import org.apache.skywalking.oap.server.core.analysis.NodeType;
+import org.apache.skywalking.oap.server.core.analysis.manual.endpoint.EndpointTraffic;
+import org.apache.skywalking.oap.server.core.analysis.manual.service.ServiceTraffic;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.query.type.Database;
+import org.apache.skywalking.oap.server.core.query.type.Endpoint;
+import org.apache.skywalking.oap.server.core.query.type.Service;
+
+import static org.apache.skywalking.oap.server.core.Const.DOUBLE_COLONS_SPLIT;
+
+/**
+ * MetadataCatalog keeps the services and endpoints in memory. It is fed by the {@link ServiceTraffic} and {@link
+ * EndpointTraffic} streams. The endpoint names of every service are indexed by their trigrams for the keyword search.
+ * The entries which are not active in the TTL are evicted.
+ *
+ * The catalog only knows the entities which have been active since the OAP started, so it is {@link #isReady()} only
+ * after one TTL. Before that, the metadata queries should be answered by the storage.
+ */
+@Slf4j
+public class MetadataCatalog {
+    private final long ttl;
+    /**
+     * The active entities are shared with the other OAP nodes in every half of the TTL, so they are never evicted from
+     * the catalogs of the nodes which don't receive their traffic.
+     */
+    private final long shareInterval;
+    private final long startTime;
+    private final Map<String, ServiceEntry> services = new ConcurrentHashMap<>();
+    private final Map<String, EndpointIndex> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * @param ttlInMinutes the entries not active in the TTL are evicted.
+     */
+    public MetadataCatalog(int ttlInMinutes) {
+        this.ttl = TimeUnit.MINUTES.toMillis(ttlInMinutes);
+        this.shareInterval = ttl / 2;
+        this.startTime = System.currentTimeMillis();
+    }
+
+    public void start() {
+        Executors.newSingleThreadScheduledExecutor().scheduleAtFixedRate(
+            new RunnableWithExceptionProtection(
+                () -> evictInactive(System.currentTimeMillis()), t -> log.error("Evict metadata catalog failure.", t)),
+            1, 1, TimeUnit.MINUTES
+        );
+    }
+
+    /**
+     * @return true if the catalog has run for one TTL, and knows all the entities active in the TTL.
+     */
+    public boolean isReady() {
+        return System.currentTimeMillis() - startTime >= ttl;
+    }
+
+    /**
+     * Record the entity of the traffic as active.
+     *
+     * @return true if the entity is new in the catalog, or it hasn't been shared with the other OAP nodes in half of
+     * the TTL.
+     */
+    public boolean record(Metrics traffic) {
+        final long now = System.currentTimeMillis();
+        if (traffic instanceof ServiceTraffic) {
+            final ServiceTraffic serviceTraffic = (ServiceTraffic) traffic;
+            final ServiceEntry entry = services.computeIfAbsent(
+                serviceTraffic.getName() + Const.ID_CONNECTOR + serviceTraffic.getNodeType().value(),
+                key -> new ServiceEntry(serviceTraffic)
+            );
+            entry.lastSeen = now;
+            return entry.isShareRequired(now);
+        } else if (traffic instanceof EndpointTraffic) {
+            final EndpointTraffic endpointTraffic = (EndpointTraffic) traffic;
+            return endpoints.computeIfAbsent(endpointTraffic.getServiceId(), serviceId -> new EndpointIndex())
+                            .record(endpointTraffic.getName(), now);
+        }
+        return false;
+    }
+
+    public List<Service> getServices(NodeType nodeType, String group) {
+        final List<Service> result = new ArrayList<>();
+        services.values().forEach(entry -> {
+            if (entry.nodeType == nodeType && (group == null || group.equals(entry.group))) {
+                result.add(entry.toService());
+            }
+        });
+        return result;
+    }
+
+    public List<Database> getDatabases() {
+        final List<Database> result = new ArrayList<>();
+        services.values().forEach(entry -> {
+            if (entry.nodeType == NodeType.Database) {
+                Database database = new Database();
+                database.setId(entry.id);
+                database.setName(entry.name);
+                result.add(database);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @return the normal services whose names contain the keyword.
+     */
+    public List<Service> searchServices(String keyword) {
+        final List<Service> result = new ArrayList<>();
+        services.values().forEach(entry -> {
+            if (entry.nodeType == NodeType.Normal && (keyword == null || entry.name.contains(keyword))) {
+                result.add(entry.toService());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @return the normal service of the name, or null if not found.
+     */
+    public Service searchService(String serviceCode) {
+        final ServiceEntry entry = services.get(serviceCode + Const.ID_CONNECTOR + NodeType.Normal.value());
+        return entry == null ? null : entry.toService();
+    }
+
+    /**
+     * @return at most limit endpoints of the service, whose names contain the keyword case-insensitively.
+     */
+    public List<Endpoint> searchEndpoint(String keyword, String serviceId, int limit) {
+        final EndpointIndex index = endpoints.get(serviceId);
+        if (index == null) {
+            return new ArrayList<>();
+        }
+        final List<Endpoint> result = new ArrayList<>();
+        for (final String name : index.search(keyword, limit)) {
+            Endpoint endpoint = new Endpoint();
+            endpoint.setId(IDManager.EndpointID.buildId(serviceId, name));
+            endpoint.setName(name);
+            result.add(endpoint);
+        }
+        return result;
+    }
+
+    void evictInactive(long now) {
+        services.values().removeIf(entry -> now - entry.lastSeen > ttl);
+        // The empty indexes are kept, as the endpoints of the service could be recorded concurrently.
+        endpoints.values().forEach(index -> index.evictInactive(now - ttl));
+    }
+
+    private abstract class Entry {
+        protected volatile long lastSeen;
+        private volatile long lastShared;
+
+        protected boolean isShareRequired(long now) {
+            if (lastShared == 0 || now - lastShared > shareInterval) {
+                lastShared = now;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private class ServiceEntry extends Entry {
+        private final String id;
+        private final String name;
+        private final NodeType nodeType;
+        private final String group;
+
+        private ServiceEntry(ServiceTraffic traffic) {
+            this.id = traffic.id();
+            this.name = traffic.getName();
+            this.nodeType = traffic.getNodeType();
+            final int groupIdx = name.indexOf(DOUBLE_COLONS_SPLIT);
+            this.group = nodeType == NodeType.Normal && groupIdx > 0 ? name.substring(0, groupIdx) : Const.EMPTY_STRING;
+        }
+
+        private Service toService() {
+            Service service = new Service();
+            service.setId(id);
+            service.setName(name);
+            service.setGroup(group);
+            return service;
+        }
+    }
+
+    /**
+     * The endpoints of one service, indexed by the trigrams of the lower case names. The keyword search intersects the
+     * names of the least common trigram of the keyword, rather than scanning all the names.
+     */
+    private class EndpointIndex {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<String, EndpointEntry> entries = new HashMap<>();
+        private final Map<Long, Set<String>> trigrams = new HashMap<>();
+
+        private boolean record(String name, long now) {
+            lock.readLock().lock();
+            try {
+                final EndpointEntry entry = entries.get(name);
+                if (entry != null) {
+                    entry.lastSeen = now;
+                    return entry.isShareRequired(now);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            lock.writeLock().lock();
+            try {
+                EndpointEntry entry = entries.get(name);
+                if (entry == null) {
+                    entry = new EndpointEntry();
+                    entries.put(name, entry);
+                    for (final long trigram : trigramsOf(name.toLowerCase(Locale.ROOT))) {
+                        trigrams.computeIfAbsent(trigram, t -> new HashSet<>()).add(name);
+                    }
+                }
+                entry.lastSeen = now;
+                return entry.isShareRequired(now);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private List<String> search(String keyword, int limit) {
+            final String lowerKeyword = keyword == null ? Const.EMPTY_STRING : keyword.toLowerCase(Locale.ROOT);
+            final List<String> result = new ArrayList<>();
+            lock.readLock().lock();
+            try {
+                Iterable<String> candidates = entries.keySet();
+                if (lowerKeyword.length() >= 3) {
+                    Set<String> smallest = null;
+                    for (final long trigram : trigramsOf(lowerKeyword)) {
+                        final Set<String> names = trigrams.get(trigram);
+                        if (names == null) {
+                            return result;
+                        }
+                        if (smallest == null || names.size() < smallest.size()) {
+                            smallest = names;
+                        }
+                    }
+                    candidates = smallest;
+                }
+                for (final String name : candidates) {
+                    if (result.size() >= limit) {
+                        break;
+                    }
+                    if (lowerKeyword.isEmpty() || name.toLowerCase(Locale.ROOT).contains(lowerKeyword)) {
+                        result.add(name);
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            return result;
+        }
+
+        private void evictInactive(long expiredTime) {
+            lock.writeLock().lock();
+            try {
+                entries.entrySet().removeIf(entry -> {
+                    if (entry.getValue().lastSeen >= expiredTime) {
+                        return false;
+                    }
+                    for (final long trigram : trigramsOf(entry.getKey().toLowerCase(Locale.ROOT))) {
+                        final Set<String> names = trigrams.get(trigram);
+                        if (names != null) {
+                            names.remove(entry.getKey());
+                            if (names.isEmpty()) {
+                                trigrams.remove(trigram);
+                            }
+                        }
+                    }
+                    return true;
+                });
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private class EndpointEntry extends Entry {
+    }
+
+    private static Set<Long> trigramsOf(String text) {
+        final Set<Long> result = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            result.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return result;
+    }
+}
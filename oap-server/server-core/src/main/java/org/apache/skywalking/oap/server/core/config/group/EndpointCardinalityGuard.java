@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.config.group;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * EndpointCardinalityGuard keeps the number of endpoints of every service bounded, no matter how many distinct names
+ * the agents report, such as REST paths including IDs. It works at ingest time in two steps.
+ * <p>
+ * 1. The names are split by '/' and learnt in a token tree per service. The tokens looking like an ID, e.g. numbers,
+ * UUIDs and long hex strings, are replaced by {@link #VARIABLE} directly. Once a tree node has seen more than {@code
+ * templateThreshold} distinct tokens at the same position, the position is considered as a variable too, and the rest
+ * of the names are learnt under it. So `/orders/a1b/items` and `/orders/c2d/items` converge to
+ * `/orders/{var}/items`, once `/orders/` has too many different children.
+ * <p>
+ * 2. The templated names are admitted until the service has {@code maxEndpointsPerService} endpoints. The names out of
+ * the quota are folded into {@link #OVERFLOW}.
+ * <p>
+ * The known names only cost a tree walk and a set lookup. The tree size of every service is bounded, the tokens out
+ * of the budget are kept literally and only limited by the quota.
+ */
+@Slf4j
+public class EndpointCardinalityGuard {
+    public static final String VARIABLE = "{var}";
+    public static final String OVERFLOW = "{overflow}";
+
+    private final int maxEndpointsPerService;
+    private final int templateThreshold;
+    private final int maxNodesPerService;
+    private final Map<String, ServiceEndpoints> services = new ConcurrentHashMap<>();
+
+    public EndpointCardinalityGuard(int maxEndpointsPerService, int templateThreshold) {
+        this.maxEndpointsPerService = maxEndpointsPerService;
+        this.templateThreshold = templateThreshold;
+        this.maxNodesPerService = maxEndpointsPerService * 4;
+    }
+
+    /**
+     * @param serviceName  the service of the given endpoint.
+     * @param endpointName the length controlled endpoint name.
+     * @return the learnt template of the name, or {@link #OVERFLOW} if the service is out of the endpoint quota.
+     */
+    public String format(String serviceName, String endpointName) {
+        ServiceEndpoints endpoints = services.get(serviceName);
+        if (endpoints == null) {
+            endpoints = services.computeIfAbsent(serviceName, name -> new ServiceEndpoints());
+        }
+        final String name = endpoints.admit(endpointName);
+        if (log.isDebugEnabled() && !name.equals(endpointName)) {
+            log.debug("Endpoint {} of Service {} has been folded into {}", endpointName, serviceName, name);
+        }
+        return name;
+    }
+
+    static boolean isIdentifier(String token) {
+        final int length = token.length();
+        if (length == 0) {
+            return false;
+        }
+        boolean allDigits = true;
+        boolean hasDigit = false;
+        for (int i = 0; i < length; i++) {
+            final char c = token.charAt(i);
+            if (c >= '0' && c <= '9') {
+                hasDigit = true;
+            } else {
+                allDigits = false;
+                if (!(c >= 'a' && c <= 'f') && !(c >= 'A' && c <= 'F') && c != '-') {
+                    return false;
+                }
+            }
+        }
+        return allDigits || (hasDigit && length >= 16);
+    }
+
+    private class ServiceEndpoints {
+        private final Node root = new Node();
+        private final AtomicInteger nodes = new AtomicInteger();
+        private final Set<String> admitted = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger admittedCount = new AtomicInteger();
+
+        String admit(String endpointName) {
+            final String name = template(endpointName);
+            if (admitted.contains(name)) {
+                return name;
+            }
+            if (admittedCount.get() >= maxEndpointsPerService) {
+                return OVERFLOW;
+            }
+            if (admitted.add(name)) {
+                admittedCount.incrementAndGet();
+            }
+            return name;
+        }
+
+        /**
+         * @return the name with the variable tokens replaced, or the given name itself if there is none.
+         */
+        String template(String name) {
+            Node node = root;
+            StringBuilder templated = null;
+            int start = 0;
+            while (true) {
+                int end = name.indexOf('/', start);
+                if (end < 0) {
+                    end = name.length();
+                }
+                final String token = name.substring(start, end);
+                boolean variable = isIdentifier(token);
+                if (node != null) {
+                    if (variable || node.collapsed) {
+                        variable = true;
+                        node = node.variable();
+                    } else {
+                        node = learn(node, token);
+                        variable = node != null && node.isVariable;
+                    }
+                }
+                if (variable && templated == null) {
+                    templated = new StringBuilder(name.length()).append(name, 0, start);
+                }
+                if (templated != null) {
+                    templated.append(variable ? VARIABLE : token);
+                }
+                if (end == name.length()) {
+                    break;
+                }
+                if (templated != null) {
+                    templated.append('/');
+                }
+                start = end + 1;
+            }
+            return templated == null ? name : templated.toString();
+        }
+
+        /**
+         * @return the child of the token, the variable child if the node has been collapsed by this token, or null if
+         * the tree is out of the node budget.
+         */
+        private Node learn(Node node, String token) {
+            final Node child = node.children.get(token);
+            if (child != null) {
+                return child;
+            }
+            if (node.children.size() >= templateThreshold) {
+                node.collapse();
+                return node.variable();
+            }
+            if (nodes.get() >= maxNodesPerService) {
+                return null;
+            }
+            final Node created = new Node();
+            final Node existing = node.children.putIfAbsent(token, created);
+            if (existing != null) {
+                return existing;
+            }
+            nodes.incrementAndGet();
+            return created;
+        }
+    }
+
+    private static class Node {
+        private final Map<String, Node> children = new ConcurrentHashMap<>();
+        private final boolean isVariable;
+        private volatile Node variable;
+        private volatile boolean collapsed;
+
+        Node() {
+            this(false);
+        }
+
+        private Node(boolean isVariable) {
+            this.isVariable = isVariable;
+        }
+
+        Node variable() {
+            Node node = variable;
+            if (node == null) {
+                synchronized (this) {
+                    node = variable;
+                    if (node == null) {
+                        node = new Node(true);
+                        variable = node;
+                    }
+                }
+            }
+            return node;
+        }
+
+        /**
+         * All tokens at this position are variables from now on. The literal children are dropped, as the names
+         * through them are templated since now.
+         */
+        void collapse() {
+            collapsed = true;
+            children.clear();
+        }
+    }
+}
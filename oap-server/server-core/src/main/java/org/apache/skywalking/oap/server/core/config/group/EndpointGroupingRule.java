@@ -23,10 +23,11 @@ import java.util.Map;
 import org.apache.skywalking.apm.util.StringFormatGroup;
 
 /**
- * Endpoint group rule hosts all group rules of all services.
+ * Endpoint group rule hosts all group rules of all services, the rules of every service are compiled into a {@link
+ * EndpointGroupingTrie}.
  */
 public class EndpointGroupingRule {
-    private Map<String, StringFormatGroup> rules = new HashMap<>();
+    private Map<String, EndpointGroupingTrie> rules = new HashMap<>();
 
     /**
      * Add a new rule to the context.
@@ -36,7 +37,7 @@ public class EndpointGroupingRule {
      * @param ruleRegex         match the endpoints which should be in the group name.
      */
     void addRule(String serviceName, String endpointGroupName, String ruleRegex) {
-        final StringFormatGroup formatGroup = rules.computeIfAbsent(serviceName, name -> new StringFormatGroup());
+        final EndpointGroupingTrie formatGroup = rules.computeIfAbsent(serviceName, name -> new EndpointGroupingTrie());
         formatGroup.addRule(endpointGroupName, ruleRegex);
     }
 
@@ -46,9 +47,9 @@ public class EndpointGroupingRule {
      * @return group result and new endpoint name if rule matched.
      */
     public StringFormatGroup.FormatResult format(String service, String endpointName) {
-        final StringFormatGroup stringFormatGroup = rules.get(service);
-        if (stringFormatGroup != null) {
-            return stringFormatGroup.format(endpointName);
+        final EndpointGroupingTrie formatGroup = rules.get(service);
+        if (formatGroup != null) {
+            return formatGroup.format(endpointName);
         } else {
             return new StringFormatGroup.FormatResult(false, endpointName, endpointName);
         }
@@ -0,0 +1,333 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.config.group;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.apache.skywalking.apm.util.StringFormatGroup;
+
+/**
+ * The grouping rules of one service. The rule regex, which could be split into the path segments by `/`, is compiled
+ * into a trie of the segments, the literal segment is matched by the hash, the other segments are matched by their
+ * own regex, and the tailing `.+` or `.*` matches the rest of the path. The other rules are matched by the whole
+ * regex one by one. Same as {@link StringFormatGroup}, the first added rule wins when multiple rules match, and the
+ * rule with a duplicated name is ignored.
+ * <p>
+ * The results of the recently formatted names are cached.
+ */
+class EndpointGroupingTrie {
+    private static final int MAX_CACHED_NAMES = 1000;
+
+    private final Node root = new Node();
+    private final List<RegexRule> regexRules = new ArrayList<>();
+    private final List<String> ruleNames = new ArrayList<>();
+    private final Set<String> ruleNameSet = new HashSet<>();
+    private final Cache<String, StringFormatGroup.FormatResult> results = CacheBuilder.newBuilder()
+                                                                                     .maximumSize(MAX_CACHED_NAMES)
+                                                                                     .build();
+
+    /**
+     * @param name      will be used when ruleRegex matched.
+     * @param ruleRegex to match the endpoint name.
+     */
+    void addRule(String name, String ruleRegex) {
+        if (!ruleNameSet.add(name)) {
+            return;
+        }
+        final int ruleIndex = ruleNames.size();
+        ruleNames.add(name);
+        final List<String> segments = splitSegments(ruleRegex);
+        if (segments == null || !addToTrie(segments, ruleIndex)) {
+            regexRules.add(new RegexRule(ruleIndex, Pattern.compile(ruleRegex)));
+        }
+    }
+
+    StringFormatGroup.FormatResult format(String endpointName) {
+        StringFormatGroup.FormatResult result = results.getIfPresent(endpointName);
+        if (result == null) {
+            result = match(endpointName);
+            results.put(endpointName, result);
+        }
+        return result;
+    }
+
+    private StringFormatGroup.FormatResult match(String endpointName) {
+        final List<Integer> offsets = segmentOffsets(endpointName);
+        int matched = root.match(endpointName, offsets, 0, Integer.MAX_VALUE);
+        for (final RegexRule rule : regexRules) {
+            if (rule.index >= matched) {
+                break;
+            }
+            if (rule.pattern.matcher(endpointName).matches()) {
+                matched = rule.index;
+                break;
+            }
+        }
+        if (matched == Integer.MAX_VALUE) {
+            return new StringFormatGroup.FormatResult(false, endpointName, endpointName);
+        }
+        return new StringFormatGroup.FormatResult(true, ruleNames.get(matched), endpointName);
+    }
+
+    /**
+     * @return the start offsets of the segments split by `/`, and the length of the name plus 1 in the end.
+     */
+    private static List<Integer> segmentOffsets(String endpointName) {
+        final List<Integer> offsets = new ArrayList<>(8);
+        offsets.add(0);
+        int index = endpointName.indexOf('/');
+        while (index >= 0) {
+            offsets.add(index + 1);
+            index = endpointName.indexOf('/', index + 1);
+        }
+        offsets.add(endpointName.length() + 1);
+        return offsets;
+    }
+
+    private boolean addToTrie(List<String> segments, int ruleIndex) {
+        Node node = root;
+        for (int i = 0; i < segments.size(); i++) {
+            final String segment = segments.get(i);
+            final boolean last = i == segments.size() - 1;
+            if (last && (".+".equals(segment) || ".*".equals(segment))) {
+                node.addTail(segment.charAt(1) == '*', ruleIndex);
+                return true;
+            }
+            final String literal = unescapeLiteral(segment);
+            if (literal != null) {
+                node = node.literals.computeIfAbsent(literal, key -> new Node());
+            } else if (isSingleSegmentRegex(segment)) {
+                node = node.wildcard(segment);
+            } else {
+                return false;
+            }
+        }
+        if (node.ruleIndex == Integer.MAX_VALUE) {
+            node.ruleIndex = ruleIndex;
+        }
+        return true;
+    }
+
+    /**
+     * Split the regex by the `/` or `\/` out of the character classes.
+     *
+     * @return null if the regex includes the group or the alternation, or a quantifier of the `/`, which can't be
+     * split.
+     */
+    static List<String> splitSegments(String regex) {
+        int start = regex.startsWith("^") ? 1 : 0;
+        int end = regex.endsWith("$") && !regex.endsWith("\\$") ? regex.length() - 1 : regex.length();
+        final List<String> segments = new ArrayList<>();
+        final StringBuilder segment = new StringBuilder();
+        boolean inClass = false;
+        for (int i = start; i < end; i++) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 >= end) {
+                    return null;
+                }
+                final char next = regex.charAt(++i);
+                if (next == '/' && !inClass) {
+                    segments.add(segment.toString());
+                    segment.setLength(0);
+                } else {
+                    segment.append(c).append(next);
+                }
+                continue;
+            }
+            if (inClass) {
+                if (c == '[') {
+                    return null;
+                }
+                inClass = c != ']';
+                segment.append(c);
+            } else if (c == '/') {
+                segments.add(segment.toString());
+                segment.setLength(0);
+            } else if (c == '(' || c == ')' || c == '|' || c == '^' || c == '$') {
+                return null;
+            } else {
+                inClass = c == '[';
+                segment.append(c);
+            }
+        }
+        if (inClass) {
+            return null;
+        }
+        segments.add(segment.toString());
+        for (final String split : segments) {
+            // A quantifier leading the segment quantifies the `/` before it.
+            if (!split.isEmpty() && "?*+{".indexOf(split.charAt(0)) >= 0) {
+                return null;
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * @return the literal string of the segment, or null if the segment includes any regex syntax.
+     */
+    static String unescapeLiteral(String segment) {
+        final StringBuilder literal = new StringBuilder(segment.length());
+        for (int i = 0; i < segment.length(); i++) {
+            final char c = segment.charAt(i);
+            if (c == '\\') {
+                final char next = segment.charAt(i + 1);
+                if (Character.isLetterOrDigit(next)) {
+                    return null;
+                }
+                literal.append(next);
+                i++;
+            } else if (".[]{}*+?".indexOf(c) >= 0) {
+                return null;
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.toString();
+    }
+
+    /**
+     * @return true if the segment regex never matches `/`. Only the literal characters, `\w`, `\d`, the character
+     * classes without `/`, the negated character classes with `/`, and the quantifiers are accepted.
+     */
+    static boolean isSingleSegmentRegex(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            final char c = segment.charAt(i);
+            if (c == '\\') {
+                final char next = segment.charAt(++i);
+                if (Character.isLetterOrDigit(next) && next != 'w' && next != 'd') {
+                    return false;
+                }
+            } else if (c == '[') {
+                final int close = segment.indexOf(']', i + 2);
+                if (close < 0) {
+                    return false;
+                }
+                final String body = segment.substring(i + 1, close);
+                final boolean negated = body.startsWith("^");
+                if (body.contains("\\") || negated != body.contains("/")) {
+                    return false;
+                }
+                i = close;
+            } else if (c == '{') {
+                final int close = segment.indexOf('}', i);
+                if (close < 0 || !segment.substring(i + 1, close).matches("\\d+(,\\d*)?")) {
+                    return false;
+                }
+                i = close;
+            } else if (c == '.') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private final List<Wildcard> wildcards = new ArrayList<>(2);
+        /**
+         * The index of the rule ending at this node.
+         */
+        private int ruleIndex = Integer.MAX_VALUE;
+        /**
+         * The index of the rule ending with `.*` or `.+` at this node.
+         */
+        private int tailRuleIndex = Integer.MAX_VALUE;
+        private int nonEmptyTailRuleIndex = Integer.MAX_VALUE;
+
+        private void addTail(boolean allowEmpty, int index) {
+            if (allowEmpty) {
+                tailRuleIndex = Math.min(tailRuleIndex, index);
+            } else {
+                nonEmptyTailRuleIndex = Math.min(nonEmptyTailRuleIndex, index);
+            }
+        }
+
+        private Node wildcard(String segmentRegex) {
+            for (final Wildcard wildcard : wildcards) {
+                if (wildcard.regex.equals(segmentRegex)) {
+                    return wildcard.child;
+                }
+            }
+            final Wildcard wildcard = new Wildcard(segmentRegex);
+            wildcards.add(wildcard);
+            return wildcard.child;
+        }
+
+        /**
+         * @param offsets the start offsets of the segments, and the end offset of the name plus 1.
+         * @param segment the index of the segment to match by this node.
+         * @param matched the smallest matched rule index found before.
+         * @return the smallest matched rule index.
+         */
+        private int match(String name, List<Integer> offsets, int segment, int matched) {
+            final int segmentCount = offsets.size() - 1;
+            if (segment == segmentCount) {
+                return Math.min(matched, ruleIndex);
+            }
+            final int start = offsets.get(segment);
+            if (tailRuleIndex < matched) {
+                matched = tailRuleIndex;
+            }
+            if (nonEmptyTailRuleIndex < matched && start < name.length()) {
+                matched = nonEmptyTailRuleIndex;
+            }
+            final String value = name.substring(start, offsets.get(segment + 1) - 1);
+            final Node literal = literals.get(value);
+            if (literal != null) {
+                matched = literal.match(name, offsets, segment + 1, matched);
+            }
+            for (final Wildcard wildcard : wildcards) {
+                if (wildcard.pattern.matcher(value).matches()) {
+                    matched = wildcard.child.match(name, offsets, segment + 1, matched);
+                }
+            }
+            return matched;
+        }
+    }
+
+    private static class Wildcard {
+        private final String regex;
+        private final Pattern pattern;
+        private final Node child = new Node();
+
+        private Wildcard(String regex) {
+            this.regex = regex;
+            this.pattern = Pattern.compile(regex);
+        }
+    }
+
+    private static class RegexRule {
+        private final int index;
+        private final Pattern pattern;
+
+        private RegexRule(int index, Pattern pattern) {
+            this.index = index;
+            this.pattern = pattern;
+        }
+    }
+}
@@ -26,10 +26,15 @@ import org.apache.skywalking.apm.util.StringFormatGroup;
 public class EndpointNameGrouping {
     @Setter
     private volatile EndpointGroupingRule endpointGroupingRule;
+    /**
+     * Guard the endpoint cardinality of the names which don't match any static rule. Null means no limitation.
+     */
+    @Setter
+    private EndpointCardinalityGuard cardinalityGuard;
 
     public String format(String serviceName, String endpointName) {
         if (endpointGroupingRule == null) {
-            return endpointName;
+            return guard(serviceName, endpointName);
         }
         final StringFormatGroup.FormatResult formatResult = endpointGroupingRule.format(serviceName, endpointName);
         if (log.isDebugEnabled() || log.isTraceEnabled()) {
@@ -41,6 +46,13 @@ public class EndpointNameGrouping {
                 log.trace("Endpoint {} of Service {} keeps unchanged.", endpointName, serviceName);
             }
         }
-        return formatResult.getName();
+        return formatResult.isMatch() ? formatResult.getName() : guard(serviceName, endpointName);
+    }
+
+    private String guard(String serviceName, String endpointName) {
+        if (cardinalityGuard == null) {
+            return endpointName;
+        }
+        return cardinalityGuard.format(serviceName, endpointName);
     }
 }
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.profile.analyze;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assign an int ID to every distinct code signature in one analysis, so the {@link ProfileStack}s only hold the IDs,
+ * and the {@link ProfileStackNode}s are matched by the IDs rather than comparing the strings.
+ */
+public class CodeSignatureDictionary {
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final List<String> signatures = new ArrayList<>();
+
+    /**
+     * @return the ID of the code signature, assign a new one if absent.
+     */
+    public int idOf(String codeSignature) {
+        Integer id = ids.get(codeSignature);
+        if (id != null) {
+            return id;
+        }
+        synchronized (signatures) {
+            id = ids.get(codeSignature);
+            if (id == null) {
+                id = signatures.size();
+                signatures.add(codeSignature);
+                ids.put(codeSignature, id);
+            }
+            return id;
+        }
+    }
+
+    public String signatureOf(int id) {
+        synchronized (signatures) {
+            return signatures.get(id);
+        }
+    }
+
+    public int size() {
+        return ids.size();
+    }
+}
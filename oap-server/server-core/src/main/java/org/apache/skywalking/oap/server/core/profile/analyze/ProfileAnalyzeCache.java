@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.profile.analyze;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache the analyzed stack tree fragments of the profiled segments, the fragments are keyed by the segment id and the
+ * sequence block. A block is only cached when all the snapshots of it have been found, so the cached fragment never
+ * changes, and the overlapped analyze requests only need to query and merge the missing blocks.
+ */
+public class ProfileAnalyzeCache {
+
+    private final Cache<String, SegmentFragments> segmentCache;
+
+    public ProfileAnalyzeCache(long maxSegmentSize) {
+        segmentCache = CacheBuilder.newBuilder()
+                                   .maximumSize(maxSegmentSize)
+                                   // profiled segments are only analyzed for a while after being selected
+                                   .expireAfterAccess(Duration.ofMinutes(10))
+                                   .build();
+    }
+
+    /**
+     * @return the cached fragments of the segment, create an empty one if absent
+     */
+    public SegmentFragments getOrCreate(String segmentId) {
+        return segmentCache.asMap().computeIfAbsent(segmentId, id -> new SegmentFragments());
+    }
+
+    /**
+     * The stack tree fragments of one segment, all the fragments share the same {@link CodeSignatureDictionary}, so
+     * the code signature IDs of them could be merged directly.
+     */
+    public static class SegmentFragments {
+        private final CodeSignatureDictionary dictionary = new CodeSignatureDictionary();
+        /**
+         * The start sequence of the block -> the root code signature ID -> the tree of the block.
+         */
+        private final Map<Integer, Map<Integer, ProfileStackNode>> fragments = new ConcurrentHashMap<>();
+
+        public CodeSignatureDictionary getDictionary() {
+            return dictionary;
+        }
+
+        /**
+         * @return the copied trees of the block, or null if the block has not been cached.
+         */
+        public Map<Integer, ProfileStackNode> getFragment(int blockStartSequence) {
+            final Map<Integer, ProfileStackNode> fragment = fragments.get(blockStartSequence);
+            return fragment == null ? null : copy(fragment);
+        }
+
+        /**
+         * cache the copy of the trees, the given trees could still be merged by the caller
+         */
+        public void putFragment(int blockStartSequence, Map<Integer, ProfileStackNode> fragment) {
+            fragments.putIfAbsent(blockStartSequence, copy(fragment));
+        }
+
+        private static Map<Integer, ProfileStackNode> copy(Map<Integer, ProfileStackNode> fragment) {
+            final Map<Integer, ProfileStackNode> copied = new HashMap<>(fragment.size());
+            fragment.forEach((root, node) -> copied.put(root, node.copy()));
+            return copied;
+        }
+    }
+}
@@ -26,12 +26,13 @@ import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collector;
-import org.apache.skywalking.oap.server.core.query.type.ProfileStackTree;
 
 /**
- * Work for {@link ProfileAnalyzer} to analyze.
+ * Work for {@link ProfileAnalyzer} to analyze, collect the stacks into the tree node, the tree node could be merged
+ * with other trees by {@link ProfileStackNode#combine(ProfileStackNode)} before building the result.
  */
-public class ProfileAnalyzeCollector implements Collector<ProfileStack, ProfileStackNode, ProfileStackTree> {
+public class ProfileAnalyzeCollector implements Collector<ProfileStack, ProfileStackNode, ProfileStackNode> {
+
     @Override
     public Supplier<ProfileStackNode> supplier() {
         return ProfileStackNode::newNode;
@@ -48,12 +49,12 @@ public class ProfileAnalyzeCollector implements Collector<ProfileStack, ProfileS
     }
 
     @Override
-    public Function<ProfileStackNode, ProfileStackTree> finisher() {
-        return ProfileStackNode::buildAnalyzeResult;
+    public Function<ProfileStackNode, ProfileStackNode> finisher() {
+        return Function.identity();
     }
 
     @Override
     public Set<Characteristics> characteristics() {
-        return Collections.unmodifiableSet(EnumSet.of(Characteristics.CONCURRENT, Characteristics.UNORDERED));
+        return Collections.unmodifiableSet(EnumSet.of(Characteristics.CONCURRENT, Characteristics.UNORDERED, Characteristics.IDENTITY_FINISH));
     }
 }
@@ -20,21 +20,21 @@ package org.apache.skywalking.oap.server.core.profile.analyze;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 import org.apache.skywalking.oap.server.core.profile.ProfileThreadSnapshotRecord;
+import org.apache.skywalking.oap.server.core.profile.analyze.ProfileAnalyzeCache.SegmentFragments;
 import org.apache.skywalking.oap.server.core.query.type.ProfileAnalyzation;
 import org.apache.skywalking.oap.server.core.query.type.ProfileAnalyzeTimeRange;
-import org.apache.skywalking.oap.server.core.query.type.ProfileStackTree;
 import org.apache.skywalking.oap.server.core.storage.StorageModule;
 import org.apache.skywalking.oap.server.core.storage.profile.IProfileThreadSnapshotQueryDAO;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
-import org.apache.skywalking.oap.server.library.util.CollectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,18 +47,27 @@ public class ProfileAnalyzer {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ProfileAnalyzer.class);
 
-    private static final ProfileAnalyzeCollector ANALYZE_COLLECTOR = new ProfileAnalyzeCollector();
-
     private final int threadSnapshotAnalyzeBatchSize;
     private final int analyzeSnapshotMaxSize;
 
     private final ModuleManager moduleManager;
     protected IProfileThreadSnapshotQueryDAO profileThreadSnapshotQueryDAO;
 
+    /**
+     * The analyzed fragments of the recent segments, null means cache is disabled.
+     */
+    private final ProfileAnalyzeCache analyzeCache;
+
     public ProfileAnalyzer(ModuleManager moduleManager, int snapshotAnalyzeBatchSize, int analyzeSnapshotMaxSize) {
+        this(moduleManager, snapshotAnalyzeBatchSize, analyzeSnapshotMaxSize, 0);
+    }
+
+    public ProfileAnalyzer(ModuleManager moduleManager, int snapshotAnalyzeBatchSize, int analyzeSnapshotMaxSize,
+                           long analyzeCacheMaxSegmentSize) {
         this.moduleManager = moduleManager;
         this.threadSnapshotAnalyzeBatchSize = snapshotAnalyzeBatchSize;
         this.analyzeSnapshotMaxSize = analyzeSnapshotMaxSize;
+        this.analyzeCache = analyzeCacheMaxSegmentSize > 0 ? new ProfileAnalyzeCache(analyzeCacheMaxSegmentSize) : null;
     }
 
     /**
@@ -77,21 +86,24 @@ public class ProfileAnalyzer {
             analyzation.setTip("Out of snapshot analyze limit, " + sequenceSearch.getTotalSequenceCount() + " snapshots found, but analysis first " + analyzeSnapshotMaxSize + " snapshots only.");
         }
 
-        // query snapshots
-        List<ProfileStack> stacks = sequenceSearch.getRanges().parallelStream().map(r -> {
-            try {
-                return getProfileThreadSnapshotQueryDAO().queryRecords(segmentId, r.getMinSequence(), r.getMaxSequence());
-            } catch (IOException e) {
-                LOGGER.warn(e.getMessage(), e);
-                return Collections.<ProfileThreadSnapshotRecord>emptyList();
-            }
-        }).flatMap(Collection::stream).map(ProfileStack::deserialize).distinct().collect(Collectors.toList());
-
-        // analyze
-        final List<ProfileStackTree> trees = analyze(stacks);
-        if (trees != null) {
-            analyzation.getTrees().addAll(trees);
-        }
+        // code signatures are replaced by the IDs in the dictionary of the segment
+        final boolean cacheable = analyzeCache != null && segmentId != null;
+        final SegmentFragments segment = cacheable ? analyzeCache.getOrCreate(segmentId) : new SegmentFragments();
+
+        // analyze block by block, only the snapshots of the analyzing blocks are held in memory
+        final Map<Integer, ProfileStackNode> stackTrees = splitToBlocks(sequenceSearch.getRanges())
+            .parallelStream()
+            .map(block -> analyzeBlock(segmentId, block, segment, cacheable))
+            .reduce(ProfileAnalyzer::combineFragments)
+            .orElse(Collections.emptyMap());
+
+        // order the trees by the code signature of the root
+        final CodeSignatureDictionary dictionary = segment.getDictionary();
+        stackTrees.entrySet()
+                  .stream()
+                  .sorted(Comparator.comparing(e -> dictionary.signatureOf(e.getKey())))
+                  .map(e -> e.getValue().buildAnalyzeResult(dictionary))
+                  .forEach(analyzation.getTrees()::add);
 
         return analyzation;
     }
@@ -122,33 +134,89 @@ public class ProfileAnalyzer {
 
         SequenceSearch sequenceSearch = new SequenceSearch(maxSequence - minSequence);
         maxSequence = Math.min(maxSequence, minSequence + analyzeSnapshotMaxSize);
+        sequenceSearch.getRanges().add(new SequenceRange(minSequence, maxSequence));
 
-        do {
-            int batchMax = Math.min(minSequence + threadSnapshotAnalyzeBatchSize, maxSequence);
-            sequenceSearch.getRanges().add(new SequenceRange(minSequence, batchMax));
-            minSequence = batchMax;
+        return sequenceSearch;
+    }
+
+    /**
+     * Merge the overlapped sequence ranges, and split them into the blocks aligned by the batch size, so the same
+     * sequence always belongs to the same block whatever the time ranges are.
+     */
+    private List<SequenceRange> splitToBlocks(List<SequenceRange> ranges) {
+        final List<SequenceRange> sorted = ranges.stream()
+                                                 .filter(r -> r.getMaxSequence() > r.getMinSequence())
+                                                 .sorted(Comparator.comparingInt(SequenceRange::getMinSequence))
+                                                 .collect(Collectors.toList());
+
+        final List<SequenceRange> blocks = new ArrayList<>();
+        int minSequence = -1;
+        int maxSequence = -1;
+        for (SequenceRange range : sorted) {
+            if (range.getMinSequence() <= maxSequence) {
+                maxSequence = Math.max(maxSequence, range.getMaxSequence());
+                continue;
+            }
+            splitToBlocks(minSequence, maxSequence, blocks);
+            minSequence = range.getMinSequence();
+            maxSequence = range.getMaxSequence();
         }
-        while (minSequence < maxSequence);
+        splitToBlocks(minSequence, maxSequence, blocks);
+        return blocks;
+    }
 
-        return sequenceSearch;
+    private void splitToBlocks(int minSequence, int maxSequence, List<SequenceRange> blocks) {
+        while (minSequence < maxSequence) {
+            int batchMax = Math.min((minSequence / threadSnapshotAnalyzeBatchSize + 1) * threadSnapshotAnalyzeBatchSize, maxSequence);
+            blocks.add(new SequenceRange(minSequence, batchMax));
+            minSequence = batchMax;
+        }
     }
 
     /**
-     * Analyze records
+     * Analyze the snapshots of the block to the trees, keyed by the root code signature ID. The cache is used only when
+     * the block is a whole aligned batch, and the block is cached only when all of its snapshots have been found.
      */
-    protected List<ProfileStackTree> analyze(List<ProfileStack> stacks) {
-        if (CollectionUtils.isEmpty(stacks)) {
-            return null;
+    private Map<Integer, ProfileStackNode> analyzeBlock(String segmentId, SequenceRange block,
+                                                        SegmentFragments segment, boolean cacheable) {
+        final boolean wholeBlock = block.getMaxSequence() - block.getMinSequence() == threadSnapshotAnalyzeBatchSize;
+        if (cacheable && wholeBlock) {
+            final Map<Integer, ProfileStackNode> cached = segment.getFragment(block.getMinSequence());
+            if (cached != null) {
+                return cached;
+            }
         }
 
-        // using parallel stream
-        Map<String, ProfileStackTree> stackTrees = stacks.parallelStream()
-                                                         // stack list cannot be empty
-                                                         .filter(s -> CollectionUtils.isNotEmpty(s.getStack()))
-                                                         .collect(Collectors.groupingBy(s -> s.getStack()
-                                                                                              .get(0), ANALYZE_COLLECTOR));
+        List<ProfileThreadSnapshotRecord> records;
+        try {
+            records = getProfileThreadSnapshotQueryDAO().queryRecords(segmentId, block.getMinSequence(), block.getMaxSequence());
+        } catch (IOException e) {
+            LOGGER.warn(e.getMessage(), e);
+            return new HashMap<>();
+        }
+
+        final List<ProfileStack> stacks = records.stream()
+                                                 .map(r -> ProfileStack.deserialize(r, segment.getDictionary()))
+                                                 .distinct()
+                                                 .collect(Collectors.toList());
+        final Map<Integer, ProfileStackNode> fragment = stacks.stream()
+                                                              // stack list cannot be empty
+                                                              .filter(s -> s.getStack().length > 0)
+                                                              .collect(Collectors.groupingBy(
+                                                                  s -> s.getStack()[0],
+                                                                  new ProfileAnalyzeCollector()
+                                                              ));
+
+        if (cacheable && wholeBlock && stacks.size() == threadSnapshotAnalyzeBatchSize) {
+            segment.putFragment(block.getMinSequence(), fragment);
+        }
+        return fragment;
+    }
 
-        return new ArrayList<>(stackTrees.values());
+    private static Map<Integer, ProfileStackNode> combineFragments(Map<Integer, ProfileStackNode> fragment,
+                                                                   Map<Integer, ProfileStackNode> other) {
+        other.forEach((root, node) -> fragment.merge(root, node, ProfileStackNode::combine));
+        return fragment;
     }
 
     protected IProfileThreadSnapshotQueryDAO getProfileThreadSnapshotQueryDAO() {
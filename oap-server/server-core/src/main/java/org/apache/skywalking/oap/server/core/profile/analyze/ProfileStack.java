@@ -35,9 +35,12 @@ public class ProfileStack implements Comparable<ProfileStack> {
 
     private int sequence;
     private long dumpTime;
-    private List<String> stack;
+    /**
+     * The IDs of the code signatures in the {@link CodeSignatureDictionary}, from the bottom to the top of the stack.
+     */
+    private int[] stack;
 
-    public static ProfileStack deserialize(ProfileThreadSnapshotRecord record) {
+    public static ProfileStack deserialize(ProfileThreadSnapshotRecord record, CodeSignatureDictionary dictionary) {
         ThreadStack threadStack = null;
         try {
             threadStack = ThreadStack.parseFrom(record.getStackBinary());
@@ -49,7 +52,11 @@ public class ProfileStack implements Comparable<ProfileStack> {
         ProfileStack stack = new ProfileStack();
         stack.sequence = record.getSequence();
         stack.dumpTime = record.getDumpTime();
-        stack.stack = threadStack.getCodeSignaturesList();
+        final List<String> codeSignatures = threadStack.getCodeSignaturesList();
+        stack.stack = new int[codeSignatures.size()];
+        for (int i = 0; i < stack.stack.length; i++) {
+            stack.stack[i] = dictionary.idOf(codeSignatures.get(i));
+        }
 
         return stack;
     }
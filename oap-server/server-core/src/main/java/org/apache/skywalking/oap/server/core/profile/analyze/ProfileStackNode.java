@@ -18,7 +18,6 @@
 
 package org.apache.skywalking.oap.server.core.profile.analyze;
 
-import com.google.common.base.Objects;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -33,7 +32,12 @@ import org.apache.skywalking.oap.server.core.query.type.ProfileStackTree;
  */
 public class ProfileStackNode {
 
-    private String codeSignature;
+    private static final int UNINITIALIZED = -1;
+
+    /**
+     * The ID of the code signature in the {@link CodeSignatureDictionary}.
+     */
+    private int codeSignature = UNINITIALIZED;
     private List<ProfileStack> detectedStacks;
     private List<ProfileStackNode> children;
     private int duration;
@@ -52,22 +56,22 @@ public class ProfileStackNode {
      * accumulate {@link ProfileStack} to this tree, it will invoke on the tree root node
      */
     public void accumulateFrom(ProfileStack stack) {
-        List<String> stackList = stack.getStack();
-        if (codeSignature == null) {
-            codeSignature = stackList.get(0);
+        int[] stackList = stack.getStack();
+        if (codeSignature == UNINITIALIZED) {
+            codeSignature = stackList[0];
         }
         // add detected stack
         this.detectedBy(stack);
 
         // handle stack children
         ProfileStackNode parent = this;
-        for (int depth = 1; depth < stackList.size(); depth++) {
-            String elementCodeSignature = stackList.get(depth);
+        for (int depth = 1; depth < stackList.length; depth++) {
+            int elementCodeSignature = stackList[depth];
 
             // find same code signature children
             ProfileStackNode childElement = null;
             for (ProfileStackNode child : parent.children) {
-                if (Objects.equal(child.codeSignature, elementCodeSignature)) {
+                if (child.codeSignature == elementCodeSignature) {
                     childElement = child;
                     break;
                 }
@@ -142,15 +146,43 @@ public class ProfileStackNode {
         }
     }
 
+    /**
+     * deep copy this tree, make sure the merging and calculating of the copied tree never change this one
+     */
+    public ProfileStackNode copy() {
+        ProfileStackNode root = copyNode(this);
+
+        // same with combine logic
+        LinkedList<Pair<ProfileStackNode, ProfileStackNode>> stack = new LinkedList<>();
+        stack.add(new Pair<>(root, this));
+        while (!stack.isEmpty()) {
+            Pair<ProfileStackNode, ProfileStackNode> copyingPair = stack.pop();
+            for (ProfileStackNode children : copyingPair.value.children) {
+                ProfileStackNode copied = copyNode(children);
+                copyingPair.key.children.add(copied);
+                stack.add(new Pair<>(copied, children));
+            }
+        }
+
+        return root;
+    }
+
+    private static ProfileStackNode copyNode(ProfileStackNode node) {
+        ProfileStackNode copied = newNode();
+        copied.codeSignature = node.codeSignature;
+        copied.detectedStacks.addAll(node.detectedStacks);
+        return copied;
+    }
+
     /**
      * build GraphQL result, calculate duration and count data using parallels
      */
-    public ProfileStackTree buildAnalyzeResult() {
+    public ProfileStackTree buildAnalyzeResult(CodeSignatureDictionary dictionary) {
         // all nodes add to single-level list (such as flat), work for parallel calculating
         LinkedList<Pair<ProfileStackElement, ProfileStackNode>> nodeMapping = new LinkedList<>();
         int idGenerator = 1;
 
-        ProfileStackElement root = buildElement(idGenerator++);
+        ProfileStackElement root = buildElement(idGenerator++, dictionary);
         nodeMapping.add(new Pair<>(root, this));
 
         // same with combine logic
@@ -162,7 +194,7 @@ public class ProfileStackNode {
 
             // generate children node and add to stack and all node mapping
             for (ProfileStackNode children : mergingPair.value.children) {
-                ProfileStackElement element = children.buildElement(idGenerator++);
+                ProfileStackElement element = children.buildElement(idGenerator++, dictionary);
                 element.setParentId(respElement.getId());
 
                 Pair<ProfileStackElement, ProfileStackNode> pair = new Pair<>(element, children);
@@ -189,10 +221,10 @@ public class ProfileStackNode {
         this.detectedStacks.addAll(node.detectedStacks);
     }
 
-    private ProfileStackElement buildElement(int id) {
+    private ProfileStackElement buildElement(int id, CodeSignatureDictionary dictionary) {
         ProfileStackElement element = new ProfileStackElement();
         element.setId(id);
-        element.setCodeSignature(this.codeSignature);
+        element.setCodeSignature(dictionary.signatureOf(this.codeSignature));
         element.setCount(this.detectedStacks.size());
         return element;
     }
@@ -240,7 +272,7 @@ public class ProfileStackNode {
     }
 
     private boolean matches(ProfileStackNode node) {
-        return Objects.equal(this.codeSignature, node.codeSignature);
+        return this.codeSignature == node.codeSignature;
     }
 
     private static class Pair<K, V> {
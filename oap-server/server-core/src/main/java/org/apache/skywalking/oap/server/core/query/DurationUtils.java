@@ -135,6 +135,25 @@ public enum DurationUtils {
         return durations;
     }
 
+    /**
+     * Convert the time bucket to the date in `yyyy-MM-dd HHmmss` style of the step, the reverse of {@link
+     * #convertToTimeBucket(String)}.
+     */
+    public String convertToDateString(Step step, long timeBucket) {
+        DateTime dateTime = parseToDateTime(step, timeBucket);
+        switch (step) {
+            case DAY:
+                return YYYY_MM_DD.print(dateTime);
+            case HOUR:
+                return YYYY_MM_DD_HH.print(dateTime);
+            case MINUTE:
+                return YYYY_MM_DD_HHMM.print(dateTime);
+            case SECOND:
+                return YYYY_MM_DD_HHMMSS.print(dateTime);
+        }
+        throw new UnexpectedException("Unsupported step " + step.name());
+    }
+
     public long startTimeToTimestamp(Step step, String dateStr) {
         switch (step) {
             case DAY:
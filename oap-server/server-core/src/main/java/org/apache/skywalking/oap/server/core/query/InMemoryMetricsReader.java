@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.analysis.worker.MetricsStreamProcessor;
+import org.apache.skywalking.oap.server.core.query.enumeration.Step;
+import org.apache.skywalking.oap.server.core.query.input.Duration;
+import org.apache.skywalking.oap.server.core.query.input.MetricsCondition;
+import org.apache.skywalking.oap.server.core.query.type.KVInt;
+import org.apache.skywalking.oap.server.core.query.type.MetricsValues;
+import org.apache.skywalking.oap.server.core.remote.client.Address;
+import org.apache.skywalking.oap.server.core.remote.client.RemoteClient;
+import org.apache.skywalking.oap.server.core.remote.client.RemoteClientManager;
+import org.apache.skywalking.oap.server.core.remote.data.StreamData;
+import org.apache.skywalking.oap.server.core.remote.selector.HashCodeSelector;
+import org.apache.skywalking.oap.server.core.worker.IWorkerInstanceGetter;
+import org.apache.skywalking.oap.server.core.worker.RemoteHandleWorker;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.library.server.pool.CustomThreadFactory;
+
+/**
+ * InMemoryMetricsReader reads the values of the recent minutes from the OAP nodes aggregating them, including the data
+ * received but not persisted yet, so the latest values don't have to wait for the persistence and the refresh of the
+ * storage. The OAP node is selected by the same hash routing as {@link org.apache.skywalking.oap.server.core.remote.RemoteSenderService}
+ * sends the metrics to. The OAP nodes are queried in parallel with a short deadline, and the node failed to respond is
+ * skipped for a while, so the query is never blocked by the unhealthy nodes for long.
+ *
+ * @since 8.6.0
+ */
+@Slf4j
+public class InMemoryMetricsReader {
+    /**
+     * The deadline of reading the in memory values from all OAP nodes, the persisted values are used after it.
+     */
+    private static final long QUERY_TIMEOUT_MILLIS = 500;
+    /**
+     * The OAP node failed to respond is skipped in this period, rather than slowing down every query.
+     */
+    private static final long UNHEALTHY_BACKOFF_MILLIS = 30_000;
+    private static final int MAX_QUERY_THREADS = 16;
+
+    private final ModuleManager moduleManager;
+    private final int recentMinutes;
+    private final HashCodeSelector hashCodeSelector = new HashCodeSelector();
+    /**
+     * The entity id setters of the metrics classes, used to build the metrics for the routing.
+     */
+    private final Map<Class<? extends StreamData>, Optional<Method>> entityIdSetters = new ConcurrentHashMap<>();
+    /**
+     * The time until when the OAP node is skipped, keyed by the address of the node failed to respond.
+     */
+    private final Map<Address, Long> unhealthyNodes = new ConcurrentHashMap<>();
+    private final ExecutorService queryExecutor;
+    private RemoteClientManager remoteClientManager;
+    private IWorkerInstanceGetter workerInstanceGetter;
+
+    public InMemoryMetricsReader(ModuleManager moduleManager, int recentMinutes) {
+        this.moduleManager = moduleManager;
+        this.recentMinutes = recentMinutes;
+        // Run the query in the caller thread when all threads are busy, it is still bounded by the deadline.
+        this.queryExecutor = new ThreadPoolExecutor(
+            0, MAX_QUERY_THREADS, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+            new CustomThreadFactory("InMemoryMetricsReader"), new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    private RemoteClientManager getRemoteClientManager() {
+        if (remoteClientManager == null) {
+            remoteClientManager = moduleManager.find(CoreModule.NAME)
+                                               .provider()
+                                               .getService(RemoteClientManager.class);
+        }
+        return remoteClientManager;
+    }
+
+    private IWorkerInstanceGetter getWorkerInstanceGetter() {
+        if (workerInstanceGetter == null) {
+            workerInstanceGetter = moduleManager.find(CoreModule.NAME)
+                                                .provider()
+                                                .getService(IWorkerInstanceGetter.class);
+        }
+        return workerInstanceGetter;
+    }
+
+    /**
+     * Replace the values of the recent minutes with the in memory ones. The values keep unchanged when the metrics
+     * have no data in memory, or the OAP node is unavailable or doesn't respond in {@link #QUERY_TIMEOUT_MILLIS}.
+     *
+     * @param values read from the storage, in the order of the duration points.
+     */
+    public void merge(MetricsCondition condition, String valueColumnName, Duration duration, MetricsValues values) {
+        if (!Step.MINUTE.equals(duration.getStep())) {
+            return;
+        }
+        final List<PointOfTime> points = duration.assembleDurationPoints();
+        final List<KVInt> kvInts = values.getValues().getValues();
+        if (kvInts.size() != points.size()) {
+            return;
+        }
+        final long lastPersisted = TimeBucket.getMinuteTimeBucket(
+            System.currentTimeMillis() - recentMinutes * 60_000L);
+        int from = points.size();
+        while (from > 0 && points.get(from - 1).getPoint() > lastPersisted) {
+            from--;
+        }
+        if (from == points.size()) {
+            return;
+        }
+
+        final String workerName = MetricsStreamProcessor.remoteReceiverWorkerName(condition.getName());
+        final String entityId = condition.getEntity().buildId();
+        final Map<RemoteClient, List<String>> idsOfClients = route(
+            workerName, entityId, points.subList(from, points.size()));
+        if (idsOfClients.isEmpty()) {
+            return;
+        }
+
+        final long now = System.currentTimeMillis();
+        final Map<RemoteClient, Future<Map<String, Long>>> futures = new HashMap<>();
+        idsOfClients.forEach((client, ids) -> {
+            final Long unhealthyUntil = unhealthyNodes.get(client.getAddress());
+            if (unhealthyUntil != null && unhealthyUntil > now) {
+                return;
+            }
+            futures.put(client, queryExecutor.submit(
+                () -> client.queryInMemoryMetrics(workerName, valueColumnName, ids, QUERY_TIMEOUT_MILLIS)));
+        });
+
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(QUERY_TIMEOUT_MILLIS);
+        final Map<String, Long> inMemoryValues = new HashMap<>();
+        futures.forEach((client, future) -> {
+            try {
+                inMemoryValues.putAll(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+                unhealthyNodes.remove(client.getAddress());
+            } catch (Throwable t) {
+                future.cancel(true);
+                markUnhealthy(client.getAddress(), t instanceof ExecutionException ? t.getCause() : t);
+            }
+        });
+        for (int i = from; i < kvInts.size(); i++) {
+            final Long value = inMemoryValues.get(kvInts.get(i).getId());
+            if (value != null) {
+                // The KVInt could be shared with the query cache, replace it rather than change it.
+                final KVInt kvInt = new KVInt();
+                kvInt.setId(kvInts.get(i).getId());
+                kvInt.setValue(value);
+                kvInts.set(i, kvInt);
+            }
+        }
+    }
+
+    /**
+     * Skip the OAP node in {@link #UNHEALTHY_BACKOFF_MILLIS}. The failure is logged as WARN only when the node turns
+     * unhealthy, the following ones are logged as DEBUG until the node responds again.
+     */
+    private void markUnhealthy(Address address, Throwable t) {
+        if (unhealthyNodes.put(address, System.currentTimeMillis() + UNHEALTHY_BACKOFF_MILLIS) == null) {
+            log.warn(
+                "Failed to read the in memory metrics from {}, skip it in {}ms and use the persisted values. {}",
+                address, UNHEALTHY_BACKOFF_MILLIS, t.toString()
+            );
+        } else {
+            log.debug("Failed to read the in memory metrics from {} again, use the persisted values.", address, t);
+        }
+    }
+
+    /**
+     * Route the metrics of the given points to the OAP nodes, through the {@link StreamData#remoteHashCode()} of the
+     * metrics having the same entity id and time bucket.
+     */
+    private Map<RemoteClient, List<String>> route(String workerName, String entityId, List<PointOfTime> points) {
+        final RemoteHandleWorker handleWorker = getWorkerInstanceGetter().get(workerName);
+        final List<RemoteClient> clients = getRemoteClientManager().getRemoteClient();
+        if (handleWorker == null || clients.isEmpty()
+            || !Metrics.class.isAssignableFrom(handleWorker.getStreamDataClass())) {
+            return new HashMap<>();
+        }
+        final Optional<Method> entityIdSetter = entityIdSetters.computeIfAbsent(
+            handleWorker.getStreamDataClass(), clazz -> {
+                try {
+                    return Optional.of(clazz.getMethod("setEntityId", String.class));
+                } catch (NoSuchMethodException e) {
+                    return Optional.empty();
+                }
+            });
+        if (!entityIdSetter.isPresent()) {
+            return new HashMap<>();
+        }
+
+        final Map<RemoteClient, List<String>> idsOfClients = new HashMap<>();
+        try {
+            final Metrics metrics = (Metrics) handleWorker.getStreamDataClass().newInstance();
+            entityIdSetter.get().invoke(metrics, entityId);
+            for (final PointOfTime point : points) {
+                metrics.setTimeBucket(point.getPoint());
+                idsOfClients.computeIfAbsent(hashCodeSelector.select(clients, metrics), client -> new ArrayList<>())
+                            .add(point.id(entityId));
+            }
+        } catch (Throwable t) {
+            // The routing of the metrics depends on the fields other than the entity id.
+            log.debug("Can't route the metrics of worker {}, use the persisted values.", workerName, t);
+            return new HashMap<>();
+        }
+        return idsOfClients;
+    }
+}
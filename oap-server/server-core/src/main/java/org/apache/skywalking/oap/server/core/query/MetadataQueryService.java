@@ -18,11 +18,14 @@
 
 package org.apache.skywalking.oap.server.core.query;
 
+import com.google.common.base.Strings;
 import java.io.IOException;
 import java.util.List;
 import java.util.stream.Collectors;
 import org.apache.skywalking.oap.server.core.Const;
 import org.apache.skywalking.oap.server.core.analysis.IDManager;
+import org.apache.skywalking.oap.server.core.analysis.NodeType;
+import org.apache.skywalking.oap.server.core.cache.MetadataCatalog;
 import org.apache.skywalking.oap.server.core.query.type.Database;
 import org.apache.skywalking.oap.server.core.query.type.Endpoint;
 import org.apache.skywalking.oap.server.core.query.type.EndpointInfo;
@@ -35,10 +38,23 @@ import org.apache.skywalking.oap.server.library.module.ModuleManager;
 public class MetadataQueryService implements org.apache.skywalking.oap.server.library.module.Service {
 
     private final ModuleManager moduleManager;
+    /**
+     * Answer the service and endpoint queries when it is ready, null if it is disabled.
+     */
+    private final MetadataCatalog metadataCatalog;
     private IMetadataQueryDAO metadataQueryDAO;
 
     public MetadataQueryService(ModuleManager moduleManager) {
+        this(moduleManager, null);
+    }
+
+    public MetadataQueryService(ModuleManager moduleManager, MetadataCatalog metadataCatalog) {
         this.moduleManager = moduleManager;
+        this.metadataCatalog = metadataCatalog;
+    }
+
+    private boolean isCatalogReady() {
+        return metadataCatalog != null && metadataCatalog.isReady();
     }
 
     private IMetadataQueryDAO getMetadataQueryDAO() {
@@ -49,6 +65,9 @@ public class MetadataQueryService implements org.apache.skywalking.oap.server.li
     }
 
     public List<Service> getAllServices(final String group) throws IOException {
+        if (isCatalogReady()) {
+            return metadataCatalog.getServices(NodeType.Normal, Strings.isNullOrEmpty(group) ? null : group);
+        }
         return getMetadataQueryDAO().getAllServices(group).stream()
                                     .map(service -> {
                                         if (service.getGroup() == null) {
@@ -59,15 +78,24 @@ public class MetadataQueryService implements org.apache.skywalking.oap.server.li
     }
 
     public List<Service> getAllBrowserServices() throws IOException {
+        if (isCatalogReady()) {
+            return metadataCatalog.getServices(NodeType.Browser, null);
+        }
         return getMetadataQueryDAO().getAllBrowserServices();
     }
 
     public List<Database> getAllDatabases() throws IOException {
+        if (isCatalogReady()) {
+            return metadataCatalog.getDatabases();
+        }
         return getMetadataQueryDAO().getAllDatabases();
     }
 
     public List<Service> searchServices(final long startTimestamp, final long endTimestamp,
                                         final String keyword) throws IOException {
+        if (isCatalogReady()) {
+            return metadataCatalog.searchServices(keyword);
+        }
         return getMetadataQueryDAO().searchServices(keyword);
     }
 
@@ -78,10 +106,16 @@ public class MetadataQueryService implements org.apache.skywalking.oap.server.li
 
     public List<Endpoint> searchEndpoint(final String keyword, final String serviceId,
                                          final int limit) throws IOException {
+        if (isCatalogReady()) {
+            return metadataCatalog.searchEndpoint(keyword, serviceId, limit);
+        }
         return getMetadataQueryDAO().searchEndpoint(keyword, serviceId, limit);
     }
 
     public Service searchService(final String serviceCode) throws IOException {
+        if (isCatalogReady()) {
+            return metadataCatalog.searchService(serviceCode);
+        }
         return getMetadataQueryDAO().searchService(serviceCode);
     }
 
@@ -0,0 +1,313 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.oap.server.core.query.enumeration.Step;
+import org.apache.skywalking.oap.server.core.query.input.Duration;
+import org.apache.skywalking.oap.server.core.query.input.MetricsCondition;
+import org.apache.skywalking.oap.server.core.query.type.HeatMap;
+import org.apache.skywalking.oap.server.core.query.type.IntValues;
+import org.apache.skywalking.oap.server.core.query.type.KVInt;
+import org.apache.skywalking.oap.server.core.query.type.MetricsValues;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+
+/**
+ * Cache the metrics values of the closed time buckets for the query layer. A time bucket is closed when it has ended
+ * for the close delay, its value would not be changed by the persistence anymore, so the cached value is always the
+ * same as the storage.
+ *
+ * The values are cached by (metrics, entity, label, time bucket). The points before the first missing one are served
+ * from the cache, and the rest of the duration, usually the latest still-open buckets, is read from the storage.
+ */
+public class MetricsQueryCache {
+    // metrics names and entity IDs include the '_', use another separator to avoid the conflicts
+    private static final String KEY_SEPARATOR = "|";
+
+    private final Cache<String, KVInt> valueCache;
+    private final Cache<String, HeatMap> heatMapCache;
+    private final long bucketCloseDelay;
+
+    private final CounterMetrics hitCounter;
+    private final CounterMetrics missCounter;
+
+    /**
+     * @param maxSize          the max number of the cached values
+     * @param bucketCloseDelay the seconds after the end of the time bucket, that the value could be cached
+     */
+    public MetricsQueryCache(long maxSize, long bucketCloseDelay, MetricsCreator metricsCreator) {
+        this.valueCache = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+        // a heatmap is a bundle of the values, keep the count of them lower
+        this.heatMapCache = CacheBuilder.newBuilder().maximumSize(Math.max(maxSize / 100, 1)).build();
+        this.bucketCloseDelay = TimeUnit.SECONDS.toMillis(bucketCloseDelay);
+
+        hitCounter = metricsCreator.createCounter(
+            "metrics_query_cache_hit_count", "The number of the time buckets read from the metrics query cache",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        missCounter = metricsCreator.createCounter(
+            "metrics_query_cache_miss_count", "The number of the time buckets read from the storage by the metrics query",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+    }
+
+    public MetricsValues readMetricsValues(MetricsCondition condition, Duration duration,
+                                           DurationReader<MetricsValues> reader) throws IOException {
+        final List<PointOfTime> points = duration.assembleDurationPoints();
+        final KVInt[] values = new KVInt[points.size()];
+        final String keyPrefix = keyPrefix(condition, null);
+        final int fetchFrom = fetchFrom(points, lookup(keyPrefix, points, values), 1);
+
+        if (fetchFrom < points.size()) {
+            final MetricsValues fetched = reader.read(subDuration(duration, points.get(fetchFrom)));
+            final List<KVInt> fetchedValues = fetched.getValues().getValues();
+            if (fetchedValues.size() != points.size() - fetchFrom) {
+                // unexpected result, don't merge it with the cache
+                return fetchFrom == 0 ? fetched : reader.read(duration);
+            }
+            fill(keyPrefix, duration.getStep(), points, fetchFrom, fetchedValues, values);
+        }
+
+        final MetricsValues metricsValues = new MetricsValues();
+        for (final KVInt value : values) {
+            metricsValues.getValues().addKVInt(value);
+        }
+        return metricsValues;
+    }
+
+    /**
+     * Read the values of multiple conditions, the conditions which are not fully cached are read by one batch.
+     */
+    public List<MetricsValues> readMetricsValues(List<MetricsCondition> conditions, Duration duration,
+                                                 BatchReader reader) throws IOException {
+        final List<PointOfTime> points = duration.assembleDurationPoints();
+        final List<KVInt[]> conditionValues = new ArrayList<>(conditions.size());
+        final List<Integer> missingConditions = new ArrayList<>();
+        int firstMissing = points.size();
+        for (int i = 0; i < conditions.size(); i++) {
+            final KVInt[] values = new KVInt[points.size()];
+            conditionValues.add(values);
+            final int conditionFirstMissing = lookup(keyPrefix(conditions.get(i), null), points, values);
+            if (conditionFirstMissing < points.size()) {
+                missingConditions.add(i);
+                firstMissing = Math.min(firstMissing, conditionFirstMissing);
+            }
+        }
+        hitCounter.inc(points.size() * (conditions.size() - missingConditions.size()));
+
+        if (!missingConditions.isEmpty()) {
+            final int fetchFrom = fetchFrom(points, firstMissing, missingConditions.size());
+            final List<MetricsCondition> fetchConditions = new ArrayList<>(missingConditions.size());
+            missingConditions.forEach(i -> fetchConditions.add(conditions.get(i)));
+            final List<MetricsValues> fetched = reader.read(fetchConditions, subDuration(duration, points.get(fetchFrom)));
+            for (final MetricsValues values : fetched) {
+                if (values.getValues().getValues().size() != points.size() - fetchFrom) {
+                    // unexpected result, don't merge it with the cache
+                    return reader.read(conditions, duration);
+                }
+            }
+            for (int i = 0; i < missingConditions.size(); i++) {
+                final int conditionIndex = missingConditions.get(i);
+                fill(keyPrefix(conditions.get(conditionIndex), null), duration.getStep(), points, fetchFrom,
+                     fetched.get(i).getValues().getValues(), conditionValues.get(conditionIndex)
+                );
+            }
+        }
+
+        final List<MetricsValues> result = new ArrayList<>(conditions.size());
+        for (final KVInt[] values : conditionValues) {
+            final MetricsValues metricsValues = new MetricsValues();
+            for (final KVInt value : values) {
+                metricsValues.getValues().addKVInt(value);
+            }
+            result.add(metricsValues);
+        }
+        return result;
+    }
+
+    /**
+     * Only the labeled values of the given labels are cached, all labels are required when no label is given, which are
+     * only known after reading from the storage.
+     */
+    public List<MetricsValues> readLabeledMetricsValues(MetricsCondition condition, List<String> labels,
+                                                        Duration duration,
+                                                        DurationReader<List<MetricsValues>> reader) throws IOException {
+        if (labels == null || labels.isEmpty() || labels.stream().allMatch(Strings::isNullOrEmpty)) {
+            return reader.read(duration);
+        }
+
+        // same order as IMetricsQueryDAO.Util#composeLabelValue
+        final List<String> sortedLabels = new ArrayList<>(new TreeSet<>(labels));
+        final List<PointOfTime> points = duration.assembleDurationPoints();
+        final Map<String, KVInt[]> labeledValues = new HashMap<>();
+        int firstMissing = points.size();
+        for (final String label : sortedLabels) {
+            final KVInt[] values = new KVInt[points.size()];
+            labeledValues.put(label, values);
+            firstMissing = Math.min(firstMissing, lookup(keyPrefix(condition, label), points, values));
+        }
+        final int fetchFrom = fetchFrom(points, firstMissing, sortedLabels.size());
+
+        if (fetchFrom < points.size()) {
+            final List<MetricsValues> fetched = reader.read(subDuration(duration, points.get(fetchFrom)));
+            final Map<String, List<KVInt>> fetchedValues = new HashMap<>();
+            fetched.forEach(v -> fetchedValues.put(v.getLabel(), v.getValues().getValues()));
+            for (final String label : sortedLabels) {
+                final List<KVInt> values = fetchedValues.get(label);
+                if (values == null || values.size() != points.size() - fetchFrom) {
+                    // unexpected result, don't merge it with the cache
+                    return fetchFrom == 0 ? fetched : reader.read(duration);
+                }
+            }
+            for (final String label : sortedLabels) {
+                fill(keyPrefix(condition, label), duration.getStep(), points, fetchFrom, fetchedValues.get(label),
+                     labeledValues.get(label)
+                );
+            }
+        }
+
+        final List<MetricsValues> result = new ArrayList<>(sortedLabels.size());
+        for (final String label : sortedLabels) {
+            final MetricsValues metricsValues = new MetricsValues();
+            metricsValues.setLabel(label);
+            final IntValues intValues = metricsValues.getValues();
+            for (final KVInt value : labeledValues.get(label)) {
+                intValues.addKVInt(value);
+            }
+            result.add(metricsValues);
+        }
+        return result;
+    }
+
+    /**
+     * The columns of the heatmap share the buckets, so the heatmap is only cached as a whole when all the points of the
+     * duration are closed.
+     */
+    public HeatMap readHeatMap(MetricsCondition condition, Duration duration,
+                               DurationReader<HeatMap> reader) throws IOException {
+        final List<PointOfTime> points = duration.assembleDurationPoints();
+        if (!isClosed(duration.getStep(), points.get(points.size() - 1).getPoint())) {
+            missCounter.inc(points.size());
+            return reader.read(duration);
+        }
+
+        final String key = keyPrefix(condition, null) + duration.getStep() + KEY_SEPARATOR
+            + duration.getStartTimeBucket() + KEY_SEPARATOR + duration.getEndTimeBucket();
+        HeatMap heatMap = heatMapCache.getIfPresent(key);
+        if (heatMap != null) {
+            hitCounter.inc(points.size());
+            return heatMap;
+        }
+
+        missCounter.inc(points.size());
+        heatMap = reader.read(duration);
+        heatMapCache.put(key, heatMap);
+        return heatMap;
+    }
+
+    /**
+     * Load the cached values till the first missing one.
+     *
+     * @return the index of the first missing point, it is the size of the points if all of them are cached.
+     */
+    private int lookup(String keyPrefix, List<PointOfTime> points, KVInt[] values) {
+        for (int i = 0; i < points.size(); i++) {
+            final KVInt value = valueCache.getIfPresent(keyPrefix + points.get(i).getPoint());
+            if (value == null) {
+                return i;
+            }
+            values[i] = value;
+        }
+        return points.size();
+    }
+
+    /**
+     * @param series the count of the values in one point
+     * @return the index of the first point to read from the storage, all the points after it are read together.
+     */
+    private int fetchFrom(List<PointOfTime> points, int firstMissing, int series) {
+        // a duration includes two points at least
+        final int fetchFrom = firstMissing == points.size() ? firstMissing : Math.min(firstMissing, points.size() - 2);
+        hitCounter.inc(fetchFrom * series);
+        missCounter.inc((points.size() - fetchFrom) * series);
+        return fetchFrom;
+    }
+
+    /**
+     * Fill the values read from the storage, and cache the values of the closed time buckets.
+     */
+    private void fill(String keyPrefix, Step step, List<PointOfTime> points, int fetchFrom, List<KVInt> fetched,
+                      KVInt[] values) {
+        for (int i = fetchFrom; i < points.size(); i++) {
+            final KVInt value = fetched.get(i - fetchFrom);
+            values[i] = value;
+            final long timeBucket = points.get(i).getPoint();
+            if (isClosed(step, timeBucket)) {
+                valueCache.put(keyPrefix + timeBucket, value);
+            }
+        }
+    }
+
+    private boolean isClosed(Step step, long timeBucket) {
+        final DurationUtils utils = DurationUtils.INSTANCE;
+        final long endTimestamp = utils.endTimeToTimestamp(step, utils.convertToDateString(step, timeBucket));
+        return endTimestamp + bucketCloseDelay < System.currentTimeMillis();
+    }
+
+    private static String keyPrefix(MetricsCondition condition, String label) {
+        return condition.getName() + KEY_SEPARATOR + Objects.toString(condition.getEntity().buildId(), "")
+            + KEY_SEPARATOR + (label == null ? "" : label) + KEY_SEPARATOR;
+    }
+
+    private static Duration subDuration(Duration duration, PointOfTime start) {
+        final Duration subDuration = new Duration();
+        subDuration.setStart(DurationUtils.INSTANCE.convertToDateString(duration.getStep(), start.getPoint()));
+        subDuration.setEnd(duration.getEnd());
+        subDuration.setStep(duration.getStep());
+        return subDuration;
+    }
+
+    /**
+     * Read the values of the conditions in the given duration from the storage.
+     */
+    @FunctionalInterface
+    public interface BatchReader {
+        List<MetricsValues> read(List<MetricsCondition> conditions, Duration duration) throws IOException;
+    }
+
+    /**
+     * Read the values in the given duration from the storage.
+     */
+    @FunctionalInterface
+    public interface DurationReader<T> {
+        T read(Duration duration) throws IOException;
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.skywalking.oap.server.core.query;
 import java.io.IOException;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.core.CoreModuleConfig;
 import org.apache.skywalking.oap.server.core.query.input.Duration;
 import org.apache.skywalking.oap.server.core.query.input.MetricsCondition;
 import org.apache.skywalking.oap.server.core.query.type.HeatMap;
@@ -30,14 +31,29 @@ import org.apache.skywalking.oap.server.core.storage.annotation.ValueColumnMetad
 import org.apache.skywalking.oap.server.core.storage.query.IMetricsQueryDAO;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.library.module.Service;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 
 @Slf4j
 public class MetricsQueryService implements Service {
     private final ModuleManager moduleManager;
+    private final CoreModuleConfig moduleConfig;
     private IMetricsQueryDAO metricQueryDAO;
+    /**
+     * Created on the first query, as the telemetry service is not ready when this service is created.
+     */
+    private volatile MetricsQueryCache metricsQueryCache;
+    /**
+     * Null if reading the in memory metrics is disabled.
+     */
+    private final InMemoryMetricsReader inMemoryMetricsReader;
 
-    public MetricsQueryService(ModuleManager moduleManager) {
+    public MetricsQueryService(ModuleManager moduleManager, CoreModuleConfig moduleConfig) {
         this.moduleManager = moduleManager;
+        this.moduleConfig = moduleConfig;
+        this.inMemoryMetricsReader = moduleConfig.getInMemoryMetricsQueryMinutes() > 0
+            ? new InMemoryMetricsReader(moduleManager, moduleConfig.getInMemoryMetricsQueryMinutes())
+            : null;
     }
 
     private IMetricsQueryDAO getMetricQueryDAO() {
@@ -47,6 +63,32 @@ public class MetricsQueryService implements Service {
         return metricQueryDAO;
     }
 
+    /**
+     * @return null if the cache is disabled
+     */
+    private MetricsQueryCache getMetricsQueryCache() {
+        if (moduleConfig.getMaxSizeOfMetricsQueryCache() <= 0) {
+            return null;
+        }
+        MetricsQueryCache cache = metricsQueryCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = metricsQueryCache;
+                if (cache == null) {
+                    MetricsCreator metricsCreator = moduleManager.find(TelemetryModule.NAME)
+                                                                 .provider()
+                                                                 .getService(MetricsCreator.class);
+                    cache = new MetricsQueryCache(
+                        moduleConfig.getMaxSizeOfMetricsQueryCache(),
+                        moduleConfig.getMetricsQueryCacheBucketCloseDelay(), metricsCreator
+                    );
+                    metricsQueryCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
     /**
      * Read metrics single value in the duration of required metrics
      */
@@ -59,8 +101,46 @@ public class MetricsQueryService implements Service {
      * Read time-series values in the duration of required metrics
      */
     public MetricsValues readMetricsValues(MetricsCondition condition, Duration duration) throws IOException {
-        return getMetricQueryDAO().readMetricsValues(
-            condition, ValueColumnMetadata.INSTANCE.getValueCName(condition.getName()), duration);
+        final String valueColumnName = ValueColumnMetadata.INSTANCE.getValueCName(condition.getName());
+        final MetricsQueryCache cache = getMetricsQueryCache();
+        final MetricsValues values;
+        if (cache == null) {
+            values = getMetricQueryDAO().readMetricsValues(condition, valueColumnName, duration);
+        } else {
+            values = cache.readMetricsValues(
+                condition, duration, d -> getMetricQueryDAO().readMetricsValues(condition, valueColumnName, d));
+        }
+        if (inMemoryMetricsReader != null) {
+            inMemoryMetricsReader.merge(condition, valueColumnName, duration, values);
+        }
+        return values;
+    }
+
+    /**
+     * Read time-series values of multiple metrics conditions in the same duration, the conditions are read from the
+     * storage in batch.
+     *
+     * @return the values in the same order of the conditions
+     */
+    public List<MetricsValues> readMetricsValues(List<MetricsCondition> conditions,
+                                                 Duration duration) throws IOException {
+        final MetricsQueryCache cache = getMetricsQueryCache();
+        final List<MetricsValues> values;
+        if (cache == null) {
+            values = getMetricQueryDAO().readMetricsValues(conditions, duration);
+        } else {
+            values = cache.readMetricsValues(conditions, duration, getMetricQueryDAO()::readMetricsValues);
+        }
+        if (inMemoryMetricsReader != null) {
+            for (int i = 0; i < conditions.size(); i++) {
+                final MetricsCondition condition = conditions.get(i);
+                inMemoryMetricsReader.merge(
+                    condition, ValueColumnMetadata.INSTANCE.getValueCName(condition.getName()), duration,
+                    values.get(i)
+                );
+            }
+        }
+        return values;
     }
 
     /**
@@ -71,15 +151,27 @@ public class MetricsQueryService implements Service {
     public List<MetricsValues> readLabeledMetricsValues(MetricsCondition condition,
                                                         List<String> labels,
                                                         Duration duration) throws IOException {
-        return getMetricQueryDAO().readLabeledMetricsValues(
-            condition, ValueColumnMetadata.INSTANCE.getValueCName(condition.getName()), labels, duration);
+        final String valueColumnName = ValueColumnMetadata.INSTANCE.getValueCName(condition.getName());
+        final MetricsQueryCache cache = getMetricsQueryCache();
+        if (cache == null) {
+            return getMetricQueryDAO().readLabeledMetricsValues(condition, valueColumnName, labels, duration);
+        }
+        return cache.readLabeledMetricsValues(
+            condition, labels, duration,
+            d -> getMetricQueryDAO().readLabeledMetricsValues(condition, valueColumnName, labels, d)
+        );
     }
 
     /**
      * Heatmap is bucket based value statistic result.
      */
     public HeatMap readHeatMap(MetricsCondition condition, Duration duration) throws IOException {
-        return getMetricQueryDAO().readHeatMap(
-            condition, ValueColumnMetadata.INSTANCE.getValueCName(condition.getName()), duration);
+        final String valueColumnName = ValueColumnMetadata.INSTANCE.getValueCName(condition.getName());
+        final MetricsQueryCache cache = getMetricsQueryCache();
+        if (cache == null) {
+            return getMetricQueryDAO().readHeatMap(condition, valueColumnName, duration);
+        }
+        return cache.readHeatMap(
+            condition, duration, d -> getMetricQueryDAO().readHeatMap(condition, valueColumnName, d));
     }
 }
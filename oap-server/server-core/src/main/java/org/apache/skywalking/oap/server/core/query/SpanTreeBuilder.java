@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.skywalking.oap.server.core.query.type.Span;
+
+/**
+ * Sort the spans of a trace in tree order, every span is followed by its children, and the children keep the order of
+ * the given list. The spans are indexed by the segment span id in one pass, so the cost is linear to the span count.
+ */
+public class SpanTreeBuilder {
+
+    /**
+     * @return the spans in tree order, the roots(spans without parent in the list) are marked and sorted by start time.
+     */
+    public static List<Span> sortInTreeOrder(List<Span> spans) {
+        final Set<String> segmentSpanIds = new HashSet<>(spans.size() * 2);
+        final Map<String, List<Span>> childrenIndex = new HashMap<>(spans.size() * 2);
+        for (Span span : spans) {
+            segmentSpanIds.add(span.getSegmentSpanId());
+            childrenIndex.computeIfAbsent(span.getSegmentParentSpanId(), id -> new ArrayList<>(1)).add(span);
+        }
+
+        final List<Span> rootSpans = new ArrayList<>();
+        for (Span span : spans) {
+            if (!segmentSpanIds.contains(span.getSegmentParentSpanId())) {
+                span.setRoot(true);
+                rootSpans.add(span);
+            }
+        }
+        /*
+         * In some cases, there are segment fragments, which could not be linked by Ref,
+         * because of two kinds of reasons.
+         * 1. Multiple leaf segments have no particular order in the storage.
+         * 2. Lost in sampling, agent fail safe, segment lost, even bug.
+         * Sorting the segments makes the trace view more readable.
+         */
+        rootSpans.sort(Comparator.comparing(Span::getStartTime));
+
+        // traversal the tree in pre-order, using stack to avoid recursion on the deep traces
+        final List<Span> sortedSpans = new ArrayList<>(spans.size());
+        final LinkedList<Span> stack = new LinkedList<>();
+        for (Span rootSpan : rootSpans) {
+            stack.push(rootSpan);
+            while (!stack.isEmpty()) {
+                final Span span = stack.pop();
+                sortedSpans.add(span);
+
+                final List<Span> children = childrenIndex.getOrDefault(span.getSegmentSpanId(), Collections.emptyList());
+                for (int i = children.size() - 1; i >= 0; i--) {
+                    stack.push(children.get(i));
+                }
+            }
+        }
+        return sortedSpans;
+    }
+}
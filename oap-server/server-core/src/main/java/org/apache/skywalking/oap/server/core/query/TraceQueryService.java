@@ -19,10 +19,11 @@
 package org.apache.skywalking.oap.server.core.query;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 import org.apache.skywalking.oap.server.core.Const;
 import org.apache.skywalking.oap.server.core.CoreModule;
@@ -45,8 +46,6 @@ import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.library.module.Service;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
 
-import static java.util.Objects.nonNull;
-
 public class TraceQueryService implements Service {
 
     private final ModuleManager moduleManager;
@@ -98,34 +97,27 @@ public class TraceQueryService implements Service {
         Trace trace = new Trace();
 
         List<SegmentRecord> segmentRecords = getTraceQueryDAO().queryByTraceId(traceId);
+        List<Span> spans;
         if (segmentRecords.isEmpty()) {
-            trace.getSpans().addAll(getTraceQueryDAO().doFlexibleTraceQuery(traceId));
+            spans = getTraceQueryDAO().doFlexibleTraceQuery(traceId);
         } else {
-            for (SegmentRecord segment : segmentRecords) {
-                if (nonNull(segment)) {
-                    SegmentObject segmentObject = SegmentObject.parseFrom(segment.getDataBinary());
-                    trace.getSpans()
-                         .addAll(buildSpanList(segmentObject));
-                }
+            // decode the segments in parallel, the order of the segments is kept
+            try {
+                spans = segmentRecords.parallelStream().filter(Objects::nonNull).map(segment -> {
+                    try {
+                        return buildSpanList(SegmentObject.parseFrom(segment.getDataBinary()));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }).flatMap(List::stream).collect(Collectors.toList());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
             }
         }
 
-        List<Span> sortedSpans = new LinkedList<>();
-        if (CollectionUtils.isNotEmpty(trace.getSpans())) {
-            List<Span> rootSpans = findRoot(trace.getSpans());
-
-            if (CollectionUtils.isNotEmpty(rootSpans)) {
-                rootSpans.forEach(span -> {
-                    List<Span> childrenSpan = new ArrayList<>();
-                    childrenSpan.add(span);
-                    findChildren(trace.getSpans(), span, childrenSpan);
-                    sortedSpans.addAll(childrenSpan);
-                });
-            }
+        if (CollectionUtils.isNotEmpty(spans)) {
+            trace.getSpans().addAll(SpanTreeBuilder.sortInTreeOrder(spans));
         }
-
-        trace.getSpans().clear();
-        trace.getSpans().addAll(sortedSpans);
         return trace;
     }
 
@@ -206,43 +198,4 @@ public class TraceQueryService implements Service {
 
         return spans;
     }
-
-    private List<Span> findRoot(List<Span> spans) {
-        List<Span> rootSpans = new ArrayList<>();
-        spans.forEach(span -> {
-            String segmentParentSpanId = span.getSegmentParentSpanId();
-
-            boolean hasParent = false;
-            for (Span subSpan : spans) {
-                if (segmentParentSpanId.equals(subSpan.getSegmentSpanId())) {
-                    hasParent = true;
-                    // if find parent, quick exit
-                    break;
-                }
-            }
-
-            if (!hasParent) {
-                span.setRoot(true);
-                rootSpans.add(span);
-            }
-        });
-        /*
-         * In some cases, there are segment fragments, which could not be linked by Ref,
-         * because of two kinds of reasons.
-         * 1. Multiple leaf segments have no particular order in the storage.
-         * 2. Lost in sampling, agent fail safe, segment lost, even bug.
-         * Sorting the segments makes the trace view more readable.
-         */
-        rootSpans.sort(Comparator.comparing(Span::getStartTime));
-        return rootSpans;
-    }
-
-    private void findChildren(List<Span> spans, Span parentSpan, List<Span> childrenSpan) {
-        spans.forEach(span -> {
-            if (span.getSegmentParentSpanId().equals(parentSpan.getSegmentSpanId())) {
-                childrenSpan.add(span);
-                findChildren(spans, span, childrenSpan);
-            }
-        });
-    }
 }
@@ -29,6 +29,10 @@ public class IntValues {
         values.add(e);
     }
 
+    public List<KVInt> getValues() {
+        return values;
+    }
+
     public long findValue(String id, int defaultValue) {
         for (KVInt value : values) {
             if (value.getId().equals(id)) {
@@ -18,11 +18,17 @@
 
 package org.apache.skywalking.oap.server.core.remote;
 
+import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
+import java.util.Map;
 import java.util.Objects;
 import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.analysis.worker.MetricsPersistentWorker;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.Empty;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.InMemoryMetricsRequest;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.InMemoryMetricsResponse;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.InMemoryMetricsValue;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteMessage;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteServiceGrpc;
@@ -97,15 +103,7 @@ public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBas
      */
     @Override
     public StreamObserver<RemoteMessage> call(StreamObserver<Empty> responseObserver) {
-        if (Objects.isNull(workerInstanceGetter)) {
-            synchronized (RemoteServiceHandler.class) {
-                if (Objects.isNull(workerInstanceGetter)) {
-                    workerInstanceGetter = moduleDefineHolder.find(CoreModule.NAME)
-                                                             .provider()
-                                                             .getService(IWorkerInstanceGetter.class);
-                }
-            }
-        }
+        initWorkerInstanceGetter();
 
         return new StreamObserver<RemoteMessage>() {
             @Override
@@ -151,4 +149,45 @@ public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBas
             }
         };
     }
+
+    /**
+     * gRPC handler of {@link RemoteServiceGrpc}. Read the latest metrics values from the memory of the current OAP
+     * node, which is the owner of the metrics in the distributed aggregation.
+     */
+    @Override
+    public void queryInMemoryMetrics(InMemoryMetricsRequest request,
+                                     StreamObserver<InMemoryMetricsResponse> responseObserver) {
+        initWorkerInstanceGetter();
+
+        InMemoryMetricsResponse.Builder response = InMemoryMetricsResponse.newBuilder();
+        try {
+            RemoteHandleWorker handleWorker = workerInstanceGetter.get(request.getWorkerName());
+            if (handleWorker != null && handleWorker.getWorker() instanceof MetricsPersistentWorker) {
+                Map<String, Long> values = ((MetricsPersistentWorker) handleWorker.getWorker()).readInMemoryValues(
+                    request.getIdsList(), request.getValueColumnName());
+                values.forEach((id, value) -> response.addValues(
+                    InMemoryMetricsValue.newBuilder().setId(id).setValue(value)));
+            } else {
+                remoteInTargetNotFoundCounter.inc();
+            }
+        } catch (Throwable t) {
+            LOGGER.error(t.getMessage(), t);
+            responseObserver.onError(Status.INTERNAL.withDescription(t.getMessage()).asRuntimeException());
+            return;
+        }
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
+    }
+
+    private void initWorkerInstanceGetter() {
+        if (Objects.isNull(workerInstanceGetter)) {
+            synchronized (RemoteServiceHandler.class) {
+                if (Objects.isNull(workerInstanceGetter)) {
+                    workerInstanceGetter = moduleDefineHolder.find(CoreModule.NAME)
+                                                             .provider()
+                                                             .getService(IWorkerInstanceGetter.class);
+                }
+            }
+        }
+    }
 }
@@ -21,7 +21,9 @@ package org.apache.skywalking.oap.server.core.remote.client;
 import io.grpc.ManagedChannel;
 import io.grpc.stub.StreamObserver;
 import io.netty.handler.ssl.SslContext;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -29,9 +31,12 @@ import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.Empty;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.InMemoryMetricsRequest;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.InMemoryMetricsResponse;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteMessage;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteServiceGrpc;
 import org.apache.skywalking.oap.server.library.client.grpc.GRPCClient;
+import org.apache.skywalking.oap.server.library.server.grpc.NettyEventLoops;
 import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
@@ -59,6 +64,7 @@ public class GRPCRemoteClient implements RemoteClient {
     private CounterMetrics remoteOutCounter;
     private CounterMetrics remoteOutErrorCounter;
     private int remoteTimeout;
+    private NettyEventLoops eventLoops;
 
     public GRPCRemoteClient(final ModuleDefineHolder moduleDefineHolder,
                             final Address address,
@@ -85,6 +91,13 @@ public class GRPCRemoteClient implements RemoteClient {
                                                                                                                                                                                                                                   .toString(), "N"));
     }
 
+    /**
+     * Use the shared event loops, it should be set before {@link #connect()}.
+     */
+    void setEventLoops(NettyEventLoops eventLoops) {
+        this.eventLoops = eventLoops;
+    }
+
     @Override
     public void connect() {
         if (!isConnect) {
@@ -108,6 +121,10 @@ public class GRPCRemoteClient implements RemoteClient {
             synchronized (GRPCRemoteClient.class) {
                 if (Objects.isNull(client)) {
                     this.client = new GRPCClient(address.getHost(), address.getPort(), sslContext);
+                    if (eventLoops != null) {
+                        this.client.setEventLoopGroup(
+                            eventLoops.getWorkerGroup(), eventLoops.getChannelType(), eventLoops.getAllocator());
+                    }
                 }
             }
         }
@@ -144,6 +161,25 @@ public class GRPCRemoteClient implements RemoteClient {
         this.getDataCarrier().produce(builder.build());
     }
 
+    /**
+     * Query the in memory metrics values through a unary call, it is not buffered as the query is waiting for it.
+     */
+    @Override
+    public Map<String, Long> queryInMemoryMetrics(String workerName, String valueColumnName, List<String> ids,
+                                                  long timeoutMillis) {
+        InMemoryMetricsRequest request = InMemoryMetricsRequest.newBuilder()
+                                                               .setWorkerName(workerName)
+                                                               .setValueColumnName(valueColumnName)
+                                                               .addAllIds(ids)
+                                                               .build();
+        InMemoryMetricsResponse response = RemoteServiceGrpc.newBlockingStub(getChannel())
+                                                            .withDeadlineAfter(timeoutMillis, TimeUnit.MILLISECONDS)
+                                                            .queryInMemoryMetrics(request);
+        Map<String, Long> values = new HashMap<>(response.getValuesCount());
+        response.getValuesList().forEach(value -> values.put(value.getId(), value.getValue()));
+        return values;
+    }
+
     class RemoteMessageConsumer implements IConsumer<RemoteMessage> {
         @Override
         public void init() {
@@ -18,6 +18,8 @@
 
 package org.apache.skywalking.oap.server.core.remote.client;
 
+import java.util.List;
+import java.util.Map;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
 
 public interface RemoteClient extends Comparable<RemoteClient> {
@@ -29,4 +31,17 @@ public interface RemoteClient extends Comparable<RemoteClient> {
     void close();
 
     void push(String nextWorkerName, StreamData streamData);
+
+    /**
+     * Read the latest values of the metrics aggregated by the target OAP node, including the data not persisted yet.
+     *
+     * @param workerName      the name of the remote receiver worker of the metrics.
+     * @param valueColumnName of the value to read.
+     * @param ids             of the metrics to read.
+     * @param timeoutMillis   the deadline of the query, shorter than the remote timeout as the query is waiting for it.
+     * @return the values of the metrics having in memory data, keyed by the metrics id.
+     * @since 8.6.0
+     */
+    Map<String, Long> queryInMemoryMetrics(String workerName, String valueColumnName, List<String> ids,
+                                           long timeoutMillis);
 }
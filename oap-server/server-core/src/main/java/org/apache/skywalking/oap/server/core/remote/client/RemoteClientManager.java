@@ -40,6 +40,7 @@ import org.apache.skywalking.oap.server.core.cluster.ClusterNodesQuery;
 import org.apache.skywalking.oap.server.core.cluster.RemoteInstance;
 import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
 import org.apache.skywalking.oap.server.library.module.Service;
+import org.apache.skywalking.oap.server.library.server.grpc.NettyEventLoops;
 import org.apache.skywalking.oap.server.library.server.grpc.ssl.DynamicSslContext;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
@@ -62,6 +63,7 @@ public class RemoteClientManager implements Service {
     private volatile List<RemoteClient> usingClients;
     private GaugeMetrics gauge;
     private int remoteTimeout;
+    private NettyEventLoops eventLoops;
 
     /**
      * Initial the manager for all remote communication clients.
@@ -91,6 +93,13 @@ public class RemoteClientManager implements Service {
         this.remoteTimeout = remoteTimeout;
     }
 
+    /**
+     * Share the event loops of the gRPC server with the clients to the other OAP nodes.
+     */
+    public void setEventLoops(NettyEventLoops eventLoops) {
+        this.eventLoops = eventLoops;
+    }
+
     public void start() {
         Optional.ofNullable(sslContext).ifPresent(DynamicSslContext::start);
         Executors.newSingleThreadScheduledExecutor().scheduleWithFixedDelay(this::refresh, 1, 5, TimeUnit.SECONDS);
@@ -231,8 +240,9 @@ public class RemoteClientManager implements Service {
                         RemoteClient client = new SelfRemoteClient(moduleDefineHolder, address);
                         newRemoteClients.add(client);
                     } else {
-                        RemoteClient client;
+                        GRPCRemoteClient client;
                         client = new GRPCRemoteClient(moduleDefineHolder, address, 1, 3000, remoteTimeout, sslContext);
+                        client.setEventLoops(eventLoops);
                         client.connect();
                         newRemoteClients.add(client);
                     }
@@ -18,10 +18,16 @@
 
 package org.apache.skywalking.oap.server.core.remote.client;
 
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.UnexpectedException;
+import org.apache.skywalking.oap.server.core.analysis.worker.MetricsPersistentWorker;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
 import org.apache.skywalking.oap.server.core.worker.IWorkerInstanceGetter;
+import org.apache.skywalking.oap.server.core.worker.RemoteHandleWorker;
 import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
@@ -65,6 +71,20 @@ public class SelfRemoteClient implements RemoteClient {
         workerInstanceGetter.get(nextWorkerName).getWorker().in(streamData);
     }
 
+    @Override
+    public Map<String, Long> queryInMemoryMetrics(String workerName, String valueColumnName, List<String> ids,
+                                                  long timeoutMillis) {
+        RemoteHandleWorker handleWorker = workerInstanceGetter.get(workerName);
+        if (handleWorker == null || !(handleWorker.getWorker() instanceof MetricsPersistentWorker)) {
+            return Collections.emptyMap();
+        }
+        try {
+            return ((MetricsPersistentWorker) handleWorker.getWorker()).readInMemoryValues(ids, valueColumnName);
+        } catch (IOException e) {
+            throw new UnexpectedException(e.getMessage(), e);
+        }
+    }
+
     @Override
     public int compareTo(RemoteClient o) {
         return address.compareTo(o.getAddress());
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.remote.data;
+
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+
+/**
+ * ComplexObjectEncoding decides how the {@link RemoteDataComplexObject} fields are carried in the {@link RemoteData}.
+ *
+ * The receiver always follows the {@link RemoteData#getObjectEncodingVersion()} of the message, so it could read the
+ * data from the old and new OAP nodes at the same time. The sender only uses the version set through {@link
+ * #setVersion(int)}, which should not be raised until every OAP node in the cluster supports it.
+ */
+public class ComplexObjectEncoding {
+    /**
+     * Complex objects are carried as delimited strings, same as the storage.
+     */
+    public static final int STRING = 0;
+    /**
+     * Complex objects are carried as varint encoded bytes.
+     */
+    public static final int BINARY = 1;
+
+    private static volatile int VERSION = STRING;
+
+    public static void setVersion(int version) {
+        if (version != STRING && version != BINARY) {
+            throw new IllegalArgumentException("Unsupported remote object encoding version: " + version);
+        }
+        VERSION = version;
+    }
+
+    public static int getVersion() {
+        return VERSION;
+    }
+
+    /**
+     * Append the object to the builder in the current encoding version.
+     */
+    public static void write(RemoteData.Builder builder, RemoteDataComplexObject<?> object) {
+        if (VERSION == BINARY) {
+            builder.setObjectEncodingVersion(BINARY);
+            builder.addDataObjectBytes(object.toRemoteBytes());
+        } else {
+            builder.addDataObjectStrings(object.toStorageData());
+        }
+    }
+
+    /**
+     * Initialize the given object by the complex object at the index of the remote data, in the encoding version of the
+     * remote data.
+     *
+     * @return the given object, after initialized.
+     */
+    public static <T extends RemoteDataComplexObject<?>> T read(RemoteData remoteData, int index, T object) {
+        if (remoteData.getObjectEncodingVersion() == BINARY) {
+            object.toObject(remoteData.getDataObjectBytes(index));
+        } else {
+            object.toObject(remoteData.getDataObjectStrings(index));
+        }
+        return object;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.server;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.library.server.grpc.AdaptiveConcurrencyLimiter;
+import org.apache.skywalking.oap.server.library.server.grpc.AdmissionControlInterceptor;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+
+/**
+ * Export the gRPC calls rejected by the admission control as the telemetry, tagged by the gRPC service and the reason.
+ */
+@Slf4j
+public class AdmissionRejectionCounter implements AdmissionControlInterceptor.RejectionListener {
+    private final ModuleManager moduleManager;
+    private final Map<String, CounterMetrics> counters = new ConcurrentHashMap<>();
+    private MetricsCreator metricsCreator;
+
+    public AdmissionRejectionCounter(ModuleManager moduleManager) {
+        this.moduleManager = moduleManager;
+    }
+
+    @Override
+    public void onRejected(final String service, final AdaptiveConcurrencyLimiter.Admission reason) {
+        if (log.isDebugEnabled()) {
+            log.debug("gRPC call of {} is rejected, reason: {}", service, reason);
+        }
+        counters.computeIfAbsent(service + "/" + reason, key -> getMetricsCreator().createCounter(
+            "grpc_admission_rejected_count", "The number of gRPC calls rejected by the admission control",
+            new MetricsTag.Keys("service", "reason"), new MetricsTag.Values(service, reason.name())
+        )).inc();
+    }
+
+    private MetricsCreator getMetricsCreator() {
+        if (metricsCreator == null) {
+            metricsCreator = moduleManager.find(TelemetryModule.NAME).provider().getService(MetricsCreator.class);
+        }
+        return metricsCreator;
+    }
+}
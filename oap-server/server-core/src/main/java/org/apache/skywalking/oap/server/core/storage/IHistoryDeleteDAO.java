@@ -35,4 +35,28 @@ public interface IHistoryDeleteDAO extends DAO {
      * @throws IOException when error happens in the deletion process.
      */
     void deleteHistory(Model model, String timeBucketColumnName, int ttl) throws IOException;
+
+    /**
+     * Delete the data in bounded chunks. The implementation should notify the listener after every chunk, and the
+     * listener could block the deletion to keep it under the budget. By default, all expired data is deleted at once
+     * through {@link #deleteHistory(Model, String, int)}.
+     *
+     * @param listener notified with the number of deleted rows after every chunk.
+     * @throws IOException when error happens in the deletion process.
+     * @since 8.6.0
+     */
+    default void deleteHistory(Model model,
+                               String timeBucketColumnName,
+                               int ttl,
+                               ChunkDeletedListener listener) throws IOException {
+        deleteHistory(model, timeBucketColumnName, ttl);
+    }
+
+    @FunctionalInterface
+    interface ChunkDeletedListener {
+        ChunkDeletedListener NONE = deletedRows -> {
+        };
+
+        void onChunkDeleted(long deletedRows);
+    }
 }
@@ -48,7 +48,8 @@ public enum PersistenceTimer {
     private CounterMetrics errorCounter;
     private HistogramMetrics prepareLatency;
     private HistogramMetrics executeLatency;
-    private long lastTime = System.currentTimeMillis();
+    private volatile long lastTime = System.currentTimeMillis();
+    private long persistentPeriodInMillis;
     private final List<PrepareRequest> prepareRequests = new ArrayList<>(50000);
     private int syncOperationThreadsNum;
     private int maxSyncoperationNum;
@@ -80,6 +81,7 @@ public enum PersistenceTimer {
         syncOperationThreadsNum = moduleConfig.getSyncThreads();
         maxSyncoperationNum = moduleConfig.getMaxSyncOperationNum();
         executorService = Executors.newFixedThreadPool(syncOperationThreadsNum);
+        persistentPeriodInMillis = TimeUnit.SECONDS.toMillis(moduleConfig.getPersistentPeriod());
         if (!isStarted) {
             Executors.newSingleThreadScheduledExecutor()
                      .scheduleWithFixedDelay(
@@ -92,6 +94,17 @@ public enum PersistenceTimer {
         }
     }
 
+    /**
+     * @return true if the persistence falls behind, the current round has lasted longer than a period, or the last round
+     * finished more than two periods ago.
+     */
+    public boolean isFallingBehind() {
+        if (!isStarted) {
+            return false;
+        }
+        return System.currentTimeMillis() - lastTime > persistentPeriodInMillis * 2;
+    }
+
     private void extractDataAndSave(IBatchDAO batchDAO) {
         if (log.isDebugEnabled()) {
             log.debug("Extract data and save");
@@ -51,6 +51,23 @@ public interface IMetricsQueryDAO extends DAO {
                                     String valueColumnName,
                                     Duration duration) throws IOException;
 
+    /**
+     * Read time-series values of multiple metrics conditions in the same duration, the implementation could merge the
+     * conditions of the same table into one query.
+     *
+     * @return the values in the same order of the conditions
+     * @since 8.6.0
+     */
+    default List<MetricsValues> readMetricsValues(List<MetricsCondition> conditions,
+                                                  Duration duration) throws IOException {
+        List<MetricsValues> result = new ArrayList<>(conditions.size());
+        for (MetricsCondition condition : conditions) {
+            result.add(readMetricsValues(
+                condition, ValueColumnMetadata.INSTANCE.getValueCName(condition.getName()), duration));
+        }
+        return result;
+    }
+
     List<MetricsValues> readLabeledMetricsValues(MetricsCondition condition,
                                                  String valueColumnName,
                                                  List<String> labels,
@@ -18,10 +18,16 @@
 
 package org.apache.skywalking.oap.server.core.storage.ttl;
 
+import com.google.common.util.concurrent.RateLimiter;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 import org.apache.skywalking.oap.server.core.CoreModule;
@@ -36,6 +42,12 @@ import org.apache.skywalking.oap.server.core.storage.model.IModelManager;
 import org.apache.skywalking.oap.server.core.storage.model.Model;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
 
 /**
  * TTL = Time To Live
@@ -44,6 +56,9 @@ import org.apache.skywalking.oap.server.library.util.CollectionUtils;
  * configurations are provided in {@link CoreModuleConfig}, some storage implementations, such as ES6/ES7, provides an
  * override TTL, which could be more suitable for the implementation. No matter which TTL configurations are set, they
  * are all driven by this timer.
+ *
+ * The models are partitioned across the OAP nodes in the cluster, and every node removes the expired data of its
+ * models in parallel, under the rows/sec budget set by {@link CoreModuleConfig#getDataKeeperMaxDeleteRowsPerSecond()}.
  */
 @Slf4j
 public enum DataTTLKeeperTimer {
@@ -52,14 +67,45 @@ public enum DataTTLKeeperTimer {
     private ModuleManager moduleManager;
     private ClusterNodesQuery clusterNodesQuery;
     private CoreModuleConfig moduleConfig;
+    private ExecutorService executorService;
+    private RateLimiter rateLimiter;
+
+    private CounterMetrics deletedRowsCounter;
+    private CounterMetrics errorCounter;
+    private GaugeMetrics pendingModelsGauge;
+    private HistogramMetrics modelLatency;
 
     public void start(ModuleManager moduleManager, CoreModuleConfig moduleConfig) {
         this.moduleManager = moduleManager;
         this.clusterNodesQuery = moduleManager.find(ClusterModule.NAME).provider().getService(ClusterNodesQuery.class);
         this.moduleConfig = moduleConfig;
+        this.executorService = Executors.newFixedThreadPool(Math.max(1, moduleConfig.getDataKeeperExecuteThreads()));
+        if (moduleConfig.getDataKeeperMaxDeleteRowsPerSecond() > 0) {
+            this.rateLimiter = RateLimiter.create(moduleConfig.getDataKeeperMaxDeleteRowsPerSecond());
+        }
+
+        MetricsCreator metricsCreator = moduleManager.find(TelemetryModule.NAME)
+                                                     .provider()
+                                                     .getService(MetricsCreator.class);
+        deletedRowsCounter = metricsCreator.createCounter(
+            "ttl_keeper_deleted_rows_count", "The number of expired rows deleted by the TTL keeper",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        errorCounter = metricsCreator.createCounter(
+            "ttl_keeper_error_count", "The number of models failed to remove the expired data",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        pendingModelsGauge = metricsCreator.createGauge(
+            "ttl_keeper_pending_models", "The number of models waiting to remove the expired data in the current round",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        modelLatency = metricsCreator.createHistogramMetric(
+            "ttl_keeper_model_latency", "Latency of removing the expired data of one model",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
 
         Executors.newSingleThreadScheduledExecutor()
-                 .scheduleAtFixedRate(
+                 .scheduleWithFixedDelay(
                      new RunnableWithExceptionProtection(
                          this::delete,
                          t -> log.error("Remove data in background failure.", t)
@@ -68,36 +114,84 @@ public enum DataTTLKeeperTimer {
     }
 
     /**
-     * DataTTLKeeperTimer starts in every OAP node, but the deletion only work when it is as the first node in the OAP
-     * node list from {@link ClusterNodesQuery}.
+     * DataTTLKeeperTimer starts in every OAP node, the deletion of every model only works in one OAP node of the OAP
+     * node list from {@link ClusterNodesQuery}, see {@link #isAssigned(Model, List)}.
      */
     private void delete() {
         List<RemoteInstance> remoteInstances = clusterNodesQuery.queryRemoteNodes();
-        if (CollectionUtils.isNotEmpty(remoteInstances) && !remoteInstances.get(0).getAddress().isSelf()) {
-            log.info("The selected first getAddress is {}. Skip.", remoteInstances.get(0).toString());
+        IModelManager modelGetter = moduleManager.find(CoreModule.NAME).provider().getService(IModelManager.class);
+        List<Model> models = modelGetter.allModels()
+                                        .stream()
+                                        .filter(Model::isTimeSeries)
+                                        .filter(model -> isAssigned(model, remoteInstances))
+                                        .collect(Collectors.toList());
+        if (models.isEmpty()) {
+            log.info("No model is assigned to the current OAP node in {}. Skip.", remoteInstances);
             return;
         }
 
-        log.info("Beginning to remove expired metrics from the storage.");
-        IModelManager modelGetter = moduleManager.find(CoreModule.NAME).provider().getService(IModelManager.class);
-        List<Model> models = modelGetter.allModels();
-        models.forEach(this::execute);
+        log.info("Beginning to remove expired metrics of {} models from the storage.", models.size());
+        pendingModelsGauge.setValue(models.size());
+        CountDownLatch countDownLatch = new CountDownLatch(models.size());
+        for (final Model model : models) {
+            executorService.submit(() -> {
+                try {
+                    execute(model);
+                } finally {
+                    pendingModelsGauge.dec();
+                    countDownLatch.countDown();
+                }
+            });
+        }
+        try {
+            countDownLatch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     private void execute(Model model) {
+        HistogramMetrics.Timer timer = modelLatency.createTimer();
         try {
-            if (!model.isTimeSeries()) {
-                return;
-            }
             moduleManager.find(StorageModule.NAME)
                          .provider()
                          .getService(IHistoryDeleteDAO.class)
                          .deleteHistory(model, Metrics.TIME_BUCKET,
-                                        model.isRecord() ? moduleConfig.getRecordDataTTL() : moduleConfig.getMetricsDataTTL()
+                                        model.isRecord() ? moduleConfig.getRecordDataTTL() : moduleConfig.getMetricsDataTTL(),
+                                        this::onChunkDeleted
                          );
         } catch (IOException e) {
+            errorCounter.inc();
             log.warn("History of {} delete failure", model.getName());
             log.error(e.getMessage(), e);
+        } finally {
+            timer.finish();
+        }
+    }
+
+    private void onChunkDeleted(long deletedRows) {
+        if (deletedRows <= 0) {
+            return;
+        }
+        deletedRowsCounter.inc(deletedRows);
+        if (rateLimiter != null) {
+            rateLimiter.acquire((int) Math.min(deletedRows, Integer.MAX_VALUE));
+        }
+    }
+
+    /**
+     * The models are assigned to the OAP nodes by the hash of the model name, the nodes are sorted by address to keep
+     * the same order in every OAP node. The current node works for all models when the cluster is empty, such as in the
+     * standalone mode, and for none when it isn't in the cluster, such as in the Receiver role.
+     */
+    static boolean isAssigned(Model model, List<RemoteInstance> remoteInstances) {
+        if (CollectionUtils.isEmpty(remoteInstances)) {
+            return true;
         }
+        List<RemoteInstance> sortedInstances = new ArrayList<>(remoteInstances);
+        Collections.sort(sortedInstances);
+        RemoteInstance assigned = sortedInstances.get(
+            Math.abs(model.getName().hashCode() % sortedInstances.size()));
+        return assigned.getAddress().isSelf();
     }
 }
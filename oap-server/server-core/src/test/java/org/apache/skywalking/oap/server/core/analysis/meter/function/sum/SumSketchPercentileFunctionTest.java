@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.meter.function.sum;
+
+import java.util.Map;
+import org.apache.skywalking.oap.server.core.analysis.meter.MeterEntity;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.AcceptableValue;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.BucketedValues;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.PercentileArgument;
+import org.apache.skywalking.oap.server.core.analysis.metrics.DataTable;
+import org.apache.skywalking.oap.server.core.analysis.metrics.IntList;
+import org.apache.skywalking.oap.server.core.storage.StorageHashMapBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SumSketchPercentileFunctionTest {
+
+    private static final int[] RANKS = new int[] {
+        50,
+        90
+    };
+
+    @Test
+    public void testMergeSparseSketches() {
+        SketchFunctionInst inst = new SketchFunctionInst();
+        inst.accept(
+            MeterEntity.newService("service-test"),
+            new PercentileArgument(new BucketedValues(new long[] {
+                0,
+                98010,
+                250000
+            }, new long[] {
+                10,
+                20,
+                10
+            }), RANKS)
+        );
+
+        SketchFunctionInst inst2 = new SketchFunctionInst();
+        inst2.accept(
+            MeterEntity.newService("service-test"),
+            new PercentileArgument(new BucketedValues(new long[] {
+                98010,
+                1010490
+            }, new long[] {
+                40,
+                20
+            }), RANKS)
+        );
+        inst.combine(inst2);
+
+        inst.calculate();
+        /**
+         * Expected merged dataset, keyed in microseconds
+         * <pre>
+         *     0      , 10
+         *     98010  , 70 <- P50
+         *     250000 , 80
+         *     1010490, 100 <- P90
+         * </pre>
+         */
+        Assert.assertArrayEquals(new int[] {
+            98,
+            1010
+        }, inst.getValues());
+    }
+
+    @Test
+    public void testCollapseLowestBuckets() {
+        SketchFunctionInst inst = new SketchFunctionInst();
+        final int size = SumSketchPercentileFunction.MAX_BUCKETS + 10;
+        final long[] buckets = new long[size];
+        final long[] values = new long[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = i + 1;
+            values[i] = 1;
+        }
+        inst.accept(MeterEntity.newService("service-test"), new PercentileArgument(
+            new BucketedValues(buckets, values), RANKS));
+
+        final DataTable dataset = inst.getDataset();
+        Assert.assertEquals(SumSketchPercentileFunction.MAX_BUCKETS, dataset.size());
+        Assert.assertEquals(size, dataset.sumOfValues());
+        Assert.assertFalse(dataset.hasKey("10"));
+        Assert.assertEquals(11L, dataset.get("11").longValue());
+        Assert.assertEquals(1L, dataset.get(String.valueOf(size)).longValue());
+    }
+
+    @Test
+    public void testSerialize() {
+        SketchFunctionInst inst = new SketchFunctionInst();
+        inst.accept(
+            MeterEntity.newService("service-test"),
+            new PercentileArgument(new BucketedValues(new long[] {
+                1,
+                98
+            }, new long[] {
+                5,
+                6
+            }), RANKS)
+        );
+        inst.calculate();
+
+        SketchFunctionInst inst2 = new SketchFunctionInst();
+        inst2.deserialize(inst.serialize().build());
+
+        Assert.assertEquals(inst, inst2);
+        Assert.assertEquals(inst.getDataset(), inst2.getDataset());
+        Assert.assertEquals(inst.getRanks(), inst2.getRanks());
+        Assert.assertEquals(inst.getPercentileValues(), inst2.getPercentileValues());
+    }
+
+    @Test
+    public void testBuilder() throws IllegalAccessException, InstantiationException {
+        SketchFunctionInst inst = new SketchFunctionInst();
+        inst.accept(
+            MeterEntity.newService("service-test"),
+            new PercentileArgument(new BucketedValues(new long[] {
+                1,
+                98
+            }, new long[] {
+                5,
+                6
+            }), RANKS)
+        );
+        inst.calculate();
+
+        final StorageHashMapBuilder storageBuilder = inst.builder().newInstance();
+
+        // Simulate the storage layer do, convert the datatable to string.
+        final Map map = storageBuilder.entity2Storage(inst);
+        map.put(SumSketchPercentileFunction.DATASET, ((DataTable) map.get(SumSketchPercentileFunction.DATASET)).toStorageData());
+        map.put(SumSketchPercentileFunction.VALUE, ((DataTable) map.get(SumSketchPercentileFunction.VALUE)).toStorageData());
+        map.put(SumSketchPercentileFunction.RANKS, ((IntList) map.get(SumSketchPercentileFunction.RANKS)).toStorageData());
+
+        final SumSketchPercentileFunction inst2 = (SumSketchPercentileFunction) storageBuilder.storage2Entity(map);
+        Assert.assertEquals(inst, inst2);
+        // The function equal doesn't include dataset.
+        Assert.assertEquals(inst.getDataset(), inst2.getDataset());
+        Assert.assertEquals(inst.getPercentileValues(), inst2.getPercentileValues());
+        Assert.assertEquals(inst.getRanks(), inst2.getRanks());
+    }
+
+    private static class SketchFunctionInst extends SumSketchPercentileFunction {
+        @Override
+        public AcceptableValue<PercentileArgument> createNew() {
+            return new SketchFunctionInst();
+        }
+    }
+}
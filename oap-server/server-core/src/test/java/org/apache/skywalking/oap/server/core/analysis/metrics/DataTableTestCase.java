@@ -52,6 +52,19 @@ public class DataTableTestCase {
         Assert.assertEquals(700, dataTable.get("7").intValue());
     }
 
+    @Test
+    public void toRemoteBytes() {
+        dataTable.valueAccumulation("007", 7L);
+        dataTable.valueAccumulation("p99", -99L);
+
+        DataTable dataTable = new DataTable();
+        dataTable.toObject(this.dataTable.toRemoteBytes());
+
+        Assert.assertEquals(this.dataTable, dataTable);
+        Assert.assertEquals(7, dataTable.get("007").intValue());
+        Assert.assertEquals(-99, dataTable.get("p99").intValue());
+    }
+
     @Test
     public void copyFrom() {
         DataTable dataTable = new DataTable();
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.storage.IMetricsDAO;
+import org.apache.skywalking.oap.server.core.storage.StorageHashMapBuilder;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
+import org.apache.skywalking.oap.server.testing.module.ModuleDefineTesting;
+import org.apache.skywalking.oap.server.testing.module.ModuleManagerTesting;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MetricsPersistentWorkerTest {
+
+    @Test
+    public void testReadInMemoryValues() throws IOException {
+        final IMetricsDAO metricsDAO = mock(IMetricsDAO.class);
+        when(metricsDAO.multiGet(any(), any())).thenReturn(Collections.singletonList(metrics("persisted", 10)));
+
+        final MetricsPersistentWorker worker = new MetricsPersistentWorker(
+            moduleManager(), model(), metricsDAO, new MockMetrics.Builder(), null, null, null, true, true, true);
+        worker.onWork(Arrays.asList(metrics("persisted", 5), metrics("new", 3), metrics("new", 4)));
+
+        final Map<String, Long> values = worker.readInMemoryValues(
+            Arrays.asList(id("persisted"), id("new"), id("absent")), MockMetrics.VALUE);
+        Assert.assertEquals(2, values.size());
+        // the buffered value is combined with the persisted one
+        Assert.assertEquals(15L, values.get(id("persisted")).longValue());
+        Assert.assertEquals(7L, values.get(id("new")).longValue());
+
+        // the buffered data keeps unchanged for the persistence
+        final Map<String, Long> readAgain = worker.readInMemoryValues(
+            Collections.singletonList(id("new")), MockMetrics.VALUE);
+        Assert.assertEquals(7L, readAgain.get(id("new")).longValue());
+    }
+
+    @Test
+    public void testInMemoryQueryDisabled() throws IOException {
+        final MetricsPersistentWorker worker = new MetricsPersistentWorker(
+            moduleManager(), model(), mock(IMetricsDAO.class), new MockMetrics.Builder(), true, true);
+        worker.onWork(Collections.singletonList(metrics("new", 3)));
+
+        Assert.assertTrue(worker.readInMemoryValues(Collections.singletonList(id("new")), MockMetrics.VALUE).isEmpty());
+    }
+
+    private static ModuleManagerTesting moduleManager() {
+        final ModuleManagerTesting moduleManager = new ModuleManagerTesting();
+        final ModuleDefineTesting telemetryModuleDefine = new ModuleDefineTesting();
+        moduleManager.put(TelemetryModule.NAME, telemetryModuleDefine);
+        telemetryModuleDefine.provider().registerServiceImplementation(MetricsCreator.class, new MetricsCreatorNoop());
+        return moduleManager;
+    }
+
+    private static Model model() {
+        final Model model = mock(Model.class);
+        when(model.getName()).thenReturn("mock_metrics");
+        when(model.getDownsampling()).thenReturn(DownSampling.Minute);
+        return model;
+    }
+
+    private static String id(String entityId) {
+        return 202101010000L + "_" + entityId;
+    }
+
+    private static MockMetrics metrics(String entityId, long value) {
+        final MockMetrics metrics = new MockMetrics();
+        metrics.setEntityId(entityId);
+        metrics.setTimeBucket(202101010000L);
+        metrics.setValue(value);
+        return metrics;
+    }
+
+    @Getter
+    @Setter
+    public static class MockMetrics extends Metrics {
+        static final String VALUE = "value";
+
+        private String entityId;
+        private long value;
+
+        @Override
+        public String id() {
+            return getTimeBucket() + "_" + entityId;
+        }
+
+        @Override
+        public boolean combine(Metrics metrics) {
+            value += ((MockMetrics) metrics).value;
+            return true;
+        }
+
+        @Override
+        public void calculate() {
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return entityId.hashCode();
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+            setEntityId(remoteData.getDataStrings(0));
+            setTimeBucket(remoteData.getDataLongs(0));
+            setValue(remoteData.getDataLongs(1));
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return RemoteData.newBuilder()
+                             .addDataStrings(entityId)
+                             .addDataLongs(getTimeBucket())
+                             .addDataLongs(value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof MockMetrics && id().equals(((MockMetrics) o).id());
+        }
+
+        @Override
+        public int hashCode() {
+            return id().hashCode();
+        }
+
+        public static class Builder implements StorageHashMapBuilder<MockMetrics> {
+            @Override
+            public MockMetrics storage2Entity(Map<String, Object> dbMap) {
+                return null;
+            }
+
+            @Override
+            public Map<String, Object> entity2Storage(MockMetrics storageData) {
+                final Map<String, Object> map = new HashMap<>();
+                map.put(VALUE, storageData.getValue());
+                return map;
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.cache;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.skywalking.oap.server.core.analysis.IDManager;
+import org.apache.skywalking.oap.server.core.analysis.NodeType;
+import org.apache.skywalking.oap.server.core.analysis.manual.endpoint.EndpointTraffic;
+import org.apache.skywalking.oap.server.core.analysis.manual.service.ServiceTraffic;
+import org.apache.skywalking.oap.server.core.query.type.Endpoint;
+import org.apache.skywalking.oap.server.core.query.type.Service;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MetadataCatalogTest {
+    private static final String SERVICE_ID = IDManager.ServiceID.buildId("group::svc", NodeType.Normal);
+
+    @Test
+    public void testServices() {
+        MetadataCatalog catalog = new MetadataCatalog(10);
+        Assert.assertTrue(catalog.record(service("group::svc", NodeType.Normal)));
+        Assert.assertFalse(catalog.record(service("group::svc", NodeType.Normal)));
+        catalog.record(service("browser-app", NodeType.Browser));
+        catalog.record(service("mysql:3306", NodeType.Database));
+
+        List<Service> services = catalog.getServices(NodeType.Normal, null);
+        Assert.assertEquals(1, services.size());
+        Assert.assertEquals(SERVICE_ID, services.get(0).getId());
+        Assert.assertEquals("group", services.get(0).getGroup());
+        Assert.assertEquals(1, catalog.getServices(NodeType.Normal, "group").size());
+        Assert.assertEquals(0, catalog.getServices(NodeType.Normal, "other").size());
+        Assert.assertEquals(1, catalog.getServices(NodeType.Browser, null).size());
+        Assert.assertEquals(1, catalog.getDatabases().size());
+        Assert.assertEquals(1, catalog.searchServices("svc").size());
+        Assert.assertNotNull(catalog.searchService("group::svc"));
+        Assert.assertNull(catalog.searchService("browser-app"));
+    }
+
+    @Test
+    public void testSearchEndpoint() {
+        MetadataCatalog catalog = new MetadataCatalog(10);
+        catalog.record(endpoint("/api/users/{id}"));
+        catalog.record(endpoint("/api/orders"));
+        catalog.record(endpoint("GET:/Api/Users"));
+
+        Assert.assertEquals(3, catalog.searchEndpoint(null, SERVICE_ID, 10).size());
+        Assert.assertEquals(2, catalog.searchEndpoint("", SERVICE_ID, 2).size());
+        Assert.assertEquals(2, catalog.searchEndpoint("users", SERVICE_ID, 10).size());
+        Assert.assertEquals(1, catalog.searchEndpoint("ORD", SERVICE_ID, 10).size());
+        Assert.assertEquals(3, catalog.searchEndpoint("/a", SERVICE_ID, 10).size());
+        Assert.assertEquals(0, catalog.searchEndpoint("payments", SERVICE_ID, 10).size());
+        Assert.assertEquals(0, catalog.searchEndpoint("users", "other", 10).size());
+
+        Endpoint endpoint = catalog.searchEndpoint("orders", SERVICE_ID, 10).get(0);
+        Assert.assertEquals(IDManager.EndpointID.buildId(SERVICE_ID, "/api/orders"), endpoint.getId());
+    }
+
+    @Test
+    public void testEvictInactive() {
+        MetadataCatalog catalog = new MetadataCatalog(10);
+        catalog.record(service("group::svc", NodeType.Normal));
+        catalog.record(endpoint("/api/users"));
+
+        catalog.evictInactive(System.currentTimeMillis() + 60_000);
+        Assert.assertEquals(1, catalog.getServices(NodeType.Normal, null).size());
+        Assert.assertEquals(1, catalog.searchEndpoint("users", SERVICE_ID, 10).size());
+
+        catalog.evictInactive(System.currentTimeMillis() + 11 * 60_000);
+        Assert.assertEquals(0, catalog.getServices(NodeType.Normal, null).size());
+        Assert.assertEquals(0, catalog.searchEndpoint("users", SERVICE_ID, 10).size());
+
+        // Evicted endpoint is recorded as new again.
+        Assert.assertTrue(catalog.record(endpoint("/api/users")));
+        Assert.assertEquals(
+            "/api/users",
+            catalog.searchEndpoint("api", SERVICE_ID, 10).stream().map(Endpoint::getName).collect(Collectors.joining())
+        );
+    }
+
+    private static ServiceTraffic service(String name, NodeType nodeType) {
+        ServiceTraffic traffic = new ServiceTraffic();
+        traffic.setName(name);
+        traffic.setNodeType(nodeType);
+        return traffic;
+    }
+
+    private static EndpointTraffic endpoint(String name) {
+        EndpointTraffic traffic = new EndpointTraffic();
+        traffic.setServiceId(SERVICE_ID);
+        traffic.setName(name);
+        return traffic;
+    }
+}
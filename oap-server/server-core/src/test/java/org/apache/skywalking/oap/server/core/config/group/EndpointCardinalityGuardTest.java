@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.config.group;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EndpointCardinalityGuardTest {
+    @Test
+    public void testIdentifierTokens() {
+        final EndpointCardinalityGuard guard = new EndpointCardinalityGuard(100, 10);
+
+        Assert.assertEquals("{GET}/orders/{var}/items", guard.format("serviceA", "{GET}/orders/123/items"));
+        Assert.assertEquals(
+            "/users/{var}", guard.format("serviceA", "/users/3f2504e0-4f89-11d3-9a0c-0305e82c3301"));
+        Assert.assertEquals("/v1/users", guard.format("serviceA", "/v1/users"));
+        Assert.assertEquals("Mysql/JDBI/Statement/execute", guard.format("serviceA", "Mysql/JDBI/Statement/execute"));
+    }
+
+    @Test
+    public void testLearnTemplate() {
+        final EndpointCardinalityGuard guard = new EndpointCardinalityGuard(100, 10);
+
+        for (int i = 0; i < 10; i++) {
+            final String name = "/orders/order" + (char) ('a' + i) + "/items";
+            Assert.assertEquals(name, guard.format("serviceA", name));
+        }
+        Assert.assertEquals("/orders/{var}/items", guard.format("serviceA", "/orders/orderk/items"));
+        Assert.assertEquals("/orders/{var}/items", guard.format("serviceA", "/orders/ordera/items"));
+        Assert.assertEquals("/orders/{var}", guard.format("serviceA", "/orders/orderz"));
+
+        // The templates are learnt per service.
+        Assert.assertEquals("/orders/orderk/items", guard.format("serviceB", "/orders/orderk/items"));
+    }
+
+    @Test
+    public void testOverflow() {
+        final EndpointCardinalityGuard guard = new EndpointCardinalityGuard(3, 10);
+
+        Assert.assertEquals("/a", guard.format("serviceA", "/a"));
+        Assert.assertEquals("/b", guard.format("serviceA", "/b"));
+        Assert.assertEquals("/c/{var}", guard.format("serviceA", "/c/1"));
+        Assert.assertEquals("/c/{var}", guard.format("serviceA", "/c/2"));
+        Assert.assertEquals(EndpointCardinalityGuard.OVERFLOW, guard.format("serviceA", "/d"));
+        Assert.assertEquals("/a", guard.format("serviceA", "/a"));
+    }
+
+    @Test
+    public void testStaticRuleFirst() {
+        final EndpointGroupingRule rule = new EndpointGroupingRule();
+        rule.addRule("serviceA", "/prod/{id}", "/prod/.+");
+        final EndpointNameGrouping grouping = new EndpointNameGrouping();
+        grouping.setEndpointGroupingRule(rule);
+        grouping.setCardinalityGuard(new EndpointCardinalityGuard(1, 10));
+
+        Assert.assertEquals("/prod/{id}", grouping.format("serviceA", "/prod/123"));
+        Assert.assertEquals("/a", grouping.format("serviceA", "/a"));
+        Assert.assertEquals(EndpointCardinalityGuard.OVERFLOW, grouping.format("serviceA", "/b"));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.config.group;
+
+import java.util.Arrays;
+import org.apache.skywalking.apm.util.StringFormatGroup;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EndpointGroupingTrieTest {
+    private static final String[][] RULES = {
+        {"/prod/{id}", "\\/prod\\/[0-9]+"},
+        {"/prod/{name}", "/prod/[^/]+"},
+        {"/prod/{id}/detail", "/prod/\\d+/detail"},
+        {"/user/{id}/orders/{orderId}", "^/user/[a-z0-9-]+/orders/\\w{8}$"},
+        {"/static/**", "/static/.*"},
+        {"/api/v1.0/{any}", "/api/v1\\.0/.+"},
+        {"GET:/items/{id}", "GET:/items/(\\d+|latest)"},
+        {"/prod/{duplicated}", "/prod/.+"},
+        {"/files/{path}", "/files/.+\\.txt"},
+        {"/prod/{id}", "/duplicated/.+"},
+        {"/api/users", "/api/users/?"},
+        {"/api/users/{id}", "/api/users/\\d+/?"},
+        {"/api/items", "/api//*items"},
+        {"/api/slashes/{id}", "/api/slashes/+\\d+"}
+    };
+
+    private static final String[] NAMES = {
+        "/prod/123", "/prod/abc", "/prod/", "/prod", "/prod/123/detail", "/prod/abc/detail", "/prod/1/2/3",
+        "/user/u-1/orders/abcd1234", "/user/U1/orders/abcd1234", "/user/u1/orders/abc",
+        "/static/", "/static", "/static/a/b.js", "/api/v1.0/x", "/api/v1x0/x", "/api/v1.0/",
+        "GET:/items/12", "GET:/items/latest", "GET:/items/other", "/files/a/b.txt", "/files/a.log",
+        "/duplicated/1", "", "/", "/api/users", "/api/users/", "/api/users/12", "/api/users/12/", "/api/items",
+        "/api//items", "/api///items", "/apiitems", "/api/slashes/1", "/api/slashes//1", "/api/slashes1"
+    };
+
+    @Test
+    public void testSameAsSequentialRegex() {
+        StringFormatGroup expected = new StringFormatGroup();
+        EndpointGroupingTrie trie = new EndpointGroupingTrie();
+        for (String[] rule : RULES) {
+            expected.addRule(rule[0], rule[1]);
+            trie.addRule(rule[0], rule[1]);
+        }
+        for (int round = 0; round < 2; round++) {
+            for (String name : NAMES) {
+                StringFormatGroup.FormatResult expectedResult = expected.format(name);
+                StringFormatGroup.FormatResult result = trie.format(name);
+                Assert.assertEquals(name, expectedResult.isMatch(), result.isMatch());
+                Assert.assertEquals(name, expectedResult.getName(), result.getName());
+            }
+        }
+    }
+
+    @Test
+    public void testSplitSegments() {
+        Assert.assertEquals(
+            Arrays.asList("", "prod", "[0-9]+"), EndpointGroupingTrie.splitSegments("^\\/prod\\/[0-9]+$"));
+        Assert.assertEquals(Arrays.asList("", "a[/]b"), EndpointGroupingTrie.splitSegments("/a[/]b"));
+        Assert.assertNull(EndpointGroupingTrie.splitSegments("/items/(\\d+|latest)"));
+        Assert.assertNull(EndpointGroupingTrie.splitSegments("/api/users/?"));
+        Assert.assertNull(EndpointGroupingTrie.splitSegments("/api//*items"));
+        Assert.assertNull(EndpointGroupingTrie.splitSegments("/api/+\\d+"));
+        Assert.assertNull(EndpointGroupingTrie.splitSegments("/api/{2}x"));
+
+        Assert.assertEquals("v1.0", EndpointGroupingTrie.unescapeLiteral("v1\\.0"));
+        Assert.assertNull(EndpointGroupingTrie.unescapeLiteral("v1.0"));
+
+        Assert.assertTrue(EndpointGroupingTrie.isSingleSegmentRegex("[^/]+"));
+        Assert.assertTrue(EndpointGroupingTrie.isSingleSegmentRegex("id-\\d{1,8}"));
+        Assert.assertFalse(EndpointGroupingTrie.isSingleSegmentRegex("[^a]+"));
+        Assert.assertFalse(EndpointGroupingTrie.isSingleSegmentRegex("a[/]b"));
+        Assert.assertFalse(EndpointGroupingTrie.isSingleSegmentRegex(".+"));
+        Assert.assertFalse(EndpointGroupingTrie.isSingleSegmentRegex("\\S+"));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.profile.analyze;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.apm.network.language.profile.v3.ThreadStack;
+import org.apache.skywalking.oap.server.core.profile.ProfileThreadSnapshotRecord;
+import org.apache.skywalking.oap.server.core.query.type.ProfileAnalyzeTimeRange;
+import org.apache.skywalking.oap.server.core.query.type.ProfileStackElement;
+import org.apache.skywalking.oap.server.core.query.type.ProfileStackTree;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ProfileAnalyzeCacheTest {
+
+    private static final int DUMP_PERIOD = 10;
+
+    @Test
+    public void testOnlyQueryMissingBlocks() throws IOException {
+        final CountingDAO dao = new CountingDAO(buildSnapshots(20));
+        final ProfileAnalyzer analyzer = new ProfileAnalyzer(null, 4, 100, 10);
+        analyzer.profileThreadSnapshotQueryDAO = dao;
+
+        // sequence [0, 11), blocks: [0, 4) [4, 8) [8, 11)
+        analyzer.analyze("segment", timeRanges(0, 10));
+        Assert.assertEquals(11, dao.queriedSnapshots.get());
+
+        // sequence [4, 16), block [4, 8) is cached, [8, 11) is not complete so it is not cached
+        dao.queriedSnapshots.set(0);
+        final List<ProfileStackTree> trees = analyzer.analyze("segment", timeRanges(4, 15)).getTrees();
+        Assert.assertEquals(8, dao.queriedSnapshots.get());
+
+        Assert.assertEquals(flatten(analyzeWithoutCache(4, 15)), flatten(trees));
+    }
+
+    @Test
+    public void testOverlappedTimeRanges() throws IOException {
+        final CountingDAO dao = new CountingDAO(buildSnapshots(20));
+        final ProfileAnalyzer analyzer = new ProfileAnalyzer(null, 4, 100, 10);
+        analyzer.profileThreadSnapshotQueryDAO = dao;
+
+        final List<ProfileAnalyzeTimeRange> ranges = new ArrayList<>(timeRanges(2, 9));
+        ranges.addAll(timeRanges(6, 12));
+        final List<ProfileStackTree> trees = analyzer.analyze("segment", ranges).getTrees();
+
+        // overlapped sequences are queried only once
+        Assert.assertEquals(11, dao.queriedSnapshots.get());
+        Assert.assertEquals(flatten(analyzeWithoutCache(2, 12)), flatten(trees));
+    }
+
+    private List<ProfileStackTree> analyzeWithoutCache(int startSequence, int endSequence) throws IOException {
+        final ProfileAnalyzer analyzer = new ProfileAnalyzer(null, 4, 100);
+        analyzer.profileThreadSnapshotQueryDAO = new CountingDAO(buildSnapshots(20));
+        return analyzer.analyze("segment", timeRanges(startSequence, endSequence)).getTrees();
+    }
+
+    private static List<ProfileAnalyzeTimeRange> timeRanges(int startSequence, int endSequence) {
+        final ProfileAnalyzeTimeRange range = new ProfileAnalyzeTimeRange();
+        range.setStart(startSequence * DUMP_PERIOD);
+        range.setEnd(endSequence * DUMP_PERIOD);
+        return Collections.singletonList(range);
+    }
+
+    private static List<ProfileThreadSnapshotRecord> buildSnapshots(int count) {
+        final List<ProfileThreadSnapshotRecord> snapshots = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final ProfileThreadSnapshotRecord snapshot = new ProfileThreadSnapshotRecord();
+            snapshot.setSequence(i);
+            snapshot.setDumpTime(i * DUMP_PERIOD);
+            final ThreadStack.Builder stack = ThreadStack.newBuilder().addCodeSignatures("A").addCodeSignatures("B");
+            stack.addCodeSignatures(i % 3 == 0 ? "C" : "D");
+            snapshot.setStackBinary(stack.build().toByteArray());
+            snapshots.add(snapshot);
+        }
+        return snapshots;
+    }
+
+    /**
+     * the element IDs depend on the merging order, so compare the trees by the code signature paths
+     */
+    private static Set<String> flatten(List<ProfileStackTree> trees) {
+        final Set<String> result = new HashSet<>();
+        for (ProfileStackTree tree : trees) {
+            final Map<Integer, String> paths = new HashMap<>();
+            for (ProfileStackElement element : tree.getElements()) {
+                final String path = paths.getOrDefault(element.getParentId(), "") + "/" + element.getCodeSignature();
+                paths.put(element.getId(), path);
+                result.add(path + ":" + element.getCount() + ":" + element.getDuration() + ":" + element.getDurationChildExcluded());
+            }
+        }
+        return result;
+    }
+
+    private static class CountingDAO extends ProfileStackAnalyze.ThreadSnapshotDAO {
+        private final AtomicInteger queriedSnapshots = new AtomicInteger();
+
+        public CountingDAO(List<ProfileThreadSnapshotRecord> stacks) {
+            super(stacks);
+        }
+
+        @Override
+        public List<ProfileThreadSnapshotRecord> queryRecords(String segmentId, int minSequence,
+                                                              int maxSequence) throws IOException {
+            final List<ProfileThreadSnapshotRecord> records = super.queryRecords(segmentId, minSequence, maxSequence);
+            queriedSnapshots.addAndGet(records.size());
+            return records;
+        }
+    }
+}
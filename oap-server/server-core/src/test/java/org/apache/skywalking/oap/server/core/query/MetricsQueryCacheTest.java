@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.apache.skywalking.oap.server.core.query.enumeration.Scope;
+import org.apache.skywalking.oap.server.core.query.enumeration.Step;
+import org.apache.skywalking.oap.server.core.query.input.Duration;
+import org.apache.skywalking.oap.server.core.query.input.Entity;
+import org.apache.skywalking.oap.server.core.query.input.MetricsCondition;
+import org.apache.skywalking.oap.server.core.query.type.KVInt;
+import org.apache.skywalking.oap.server.core.query.type.MetricsValues;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
+import org.joda.time.DateTime;
+import org.joda.time.format.DateTimeFormat;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MetricsQueryCacheTest {
+
+    private final AtomicInteger readPoints = new AtomicInteger();
+
+    @Test
+    public void testReadClosedBuckets() throws IOException {
+        final MetricsQueryCache cache = new MetricsQueryCache(1000, 180, new MetricsCreatorNoop());
+        final MetricsCondition condition = condition();
+
+        MetricsValues values = cache.readMetricsValues(condition, duration("2020-01-01 1200", "2020-01-01 1209"), this::read);
+        Assert.assertEquals(10, readPoints.getAndSet(0));
+        assertValues(values, 202001011200L, 202001011209L);
+
+        values = cache.readMetricsValues(condition, duration("2020-01-01 1200", "2020-01-01 1209"), this::read);
+        Assert.assertEquals(0, readPoints.getAndSet(0));
+        assertValues(values, 202001011200L, 202001011209L);
+
+        // only read the missing buckets
+        values = cache.readMetricsValues(condition, duration("2020-01-01 1205", "2020-01-01 1214"), this::read);
+        Assert.assertEquals(5, readPoints.getAndSet(0));
+        assertValues(values, 202001011205L, 202001011214L);
+
+        // a duration includes two points at least
+        values = cache.readMetricsValues(condition, duration("2020-01-01 1213", "2020-01-01 1215"), this::read);
+        Assert.assertEquals(2, readPoints.getAndSet(0));
+        assertValues(values, 202001011213L, 202001011215L);
+    }
+
+    @Test
+    public void testReadOpenBuckets() throws IOException {
+        final MetricsQueryCache cache = new MetricsQueryCache(1000, 180, new MetricsCreatorNoop());
+        final MetricsCondition condition = condition();
+        final String end = DateTimeFormat.forPattern("yyyy-MM-dd HHmm").print(DateTime.now());
+        final String start = DateTimeFormat.forPattern("yyyy-MM-dd HHmm").print(DateTime.now().minusMinutes(9));
+
+        cache.readMetricsValues(condition, duration(start, end), this::read);
+        Assert.assertEquals(10, readPoints.getAndSet(0));
+
+        // the latest buckets are still open, read them again
+        cache.readMetricsValues(condition, duration(start, end), this::read);
+        Assert.assertTrue(readPoints.get() >= 2 && readPoints.get() < 10);
+    }
+
+    @Test
+    public void testReadConditionsInBatch() throws IOException {
+        final MetricsQueryCache cache = new MetricsQueryCache(1000, 180, new MetricsCreatorNoop());
+        final MetricsCondition cached = condition("cached");
+        final MetricsCondition missing = condition("missing");
+        cache.readMetricsValues(cached, duration("2020-01-01 1200", "2020-01-01 1209"), this::read);
+        readPoints.set(0);
+
+        final List<MetricsCondition> batches = new ArrayList<>();
+        final List<MetricsValues> values = cache.readMetricsValues(
+            Arrays.asList(cached, missing), duration("2020-01-01 1200", "2020-01-01 1209"),
+            (conditions, duration) -> {
+                batches.addAll(conditions);
+                return conditions.stream().map(c -> read(duration)).collect(Collectors.toList());
+            }
+        );
+        // only the missing condition is read from the storage
+        Assert.assertEquals(1, batches.size());
+        Assert.assertSame(missing, batches.get(0));
+        Assert.assertEquals(10, readPoints.getAndSet(0));
+        Assert.assertEquals(2, values.size());
+        values.forEach(v -> assertValues(v, 202001011200L, 202001011209L));
+    }
+
+    private MetricsValues read(Duration duration) {
+        final MetricsValues values = new MetricsValues();
+        for (PointOfTime point : duration.assembleDurationPoints()) {
+            final KVInt kv = new KVInt();
+            kv.setId(String.valueOf(point.getPoint()));
+            kv.setValue(point.getPoint() % 100);
+            values.getValues().addKVInt(kv);
+            readPoints.incrementAndGet();
+        }
+        return values;
+    }
+
+    private static void assertValues(MetricsValues values, long start, long end) {
+        final List<String> ids = values.getValues().getValues().stream().map(KVInt::getId).collect(Collectors.toList());
+        Assert.assertEquals(end - start + 1, ids.size());
+        Assert.assertEquals(String.valueOf(start), ids.get(0));
+        Assert.assertEquals(String.valueOf(end), ids.get(ids.size() - 1));
+        Assert.assertTrue(values.getValues().getValues().stream().allMatch(kv -> Long.parseLong(kv.getId()) % 100 == kv.getValue()));
+    }
+
+    private static MetricsCondition condition() {
+        return condition("service");
+    }
+
+    private static MetricsCondition condition(String serviceName) {
+        final Entity entity = new Entity();
+        entity.setScope(Scope.Service);
+        entity.setServiceName(serviceName);
+        entity.setNormal(true);
+        final MetricsCondition condition = new MetricsCondition();
+        condition.setName("service_resp_time");
+        condition.setEntity(entity);
+        return condition;
+    }
+
+    private static Duration duration(String start, String end) {
+        final Duration duration = new Duration();
+        duration.setStart(start);
+        duration.setEnd(end);
+        duration.setStep(Step.MINUTE);
+        return duration;
+    }
+}
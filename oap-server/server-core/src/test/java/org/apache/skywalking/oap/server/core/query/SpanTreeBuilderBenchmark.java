@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.oap.server.core.query.type.Span;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Sort the synthetic traces in tree order, every segment has 20 spans in a random tree, and the segments are linked
+ * to the random spans of the former segments. The spans are shuffled like being queried from the storage.
+ */
+@BenchmarkMode({Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class SpanTreeBuilderBenchmark {
+
+    private static final int SPANS_PER_SEGMENT = 20;
+
+    @Param({"1000", "10000", "100000"})
+    private int spanCount;
+
+    private List<Span> spans;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Random random = new Random(spanCount);
+        spans = new ArrayList<>(spanCount);
+        for (int segment = 0; segment * SPANS_PER_SEGMENT < spanCount; segment++) {
+            final String segmentId = "segment" + segment;
+            for (int spanId = 0; spanId < SPANS_PER_SEGMENT; spanId++) {
+                if (spanId == 0) {
+                    // link to the former segments
+                    final int parentSegment = segment == 0 ? -1 : random.nextInt(segment);
+                    spans.add(SpanTreeBuilderTest.span(
+                        segmentId, 0, "segment" + parentSegment, random.nextInt(SPANS_PER_SEGMENT), segment));
+                } else {
+                    spans.add(SpanTreeBuilderTest.span(
+                        segmentId, spanId, segmentId, random.nextInt(spanId), segment));
+                }
+            }
+        }
+        Collections.shuffle(spans, random);
+    }
+
+    @Benchmark
+    public List<Span> sortInTreeOrder() {
+        return SpanTreeBuilder.sortInTreeOrder(spans);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(SpanTreeBuilderBenchmark.class.getName())
+                                          .addProfiler(GCProfiler.class)
+                                          .jvmArgsAppend("-Xmx512m", "-Xms512m")
+                                          .forks(1)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.skywalking.oap.server.core.query.type.Span;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SpanTreeBuilderTest {
+
+    @Test
+    public void testSortInTreeOrder() {
+        // segment B is the child of span A_1, segment C is a fragment without parent
+        final List<Span> spans = Arrays.asList(
+            span("B", 0, "A", 1, 120),
+            span("A", 2, "A", 0, 150),
+            span("C", 0, "X", 3, 50),
+            span("A", 1, "A", 0, 110),
+            span("B", 1, "B", 0, 130),
+            span("A", 0, "A", -1, 100)
+        );
+
+        final List<Span> sorted = SpanTreeBuilder.sortInTreeOrder(spans);
+
+        Assert.assertEquals(
+            Arrays.asList("C_0", "A_0", "A_2", "A_1", "B_0", "B_1"),
+            sorted.stream().map(Span::getSegmentSpanId).collect(Collectors.toList())
+        );
+        Assert.assertEquals(
+            Arrays.asList(true, true, false, false, false, false),
+            sorted.stream().map(Span::isRoot).collect(Collectors.toList())
+        );
+    }
+
+    static Span span(String segmentId, int spanId, String parentSegmentId, int parentSpanId, long startTime) {
+        Span span = new Span();
+        span.setSegmentId(segmentId);
+        span.setSpanId(spanId);
+        span.setSegmentSpanId(segmentId + "_" + spanId);
+        span.setSegmentParentSpanId(parentSegmentId + "_" + parentSpanId);
+        span.setStartTime(startTime);
+        return span;
+    }
+}
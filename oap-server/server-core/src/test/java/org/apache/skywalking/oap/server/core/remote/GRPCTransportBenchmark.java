@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.remote;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.netty.channel.ChannelOption;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.Empty;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteMessage;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteServiceGrpc;
+import org.apache.skywalking.oap.server.library.server.grpc.NettyEventLoops;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare the ingest throughput of the segment sized messages through the gRPC stream, between the default NIO
+ * transport of the gRPC and the shared {@link NettyEventLoops}, which is the native epoll transport on Linux.
+ */
+@BenchmarkMode({Mode.Throughput})
+@State(Scope.Benchmark)
+public class GRPCTransportBenchmark {
+    private static final int MESSAGES_PER_STREAM = 100;
+
+    @Param({"default", "shared"})
+    private String transport;
+
+    @Param({"4096", "65536"})
+    private int messageSize;
+
+    private NettyEventLoops eventLoops;
+    private ExecutorService executor;
+    private Server server;
+    private ManagedChannel channel;
+    private RemoteServiceGrpc.RemoteServiceStub stub;
+    private RemoteMessage message;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        NettyServerBuilder serverBuilder = NettyServerBuilder.forAddress(new InetSocketAddress("127.0.0.1", 0))
+                                                             .executor(executor)
+                                                             .addService(new ReceiverService());
+        if ("shared".equals(transport)) {
+            eventLoops = new NettyEventLoops("benchmark", 0);
+            serverBuilder.bossEventLoopGroup(eventLoops.getBossGroup())
+                         .workerEventLoopGroup(eventLoops.getWorkerGroup())
+                         .channelType(eventLoops.getServerChannelType())
+                         .withChildOption(ChannelOption.ALLOCATOR, eventLoops.getAllocator());
+        }
+        server = serverBuilder.build().start();
+
+        NettyChannelBuilder channelBuilder = NettyChannelBuilder.forAddress("127.0.0.1", server.getPort())
+                                                                .usePlaintext();
+        if (eventLoops != null) {
+            channelBuilder.eventLoopGroup(eventLoops.getWorkerGroup())
+                          .channelType(eventLoops.getChannelType())
+                          .withOption(ChannelOption.ALLOCATOR, eventLoops.getAllocator());
+        }
+        channel = channelBuilder.build();
+        stub = RemoteServiceGrpc.newStub(channel);
+
+        StringBuilder payload = new StringBuilder(messageSize);
+        for (int i = 0; i < messageSize; i++) {
+            payload.append((char) ('a' + i % 26));
+        }
+        message = RemoteMessage.newBuilder()
+                               .setNextWorkerName("benchmark")
+                               .setRemoteData(RemoteData.newBuilder().addDataStrings(payload.toString()))
+                               .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(10, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(10, TimeUnit.SECONDS);
+        executor.shutdownNow();
+        if (eventLoops != null) {
+            eventLoops.shutdown();
+        }
+    }
+
+    @Benchmark
+    public void ingest() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        StreamObserver<RemoteMessage> observer = stub.call(new StreamObserver<Empty>() {
+            @Override
+            public void onNext(Empty empty) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                latch.countDown();
+            }
+
+            @Override
+            public void onCompleted() {
+                latch.countDown();
+            }
+        });
+        for (int i = 0; i < MESSAGES_PER_STREAM; i++) {
+            observer.onNext(message);
+        }
+        observer.onCompleted();
+        latch.await();
+    }
+
+    private static class ReceiverService extends RemoteServiceGrpc.RemoteServiceImplBase {
+        @Override
+        public StreamObserver<RemoteMessage> call(StreamObserver<Empty> responseObserver) {
+            return new StreamObserver<RemoteMessage>() {
+                @Override
+                public void onNext(RemoteMessage message) {
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                }
+
+                @Override
+                public void onCompleted() {
+                    responseObserver.onNext(Empty.getDefaultInstance());
+                    responseObserver.onCompleted();
+                }
+            };
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(GRPCTransportBenchmark.class.getName())
+                                          .jvmArgsAppend("-Xmx512m", "-Xms512m")
+                                          .forks(1)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.remote.data;
+
+import org.apache.skywalking.oap.server.core.analysis.metrics.DataTable;
+import org.apache.skywalking.oap.server.core.analysis.metrics.IntList;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare the throughput of the string and binary encoding of the percentile like metrics, which carry a dataset of
+ * buckets and a rank list. The bytes on wire of both encodings are printed before running the benchmark.
+ */
+@BenchmarkMode({Mode.Throughput})
+@State(Scope.Thread)
+public class ComplexObjectEncodingBenchmark {
+
+    @Param({"20", "200"})
+    private int buckets;
+
+    private DataTable dataset;
+    private IntList ranks;
+    private RemoteData stringData;
+    private RemoteData binaryData;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        dataset = newDataset(buckets);
+        ranks = newRanks();
+        stringData = encode(ComplexObjectEncoding.STRING);
+        binaryData = encode(ComplexObjectEncoding.BINARY);
+    }
+
+    @Benchmark
+    public RemoteData encodeString() {
+        return encode(ComplexObjectEncoding.STRING);
+    }
+
+    @Benchmark
+    public RemoteData encodeBinary() {
+        return encode(ComplexObjectEncoding.BINARY);
+    }
+
+    @Benchmark
+    public DataTable decodeString() {
+        return ComplexObjectEncoding.read(stringData, 0, new DataTable());
+    }
+
+    @Benchmark
+    public DataTable decodeBinary() {
+        return ComplexObjectEncoding.read(binaryData, 0, new DataTable());
+    }
+
+    private RemoteData encode(int version) {
+        ComplexObjectEncoding.setVersion(version);
+        RemoteData.Builder builder = RemoteData.newBuilder();
+        ComplexObjectEncoding.write(builder, dataset);
+        ComplexObjectEncoding.write(builder, ranks);
+        return builder.build();
+    }
+
+    private static DataTable newDataset(int buckets) {
+        DataTable dataTable = new DataTable(buckets);
+        for (int i = 0; i < buckets; i++) {
+            dataTable.put(String.valueOf(i), (long) (i * 37 % 1000));
+        }
+        return dataTable;
+    }
+
+    private static IntList newRanks() {
+        IntList ranks = new IntList(5);
+        ranks.add(50);
+        ranks.add(75);
+        ranks.add(90);
+        ranks.add(95);
+        ranks.add(99);
+        return ranks;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int buckets : new int[] {20, 200}) {
+            ComplexObjectEncodingBenchmark benchmark = new ComplexObjectEncodingBenchmark();
+            benchmark.buckets = buckets;
+            benchmark.setup();
+            System.out.printf(
+                "buckets: %d, string encoding: %d bytes, binary encoding: %d bytes%n", buckets,
+                benchmark.stringData.getSerializedSize(), benchmark.binaryData.getSerializedSize()
+            );
+        }
+
+        Options opt = new OptionsBuilder().include(ComplexObjectEncodingBenchmark.class.getName())
+                                          .addProfiler(GCProfiler.class)
+                                          .jvmArgsAppend("-Xmx512m", "-Xms512m")
+                                          .forks(1)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
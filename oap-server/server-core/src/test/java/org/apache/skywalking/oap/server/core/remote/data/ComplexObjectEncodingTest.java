@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.remote.data;
+
+import org.apache.skywalking.oap.server.core.analysis.metrics.DataTable;
+import org.apache.skywalking.oap.server.core.analysis.metrics.IntList;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ComplexObjectEncodingTest {
+
+    @After
+    public void reset() {
+        ComplexObjectEncoding.setVersion(ComplexObjectEncoding.STRING);
+    }
+
+    @Test
+    public void testStringEncoding() {
+        RemoteData remoteData = serialize();
+
+        Assert.assertEquals(ComplexObjectEncoding.STRING, remoteData.getObjectEncodingVersion());
+        Assert.assertEquals(2, remoteData.getDataObjectStringsCount());
+        Assert.assertEquals(0, remoteData.getDataObjectBytesCount());
+        assertDeserialized(remoteData);
+    }
+
+    @Test
+    public void testBinaryEncoding() {
+        ComplexObjectEncoding.setVersion(ComplexObjectEncoding.BINARY);
+        RemoteData remoteData = serialize();
+
+        Assert.assertEquals(ComplexObjectEncoding.BINARY, remoteData.getObjectEncodingVersion());
+        Assert.assertEquals(0, remoteData.getDataObjectStringsCount());
+        Assert.assertEquals(2, remoteData.getDataObjectBytesCount());
+        assertDeserialized(remoteData);
+    }
+
+    @Test
+    public void testReadFollowsTheMessageVersion() {
+        RemoteData remoteData = serialize();
+
+        ComplexObjectEncoding.setVersion(ComplexObjectEncoding.BINARY);
+        assertDeserialized(remoteData);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedVersion() {
+        ComplexObjectEncoding.setVersion(2);
+    }
+
+    private RemoteData serialize() {
+        DataTable dataTable = new DataTable();
+        dataTable.put("0", 10L);
+        dataTable.put("100", 20L);
+        dataTable.put("label", 30L);
+
+        IntList intList = new IntList();
+        intList.add(50);
+        intList.add(99);
+
+        RemoteData.Builder builder = RemoteData.newBuilder();
+        ComplexObjectEncoding.write(builder, dataTable);
+        ComplexObjectEncoding.write(builder, intList);
+        return builder.build();
+    }
+
+    private void assertDeserialized(RemoteData remoteData) {
+        DataTable dataTable = ComplexObjectEncoding.read(remoteData, 0, new DataTable());
+        Assert.assertEquals(3, dataTable.size());
+        Assert.assertEquals(10L, dataTable.get("0").longValue());
+        Assert.assertEquals(20L, dataTable.get("100").longValue());
+        Assert.assertEquals(30L, dataTable.get("label").longValue());
+
+        IntList intList = ComplexObjectEncoding.read(remoteData, 1, new IntList());
+        Assert.assertEquals(2, intList.size());
+        Assert.assertEquals(50, intList.get(0));
+        Assert.assertEquals(99, intList.get(1));
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.storage.ttl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.cluster.RemoteInstance;
+import org.apache.skywalking.oap.server.core.remote.client.Address;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DataTTLKeeperTimerTest {
+
+    @Test
+    public void testAllModelsAssignedWithoutCluster() {
+        Assert.assertTrue(DataTTLKeeperTimer.isAssigned(model("service_cpm"), Collections.emptyList()));
+    }
+
+    @Test
+    public void testNoModelAssignedOutOfCluster() {
+        List<RemoteInstance> instances = instances(-1);
+        for (int i = 0; i < 20; i++) {
+            Assert.assertFalse(DataTTLKeeperTimer.isAssigned(model("metrics_" + i), instances));
+        }
+    }
+
+    @Test
+    public void testEveryModelAssignedToOneNode() {
+        for (int i = 0; i < 20; i++) {
+            Model model = model("metrics_" + i);
+            int assignedNodes = 0;
+            for (int self = 0; self < 3; self++) {
+                if (DataTTLKeeperTimer.isAssigned(model, instances(self))) {
+                    assignedNodes++;
+                }
+            }
+            Assert.assertEquals(1, assignedNodes);
+        }
+    }
+
+    private static Model model(String name) {
+        return new Model(
+            name, new ArrayList<>(), new ArrayList<>(), 0, DownSampling.Minute, false, false, "");
+    }
+
+    /**
+     * @return 3 instances in the random order, the instance at the index of self is the current node.
+     */
+    private static List<RemoteInstance> instances(int self) {
+        List<RemoteInstance> instances = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            instances.add(new RemoteInstance(new Address("10.0.0." + i, 11800, i == self)));
+        }
+        Collections.shuffle(instances);
+        return instances;
+    }
+}
@@ -21,6 +21,10 @@ package org.apache.skywalking.oap.server.library.client.grpc;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
 import io.grpc.netty.NettyChannelBuilder;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
 import io.netty.handler.ssl.SslContext;
 import lombok.Getter;
 import org.apache.skywalking.oap.server.library.client.Client;
@@ -41,6 +45,12 @@ public class GRPCClient implements Client {
 
     private ManagedChannel channel;
 
+    private EventLoopGroup eventLoopGroup;
+
+    private Class<? extends Channel> channelType;
+
+    private ByteBufAllocator allocator;
+
     public GRPCClient(String host, int port) {
         this.host = host;
         this.port = port;
@@ -51,8 +61,33 @@ public class GRPCClient implements Client {
         this.sslContext = sslContext;
     }
 
+    /**
+     * Use the given event loop group and transport rather than the default ones of the gRPC, so the channels of many
+     * peers share the same threads. It should be set before {@link #connect()}.
+     */
+    public void setEventLoopGroup(EventLoopGroup eventLoopGroup,
+                                  Class<? extends Channel> channelType,
+                                  ByteBufAllocator allocator) {
+        this.eventLoopGroup = eventLoopGroup;
+        this.channelType = channelType;
+        this.allocator = allocator;
+    }
+
     @Override
     public void connect() {
+        if (eventLoopGroup != null) {
+            NettyChannelBuilder builder = NettyChannelBuilder.forAddress(host, port)
+                                                             .eventLoopGroup(eventLoopGroup)
+                                                             .channelType(channelType)
+                                                             .withOption(ChannelOption.ALLOCATOR, allocator);
+            if (sslContext == null) {
+                builder.usePlaintext();
+            } else {
+                builder.sslContext(sslContext);
+            }
+            channel = builder.build();
+            return;
+        }
         if (sslContext == null) {
             channel = ManagedChannelBuilder.forAddress(host, port).usePlaintext().build();
             return;
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.library.server.grpc;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * AdaptiveConcurrencyLimiter limits the concurrent calls of the gRPC server in the AIMD way. The limit is adjusted once
+ * per window:
+ * <pre>
+ * - decreases by {@link #BACKOFF_RATIO} when the server reports overloaded, such as the queue of the executor is
+ *   filling or the persistence falls behind, or the average processing latency of any gRPC method is beyond
+ *   {@link #LATENCY_TOLERANCE} times of its no-load latency, which means the calls are blocked by the downstream.
+ * - increases by one when the calls are healthy and the in-flight calls have reached most of the limit.
+ * </pre>
+ * Every gRPC service could take at most {@link #serviceQuota} of the limit, so one kind of the traffic can't starve the
+ * others. The latency is tracked per gRPC method, as the methods cost differently, and the mix of them changes.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double LATENCY_TOLERANCE = 2.0;
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    public enum Admission {
+        ADMITTED, OVER_LIMIT, OVER_SERVICE_QUOTA
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double serviceQuota;
+    private final BooleanSupplier overloaded;
+
+    private volatile int limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<String, AtomicInteger> inFlightOfServices = new ConcurrentHashMap<>();
+
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final Map<String, MethodLatency> latencyOfMethods = new ConcurrentHashMap<>();
+
+    /**
+     * @param minLimit     the limit never goes below.
+     * @param maxLimit     the limit never goes above, also the initial limit.
+     * @param serviceQuota the ratio of the limit could be taken by one gRPC service, in (0, 1].
+     * @param overloaded   reports whether the server is overloaded.
+     */
+    public AdaptiveConcurrencyLimiter(int minLimit, int maxLimit, double serviceQuota, BooleanSupplier overloaded) {
+        if (minLimit <= 0 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Illegal limits, min: " + minLimit + ", max: " + maxLimit);
+        }
+        if (serviceQuota <= 0 || serviceQuota > 1) {
+            throw new IllegalArgumentException("Service quota should be in (0, 1], but it is " + serviceQuota);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.serviceQuota = serviceQuota;
+        this.overloaded = overloaded;
+        this.limit = maxLimit;
+    }
+
+    /**
+     * Try to admit a call of the given gRPC service, {@link #release(String)} must be called when the admitted call
+     * finished.
+     */
+    public Admission tryAcquire(String service) {
+        maybeAdjust();
+
+        final int current = inFlight.incrementAndGet();
+        if (current > limit) {
+            inFlight.decrementAndGet();
+            return Admission.OVER_LIMIT;
+        }
+        final AtomicInteger inFlightOfService = inFlightOfServices.computeIfAbsent(service, s -> new AtomicInteger());
+        if (inFlightOfService.incrementAndGet() > Math.max(1, (int) (limit * serviceQuota))) {
+            inFlightOfService.decrementAndGet();
+            inFlight.decrementAndGet();
+            return Admission.OVER_SERVICE_QUOTA;
+        }
+        peakInFlight.accumulateAndGet(current, Math::max);
+        return Admission.ADMITTED;
+    }
+
+    public void release(String service) {
+        inFlightOfServices.get(service).decrementAndGet();
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Record the processing latency of a message of the given gRPC method.
+     */
+    public void onLatency(String method, long latencyNanos) {
+        final MethodLatency latency = latencyOfMethods.computeIfAbsent(method, m -> new MethodLatency());
+        latency.sum.add(latencyNanos);
+        latency.count.increment();
+        maybeAdjust();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void maybeAdjust() {
+        final long now = System.nanoTime();
+        final long start = windowStart.get();
+        if (now - start < WINDOW_NANOS || !windowStart.compareAndSet(start, now)) {
+            return;
+        }
+        final int peak = peakInFlight.getAndSet(inFlight.get());
+
+        boolean blocked = false;
+        for (final MethodLatency latency : latencyOfMethods.values()) {
+            blocked |= latency.isBlocked();
+        }
+        if (blocked || overloaded.getAsBoolean()) {
+            decrease();
+        } else if (peak * 10 >= limit * 8) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    private void decrease() {
+        limit = Math.max(minLimit, (int) (limit * BACKOFF_RATIO));
+    }
+
+    private static class MethodLatency {
+        private final LongAdder sum = new LongAdder();
+        private final LongAdder count = new LongAdder();
+        /**
+         * The lowest average latency observed, it is raised slowly to follow the permanent changes of the downstream.
+         */
+        private volatile long noLoadLatency = Long.MAX_VALUE;
+
+        /**
+         * @return true if the average latency of the last window is beyond the tolerance of the no-load latency.
+         */
+        private boolean isBlocked() {
+            final long windowCount = count.sumThenReset();
+            final long windowSum = sum.sumThenReset();
+            if (windowCount == 0) {
+                return false;
+            }
+            final long average = windowSum / windowCount;
+            if (average < noLoadLatency) {
+                noLoadLatency = average;
+            } else {
+                noLoadLatency += (average - noLoadLatency) / 100;
+            }
+            return average > noLoadLatency * LATENCY_TOLERANCE;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.library.server.grpc;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * AdmissionControlInterceptor rejects the gRPC calls beyond the {@link AdaptiveConcurrencyLimiter} at the beginning,
+ * with the retryable {@link Status#UNAVAILABLE}, rather than letting them wait in the executor and time out randomly.
+ * The processing latency of the admitted calls is fed back to the limiter. The calls of the exempted gRPC services, such
+ * as the internal calls between the OAP nodes, are never limited nor measured.
+ */
+public class AdmissionControlInterceptor implements ServerInterceptor {
+    /**
+     * The trailer of the rejected calls, carrying the rejection reason. The agent keeps its channel when it sees this
+     * trailer, rather than treating the {@link Status#UNAVAILABLE} as a network error and reconnecting.
+     */
+    public static final Metadata.Key<String> REJECTED_TRAILER = Metadata.Key.of(
+        "sw-admission-rejected", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final RejectionListener rejectionListener;
+    private final Set<String> exemptServices;
+
+    public AdmissionControlInterceptor(AdaptiveConcurrencyLimiter limiter, RejectionListener rejectionListener,
+                                       Set<String> exemptServices) {
+        this.limiter = limiter;
+        this.rejectionListener = rejectionListener;
+        this.exemptServices = exemptServices;
+    }
+
+    @Override
+    public <REQUEST, RESPONSE> ServerCall.Listener<REQUEST> interceptCall(ServerCall<REQUEST, RESPONSE> call,
+                                                                 Metadata headers,
+                                                                 ServerCallHandler<REQUEST, RESPONSE> next) {
+        final String service = call.getMethodDescriptor().getServiceName();
+        if (exemptServices.contains(service)) {
+            return next.startCall(call, headers);
+        }
+        final String method = call.getMethodDescriptor().getFullMethodName();
+        final AdaptiveConcurrencyLimiter.Admission admission = limiter.tryAcquire(service);
+        if (admission != AdaptiveConcurrencyLimiter.Admission.ADMITTED) {
+            rejectionListener.onRejected(service, admission);
+            final Metadata trailers = new Metadata();
+            trailers.put(REJECTED_TRAILER, admission.name());
+            call.close(Status.UNAVAILABLE.withDescription("Server is overloaded, " + admission + ", retry later."),
+                       trailers
+            );
+            return new ServerCall.Listener<REQUEST>() {
+            };
+        }
+
+        final AtomicBoolean released = new AtomicBoolean(false);
+        final Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(service);
+            }
+        };
+        final ServerCall.Listener<REQUEST> delegate;
+        try {
+            delegate = next.startCall(new ForwardingServerCall.SimpleForwardingServerCall<REQUEST, RESPONSE>(call) {
+                @Override
+                public void close(Status status, Metadata trailers) {
+                    release.run();
+                    super.close(status, trailers);
+                }
+            }, headers);
+        } catch (RuntimeException e) {
+            release.run();
+            throw e;
+        }
+
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<REQUEST>(delegate) {
+            @Override
+            public void onMessage(REQUEST message) {
+                final long start = System.nanoTime();
+                try {
+                    super.onMessage(message);
+                } finally {
+                    limiter.onLatency(method, System.nanoTime() - start);
+                }
+            }
+
+            /**
+             * The unary calls are processed when the client half closed.
+             */
+            @Override
+            public void onHalfClose() {
+                final long start = System.nanoTime();
+                try {
+                    super.onHalfClose();
+                } finally {
+                    limiter.onLatency(method, System.nanoTime() - start);
+                }
+            }
+
+            @Override
+            public void onCancel() {
+                try {
+                    super.onCancel();
+                } finally {
+                    release.run();
+                }
+            }
+        };
+    }
+
+    /**
+     * Listens the rejected calls, such as exporting them as the telemetry.
+     */
+    public interface RejectionListener {
+        void onRejected(String service, AdaptiveConcurrencyLimiter.Admission reason);
+    }
+}
@@ -23,15 +23,19 @@ import io.grpc.BindableService;
 import io.grpc.ServerInterceptor;
 import io.grpc.ServerServiceDefinition;
 import io.grpc.netty.NettyServerBuilder;
+import io.netty.channel.ChannelOption;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.oap.server.library.server.Server;
 import org.apache.skywalking.oap.server.library.server.ServerException;
@@ -52,6 +56,8 @@ public class GRPCServer implements Server {
     private DynamicSslContext sslContext;
     private int threadPoolSize = Runtime.getRuntime().availableProcessors() * 4;
     private int threadPoolQueueSize = 10000;
+    private AdmissionControl admissionControl;
+    private NettyEventLoops eventLoops;
 
     public GRPCServer(String host, int port) {
         this.host = host;
@@ -76,6 +82,32 @@ public class GRPCServer implements Server {
         this.threadPoolQueueSize = threadPoolQueueSize;
     }
 
+    /**
+     * Share the event loops with the other gRPC servers and clients. The server creates its own event loops if it isn't
+     * set before {@link #initialize()}.
+     */
+    public void setEventLoops(NettyEventLoops eventLoops) {
+        this.eventLoops = eventLoops;
+    }
+
+    /**
+     * Limit the concurrent calls adaptively, reject the calls beyond the limit before they are queued in the executor.
+     * It should be set before {@link #initialize()}.
+     *
+     * @param minLimit          the minimal concurrency limit.
+     * @param maxLimit          the maximal and initial concurrency limit.
+     * @param serviceQuota      the ratio of the limit could be taken by one gRPC service.
+     * @param overloaded        reports whether the downstream of the server is overloaded.
+     * @param rejectionListener listens the rejected calls.
+     * @param exemptServices    the gRPC services never limited, such as the internal calls between the OAP nodes.
+     */
+    public void setAdmissionControl(int minLimit, int maxLimit, double serviceQuota, BooleanSupplier overloaded,
+                                    AdmissionControlInterceptor.RejectionListener rejectionListener,
+                                    Set<String> exemptServices) {
+        this.admissionControl = new AdmissionControl(
+            minLimit, maxLimit, serviceQuota, overloaded, rejectionListener, exemptServices);
+    }
+
     /**
      * Require for `server.crt` and `server.pem` for open ssl at server side.
      *
@@ -106,14 +138,30 @@ public class GRPCServer implements Server {
             threadPoolSize, threadPoolSize, 60, TimeUnit.SECONDS, blockingQueue,
             new CustomThreadFactory("grpcServerPool"), new CustomRejectedExecutionHandler()
         );
+        if (eventLoops == null) {
+            eventLoops = new NettyEventLoops("grpcServer", 0);
+        }
         nettyServerBuilder = NettyServerBuilder.forAddress(address);
         nettyServerBuilder = nettyServerBuilder.maxConcurrentCallsPerConnection(maxConcurrentCallsPerConnection)
                                                .maxInboundMessageSize(maxMessageSize)
-                                               .executor(executor);
+                                               .executor(executor)
+                                               .bossEventLoopGroup(eventLoops.getBossGroup())
+                                               .workerEventLoopGroup(eventLoops.getWorkerGroup())
+                                               .channelType(eventLoops.getServerChannelType())
+                                               .withChildOption(ChannelOption.ALLOCATOR, eventLoops.getAllocator());
         if (!Strings.isNullOrEmpty(privateKeyFile) && !Strings.isNullOrEmpty(certChainFile)) {
             sslContext = DynamicSslContext.forServer(privateKeyFile, certChainFile);
             nettyServerBuilder.sslContext(sslContext);
         }
+        if (admissionControl != null) {
+            final BooleanSupplier overloaded = admissionControl.overloaded;
+            final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                admissionControl.minLimit, admissionControl.maxLimit, admissionControl.serviceQuota,
+                () -> blockingQueue.size() > threadPoolQueueSize / 2 || overloaded.getAsBoolean()
+            );
+            addHandler(new AdmissionControlInterceptor(
+                limiter, admissionControl.rejectionListener, admissionControl.exemptServices));
+        }
         log.info("Server started, host {} listening on {}", host, port);
     }
 
@@ -125,6 +173,16 @@ public class GRPCServer implements Server {
         }
     }
 
+    @RequiredArgsConstructor
+    private static class AdmissionControl {
+        private final int minLimit;
+        private final int maxLimit;
+        private final double serviceQuota;
+        private final BooleanSupplier overloaded;
+        private final AdmissionControlInterceptor.RejectionListener rejectionListener;
+        private final Set<String> exemptServices;
+    }
+
     @Override
     public void start() throws ServerException {
         try {
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.library.server.grpc;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * NettyEventLoops holds the event loop groups, the transport and the buffer allocator shared by the gRPC server and
+ * clients, so the OAP node doesn't create the threads per peer in a large cluster. The native epoll transport is used
+ * when it is available, otherwise, fall back to NIO.
+ */
+@Slf4j
+@Getter
+public class NettyEventLoops {
+    private final EventLoopGroup bossGroup;
+    private final EventLoopGroup workerGroup;
+    private final Class<? extends ServerChannel> serverChannelType;
+    private final Class<? extends Channel> channelType;
+    /**
+     * The direct arenas are as many as the worker threads, which avoids the contention of allocating the buffers of the
+     * large messages, such as the segments. No heap arena, as the gRPC transport only uses the direct buffers.
+     */
+    private final ByteBufAllocator allocator;
+
+    /**
+     * @param name          the prefix of the thread names.
+     * @param workerThreads the size of the worker group, 0 means the Netty default, CPU core * 2.
+     */
+    public NettyEventLoops(String name, int workerThreads) {
+        final int workers = workerThreads > 0 ? workerThreads : Runtime.getRuntime().availableProcessors() * 2;
+        if (isEpollAvailable()) {
+            bossGroup = new EpollEventLoopGroup(1, new DefaultThreadFactory(name + "-boss", true));
+            workerGroup = new EpollEventLoopGroup(workers, new DefaultThreadFactory(name + "-worker", true));
+            serverChannelType = EpollServerSocketChannel.class;
+            channelType = EpollSocketChannel.class;
+        } else {
+            bossGroup = new NioEventLoopGroup(1, new DefaultThreadFactory(name + "-boss", true));
+            workerGroup = new NioEventLoopGroup(workers, new DefaultThreadFactory(name + "-worker", true));
+            serverChannelType = NioServerSocketChannel.class;
+            channelType = NioSocketChannel.class;
+        }
+        allocator = new PooledByteBufAllocator(
+            true, 0, workers, PooledByteBufAllocator.defaultPageSize(), PooledByteBufAllocator.defaultMaxOrder());
+        log.info("Netty event loops {} use {} transport with {} worker threads",
+                 name, isEpoll() ? "epoll" : "nio", workers
+        );
+    }
+
+    private static boolean isEpollAvailable() {
+        try {
+            return Epoll.isAvailable();
+        } catch (NoClassDefFoundError e) {
+            // The native transport isn't shipped on this platform.
+            return false;
+        }
+    }
+
+    public boolean isEpoll() {
+        return serverChannelType == EpollServerSocketChannel.class;
+    }
+
+    public void shutdown() {
+        bossGroup.shutdownGracefully();
+        workerGroup.shutdownGracefully();
+    }
+}
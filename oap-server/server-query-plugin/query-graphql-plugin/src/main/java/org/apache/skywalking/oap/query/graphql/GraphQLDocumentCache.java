@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.query.graphql;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import java.util.function.Function;
+
+/**
+ * GraphQLDocumentCache caches the parsed and validated documents of the GraphQL queries. The UI sends a fixed set of
+ * queries with different variables, which don't have to be parsed and validated again.
+ */
+public class GraphQLDocumentCache implements PreparsedDocumentProvider {
+    private final Cache<String, PreparsedDocumentEntry> cache;
+
+    public GraphQLDocumentCache(long maxSize) {
+        this.cache = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+    }
+
+    @Override
+    public PreparsedDocumentEntry get(String query, Function<String, PreparsedDocumentEntry> compute) {
+        PreparsedDocumentEntry entry = cache.getIfPresent(query);
+        if (entry == null) {
+            entry = compute.apply(query);
+            // the invalid queries are not cached, they should be rare and not worth the space.
+            if (!entry.hasErrors()) {
+                cache.put(query, entry);
+            }
+        }
+        return entry;
+    }
+}
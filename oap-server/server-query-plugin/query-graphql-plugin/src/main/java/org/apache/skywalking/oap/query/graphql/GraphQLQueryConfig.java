@@ -30,4 +30,16 @@ import org.apache.skywalking.oap.server.library.module.ModuleConfig;
 @Setter
 public class GraphQLQueryConfig extends ModuleConfig {
     private String path;
+    /**
+     * The max number of the parsed GraphQL documents cached, 0 means disabled.
+     *
+     * @since 8.6.0
+     */
+    private long maxSizeOfDocumentCache = 1000;
+    /**
+     * Compress the response in gzip, when the client accepts it.
+     *
+     * @since 8.6.0
+     */
+    private boolean enableResponseCompression = false;
 }
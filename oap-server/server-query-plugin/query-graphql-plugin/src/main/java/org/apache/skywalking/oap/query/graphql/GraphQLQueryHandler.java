@@ -19,29 +19,46 @@
 package org.apache.skywalking.oap.query.graphql;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
+import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
 import graphql.ExecutionInput;
 import graphql.ExecutionResult;
 import graphql.GraphQL;
 import graphql.GraphQLError;
-import java.io.BufferedReader;
+import graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentation;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.schema.GraphQLSchema;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.apache.skywalking.oap.server.library.server.jetty.JettyJsonHandler;
+import org.apache.skywalking.oap.server.library.server.jetty.JettyHandler;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
+import org.dataloader.DataLoaderRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * GraphQLQueryHandler reads the request from the input stream, and writes the execution result to the output stream
+ * directly, without building the intermediate JSON tree of the response.
+ */
 @RequiredArgsConstructor
-public class GraphQLQueryHandler extends JettyJsonHandler {
+public class GraphQLQueryHandler extends JettyHandler {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GraphQLQueryHandler.class);
 
@@ -50,14 +67,30 @@ public class GraphQLQueryHandler extends JettyJsonHandler {
     private static final String DATA = "data";
     private static final String ERRORS = "errors";
     private static final String MESSAGE = "message";
+    private static final String GZIP = "gzip";
 
-    private final Gson gson = new Gson();
+    /**
+     * The HTML characters are not escaped, keep the same as the JSON tree printed before.
+     */
+    private final Gson gson = new GsonBuilder().disableHtmlEscaping().create();
     private final Type mapOfStringObjectType = new TypeToken<Map<String, Object>>() {
     }.getType();
 
     private final String path;
 
-    private final GraphQL graphQL;
+    private final GraphQLSchema schema;
+
+    /**
+     * Creates the data loaders of a request, the loaders batch and cache the queries in the scope of one request.
+     */
+    private final Supplier<DataLoaderRegistry> dataLoaderRegistrySupplier;
+
+    private final PreparsedDocumentProvider documentProvider;
+
+    /**
+     * Compress the response when the client accepts gzip encoding.
+     */
+    private final boolean enableResponseCompression;
 
     @Override
     public String pathSpec() {
@@ -65,59 +98,76 @@ public class GraphQLQueryHandler extends JettyJsonHandler {
     }
 
     @Override
-    protected JsonElement doGet(HttpServletRequest req) {
-        throw new UnsupportedOperationException("GraphQL only supports POST method");
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        resp.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED, "GraphQL only supports POST method");
     }
 
     @Override
-    protected JsonElement doPost(HttpServletRequest req) throws IOException {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(req.getInputStream()));
-        String line;
-        StringBuilder request = new StringBuilder();
-        while ((line = reader.readLine()) != null) {
-            request.append(line);
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        final JsonObject requestJson;
+        try (Reader reader = new InputStreamReader(req.getInputStream(), StandardCharsets.UTF_8)) {
+            requestJson = gson.fromJson(reader, JsonObject.class);
+        } catch (RuntimeException e) {
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        if (requestJson == null || !requestJson.has(QUERY)) {
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST, "GraphQL query is required");
+            return;
         }
 
-        JsonObject requestJson = gson.fromJson(request.toString(), JsonObject.class);
+        final Map<String, Object> result = execute(
+            requestJson.get(QUERY).getAsString(), gson.fromJson(requestJson.get(VARIABLES), mapOfStringObjectType));
+
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("utf-8");
+        resp.setStatus(HttpServletResponse.SC_OK);
+        OutputStream out = resp.getOutputStream();
+        if (enableResponseCompression && acceptGzip(req)) {
+            resp.setHeader("Content-Encoding", GZIP);
+            out = new GZIPOutputStream(out);
+        }
+        try (JsonWriter writer = new JsonWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            gson.toJson(result, Map.class, writer);
+        }
+    }
 
-        return execute(requestJson.get(QUERY)
-                                  .getAsString(), gson.fromJson(requestJson.get(VARIABLES), mapOfStringObjectType));
+    private static boolean acceptGzip(HttpServletRequest req) {
+        final String acceptEncoding = req.getHeader("Accept-Encoding");
+        return acceptEncoding != null && acceptEncoding.contains(GZIP);
     }
 
-    private JsonObject execute(String request, Map<String, Object> variables) {
+    private Map<String, Object> execute(String request, Map<String, Object> variables) {
+        final Map<String, Object> result = new LinkedHashMap<>();
         try {
+            DataLoaderRegistry dataLoaderRegistry = dataLoaderRegistrySupplier.get();
+            GraphQL graphQL = GraphQL.newGraphQL(schema)
+                                     .instrumentation(new DataLoaderDispatcherInstrumentation(dataLoaderRegistry))
+                                     .preparsedDocumentProvider(documentProvider)
+                                     .build();
             ExecutionInput executionInput = ExecutionInput.newExecutionInput()
                                                           .query(request)
                                                           .variables(variables)
+                                                          .context(dataLoaderRegistry)
                                                           .build();
             ExecutionResult executionResult = graphQL.execute(executionInput);
             LOGGER.debug("Execution result is {}", executionResult);
             Object data = executionResult.getData();
             List<GraphQLError> errors = executionResult.getErrors();
-            JsonObject jsonObject = new JsonObject();
             if (data != null) {
-                jsonObject.add(DATA, gson.fromJson(gson.toJson(data), JsonObject.class));
+                result.put(DATA, data);
             }
 
             if (CollectionUtils.isNotEmpty(errors)) {
-                JsonArray errorArray = new JsonArray();
-                errors.forEach(error -> {
-                    JsonObject errorJson = new JsonObject();
-                    errorJson.addProperty(MESSAGE, error.getMessage());
-                    errorArray.add(errorJson);
-                });
-                jsonObject.add(ERRORS, errorArray);
+                List<Map<String, String>> errorArray = new ArrayList<>(errors.size());
+                errors.forEach(error -> errorArray.add(Collections.singletonMap(MESSAGE, error.getMessage())));
+                result.put(ERRORS, errorArray);
             }
-            return jsonObject;
         } catch (final Throwable e) {
             LOGGER.error(e.getMessage(), e);
-            JsonObject jsonObject = new JsonObject();
-            JsonArray errorArray = new JsonArray();
-            JsonObject errorJson = new JsonObject();
-            errorJson.addProperty(MESSAGE, e.getMessage());
-            errorArray.add(errorJson);
-            jsonObject.add(ERRORS, errorArray);
-            return jsonObject;
+            result.clear();
+            result.put(ERRORS, Collections.singletonList(Collections.singletonMap(MESSAGE, e.getMessage())));
         }
+        return result;
     }
 }
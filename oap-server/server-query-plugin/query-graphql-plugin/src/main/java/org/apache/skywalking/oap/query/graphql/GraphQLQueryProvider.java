@@ -19,7 +19,8 @@
 package org.apache.skywalking.oap.query.graphql;
 
 import com.coxautodev.graphql.tools.SchemaParser;
-import graphql.GraphQL;
+import graphql.execution.preparsed.NoOpPreparsedDocumentProvider;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
 import graphql.schema.GraphQLSchema;
 import org.apache.skywalking.oap.query.graphql.resolver.AggregationQuery;
 import org.apache.skywalking.oap.query.graphql.resolver.AlarmQuery;
@@ -30,6 +31,7 @@ import org.apache.skywalking.oap.query.graphql.resolver.LogQuery;
 import org.apache.skywalking.oap.query.graphql.resolver.MetadataQuery;
 import org.apache.skywalking.oap.query.graphql.resolver.MetricQuery;
 import org.apache.skywalking.oap.query.graphql.resolver.MetricsQuery;
+import org.apache.skywalking.oap.query.graphql.resolver.MetricsValuesLoader;
 import org.apache.skywalking.oap.query.graphql.resolver.Mutation;
 import org.apache.skywalking.oap.query.graphql.resolver.ProfileMutation;
 import org.apache.skywalking.oap.query.graphql.resolver.ProfileQuery;
@@ -46,6 +48,8 @@ import org.apache.skywalking.oap.server.library.module.ModuleDefine;
 import org.apache.skywalking.oap.server.library.module.ModuleProvider;
 import org.apache.skywalking.oap.server.library.module.ModuleStartException;
 import org.apache.skywalking.oap.server.library.module.ServiceNotProvidedException;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
 
 /**
  * GraphQL query provider.
@@ -54,7 +58,9 @@ public class GraphQLQueryProvider extends ModuleProvider {
 
     private final GraphQLQueryConfig config = new GraphQLQueryConfig();
 
-    private GraphQL graphQL;
+    private GraphQLSchema schema;
+
+    private MetricsValuesLoader metricsValuesLoader;
 
     @Override
     public String name() {
@@ -73,7 +79,7 @@ public class GraphQLQueryProvider extends ModuleProvider {
 
     @Override
     public void prepare() throws ServiceNotProvidedException, ModuleStartException {
-        GraphQLSchema schema = SchemaParser.newParser()
+        this.schema = SchemaParser.newParser()
                                            .file("query-protocol/common.graphqls")
                                            .resolvers(new Query(), new Mutation(), new HealthQuery(getManager()))
                                            .file("query-protocol/metadata.graphqls")
@@ -112,7 +118,7 @@ public class GraphQLQueryProvider extends ModuleProvider {
                                            .resolvers(new EventQuery(getManager()))
                                            .build()
                                            .makeExecutableSchema();
-        this.graphQL = GraphQL.newGraphQL(schema).build();
+        this.metricsValuesLoader = new MetricsValuesLoader(getManager());
     }
 
     @Override
@@ -120,7 +126,18 @@ public class GraphQLQueryProvider extends ModuleProvider {
         JettyHandlerRegister service = getManager().find(CoreModule.NAME)
                                                    .provider()
                                                    .getService(JettyHandlerRegister.class);
-        service.addHandler(new GraphQLQueryHandler(config.getPath(), graphQL));
+        PreparsedDocumentProvider documentProvider = config.getMaxSizeOfDocumentCache() > 0
+            ? new GraphQLDocumentCache(config.getMaxSizeOfDocumentCache())
+            : NoOpPreparsedDocumentProvider.INSTANCE;
+        service.addHandler(new GraphQLQueryHandler(
+            config.getPath(), schema, this::createDataLoaderRegistry, documentProvider,
+            config.isEnableResponseCompression()
+        ));
+    }
+
+    private DataLoaderRegistry createDataLoaderRegistry() {
+        return new DataLoaderRegistry().register(
+            MetricsValuesLoader.NAME, DataLoader.newDataLoader(metricsValuesLoader));
     }
 
     @Override
@@ -19,10 +19,12 @@
 package org.apache.skywalking.oap.query.graphql.resolver;
 
 import com.coxautodev.graphql.tools.GraphQLQueryResolver;
+import graphql.schema.DataFetchingEnvironment;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.analysis.metrics.DataTable;
 import org.apache.skywalking.oap.server.core.query.AggregationQueryService;
@@ -40,6 +42,8 @@ import org.apache.skywalking.oap.server.core.query.type.KVInt;
 import org.apache.skywalking.oap.server.core.query.type.MetricsValues;
 import org.apache.skywalking.oap.server.core.query.type.SelectedRecord;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
 
 /**
  * Metrics v2 query protocol implementation.
@@ -121,9 +125,12 @@ public class MetricsQuery implements GraphQLQueryResolver {
     }
 
     /**
-     * Read time-series values in the duration of required metrics
+     * Read time-series values in the duration of required metrics, the queries of one request are read in batch
+     * through the {@link MetricsValuesLoader}.
      */
-    public MetricsValues readMetricsValues(MetricsCondition condition, Duration duration) throws IOException {
+    public CompletableFuture<MetricsValues> readMetricsValues(MetricsCondition condition,
+                                                              Duration duration,
+                                                              DataFetchingEnvironment env) throws IOException {
         if (MetricsType.UNKNOWN.equals(typeOfMetrics(condition.getName())) || !condition.getEntity().isValid()) {
             final List<PointOfTime> pointOfTimes = duration.assembleDurationPoints();
             MetricsValues values = new MetricsValues();
@@ -136,9 +143,15 @@ public class MetricsQuery implements GraphQLQueryResolver {
                 kvInt.setValue(0);
                 values.getValues().addKVInt(kvInt);
             });
-            return values;
+            return CompletableFuture.completedFuture(values);
         }
-        return getMetricsQueryService().readMetricsValues(condition, duration);
+        if (!(env.getContext() instanceof DataLoaderRegistry)) {
+            return CompletableFuture.completedFuture(getMetricsQueryService().readMetricsValues(condition, duration));
+        }
+        final DataLoaderRegistry registry = env.getContext();
+        final DataLoader<MetricsValuesLoader.Key, MetricsValues> loader = registry.getDataLoader(
+            MetricsValuesLoader.NAME);
+        return loader.load(new MetricsValuesLoader.Key(condition, duration));
     }
 
     /**
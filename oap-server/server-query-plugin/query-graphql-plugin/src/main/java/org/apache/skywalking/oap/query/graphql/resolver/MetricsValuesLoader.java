@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.query.graphql.resolver;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.query.MetricsQueryService;
+import org.apache.skywalking.oap.server.core.query.input.Duration;
+import org.apache.skywalking.oap.server.core.query.input.MetricsCondition;
+import org.apache.skywalking.oap.server.core.query.type.MetricsValues;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.dataloader.BatchLoader;
+
+/**
+ * Batch loader of the metrics values, the {@link MetricsQuery#readMetricsValues} queries of one GraphQL request, such
+ * as the widgets of a dashboard, are collected and read through one batched query of {@link MetricsQueryService}.
+ *
+ * @since 8.6.0
+ */
+public class MetricsValuesLoader implements BatchLoader<MetricsValuesLoader.Key, MetricsValues> {
+    public static final String NAME = "metricsValues";
+
+    private final ModuleManager moduleManager;
+    private MetricsQueryService metricsQueryService;
+
+    public MetricsValuesLoader(ModuleManager moduleManager) {
+        this.moduleManager = moduleManager;
+    }
+
+    private MetricsQueryService getMetricsQueryService() {
+        if (metricsQueryService == null) {
+            this.metricsQueryService = moduleManager.find(CoreModule.NAME)
+                                                    .provider()
+                                                    .getService(MetricsQueryService.class);
+        }
+        return metricsQueryService;
+    }
+
+    @Override
+    public CompletionStage<List<MetricsValues>> load(List<Key> keys) {
+        final CompletableFuture<List<MetricsValues>> future = new CompletableFuture<>();
+        try {
+            // the conditions are batched per duration, dashboards use the same duration for all widgets
+            final Map<String, List<Integer>> durationGroups = new LinkedHashMap<>();
+            for (int i = 0; i < keys.size(); i++) {
+                durationGroups.computeIfAbsent(keys.get(i).durationId, k -> new ArrayList<>()).add(i);
+            }
+
+            final MetricsValues[] result = new MetricsValues[keys.size()];
+            for (final List<Integer> group : durationGroups.values()) {
+                final List<MetricsCondition> conditions = new ArrayList<>(group.size());
+                group.forEach(i -> conditions.add(keys.get(i).getCondition()));
+                final List<MetricsValues> values = getMetricsQueryService().readMetricsValues(
+                    conditions, keys.get(group.get(0)).getDuration());
+                for (int i = 0; i < group.size(); i++) {
+                    result[group.get(i)] = values.get(i);
+                }
+            }
+            future.complete(Arrays.asList(result));
+        } catch (IOException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * The key of a metrics values query, two keys are equal when they query the same metrics of the same entity in
+     * the same duration.
+     */
+    @Getter
+    @EqualsAndHashCode(of = {
+        "id",
+        "durationId"
+    })
+    public static class Key {
+        private final MetricsCondition condition;
+        private final Duration duration;
+        private final String id;
+        private final String durationId;
+
+        public Key(MetricsCondition condition, Duration duration) {
+            this.condition = condition;
+            this.duration = duration;
+            this.id = condition.getName() + "|" + condition.getEntity().buildId();
+            this.durationId = duration.getStart() + "|" + duration.getEnd() + "|" + duration.getStep();
+        }
+    }
+}
@@ -21,8 +21,10 @@ package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.query;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.apache.skywalking.oap.server.core.analysis.metrics.DataTable;
 import org.apache.skywalking.oap.server.core.analysis.metrics.HistogramMetrics;
 import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
@@ -52,6 +54,10 @@ import org.elasticsearch.search.aggregations.metrics.sum.Sum;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 
 public class MetricsQueryEsDAO extends EsDAO implements IMetricsQueryDAO {
+    /**
+     * The max ids of one ids query, no more than the default `index.max_result_window` of ElasticSearch.
+     */
+    private static final int MAX_IDS_PER_QUERY = 10000;
 
     public MetricsQueryEsDAO(ElasticSearchClient client) {
         super(client);
@@ -102,8 +108,59 @@ public class MetricsQueryEsDAO extends EsDAO implements IMetricsQueryDAO {
                                            final Duration duration) throws IOException {
         String tableName = IndexController.LogicIndicesRegister.getPhysicalTableName(condition.getName());
         final List<PointOfTime> pointOfTimes = duration.assembleDurationPoints();
-        List<String> ids = new ArrayList<>(pointOfTimes.size());
+        List<String> ids = buildIds(condition, pointOfTimes);
+
+        SearchResponse response = getClient()
+            .ids(tableName, ids.toArray(new String[0]));
+        Map<String, Map<String, Object>> idMap = toMap(response);
+
+        return buildMetricsValues(condition, valueColumnName, ids, idMap);
+    }
+
+    /**
+     * The conditions of the metrics in the same physical index are read by the ids queries, each of which includes
+     * {@link #MAX_IDS_PER_QUERY} ids at most.
+     */
+    @Override
+    public List<MetricsValues> readMetricsValues(final List<MetricsCondition> conditions,
+                                                 final Duration duration) throws IOException {
+        final List<PointOfTime> pointOfTimes = duration.assembleDurationPoints();
+        final Map<String, Set<String>> tableIds = new HashMap<>();
+        final List<List<String>> conditionIds = new ArrayList<>(conditions.size());
+        for (final MetricsCondition condition : conditions) {
+            final List<String> ids = buildIds(condition, pointOfTimes);
+            conditionIds.add(ids);
+            tableIds.computeIfAbsent(
+                IndexController.LogicIndicesRegister.getPhysicalTableName(condition.getName()),
+                table -> new LinkedHashSet<>()
+            ).addAll(ids);
+        }
+
+        // physical index -> id -> source, the same id could exist in different indices
+        final Map<String, Map<String, Map<String, Object>>> tableIdMap = new HashMap<>();
+        for (final Map.Entry<String, Set<String>> entry : tableIds.entrySet()) {
+            final Map<String, Map<String, Object>> idMap = new HashMap<>();
+            final List<String> ids = new ArrayList<>(entry.getValue());
+            for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+                final List<String> chunk = ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size()));
+                idMap.putAll(toMap(getClient().ids(entry.getKey(), chunk.toArray(new String[0]))));
+            }
+            tableIdMap.put(entry.getKey(), idMap);
+        }
+
+        final List<MetricsValues> result = new ArrayList<>(conditions.size());
+        for (int i = 0; i < conditions.size(); i++) {
+            final MetricsCondition condition = conditions.get(i);
+            final Map<String, Map<String, Object>> idMap = tableIdMap.get(
+                IndexController.LogicIndicesRegister.getPhysicalTableName(condition.getName()));
+            result.add(buildMetricsValues(
+                condition, ValueColumnMetadata.INSTANCE.getValueCName(condition.getName()), conditionIds.get(i), idMap));
+        }
+        return result;
+    }
 
+    private List<String> buildIds(final MetricsCondition condition, final List<PointOfTime> pointOfTimes) {
+        List<String> ids = new ArrayList<>(pointOfTimes.size());
         pointOfTimes.forEach(pointOfTime -> {
             String id = pointOfTime.id(condition.getEntity().buildId());
             if (IndexController.LogicIndicesRegister.isMetricTable(condition.getName())) {
@@ -111,11 +168,13 @@ public class MetricsQueryEsDAO extends EsDAO implements IMetricsQueryDAO {
             }
             ids.add(id);
         });
+        return ids;
+    }
 
-        SearchResponse response = getClient()
-            .ids(tableName, ids.toArray(new String[0]));
-        Map<String, Map<String, Object>> idMap = toMap(response);
-
+    private MetricsValues buildMetricsValues(final MetricsCondition condition,
+                                             final String valueColumnName,
+                                             final List<String> ids,
+                                             final Map<String, Map<String, Object>> idMap) {
         MetricsValues metricsValues = new MetricsValues();
         // Label is null, because in readMetricsValues, no label parameter.
         IntValues intValues = metricsValues.getValues();
@@ -20,7 +20,10 @@ package org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao;
 
 import java.io.IOException;
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.skywalking.oap.server.core.storage.IHistoryDeleteDAO;
 import org.apache.skywalking.oap.server.core.storage.model.Model;
 import org.apache.skywalking.oap.server.library.client.jdbc.JDBCClientException;
@@ -28,39 +31,84 @@ import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariC
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLBuilder;
 import org.joda.time.DateTime;
 
+/**
+ * Delete the expired data in chunks of at most {@link #DEFAULT_MAX_ROWS_PER_CHUNK} rows, rather than a single huge
+ * deletion locking the table for a long time. The ids of every chunk are selected by `limit` first, then deleted by
+ * the ids, as `delete ... limit` isn't supported by all JDBC storage, such as PostgreSQL.
+ */
 public class H2HistoryDeleteDAO implements IHistoryDeleteDAO {
+    private static final int DEFAULT_MAX_ROWS_PER_CHUNK = 1000;
 
     private final JDBCHikariCPClient client;
+    private final int maxRowsPerChunk;
 
     public H2HistoryDeleteDAO(JDBCHikariCPClient client) {
+        this(client, DEFAULT_MAX_ROWS_PER_CHUNK);
+    }
+
+    H2HistoryDeleteDAO(JDBCHikariCPClient client, int maxRowsPerChunk) {
         this.client = client;
+        this.maxRowsPerChunk = maxRowsPerChunk;
     }
 
     @Override
     public void deleteHistory(Model model, String timeBucketColumnName, int ttl) throws IOException {
-        SQLBuilder dataDeleteSQL = new SQLBuilder("delete from " + model.getName() + " where ")
-            .append(timeBucketColumnName).append("<= ? ");
+        deleteHistory(model, timeBucketColumnName, ttl, ChunkDeletedListener.NONE);
+    }
+
+    @Override
+    public void deleteHistory(Model model,
+                              String timeBucketColumnName,
+                              int ttl,
+                              ChunkDeletedListener listener) throws IOException {
+        final String pattern;
+        if (model.isRecord()) {
+            pattern = "yyyyMMddHHmmss";
+        } else {
+            switch (model.getDownsampling()) {
+                case Minute:
+                    pattern = "yyyyMMddHHmm";
+                    break;
+                case Hour:
+                    pattern = "yyyyMMddHH";
+                    break;
+                case Day:
+                    pattern = "yyyyMMdd";
+                    break;
+                default:
+                    return;
+            }
+        }
+        final long deadline = Long.parseLong(new DateTime().plusDays(-ttl).toString(pattern));
+
+        SQLBuilder expiredIdsSQL = new SQLBuilder("select " + H2TableInstaller.ID_COLUMN + " from " + model.getName())
+            .append(" where ").append(timeBucketColumnName).append("<= ?")
+            .append(" limit ").append(String.valueOf(maxRowsPerChunk));
 
         try (Connection connection = client.getConnection()) {
-            long deadline;
-            if (model.isRecord()) {
-                deadline = Long.parseLong(new DateTime().plusDays(-ttl).toString("yyyyMMddHHmmss"));
-            } else {
-                switch (model.getDownsampling()) {
-                    case Minute:
-                        deadline = Long.parseLong(new DateTime().plusDays(-ttl).toString("yyyyMMddHHmm"));
-                        break;
-                    case Hour:
-                        deadline = Long.parseLong(new DateTime().plusDays(-ttl).toString("yyyyMMddHH"));
-                        break;
-                    case Day:
-                        deadline = Long.parseLong(new DateTime().plusDays(-ttl).toString("yyyyMMdd"));
-                        break;
-                    default:
-                        return;
+            while (true) {
+                final List<String> ids = new ArrayList<>(maxRowsPerChunk);
+                try (ResultSet resultSet = client.executeQuery(connection, expiredIdsSQL.toString(), deadline)) {
+                    while (resultSet.next()) {
+                        ids.add(resultSet.getString(1));
+                    }
+                }
+                if (ids.isEmpty()) {
+                    return;
+                }
+
+                SQLBuilder dataDeleteSQL = new SQLBuilder("delete from " + model.getName() + " where ")
+                    .append(H2TableInstaller.ID_COLUMN).append(" in (");
+                for (int i = 0; i < ids.size(); i++) {
+                    dataDeleteSQL.append(i == 0 ? "?" : ",?");
+                }
+                dataDeleteSQL.append(")");
+                listener.onChunkDeleted(client.executeUpdate(connection, dataDeleteSQL.toString(), ids.toArray()));
+
+                if (ids.size() < maxRowsPerChunk) {
+                    return;
                 }
             }
-            client.executeUpdate(connection, dataDeleteSQL.toString(), deadline);
         } catch (JDBCClientException | SQLException e) {
             throw new IOException(e.getMessage(), e);
         }
@@ -24,8 +24,10 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.apache.skywalking.oap.server.core.analysis.metrics.DataTable;
 import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
 import org.apache.skywalking.oap.server.core.query.PointOfTime;
@@ -41,6 +43,10 @@ import org.apache.skywalking.oap.server.core.storage.query.IMetricsQueryDAO;
 import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
 
 public class H2MetricsQueryDAO extends H2SQLExecutor implements IMetricsQueryDAO {
+    /**
+     * The max ids of one `in` condition, to keep the statement and its parameters in a reasonable size.
+     */
+    private static final int MAX_IDS_PER_QUERY = 1000;
 
     private JDBCHikariCPClient h2Client;
 
@@ -145,6 +151,70 @@ public class H2MetricsQueryDAO extends H2SQLExecutor implements IMetricsQueryDAO
         return metricsValues;
     }
 
+    /**
+     * The conditions of the same metrics are read by the queries, each of which includes {@link #MAX_IDS_PER_QUERY} ids
+     * at most.
+     */
+    @Override
+    public List<MetricsValues> readMetricsValues(final List<MetricsCondition> conditions,
+                                                 final Duration duration) throws IOException {
+        final List<PointOfTime> pointOfTimes = duration.assembleDurationPoints();
+        final Map<String, Set<String>> tableIds = new HashMap<>();
+        final List<List<String>> conditionIds = new ArrayList<>(conditions.size());
+        for (final MetricsCondition condition : conditions) {
+            List<String> ids = new ArrayList<>(pointOfTimes.size());
+            pointOfTimes.forEach(pointOfTime -> {
+                ids.add(pointOfTime.id(condition.getEntity().buildId()));
+            });
+            conditionIds.add(ids);
+            tableIds.computeIfAbsent(condition.getName(), table -> new LinkedHashSet<>()).addAll(ids);
+        }
+
+        // table -> id -> value, the same id could exist in different tables
+        final Map<String, Map<String, Long>> tableValues = new HashMap<>();
+        try (Connection connection = h2Client.getConnection()) {
+            for (final Map.Entry<String, Set<String>> entry : tableIds.entrySet()) {
+                final Map<String, Long> idValues = new HashMap<>();
+                tableValues.put(entry.getKey(), idValues);
+                final String valueColumnName = ValueColumnMetadata.INSTANCE.getValueCName(entry.getKey());
+                final List<String> ids = new ArrayList<>(entry.getValue());
+                for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+                    final List<String> chunk = ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size()));
+                    StringBuilder sql = new StringBuilder(
+                        "select id, " + valueColumnName + " from " + entry.getKey() + " where id in (");
+                    for (int i = 0; i < chunk.size(); i++) {
+                        sql.append(i == 0 ? "?" : ",?");
+                    }
+                    sql.append(")");
+
+                    try (ResultSet resultSet = h2Client.executeQuery(
+                        connection, sql.toString(), chunk.toArray(new Object[0]))) {
+                        while (resultSet.next()) {
+                            idValues.put(resultSet.getString("id"), resultSet.getLong(valueColumnName));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+
+        final List<MetricsValues> result = new ArrayList<>(conditions.size());
+        for (int i = 0; i < conditions.size(); i++) {
+            final int defaultValue = ValueColumnMetadata.INSTANCE.getDefaultValue(conditions.get(i).getName());
+            final Map<String, Long> idValues = tableValues.get(conditions.get(i).getName());
+            MetricsValues metricsValues = new MetricsValues();
+            for (String id : conditionIds.get(i)) {
+                KVInt kv = new KVInt();
+                kv.setId(id);
+                kv.setValue(idValues.getOrDefault(id, (long) defaultValue));
+                metricsValues.getValues().addKVInt(kv);
+            }
+            result.add(metricsValues);
+        }
+        return result;
+    }
+
     @Override
     public List<MetricsValues> readLabeledMetricsValues(final MetricsCondition condition,
                                                         final String valueColumnName,
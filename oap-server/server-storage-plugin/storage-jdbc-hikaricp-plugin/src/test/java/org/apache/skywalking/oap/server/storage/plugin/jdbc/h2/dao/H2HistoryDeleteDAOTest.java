@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
+import org.joda.time.DateTime;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class H2HistoryDeleteDAOTest {
+    private static final String TABLE = "history_delete_test";
+
+    private JDBCHikariCPClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        Properties settings = new Properties();
+        settings.setProperty("dataSourceClassName", "org.h2.jdbcx.JdbcDataSource");
+        settings.setProperty("dataSource.url", "jdbc:h2:mem:history-delete-test;DB_CLOSE_DELAY=-1");
+        settings.setProperty("dataSource.user", "sa");
+        client = new JDBCHikariCPClient(settings);
+        client.connect();
+
+        try (Connection connection = client.getConnection()) {
+            client.execute(connection, "create table " + TABLE + " (id varchar(512), time_bucket bigint)");
+            final long expired = Long.parseLong(new DateTime().plusDays(-10).toString("yyyyMMddHHmm"));
+            final long fresh = Long.parseLong(new DateTime().toString("yyyyMMddHHmm"));
+            for (int i = 0; i < 25; i++) {
+                client.executeUpdate(connection, "insert into " + TABLE + " values (?, ?)", "expired_" + i, expired);
+            }
+            for (int i = 0; i < 5; i++) {
+                client.executeUpdate(connection, "insert into " + TABLE + " values (?, ?)", "fresh_" + i, fresh);
+            }
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        try (Connection connection = client.getConnection()) {
+            client.execute(connection, "drop table " + TABLE);
+        }
+    }
+
+    @Test
+    public void testDeleteInBoundedChunks() throws Exception {
+        final Model model = new Model(
+            TABLE, Collections.emptyList(), Collections.emptyList(), 0, DownSampling.Minute, false, false, "");
+        final List<Long> chunks = new ArrayList<>();
+        new H2HistoryDeleteDAO(client, 10).deleteHistory(model, "time_bucket", 3, chunks::add);
+
+        Assert.assertEquals(Arrays.asList(10L, 10L, 5L), chunks);
+        try (Connection connection = client.getConnection();
+             ResultSet resultSet = client.executeQuery(connection, "select count(1) from " + TABLE)) {
+            Assert.assertTrue(resultSet.next());
+            Assert.assertEquals(5, resultSet.getLong(1));
+        }
+    }
+}
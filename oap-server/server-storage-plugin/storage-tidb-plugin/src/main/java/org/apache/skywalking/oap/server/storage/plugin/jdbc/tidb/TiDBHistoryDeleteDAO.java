@@ -38,6 +38,14 @@ public class TiDBHistoryDeleteDAO implements IHistoryDeleteDAO {
 
     @Override
     public void deleteHistory(Model model, String timeBucketColumnName, int ttl) throws IOException {
+        deleteHistory(model, timeBucketColumnName, ttl, ChunkDeletedListener.NONE);
+    }
+
+    @Override
+    public void deleteHistory(Model model,
+                              String timeBucketColumnName,
+                              int ttl,
+                              ChunkDeletedListener listener) throws IOException {
         SQLBuilder dataDeleteSQL = new SQLBuilder("delete from " + model.getName() + " where ")
             .append(timeBucketColumnName).append("<= ? ")
             .append(" limit 10000");
@@ -61,8 +69,11 @@ public class TiDBHistoryDeleteDAO implements IHistoryDeleteDAO {
                         return;
                 }
             }
-            while (client.executeUpdate(connection, dataDeleteSQL.toString(), deadline) > 0) {
-            }
+            int deletedRows;
+            do {
+                deletedRows = client.executeUpdate(connection, dataDeleteSQL.toString(), deadline);
+                listener.onChunkDeleted(deletedRows);
+            } while (deletedRows > 0);
         } catch (JDBCClientException | SQLException e) {
             throw new IOException(e.getMessage(), e);
         }
@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.telemetry.api;
+
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * StripedCounter spreads the increments over a bounded set of cells picked by the thread hash, so the concurrent
+ * writers rarely contend on one CAS. The cells are summed only when the value is read, such as the scraping of the
+ * telemetry.
+ */
+public class StripedCounter {
+    private final DoubleAdder adder = new DoubleAdder();
+
+    public void inc(double value) {
+        adder.add(value);
+    }
+
+    public double sum() {
+        return adder.sum();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.telemetry.api;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * StripedHistogram counts the observations in the striped buckets, like {@link StripedCounter}. The cells are summed
+ * only when the histogram is read.
+ */
+public class StripedHistogram {
+    private final double[] upperBounds;
+    private final LongAdder[] counts;
+    private final DoubleAdder sum = new DoubleAdder();
+
+    /**
+     * @param upperBounds the inclusive upper bounds of the buckets in ascending order, the last bucket of +Inf is
+     *                    appended implicitly.
+     */
+    public StripedHistogram(double... upperBounds) {
+        this.upperBounds = upperBounds;
+        this.counts = new LongAdder[upperBounds.length + 1];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    public void observe(double value) {
+        int bucket = 0;
+        while (bucket < upperBounds.length && value > upperBounds[bucket]) {
+            bucket++;
+        }
+        counts[bucket].increment();
+        sum.add(value);
+    }
+
+    public double[] getUpperBounds() {
+        return upperBounds;
+    }
+
+    /**
+     * @return the count of every bucket, not cumulative, the last one is the +Inf bucket.
+     */
+    public long[] bucketCounts() {
+        final long[] bucketCounts = new long[counts.length];
+        for (int i = 0; i < bucketCounts.length; i++) {
+            bucketCounts[i] = counts[i].sum();
+        }
+        return bucketCounts;
+    }
+
+    public double sum() {
+        return sum.sum();
+    }
+}
@@ -18,37 +18,43 @@
 
 package org.apache.skywalking.oap.server.telemetry.prometheus;
 
-import io.prometheus.client.Counter;
+import java.util.List;
 import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
 import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+import org.apache.skywalking.oap.server.telemetry.api.StripedCounter;
 
 /**
- * Counter metrics in Prometheus implementor.
+ * Counter metrics in Prometheus implementor, backed by the {@link StripedCounter} bound to the label values.
  */
-public class PrometheusCounterMetrics extends BaseMetrics<Counter, Counter.Child> implements CounterMetrics {
+public class PrometheusCounterMetrics implements CounterMetrics {
+    private final StripedCounter counter;
 
     public PrometheusCounterMetrics(String name, String tips, MetricsTag.Keys labels, MetricsTag.Values values) {
-        super(name, tips, labels, values);
+        counter = StripedCollector.getOrRegister(name, () -> new CounterCollector(name, tips, labels))
+                                  .child(values, StripedCounter::new);
     }
 
     @Override
     public void inc() {
-        Counter.Child metrics = this.getMetric();
-        if (metrics != null) {
-            metrics.inc();
-        }
+        counter.inc(1);
     }
 
     @Override
     public void inc(double value) {
-        Counter.Child metrics = this.getMetric();
-        if (metrics != null) {
-            metrics.inc(value);
-        }
+        counter.inc(value);
     }
 
-    @Override
-    protected Counter create(String[] labelNames) {
-        return Counter.build().name(name).help(tips).labelNames(labelNames).register();
+    static class CounterCollector extends StripedCollector<StripedCounter> {
+        CounterCollector(String name, String tips, MetricsTag.Keys labels) {
+            super(name, tips, Type.COUNTER, labels);
+        }
+
+        @Override
+        protected void collect(StripedCounter child,
+                               List<String> labelNames,
+                               List<String> labelValues,
+                               List<MetricFamilySamples.Sample> samples) {
+            samples.add(new MetricFamilySamples.Sample(name, labelNames, labelValues, child.sum()));
+        }
     }
 }
@@ -18,43 +18,61 @@
 
 package org.apache.skywalking.oap.server.telemetry.prometheus;
 
-import io.prometheus.client.Histogram;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
 import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+import org.apache.skywalking.oap.server.telemetry.api.StripedHistogram;
 
 /**
- * HistogramMetrics metrics in Prometheus implementor.
+ * HistogramMetrics metrics in Prometheus implementor, backed by the {@link StripedHistogram} bound to the label values.
  */
 public class PrometheusHistogramMetrics extends HistogramMetrics {
-    private InnerMetricObject inner;
-    private final double[] buckets;
+    /**
+     * The same as the default buckets of the Prometheus histogram.
+     */
+    private static final double[] DEFAULT_BUCKETS = {
+        .005, .01, .025, .05, .075, .1, .25, .5, .75, 1, 2.5, 5, 7.5, 10
+    };
+
+    private final StripedHistogram histogram;
 
     public PrometheusHistogramMetrics(String name, String tips, MetricsTag.Keys labels, MetricsTag.Values values,
         double... buckets) {
-        inner = new InnerMetricObject(name, tips, labels, values);
-        this.buckets = buckets;
+        final double[] upperBounds = buckets.length > 0 ? buckets : DEFAULT_BUCKETS;
+        histogram = StripedCollector.getOrRegister(name, () -> new HistogramCollector(name, tips, labels))
+                                    .child(values, () -> new StripedHistogram(upperBounds));
     }
 
     @Override
     public void observe(double value) {
-        Histogram.Child metrics = inner.getMetric();
-        if (metrics != null) {
-            metrics.observe(value);
-        }
+        histogram.observe(value);
     }
 
-    class InnerMetricObject extends BaseMetrics<Histogram, Histogram.Child> {
-        public InnerMetricObject(String name, String tips, MetricsTag.Keys labels, MetricsTag.Values values) {
-            super(name, tips, labels, values);
+    static class HistogramCollector extends StripedCollector<StripedHistogram> {
+        HistogramCollector(String name, String tips, MetricsTag.Keys labels) {
+            super(name, tips, Type.HISTOGRAM, labels);
         }
 
         @Override
-        protected Histogram create(String[] labelNames) {
-            Histogram.Builder builder = Histogram.build().name(name).help(tips);
-            if (builder != null && buckets.length > 0) {
-                builder = builder.buckets(buckets);
+        protected void collect(StripedHistogram child,
+                               List<String> labelNames,
+                               List<String> labelValues,
+                               List<MetricFamilySamples.Sample> samples) {
+            final List<String> bucketLabelNames = new ArrayList<>(labelNames);
+            bucketLabelNames.add("le");
+            final double[] upperBounds = child.getUpperBounds();
+            final long[] counts = child.bucketCounts();
+            long cumulative = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i];
+                final List<String> bucketLabelValues = new ArrayList<>(labelValues);
+                bucketLabelValues.add(i < upperBounds.length ? doubleToGoString(upperBounds[i]) : "+Inf");
+                samples.add(new MetricFamilySamples.Sample(
+                    name + "_bucket", bucketLabelNames, bucketLabelValues, cumulative));
             }
-            return builder.labelNames(labelNames).register();
+            samples.add(new MetricFamilySamples.Sample(name + "_count", labelNames, labelValues, cumulative));
+            samples.add(new MetricFamilySamples.Sample(name + "_sum", labelNames, labelValues, child.sum()));
         }
     }
 }
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.telemetry.prometheus;
+
+import io.prometheus.client.Collector;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+import org.apache.skywalking.oap.server.telemetry.api.TelemetryRelatedContext;
+
+/**
+ * StripedCollector exports the striped metrics of the same name to Prometheus. The children are bound to their label
+ * values when the metrics are created, the hot path never looks up the labels, and the striped values are aggregated
+ * only when scraping. The label of the OAP instance is added at the scraping, so nothing is lost before the instance
+ * ID is ready.
+ *
+ * @param <C> the type of the child, the striped counter or histogram.
+ */
+abstract class StripedCollector<C> extends Collector {
+    private static final String INSTANCE_LABEL = "sw_backend_instance";
+    private static final Map<String, StripedCollector<?>> ALL_COLLECTORS = new ConcurrentHashMap<>();
+
+    protected final String name;
+    private final String tips;
+    private final Type type;
+    private final String[] labelNames;
+    private final Map<List<String>, C> children = new ConcurrentHashMap<>();
+
+    StripedCollector(String name, String tips, Type type, MetricsTag.Keys labels) {
+        this.name = name;
+        this.tips = tips;
+        this.type = type;
+        this.labelNames = new String[labels.getKeys().length + 1];
+        this.labelNames[0] = INSTANCE_LABEL;
+        System.arraycopy(labels.getKeys(), 0, this.labelNames, 1, labels.getKeys().length);
+    }
+
+    /**
+     * Get the collector of the name, or create and register it into the default registry.
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends StripedCollector<?>> T getOrRegister(String name, Supplier<T> creator) {
+        return (T) ALL_COLLECTORS.computeIfAbsent(name, n -> creator.get().register());
+    }
+
+    /**
+     * @return the child of the label values, the metrics of the same name and label values share the same child.
+     */
+    C child(MetricsTag.Values values, Supplier<C> creator) {
+        return children.computeIfAbsent(Arrays.asList(values.getValues()), v -> creator.get());
+    }
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        final String instanceId = TelemetryRelatedContext.INSTANCE.getId();
+        if (instanceId == null) {
+            return Collections.emptyList();
+        }
+        final List<String> names = Arrays.asList(labelNames);
+        final List<MetricFamilySamples.Sample> samples = new ArrayList<>();
+        children.forEach((values, child) -> {
+            final List<String> labelValues = new ArrayList<>(values.size() + 1);
+            labelValues.add(instanceId);
+            labelValues.addAll(values);
+            collect(child, names, labelValues, samples);
+        });
+        return Collections.singletonList(new MetricFamilySamples(name, type, tips, samples));
+    }
+
+    protected abstract void collect(C child,
+                                    List<String> labelNames,
+                                    List<String> labelValues,
+                                    List<MetricFamilySamples.Sample> samples);
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.telemetry.prometheus;
+
+import java.util.Arrays;
+import java.util.List;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.HistogramMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricFamily;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+import org.apache.skywalking.oap.server.telemetry.api.TelemetryRelatedContext;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class StripedCollectorTest {
+    @BeforeClass
+    public static void setup() {
+        TelemetryRelatedContext.INSTANCE.setId("oap-1");
+    }
+
+    @Test
+    public void testCounterAcrossThreads() throws InterruptedException {
+        MetricsTag.Keys keys = new MetricsTag.Keys("dest");
+        CounterMetrics counter = new PrometheusMetricsCreator().createCounter(
+            "test_striped_counter", "test", keys, new MetricsTag.Values("a"));
+        CounterMetrics sameLabels = new PrometheusMetricsCreator().createCounter(
+            "test_striped_counter", "test", keys, new MetricsTag.Values("a"));
+        CounterMetrics otherLabels = new PrometheusMetricsCreator().createCounter(
+            "test_striped_counter", "test", keys, new MetricsTag.Values("b"));
+
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    counter.inc();
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        sameLabels.inc(0.5);
+        otherLabels.inc(2);
+
+        Assert.assertEquals(4000.5, sample("test_striped_counter", "oap-1", "a"), 0);
+        Assert.assertEquals(2, sample("test_striped_counter", "oap-1", "b"), 0);
+    }
+
+    @Test
+    public void testHistogram() {
+        HistogramMetrics histogram = new PrometheusMetricsCreator().createHistogramMetric(
+            "test_striped_histogram", "test", MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE, 1, 5);
+        histogram.observe(0.5);
+        histogram.observe(1);
+        histogram.observe(3);
+        histogram.observe(10);
+
+        Assert.assertEquals(2, sample("test_striped_histogram_bucket", "oap-1", "1.0"), 0);
+        Assert.assertEquals(3, sample("test_striped_histogram_bucket", "oap-1", "5.0"), 0);
+        Assert.assertEquals(4, sample("test_striped_histogram_bucket", "oap-1", "+Inf"), 0);
+        Assert.assertEquals(4, sample("test_striped_histogram_count", "oap-1"), 0);
+        Assert.assertEquals(14.5, sample("test_striped_histogram_sum", "oap-1"), 0);
+    }
+
+    private static double sample(String name, String... labelValues) {
+        List<String> values = Arrays.asList(labelValues);
+        for (MetricFamily family : new PrometheusMetricsCollector().collect()) {
+            for (MetricFamily.Sample sample : family.samples) {
+                if (sample.name.equals(name) && sample.labelValues.equals(values)) {
+                    return sample.value;
+                }
+            }
+        }
+        throw new AssertionError("No sample of " + name + values);
+    }
+}
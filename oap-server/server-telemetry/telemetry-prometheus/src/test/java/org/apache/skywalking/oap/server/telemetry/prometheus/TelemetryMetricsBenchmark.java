@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.telemetry.prometheus;
+
+import io.prometheus.client.Counter;
+import io.prometheus.client.Histogram;
+import org.apache.skywalking.oap.server.telemetry.api.StripedCounter;
+import org.apache.skywalking.oap.server.telemetry.api.StripedHistogram;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare the cost of updating the counters and histograms shared by the threads, between the children of the
+ * Prometheus simple client and the striped ones used by {@link PrometheusCounterMetrics} and
+ * {@link PrometheusHistogramMetrics}.
+ */
+@BenchmarkMode({Mode.Throughput})
+@State(Scope.Benchmark)
+public class TelemetryMetricsBenchmark {
+    private final Counter.Child prometheusCounter = new Counter.Child();
+    private final Histogram.Child prometheusHistogram = Histogram.build()
+                                                                 .name("benchmark_histogram")
+                                                                 .help("benchmark")
+                                                                 .labelNames("label")
+                                                                 .create()
+                                                                 .labels("value");
+    private final StripedCounter stripedCounter = new StripedCounter();
+    private final StripedHistogram stripedHistogram = new StripedHistogram(
+        .005, .01, .025, .05, .075, .1, .25, .5, .75, 1, 2.5, 5, 7.5, 10);
+
+    @Benchmark
+    public void prometheusCounterInc() {
+        prometheusCounter.inc();
+    }
+
+    @Benchmark
+    public void stripedCounterInc() {
+        stripedCounter.inc(1);
+    }
+
+    @Benchmark
+    public void prometheusHistogramObserve() {
+        prometheusHistogram.observe(0.3);
+    }
+
+    @Benchmark
+    public void stripedHistogramObserve() {
+        stripedHistogram.observe(0.3);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(TelemetryMetricsBenchmark.class.getName())
+                                          .threads(4)
+                                          .forks(1)
+                                          .build();
+        new Runner(opt).run();
+    }
+}